@@ -16,11 +16,13 @@
 package feign.error;
 
 import static feign.Feign.configKey;
+import static feign.Util.checkNotNull;
 
 import feign.Response;
 import feign.codec.Decoder;
 import feign.codec.DefaultDecoder;
 import feign.codec.DefaultErrorDecoder;
+import feign.codec.ErrorBodyCapture;
 import feign.codec.ErrorDecoder;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
@@ -54,8 +56,9 @@ public class AnnotationErrorDecoder implements ErrorDecoder {
 
   public static class Builder {
     private final Class<?> apiType;
-    private ErrorDecoder defaultDecoder = new DefaultErrorDecoder();
+    private ErrorDecoder defaultDecoder;
     private Decoder responseBodyDecoder = new DefaultDecoder();
+    private ErrorBodyCapture errorBodyCapture = ErrorBodyCapture.DEFAULT;
 
     public Builder(Class<?> apiType) {
       this.apiType = apiType;
@@ -71,12 +74,33 @@ public class AnnotationErrorDecoder implements ErrorDecoder {
       return this;
     }
 
+    /**
+     * Limits how much of the error body is read before it is decoded for an exception's {@link
+     * ResponseBody} parameter. Exceptions that take the {@link feign.Response} itself still receive
+     * the unread body and may stream all of it. Also applies to the default {@link
+     * DefaultErrorDecoder} unless {@link #withDefaultDecoder(ErrorDecoder)} is used.
+     *
+     * <p>Decoding a {@link ResponseBody} parameter consumes and closes the original response body,
+     * so it cannot be read again by whoever handed the response to this decoder. An exception that
+     * needs the raw bytes as well should take the {@link feign.Response} as its body parameter and
+     * decode it itself.
+     */
+    public Builder withErrorBodyCapture(ErrorBodyCapture errorBodyCapture) {
+      this.errorBodyCapture = checkNotNull(errorBodyCapture, "errorBodyCapture");
+      return this;
+    }
+
     public AnnotationErrorDecoder build() {
       Map<String, MethodErrorHandler> errorHandlerMap = generateErrorHandlerMapFromApi(apiType);
-      return new AnnotationErrorDecoder(errorHandlerMap, defaultDecoder);
+      ErrorDecoder fallback =
+          defaultDecoder != null
+              ? defaultDecoder
+              : new DefaultErrorDecoder(null, null, errorBodyCapture);
+      return new AnnotationErrorDecoder(errorHandlerMap, fallback);
     }
 
     Map<String, MethodErrorHandler> generateErrorHandlerMapFromApi(Class<?> apiType) {
+      Decoder responseBodyDecoder = boundedResponseBodyDecoder();
 
       ExceptionGenerator classLevelDefault =
           new ExceptionGenerator.Builder()
@@ -120,6 +144,12 @@ public class AnnotationErrorDecoder implements ErrorDecoder {
       return methodErrorHandlerMap;
     }
 
+    private Decoder boundedResponseBodyDecoder() {
+      Decoder bodyDecoder = responseBodyDecoder;
+      ErrorBodyCapture capture = errorBodyCapture;
+      return (response, type) -> bodyDecoder.decode(capture.capture(response), type);
+    }
+
     Optional<ErrorHandling> readErrorHandlingIncludingInherited(Class<?> apiType) {
       ErrorHandling apiTypeAnnotation = getErrorHandlingAnnotation(apiType);
       if (apiTypeAnnotation != null) {
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.Client;
+import feign.Contract;
+import feign.DefaultContract;
+import feign.Feign;
+import feign.Response;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building a client and sending its first request with the client generated by
+ * feign-contract-apt at compile time, and with the reflective path: parsing the interface with
+ * {@link DefaultContract} and proxying it. The contract of the reflective path only delegates to
+ * {@link DefaultContract}, which is enough for Feign not to use the generated client.
+ *
+ * <p>The {@code cold} benchmarks run once per fresh JVM, as at application startup; the others
+ * measure the same once the JVM is warm.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GeneratedClientBenchmark {
+
+  private final Client client =
+      (request, options) ->
+          Response.builder().status(200).reason("ok").request(request).body(new byte[0]).build();
+
+  private final Contract reflective = new DefaultContract()::parseAndValidateMetadata;
+
+  @Benchmark
+  public Response generated() {
+    return Feign.builder()
+        .client(client)
+        .target(FeignTestInterface.class, "http://localhost")
+        .query();
+  }
+
+  @Benchmark
+  public Response reflective() {
+    return Feign.builder()
+        .contract(reflective)
+        .client(client)
+        .target(FeignTestInterface.class, "http://localhost")
+        .query();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(20)
+  public Response generatedCold() {
+    return generated();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(20)
+  public Response reflectiveCold() {
+    return reflective();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.Client;
+import feign.DefaultInvocationHandlerFactory;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.Response;
+import feign.hiddenclass.HiddenClassInvocationHandlerFactory;
+import io.netty.buffer.ByteBuf;
+import io.reactivex.netty.protocol.http.server.HttpServer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per call overhead of the way a client implements its interface: a {@link java.lang.reflect.Proxy}
+ * looking up the handler of each method, a hidden class defined by {@link
+ * HiddenClassInvocationHandlerFactory}, or the class generated at compile time by
+ * feign-contract-apt. The {@code mock} benchmarks use a client that answers without any I/O, the
+ * {@code real} ones send requests to a local server with OkHttp.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class HiddenClassBenchmark {
+
+  private static final int SERVER_PORT = 8766;
+
+  /** Not {@link DefaultInvocationHandlerFactory} itself, so that the generated client is unused. */
+  private static final InvocationHandlerFactory PROXY =
+      new DefaultInvocationHandlerFactory()::create;
+
+  private HttpServer<ByteBuf, ByteBuf> server;
+  private FeignTestInterface mockProxy;
+  private FeignTestInterface mockHiddenClass;
+  private FeignTestInterface mockGenerated;
+  private FeignTestInterface realProxy;
+  private FeignTestInterface realHiddenClass;
+
+  @Setup
+  public void setup() {
+    server = HttpServer.newServer(SERVER_PORT).start((request, response) -> null);
+    Client mock =
+        (request, options) ->
+            Response.builder()
+                .status(200)
+                .reason("ok")
+                .request(request)
+                .headers(Collections.emptyMap())
+                .build();
+    Client real = new feign.okhttp.OkHttpClient();
+
+    mockProxy = client(mock, PROXY);
+    mockHiddenClass = client(mock, new HiddenClassInvocationHandlerFactory());
+    mockGenerated = client(mock, new DefaultInvocationHandlerFactory());
+    realProxy = client(real, PROXY);
+    realHiddenClass = client(real, new HiddenClassInvocationHandlerFactory());
+  }
+
+  private static FeignTestInterface client(Client client, InvocationHandlerFactory factory) {
+    return Feign.builder()
+        .client(client)
+        .invocationHandlerFactory(factory)
+        .target(FeignTestInterface.class, "http://localhost:" + SERVER_PORT);
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    server.shutdown();
+  }
+
+  @Benchmark
+  public Response mock_proxy() {
+    return mockProxy.query();
+  }
+
+  @Benchmark
+  public Response mock_hiddenClass() {
+    return mockHiddenClass.query();
+  }
+
+  @Benchmark
+  public Response mock_generated() {
+    return mockGenerated.query();
+  }
+
+  @Benchmark
+  public boolean real_proxy() {
+    try (Response ignored = realProxy.query()) {
+      return true;
+    }
+  }
+
+  @Benchmark
+  public boolean real_hiddenClass() {
+    try (Response ignored = realHiddenClass.query()) {
+      return true;
+    }
+  }
+}
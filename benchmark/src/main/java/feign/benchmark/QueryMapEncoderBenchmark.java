@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.QueryMapEncoder;
+import feign.querymap.AccessorQueryMapEncoder;
+import feign.querymap.BeanQueryMapEncoder;
+import feign.querymap.FieldQueryMapEncoder;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Encodes a search query bean with 30 properties, as passed to a {@code @QueryMap}. */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class QueryMapEncoderBenchmark {
+
+  private final QueryMapEncoder fieldEncoder = new FieldQueryMapEncoder();
+  private final QueryMapEncoder beanEncoder = new BeanQueryMapEncoder();
+  private final QueryMapEncoder accessorFieldEncoder = AccessorQueryMapEncoder.fields();
+  private final QueryMapEncoder accessorBeanEncoder = AccessorQueryMapEncoder.beanProperties();
+  private Search search;
+
+  @Setup
+  public void setup() {
+    search = new Search();
+    search.query = "query";
+    search.sort = "sort";
+    search.order = "order";
+    search.language = "language";
+    search.owner = "owner";
+    search.topic = "topic";
+    search.license = "license";
+    search.visibility = "visibility";
+    search.archived = "archived";
+    search.fork = "fork";
+    search.mirror = "mirror";
+    search.template = "template";
+    search.createdAfter = "createdafter";
+    search.createdBefore = "createdbefore";
+    search.pushedAfter = "pushedafter";
+    search.pushedBefore = "pushedbefore";
+    search.minStars = 16;
+    search.maxStars = 17;
+    search.minForks = 18;
+    search.maxForks = 19;
+    search.minSize = 20;
+    search.maxSize = 21;
+    search.minIssues = 22;
+    search.maxIssues = 23;
+    search.user = "user";
+    search.org = "org";
+    search.repo = "repo";
+    search.path = "path";
+    search.extension = "extension";
+    search.page = 29;
+  }
+
+  @Benchmark
+  public Map<String, Object> fieldQueryMapEncoder() {
+    return fieldEncoder.encode(search);
+  }
+
+  @Benchmark
+  public Map<String, Object> beanQueryMapEncoder() {
+    return beanEncoder.encode(search);
+  }
+
+  @Benchmark
+  public Map<String, Object> accessorFields() {
+    return accessorFieldEncoder.encode(search);
+  }
+
+  @Benchmark
+  public Map<String, Object> accessorBeanProperties() {
+    return accessorBeanEncoder.encode(search);
+  }
+
+  /** Visits the parameters without a map, as Feign does when adding them to a request. */
+  @Benchmark
+  public void accessorBeanPropertiesVisited(Blackhole blackhole) {
+    accessorBeanEncoder.encode(search, (name, value) -> blackhole.consume(value));
+  }
+
+  public static class Search {
+
+    private String query;
+    private String sort;
+    private String order;
+    private String language;
+    private String owner;
+    private String topic;
+    private String license;
+    private String visibility;
+    private String archived;
+    private String fork;
+    private String mirror;
+    private String template;
+    private String createdAfter;
+    private String createdBefore;
+    private String pushedAfter;
+    private String pushedBefore;
+    private Integer minStars;
+    private Integer maxStars;
+    private Integer minForks;
+    private Integer maxForks;
+    private Integer minSize;
+    private Integer maxSize;
+    private Integer minIssues;
+    private Integer maxIssues;
+    private String user;
+    private String org;
+    private String repo;
+    private String path;
+    private String extension;
+    private Integer page;
+
+    public String getQuery() {
+      return query;
+    }
+
+    public String getSort() {
+      return sort;
+    }
+
+    public String getOrder() {
+      return order;
+    }
+
+    public String getLanguage() {
+      return language;
+    }
+
+    public String getOwner() {
+      return owner;
+    }
+
+    public String getTopic() {
+      return topic;
+    }
+
+    public String getLicense() {
+      return license;
+    }
+
+    public String getVisibility() {
+      return visibility;
+    }
+
+    public String getArchived() {
+      return archived;
+    }
+
+    public String getFork() {
+      return fork;
+    }
+
+    public String getMirror() {
+      return mirror;
+    }
+
+    public String getTemplate() {
+      return template;
+    }
+
+    public String getCreatedAfter() {
+      return createdAfter;
+    }
+
+    public String getCreatedBefore() {
+      return createdBefore;
+    }
+
+    public String getPushedAfter() {
+      return pushedAfter;
+    }
+
+    public String getPushedBefore() {
+      return pushedBefore;
+    }
+
+    public Integer getMinStars() {
+      return minStars;
+    }
+
+    public Integer getMaxStars() {
+      return maxStars;
+    }
+
+    public Integer getMinForks() {
+      return minForks;
+    }
+
+    public Integer getMaxForks() {
+      return maxForks;
+    }
+
+    public Integer getMinSize() {
+      return minSize;
+    }
+
+    public Integer getMaxSize() {
+      return maxSize;
+    }
+
+    public Integer getMinIssues() {
+      return minIssues;
+    }
+
+    public Integer getMaxIssues() {
+      return maxIssues;
+    }
+
+    public String getUser() {
+      return user;
+    }
+
+    public String getOrg() {
+      return org;
+    }
+
+    public String getRepo() {
+      return repo;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public Integer getPage() {
+      return page;
+    }
+  }
+}
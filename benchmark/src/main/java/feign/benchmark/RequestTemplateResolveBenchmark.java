@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestTemplate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Resolving a template into a request, as done once per invocation. */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class RequestTemplateResolveBenchmark {
+
+  @Param({"0", "5", "20"})
+  private int queryParams;
+
+  private RequestTemplate template;
+  private Map<String, Object> variables;
+
+  @Setup
+  public void setup() {
+    template =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/repos/{owner}/{repo}/contributors")
+            .header("Accept", "application/json");
+    variables = new HashMap<>();
+    variables.put("owner", "OpenFeign");
+    variables.put("repo", "feign");
+    for (int i = 0; i < queryParams; i++) {
+      template.query("q" + i, "{q" + i + "}");
+      variables.put("q" + i, "value " + i);
+    }
+  }
+
+  /** Resolves the template only. */
+  @Benchmark
+  public RequestTemplate resolve() {
+    return template.resolve(variables);
+  }
+
+  /** Resolves the template and builds the request with its final url, like a client would. */
+  @Benchmark
+  public String resolveAndUrl() {
+    Request request = template.resolve(variables).target("https://api.github.com").request();
+    return request.url();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.hystrix.HystrixFeign;
+import feign.resilience.Bulkhead;
+import feign.resilience.ResilienceCapability;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of guarding a call with a circuit breaker, against a client that answers right away:
+ * {@code feign-resilience} on the calling thread versus {@code feign-hystrix} on its thread pool.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ResilienceBenchmark {
+
+  interface Api {
+
+    @RequestLine("GET /items")
+    void items();
+  }
+
+  private Api plain;
+  private Api circuitBreaker;
+  private Api circuitBreakerAndBulkhead;
+  private Api hystrix;
+
+  @Setup
+  public void setup() {
+    Client client =
+        (request, options) ->
+            Response.builder()
+                .status(204)
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body(new byte[0])
+                .build();
+    plain = Feign.builder().client(client).target(Api.class, "http://localhost");
+    circuitBreaker =
+        Feign.builder()
+            .client(client)
+            .addCapability(ResilienceCapability.builder().build())
+            .target(Api.class, "http://localhost");
+    circuitBreakerAndBulkhead =
+        Feign.builder()
+            .client(client)
+            .addCapability(
+                ResilienceCapability.builder()
+                    .bulkhead(Bulkhead.builder().maxConcurrentCalls(1000))
+                    .build())
+            .target(Api.class, "http://localhost");
+    hystrix = HystrixFeign.builder().client(client).target(Api.class, "http://localhost");
+  }
+
+  @Benchmark
+  public void plain() {
+    plain.items();
+  }
+
+  @Benchmark
+  public void circuitBreaker() {
+    circuitBreaker.items();
+  }
+
+  @Benchmark
+  public void circuitBreakerAndBulkhead() {
+    circuitBreakerAndBulkhead.items();
+  }
+
+  @Benchmark
+  public void hystrix() {
+    hystrix.items();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.benchmark;
+
+import feign.template.UriUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link UriUtils} to the regex and {@link ByteArrayOutputStream} based encoder it
+ * replaced, on typical path segment and query values.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 10, time = 1)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class UriEncodingBenchmark {
+
+  @Param({
+    "OpenFeign",
+    "2024-01-31T10:15:30Z",
+    "name:feign language:java stars:>100",
+    "Zoë Saldaña",
+    "already%20encoded%2Fvalue"
+  })
+  private String value;
+
+  private final StringBuilder builder = new StringBuilder(128);
+
+  @Benchmark
+  public String encode() {
+    return UriUtils.encode(value, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String encodeLegacy() {
+    return Legacy.encodeChunk(value, StandardCharsets.UTF_8, false);
+  }
+
+  @Benchmark
+  public String encodeAllowReserved() {
+    return UriUtils.encode(value, StandardCharsets.UTF_8, true);
+  }
+
+  @Benchmark
+  public String encodeAllowReservedLegacy() {
+    return Legacy.encodeInternal(value, StandardCharsets.UTF_8, true);
+  }
+
+  @Benchmark
+  public StringBuilder encodeIntoBuilder() {
+    builder.setLength(0);
+    return UriUtils.encode(value, StandardCharsets.UTF_8, builder);
+  }
+
+  /** The encoder as it was before it became table driven, kept for comparison. */
+  static final class Legacy {
+
+    private static final Pattern PCT_ENCODED_PATTERN = Pattern.compile("%[0-9A-Fa-f][0-9A-Fa-f]");
+
+    static String encodeInternal(String value, Charset charset, boolean allowReservedCharacters) {
+      Matcher matcher = PCT_ENCODED_PATTERN.matcher(value);
+      if (!matcher.find()) {
+        return encodeChunk(value, charset, true);
+      }
+      int length = value.length();
+      StringBuilder encoded = new StringBuilder(length + 8);
+      int index = 0;
+      do {
+        String before = value.substring(index, matcher.start());
+        encoded.append(encodeChunk(before, charset, allowReservedCharacters));
+        encoded.append(matcher.group());
+        index = matcher.end();
+      } while (matcher.find());
+      String tail = value.substring(index, length);
+      encoded.append(encodeChunk(tail, charset, allowReservedCharacters));
+      return encoded.toString();
+    }
+
+    static String encodeChunk(String value, Charset charset, boolean allowReserved) {
+      if (isEncoded(value, charset)) {
+        return value;
+      }
+      byte[] data = value.getBytes(charset);
+      try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        for (byte b : data) {
+          if (isUnreserved((char) b)) {
+            bos.write(b);
+          } else if (isReserved((char) b) && allowReserved) {
+            bos.write(b);
+          } else {
+            bos.write('%');
+            bos.write(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)));
+            bos.write(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+          }
+        }
+        return new String(bos.toByteArray(), charset);
+      } catch (IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+    }
+
+    private static boolean isEncoded(String value, Charset charset) {
+      for (byte b : value.getBytes(charset)) {
+        if (!isUnreserved((char) b) && b != '%') {
+          return false;
+        }
+      }
+      return PCT_ENCODED_PATTERN.matcher(value).find();
+    }
+
+    private static boolean isUnreserved(int c) {
+      return (c >= 'a' && c <= 'z')
+          || (c >= 'A' && c <= 'Z')
+          || (c >= '0' && c <= '9')
+          || c == '-'
+          || c == '.'
+          || c == '_'
+          || c == '~';
+    }
+
+    private static boolean isReserved(int c) {
+      return ":/?#[]@!$&'()*+,;=".indexOf(c) >= 0;
+    }
+  }
+}
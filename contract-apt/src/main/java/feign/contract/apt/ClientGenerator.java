@@ -0,0 +1,459 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.contract.apt;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import feign.Body;
+import feign.CollectionFormat;
+import feign.FeignIgnore;
+import feign.GeneratedClient;
+import feign.HeaderMap;
+import feign.Headers;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Param;
+import feign.QueryMap;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestLine;
+import feign.Target;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Writes the {@link GeneratedClient} of one interface. The metadata of each method is built by the
+ * same steps {@link feign.DefaultContract} takes, in the same order, with the annotation values
+ * read at compile time.
+ */
+final class ClientGenerator {
+
+  /** Same as {@code DefaultContract.REQUEST_LINE_PATTERN}. */
+  private static final Pattern REQUEST_LINE_PATTERN = Pattern.compile("^([A-Z]+)[ ]*(.*)$");
+
+  private static final ClassName IMPLEMENTATION =
+      ClassName.get(GeneratedClient.class).nestedClass("Implementation");
+
+  private final Elements elements;
+  private final Types types;
+  private final TypeElement type;
+  private final ClassName typeName;
+
+  ClientGenerator(ProcessingEnvironment processingEnv, TypeElement type) {
+    this.elements = processingEnv.getElementUtils();
+    this.types = processingEnv.getTypeUtils();
+    this.type = type;
+    this.typeName = ClassName.get(type);
+  }
+
+  JavaFile generate() throws UnsupportedInterfaceException {
+    checkType();
+    ClassName generatedName =
+        ClassName.get(typeName.packageName(), "Feign_" + String.join("_", typeName.simpleNames()));
+    ClassName instanceName = generatedName.nestedClass("Instance");
+
+    CodeBlock.Builder metadata =
+        CodeBlock.builder()
+            .addStatement(
+                "$T<$T> metadata = new $T<>()", List.class, MethodMetadata.class, ArrayList.class)
+            .addStatement("$T data", MethodMetadata.class);
+    TypeSpec.Builder instance =
+        TypeSpec.classBuilder(instanceName)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .superclass(IMPLEMENTATION)
+            .addSuperinterface(typeName)
+            .addMethod(
+                MethodSpec.constructorBuilder()
+                    .addParameter(
+                        ParameterizedTypeName.get(ClassName.get(Target.class), typeName), "target")
+                    .addParameter(MethodHandler[].class, "handlers")
+                    .addStatement("super(target, handlers)")
+                    .build());
+
+    int handler = 0;
+    for (ExecutableElement method : methods()) {
+      if (method.getAnnotation(FeignIgnore.class) != null) {
+        instance.addMethod(ignored(method));
+        continue;
+      }
+      metadata.add(metadata(method)).addStatement("metadata.add(data)");
+      instance.addMethod(dispatch(method, handler++));
+    }
+    metadata.addStatement("return metadata");
+
+    TypeSpec generated =
+        TypeSpec.classBuilder(generatedName)
+            .addOriginatingElement(type)
+            .addJavadoc("Generated by feign-contract-apt from {@link $T}.\n", typeName)
+            .addAnnotation(
+                AnnotationSpec.builder(SuppressWarnings.class)
+                    .addMember("value", "$S", "unchecked")
+                    .build())
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .superclass(ParameterizedTypeName.get(ClassName.get(GeneratedClient.class), typeName))
+            .addMethod(
+                MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addStatement("super($T.class)", typeName)
+                    .build())
+            .addMethod(
+                MethodSpec.methodBuilder("metadata")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PROTECTED)
+                    .returns(
+                        ParameterizedTypeName.get(
+                            ClassName.get(List.class), ClassName.get(MethodMetadata.class)))
+                    .addCode(metadata.build())
+                    .build())
+            .addMethod(
+                MethodSpec.methodBuilder("newInstance")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PROTECTED)
+                    .returns(typeName)
+                    .addParameter(
+                        ParameterizedTypeName.get(ClassName.get(Target.class), typeName), "target")
+                    .addParameter(MethodHandler[].class, "handlers")
+                    .addStatement("return new $T(target, handlers)", instanceName)
+                    .build())
+            .addType(instance.build())
+            .build();
+    return JavaFile.builder(typeName.packageName(), generated).skipJavaLangImports(true).build();
+  }
+
+  /**
+   * Checks what {@code Contract.BaseContract} checks, and that the interface can be implemented.
+   */
+  private void checkType() throws UnsupportedInterfaceException {
+    check(type.getTypeParameters().isEmpty(), "Parameterized types unsupported");
+    check(type.getInterfaces().size() <= 1, "Only single inheritance supported");
+    for (Element element = type;
+        element.getKind() != ElementKind.PACKAGE;
+        element = element.getEnclosingElement()) {
+      check(
+          element.getKind().isClass() || element.getKind().isInterface(),
+          "local interfaces cannot be implemented");
+      check(
+          !element.getModifiers().contains(Modifier.PRIVATE),
+          "private interfaces cannot be implemented");
+    }
+  }
+
+  /** The methods Feign handles, or refuses to handle when annotated with {@link FeignIgnore}. */
+  private List<ExecutableElement> methods() throws UnsupportedInterfaceException {
+    List<ExecutableElement> methods = new ArrayList<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      Element declaringType = method.getEnclosingElement();
+      if (declaringType.getKind() != ElementKind.INTERFACE
+          || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue;
+      }
+      String name = method.getSimpleName().toString();
+      int parameters = method.getParameters().size();
+      check(
+          !(name.equals("equals") && parameters == 1
+              || (name.equals("hashCode") || name.equals("toString")) && parameters == 0),
+          name + " is implemented by Feign");
+      check(method.getTypeParameters().isEmpty(), name + " declares type parameters");
+      check(
+          method.getAnnotation(FeignIgnore.class) != null
+              || method.getAnnotation(RequestLine.class) != null,
+          name + " is not annotated with @RequestLine");
+      methods.add(method);
+    }
+    return methods;
+  }
+
+  private CodeBlock metadata(ExecutableElement method) throws UnsupportedInterfaceException {
+    String name = method.getSimpleName().toString();
+    CodeBlock.Builder code = CodeBlock.builder();
+    CodeBlock.Builder parameterTypes = CodeBlock.builder();
+    for (VariableElement parameter : method.getParameters()) {
+      parameterTypes.add(", $T.class", TypeName.get(types.erasure(parameter.asType())));
+    }
+    code.addStatement("data = method($T.class, $S$L)", typeName, name, parameterTypes.build());
+
+    if (type.getInterfaces().size() == 1) {
+      classHeaders(code, types.asElement(type.getInterfaces().get(0)));
+    }
+    classHeaders(code, type);
+
+    for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+      String annotationType = annotationType(annotation);
+      if (annotationType.equals(RequestLine.class.getName())) {
+        RequestLine requestLine = method.getAnnotation(RequestLine.class);
+        check(!requestLine.value().isEmpty(), "RequestLine annotation was empty on " + name);
+        Matcher matcher = REQUEST_LINE_PATTERN.matcher(requestLine.value());
+        check(matcher.find(), "RequestLine annotation didn't start with an HTTP verb on " + name);
+        HttpMethod httpMethod;
+        try {
+          httpMethod = HttpMethod.valueOf(matcher.group(1));
+        } catch (IllegalArgumentException e) {
+          throw new UnsupportedInterfaceException("unknown HTTP method on " + name);
+        }
+        code.addStatement("data.template().method($T.$L)", HttpMethod.class, httpMethod)
+            .addStatement("data.template().uri($S)", matcher.group(2))
+            .addStatement("data.template().decodeSlash($L)", requestLine.decodeSlash())
+            .addStatement(
+                "data.template().collectionFormat($T.$L)",
+                CollectionFormat.class,
+                requestLine.collectionFormat());
+      } else if (annotationType.equals(Body.class.getName())) {
+        String body = method.getAnnotation(Body.class).value();
+        check(!body.isEmpty(), "Body annotation was empty on " + name);
+        code.addStatement("body(data, $S)", body);
+      } else if (annotationType.equals(Headers.class.getName())) {
+        code.addStatement(
+            "methodHeaders(data$L)", headers(method.getAnnotation(Headers.class), name));
+      }
+    }
+
+    TypeMirror options = elements.getTypeElement(Request.Options.class.getCanonicalName()).asType();
+    boolean queryMap = false;
+    boolean headerMap = false;
+    boolean body = false;
+    for (int i = 0; i < method.getParameters().size(); i++) {
+      VariableElement parameter = method.getParameters().get(i);
+      boolean annotated = false;
+      for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+        String annotationType = annotationType(annotation);
+        if (annotationType.equals(Param.class.getName())) {
+          String paramName = parameter.getAnnotation(Param.class).value();
+          if (paramName.isEmpty()) {
+            paramName = parameter.getSimpleName().toString();
+          }
+          code.addStatement(
+              "param(data, $L, $S, $T.class)",
+              i,
+              paramName,
+              annotationClass(annotation, "expander"));
+          annotated = true;
+        } else if (annotationType.equals(QueryMap.class.getName())) {
+          check(!queryMap, "QueryMap annotation was present on multiple parameters of " + name);
+          checkMapKeys(parameter);
+          code.addStatement(
+              "queryMap(data, $L, $T.$L)",
+              i,
+              QueryMap.MapEncoder.class,
+              parameter.getAnnotation(QueryMap.class).mapEncoder());
+          queryMap = annotated = true;
+        } else if (annotationType.equals(HeaderMap.class.getName())) {
+          check(!headerMap, "HeaderMap annotation was present on multiple parameters of " + name);
+          checkMapKeys(parameter);
+          code.addStatement("headerMap(data, $L)", i);
+          headerMap = annotated = true;
+        }
+      }
+
+      TypeMirror parameterType = types.erasure(parameter.asType());
+      if (isClass(parameterType, "kotlin.coroutines.Continuation")) {
+        code.addStatement("data.ignoreParamater($L)", i);
+      }
+      if (isClass(parameterType, URI.class.getName())) {
+        code.addStatement("data.urlIndex($L)", i);
+      } else if (!types.isAssignable(parameterType, options)) {
+        if (annotated) {
+          code.addStatement("annotatedParameter(data)");
+        } else {
+          check(!body, name + " has too many body parameters");
+          code.addStatement("bodyParameter(data, $L)", i);
+          body = true;
+        }
+      }
+    }
+    return code.build();
+  }
+
+  private void classHeaders(CodeBlock.Builder code, Element element)
+      throws UnsupportedInterfaceException {
+    Headers headers = element.getAnnotation(Headers.class);
+    if (headers != null) {
+      code.addStatement(
+          "classHeaders(data$L)", headers(headers, element.getSimpleName().toString()));
+    }
+  }
+
+  private static CodeBlock headers(Headers headers, String owner)
+      throws UnsupportedInterfaceException {
+    check(headers.value().length > 0, "Headers annotation was empty on " + owner);
+    CodeBlock.Builder code = CodeBlock.builder();
+    for (String header : headers.value()) {
+      check(header.indexOf(':') != -1, "header without a colon on " + owner + ": " + header);
+      code.add(", $S", header);
+    }
+    return code.build();
+  }
+
+  /** Skips the parameters {@code Contract.BaseContract} might reject at runtime. */
+  private void checkMapKeys(VariableElement parameter) throws UnsupportedInterfaceException {
+    TypeMirror type = parameter.asType();
+    TypeMirror map = types.erasure(elements.getTypeElement(Map.class.getName()).asType());
+    if (!types.isAssignable(types.erasure(type), map)) {
+      return;
+    }
+    List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+    if (arguments.isEmpty()) {
+      check(types.isSameType(types.erasure(type), map), "raw map parameter " + parameter);
+    } else {
+      check(isClass(arguments.get(0), String.class.getName()), "map keys must be strings");
+    }
+  }
+
+  private MethodSpec dispatch(ExecutableElement method, int handler) {
+    MethodSpec.Builder override = MethodSpec.overriding(method, declaredType(), types);
+    MethodSpec signature = override.build();
+
+    Set<String> parameterNames = new HashSet<>();
+    CodeBlock.Builder arguments = CodeBlock.builder();
+    for (int i = 0; i < signature.parameters.size(); i++) {
+      String parameterName = signature.parameters.get(i).name;
+      parameterNames.add(parameterName);
+      arguments.add(i == 0 ? "new Object[] {$N" : ", $N", parameterName);
+    }
+    CodeBlock args =
+        signature.parameters.isEmpty() ? CodeBlock.of("null") : arguments.add("}").build();
+    String exception = "e";
+    while (parameterNames.contains(exception)) {
+      exception += "_";
+    }
+
+    List<TypeName> rethrown = rethrown(method);
+    boolean checked = !rethrown.contains(TypeName.get(Throwable.class));
+    if (checked) {
+      override.beginControlFlow("try");
+    }
+    if (signature.returnType.equals(TypeName.VOID)) {
+      override.addStatement("this.handlers[$L].invoke($L)", handler, args);
+    } else {
+      override.addStatement(
+          "return ($T) this.handlers[$L].invoke($L)", signature.returnType.box(), handler, args);
+    }
+    if (checked) {
+      CodeBlock.Builder alternatives = CodeBlock.builder();
+      for (int i = 0; i < rethrown.size(); i++) {
+        alternatives.add(i == 0 ? "$T" : " | $T", rethrown.get(i));
+      }
+      override
+          .nextControlFlow("catch ($L $N)", alternatives.build(), exception)
+          .addStatement("throw $N", exception)
+          .nextControlFlow("catch ($T $N)", Throwable.class, exception)
+          .addStatement("throw new $T($N)", UndeclaredThrowableException.class, exception)
+          .endControlFlow();
+    }
+    return override.build();
+  }
+
+  /**
+   * The exceptions a proxy would throw as is: errors, runtime and declared exceptions, without the
+   * subtypes of one another, which may not appear in the same multi-catch.
+   */
+  private List<TypeName> rethrown(ExecutableElement method) {
+    List<TypeMirror> thrown = new ArrayList<>();
+    thrown.add(elements.getTypeElement(Error.class.getName()).asType());
+    thrown.add(elements.getTypeElement(RuntimeException.class.getName()).asType());
+    thrown.addAll(((ExecutableType) types.asMemberOf(declaredType(), method)).getThrownTypes());
+    List<TypeName> rethrown = new ArrayList<>();
+    for (int i = 0; i < thrown.size(); i++) {
+      boolean subsumed = false;
+      for (int j = 0; j < thrown.size() && !subsumed; j++) {
+        subsumed =
+            i != j
+                && types.isSubtype(thrown.get(i), thrown.get(j))
+                && (!types.isSameType(thrown.get(i), thrown.get(j)) || j < i);
+      }
+      if (!subsumed) {
+        rethrown.add(TypeName.get(thrown.get(i)));
+      }
+    }
+    return rethrown;
+  }
+
+  private MethodSpec ignored(ExecutableElement method) {
+    return MethodSpec.overriding(method, declaredType(), types)
+        .addStatement(
+            "throw new $T($S)",
+            UnsupportedOperationException.class,
+            "Method \"" + method.getSimpleName() + "\" should not be called")
+        .build();
+  }
+
+  private DeclaredType declaredType() {
+    return (DeclaredType) type.asType();
+  }
+
+  private static String annotationType(AnnotationMirror annotation) {
+    return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+  }
+
+  private TypeName annotationClass(AnnotationMirror annotation, String member) {
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value :
+        elements.getElementValuesWithDefaults(annotation).entrySet()) {
+      if (value.getKey().getSimpleName().contentEquals(member)) {
+        return TypeName.get(types.erasure((TypeMirror) value.getValue().getValue()));
+      }
+    }
+    throw new IllegalArgumentException(member);
+  }
+
+  private static boolean isClass(TypeMirror type, String name) {
+    return type.getKind() == TypeKind.DECLARED
+        && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+  }
+
+  private static void check(boolean condition, String message)
+      throws UnsupportedInterfaceException {
+    if (!condition) {
+      throw new UnsupportedInterfaceException(message);
+    }
+  }
+
+  static final class UnsupportedInterfaceException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedInterfaceException(String message) {
+      super(message);
+    }
+  }
+}
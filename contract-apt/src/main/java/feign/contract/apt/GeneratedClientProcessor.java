@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.contract.apt;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.JavaFile;
+import feign.RequestLine;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@link feign.GeneratedClient} for every interface declaring {@link RequestLine}
+ * methods, so that {@link feign.Feign} neither parses it by reflection nor proxies it at runtime.
+ *
+ * <p>Interfaces the generated code cannot handle exactly like {@link feign.DefaultContract}, such
+ * as interfaces with invalid annotations, are skipped with a note, and keep being parsed at
+ * runtime.
+ */
+@AutoService(Processor.class)
+@SupportedAnnotationTypes("feign.RequestLine")
+public class GeneratedClientProcessor extends AbstractProcessor {
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<TypeElement> interfaces = new LinkedHashSet<>();
+    for (Element method : roundEnv.getElementsAnnotatedWith(RequestLine.class)) {
+      Element type = method.getEnclosingElement();
+      if (method.getKind() == ElementKind.METHOD && type.getKind() == ElementKind.INTERFACE) {
+        interfaces.add((TypeElement) type);
+      }
+    }
+    for (TypeElement type : interfaces) {
+      JavaFile client;
+      try {
+        client = new ClientGenerator(processingEnv, type).generate();
+      } catch (ClientGenerator.UnsupportedInterfaceException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.NOTE,
+                "Feign client not generated, "
+                    + type
+                    + " will be parsed at runtime: "
+                    + e.getMessage(),
+                type);
+        continue;
+      }
+      try {
+        client.writeTo(processingEnv.getFiler());
+      } catch (IOException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.ERROR, "Unable to write the Feign client of " + type, type);
+      }
+    }
+    // leaves RequestLine to other processors, such as feign-apt-test-generator
+    return false;
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.contract.apt;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import feign.DefaultContract;
+import feign.Feign;
+import feign.GeneratedClient;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.batch.BatchingCapability;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import org.junit.jupiter.api.Test;
+
+class GeneratedClientProcessorTest {
+
+  private static final JavaFileObject BASE =
+      JavaFileObjects.forSourceString(
+          "test.Base",
+          """
+          package test;
+
+          import feign.Headers;
+          import feign.Param;
+          import feign.RequestLine;
+
+          @Headers("Accept: text/plain")
+          interface Base<T> {
+
+            @RequestLine("GET /items/{id}")
+            T item(@Param("id") String id);
+          }
+          """);
+
+  private static final JavaFileObject API =
+      JavaFileObjects.forSourceString(
+          "test.Api",
+          """
+          package test;
+
+          import feign.*;
+          import java.io.IOException;
+          import java.net.URI;
+          import java.util.List;
+          import java.util.Map;
+
+          @Headers("X-Api: 1")
+          public interface Api extends Base<String> {
+
+            @RequestLine("GET /repos/{owner}/{repo}/contributors?page={page}")
+            String contributors(
+                @Param("owner") String owner,
+                @Param("repo") String repo,
+                @Param(value = "page", expander = Page.class) int page);
+
+            @RequestLine("POST /items")
+            @Headers("Content-Type: application/json")
+            @Body("%7B\\"name\\": \\"{name}\\"%7D")
+            void create(@Param("name") String name) throws IOException;
+
+            @RequestLine("PUT /items")
+            int update(String body, Request.Options options);
+
+            @RequestLine("GET /search")
+            String search(@QueryMap Map<String, Object> query, @HeaderMap Map<String, Object> headers);
+
+            @RequestLine(value = "GET /tags?tag={tags}", collectionFormat = CollectionFormat.CSV)
+            String tags(@Param("tags") List<String> tags);
+
+            @RequestLine("GET /")
+            String at(URI uri);
+
+            @RequestLine("POST /form")
+            String form(@Param("a") String a, @Param("b") String b);
+
+            @FeignIgnore
+            String ignored();
+
+            default String defaultItem() {
+              return item("default");
+            }
+
+            final class Page implements Param.Expander {
+              @Override
+              public String expand(Object value) {
+                return "p" + value;
+              }
+            }
+          }
+          """);
+
+  private static final JavaFileObject BROKEN =
+      JavaFileObjects.forSourceString(
+          "test.Broken",
+          """
+          package test;
+
+          import feign.RequestLine;
+
+          interface Broken {
+
+            @RequestLine("FETCH /")
+            String fetch();
+          }
+          """);
+
+  private static Compilation compile() {
+    return javac().withProcessors(new GeneratedClientProcessor()).compile(BASE, API, BROKEN);
+  }
+
+  private final List<Request> requests = new ArrayList<>();
+
+  private Feign.Builder builder() {
+    return Feign.builder()
+        .client(
+            (request, options) -> {
+              requests.add(request);
+              return Response.builder()
+                  .status(200)
+                  .request(request)
+                  .body(request.url(), Util.UTF_8)
+                  .build();
+            });
+  }
+
+  @Test
+  void generatesClientsOfSupportedInterfaces() {
+    Compilation compilation = compile();
+
+    assertThat(compilation).succeeded();
+    assertThat(compilation).generatedSourceFile("test.Feign_Api");
+    assertThat(compilation.generatedSourceFile("test.Feign_Base")).isEmpty();
+    assertThat(compilation.generatedSourceFile("test.Feign_Broken")).isEmpty();
+    assertThat(compilation).hadNoteContaining("Parameterized types unsupported");
+    assertThat(compilation).hadNoteContaining("unknown HTTP method on fetch");
+  }
+
+  @Test
+  void metadataIsTheSameAsDefaultContracts() throws Exception {
+    Class<?> api = new CompiledClassLoader(compile()).loadClass("test.Api");
+    GeneratedClient<?> generated = GeneratedClient.forType(api);
+    assertThat(generated).isNotNull();
+
+    Method metadata = GeneratedClient.class.getDeclaredMethod("metadata");
+    metadata.setAccessible(true);
+    @SuppressWarnings("unchecked")
+    List<MethodMetadata> generatedMetadata = (List<MethodMetadata>) metadata.invoke(generated);
+
+    assertThat(describe(generatedMetadata))
+        .isEqualTo(describe(new DefaultContract().parseAndValidateMetadata(api)));
+  }
+
+  @Test
+  void instancesDispatchWithoutProxy() throws Exception {
+    Class<?> api = new CompiledClassLoader(compile()).loadClass("test.Api");
+    Object client = builder().target(api, "http://localhost");
+
+    assertThat(Proxy.isProxyClass(client.getClass())).isFalse();
+    assertThat(invoke(client, "tags", List.class, List.of("a", "b")))
+        .isEqualTo("http://localhost/tags?tag=a%2Cb");
+    assertThat(invoke(client, "contributors", String.class, "o", String.class, "r", int.class, 2))
+        .isEqualTo("http://localhost/repos/o/r/contributors?page=p2");
+    assertThat(invoke(client, "at", URI.class, URI.create("http://other")))
+        .isEqualTo("http://other/");
+    assertThat(invoke(client, "defaultItem")).isEqualTo("http://localhost/items/default");
+    assertThat(requests.get(requests.size() - 1).headers())
+        .containsEntry("Accept", List.of("text/plain"))
+        .containsEntry("X-Api", List.of("1"));
+
+    invoke(client, "create", String.class, "n");
+    assertThat(new String(requests.get(requests.size() - 1).body(), Util.UTF_8))
+        .isEqualTo("{\"name\": \"n\"}");
+
+    assertThatExceptionOfType(InvocationTargetException.class)
+        .isThrownBy(() -> api.getMethod("ignored").invoke(client))
+        .withCauseInstanceOf(UnsupportedOperationException.class);
+    assertThat(client.toString()).isEqualTo("HardCodedTarget(type=Api, url=http://localhost)");
+    assertThat(client).isEqualTo(builder().target(api, "http://localhost"));
+  }
+
+  @Test
+  void capabilitiesDecoratingDispatchStillGetAProxy() throws Exception {
+    Class<?> api = new CompiledClassLoader(compile()).loadClass("test.Api");
+    Object client =
+        builder()
+            .addCapability(BatchingCapability.builder().build())
+            .target(api, "http://localhost");
+
+    assertThat(Proxy.isProxyClass(client.getClass())).isTrue();
+    assertThat(invoke(client, "tags", List.class, List.of("a")))
+        .isEqualTo("http://localhost/tags?tag=a");
+  }
+
+  private static Object invoke(Object client, String name, Object... typesAndArguments)
+      throws Exception {
+    Class<?>[] types = new Class<?>[typesAndArguments.length / 2];
+    Object[] arguments = new Object[types.length];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = (Class<?>) typesAndArguments[2 * i];
+      arguments[i] = typesAndArguments[2 * i + 1];
+    }
+    Class<?> api = client.getClass().getInterfaces()[0];
+    return api.getMethod(name, types).invoke(client, arguments);
+  }
+
+  private static String describe(List<MethodMetadata> metadata) {
+    return metadata.stream()
+        .sorted(Comparator.comparing(MethodMetadata::configKey))
+        .map(
+            data ->
+                String.join(
+                    "\n  ",
+                    data.configKey(),
+                    String.valueOf(data.method()),
+                    String.valueOf(data.returnType()),
+                    String.valueOf(data.template().method()),
+                    data.template().url(),
+                    String.valueOf(data.template().headers()),
+                    String.valueOf(data.template().bodyTemplate()),
+                    String.valueOf(data.template().decodeSlash()),
+                    String.valueOf(data.template().collectionFormat()),
+                    String.valueOf(data.indexToName()),
+                    String.valueOf(data.indexToExpanderClass()),
+                    String.valueOf(data.formParams()),
+                    String.valueOf(data.bodyIndex()),
+                    String.valueOf(data.bodyType()),
+                    String.valueOf(data.urlIndex()),
+                    String.valueOf(data.queryMapIndex()),
+                    String.valueOf(data.headerMapIndex()),
+                    String.valueOf(
+                        Optional.ofNullable(data.queryMapEncoder()).map(Object::getClass)),
+                    String.valueOf(data.parameterToIgnore())))
+        .collect(Collectors.joining("\n"));
+  }
+
+  /** Loads the classes compiled by a {@link Compilation}. */
+  private static final class CompiledClassLoader extends ClassLoader {
+
+    private final Compilation compilation;
+
+    CompiledClassLoader(Compilation compilation) {
+      super(CompiledClassLoader.class.getClassLoader());
+      this.compilation = compilation;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      Optional<JavaFileObject> file =
+          compilation.generatedFile(
+              StandardLocation.CLASS_OUTPUT, name.replace('.', '/') + ".class");
+      if (file.isEmpty()) {
+        throw new ClassNotFoundException(name);
+      }
+      try (InputStream in = file.get().openInputStream()) {
+        byte[] bytes = in.readAllBytes();
+        return defineClass(name, bytes, 0, bytes.length);
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+  }
+}
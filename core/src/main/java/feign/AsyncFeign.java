@@ -26,6 +26,9 @@ import feign.interceptor.MethodInterceptor;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -33,9 +36,10 @@ import java.util.function.Supplier;
  * session cookies or tokens) is explicit, as calls for the same session may be done across several
  * threads. <br>
  * <br>
- * {@link Retryer} is not supported in this model, as that is a blocking API. {@link
- * ExceptionPropagationPolicy} is made redundant as {@link RetryableException} is never thrown. <br>
- * Alternative approaches to retrying can be handled through {@link AsyncClient clients}. <br>
+ * {@link Retryer} is a blocking API. Backoffs of an {@link AsyncRetryer}, such as the {@link
+ * DefaultRetryer}, are scheduled on a {@link ScheduledExecutorService} instead, see {@link
+ * AsyncBuilder#retryScheduler(ScheduledExecutorService)}; other retryers block the thread that
+ * completed the failed attempt. <br>
  * <br>
  * Target interface methods must return {@link CompletableFuture} with a non-wildcard type. As the
  * completion is done by the {@link AsyncClient}, it is important that any subsequent processing on
@@ -73,12 +77,56 @@ public final class AsyncFeign<C> {
         });
   }
 
+  /**
+   * The default {@link ScheduledExecutorService} used to schedule retries, created on first use and
+   * shared by all clients, so building clients never adds threads. Its single daemon thread is only
+   * started by a pending retry and stops again once idle, so no thread outlives the retries of a
+   * discarded client.
+   */
+  private static final class DefaultRetryScheduler {
+
+    static final ScheduledExecutorService INSTANCE = create();
+
+    private static ScheduledExecutorService create() {
+      ScheduledThreadPoolExecutor scheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                final Thread result = new Thread(r, "feign-retry-scheduler");
+                result.setDaemon(true);
+                return result;
+              });
+      scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
+    }
+  }
+
+  /**
+   * The default {@link ExecutorService} that runs retried attempts of clients built with a custom
+   * {@link AsyncClient} and no {@link AsyncBuilder#executorService(ExecutorService)}. Like the
+   * {@link DefaultRetryScheduler} it is shared by all clients and its daemon threads stop once
+   * idle.
+   */
+  private static final class DefaultRetryExecutor {
+
+    static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(
+            r -> {
+              final Thread result = new Thread(r, "feign-retry");
+              result.setDaemon(true);
+              return result;
+            });
+  }
+
   public static class AsyncBuilder<C> extends BaseBuilder<AsyncBuilder<C>, AsyncFeign<C>> {
 
     private AsyncContextSupplier<C> defaultContextSupplier = () -> null;
     private AsyncClient<C> client;
     private ExecutorService executorService;
     private MethodInfoResolver methodInfoResolver = MethodInfo::new;
+    private ScheduledExecutorService retryScheduler;
 
     @Deprecated
     public AsyncBuilder<C> defaultContextSupplier(Supplier<C> supplier) {
@@ -96,23 +144,44 @@ public final class AsyncFeign<C> {
      * (blocking) underlying client calls. When provided, the caller owns the executor's lifecycle
      * and is responsible for shutting it down. This is the recommended way to avoid the {@code
      * ClassLoader} leak described in gh-3178: supply a managed, shut-downable executor instead of
-     * relying on the built-in default. Ignored when a custom {@link #client(AsyncClient)} is
-     * supplied.
+     * relying on the built-in default. Attempts retried after a backoff run on this executor too,
+     * also when a custom {@link #client(AsyncClient)} is supplied.
      */
     public AsyncBuilder<C> executorService(ExecutorService executorService) {
       this.executorService = executorService;
       return this;
     }
 
-    private AsyncClient<C> resolveClient() {
+    /**
+     * Sets the {@link ScheduledExecutorService} that runs retries once the backoff returned by an
+     * {@link AsyncRetryer} has elapsed, so no thread sleeps in between. The scheduler only waits
+     * out the backoff: the next attempt, including its {@link RequestInterceptor}s, is handed to
+     * the {@link #executorService(ExecutorService)}, or to a shared daemon pool when none is set
+     * and a custom {@link #client(AsyncClient)} is supplied. When provided, the caller owns the
+     * scheduler's lifecycle; it may be shared between clients. Defaults to a single daemon thread
+     * shared by all clients that only runs while retries are pending.
+     */
+    @Experimental
+    public AsyncBuilder<C> retryScheduler(ScheduledExecutorService retryScheduler) {
+      this.retryScheduler = retryScheduler;
+      return this;
+    }
+
+    private AsyncClient<C> resolveClient(ExecutorService executor) {
       if (client != null) {
         return client;
       }
-      final ExecutorService executor =
-          executorService != null ? executorService : defaultExecutorService();
       return new DefaultAsyncClient<>(new DefaultClient(null, null), executor);
     }
 
+    /** The executor of the default client, which runs retried attempts as well. */
+    private ExecutorService resolveExecutor() {
+      if (executorService != null) {
+        return executorService;
+      }
+      return client != null ? DefaultRetryExecutor.INSTANCE : defaultExecutorService();
+    }
+
     public AsyncBuilder<C> methodInfoResolver(MethodInfoResolver methodInfoResolver) {
       this.methodInfoResolver = methodInfoResolver;
       return this;
@@ -233,7 +302,8 @@ public final class AsyncFeign<C> {
 
     @Override
     public AsyncFeign<C> internalBuild() {
-      final AsyncClient<C> client = resolveClient();
+      final ExecutorService executor = resolveExecutor();
+      final AsyncClient<C> client = resolveClient(executor);
       AsyncResponseHandler responseHandler =
           (AsyncResponseHandler)
               Capability.enrich(
@@ -261,7 +331,9 @@ public final class AsyncFeign<C> {
               propagationPolicy,
               methodInfoResolver,
               new RequestTemplateFactoryResolver(encoder, queryMapEncoder),
-              options);
+              options,
+              retryScheduler != null ? retryScheduler : DefaultRetryScheduler.INSTANCE,
+              executor);
       final ReflectiveFeign<C> feign =
           new ReflectiveFeign<>(
               contract, methodHandlerFactory, invocationHandlerFactory, defaultContextSupplier);
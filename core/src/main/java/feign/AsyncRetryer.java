@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+/**
+ * A {@link Retryer} that can tell how long to back off instead of sleeping. {@link AsyncFeign}
+ * clients call {@link #delayOrPropagate(RetryableException)} and schedule the next attempt, so a
+ * backoff never blocks the thread that completed the failed request, such as an I/O thread of the
+ * underlying {@link AsyncClient}. Synchronous clients keep calling {@link
+ * #continueOrPropagate(RetryableException)}, which sleeps for the same delay.
+ *
+ * <p>Subclasses of an {@code AsyncRetryer} that override {@code continueOrPropagate} only are still
+ * called through it, and block.
+ */
+@Experimental
+public interface AsyncRetryer extends Retryer {
+
+  /**
+   * If retry is permitted, return the delay before the next attempt. Otherwise, propagate the
+   * exception.
+   *
+   * @param e the failure of the last attempt.
+   * @return milliseconds to wait before the next attempt, {@code 0} or less to retry at once.
+   */
+  long delayOrPropagate(RetryableException e);
+
+  /** Waits for the delay returned by {@link #delayOrPropagate(RetryableException)}. */
+  @Override
+  default void continueOrPropagate(RetryableException e) {
+    long delay = delayOrPropagate(e);
+    if (delay > 0) {
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException ignored) {
+        Thread.currentThread().interrupt();
+        throw e;
+      }
+    }
+  }
+}
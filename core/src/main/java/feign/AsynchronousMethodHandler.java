@@ -28,6 +28,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
@@ -39,19 +43,25 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
   private final AsyncResponseHandler asyncResponseHandler;
   private final MethodInfo methodInfo;
   private final MethodHandlerConfiguration methodHandlerConfiguration;
+  private final ScheduledExecutorService retryScheduler;
+  private final Executor retryExecutor;
 
   private AsynchronousMethodHandler(
       MethodHandlerConfiguration methodHandlerConfiguration,
       AsyncClient<C> client,
       AsyncResponseHandler asyncResponseHandler,
       C requestContext,
-      MethodInfo methodInfo) {
+      MethodInfo methodInfo,
+      ScheduledExecutorService retryScheduler,
+      Executor retryExecutor) {
     this.methodHandlerConfiguration =
         checkNotNull(methodHandlerConfiguration, "methodHandlerConfiguration");
     this.client = checkNotNull(client, "client for %s", methodHandlerConfiguration.getTarget());
     this.requestContext = requestContext;
     this.asyncResponseHandler = asyncResponseHandler;
     this.methodInfo = methodInfo;
+    this.retryScheduler = retryScheduler;
+    this.retryExecutor = retryExecutor;
   }
 
   @Override
@@ -90,11 +100,13 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
       Invocation invocation, Options options, Retryer retryer) {
     CancellableFuture<Object> resultFuture = new CancellableFuture<>();
 
-    executeAndDecode(invocation, options)
+    executeAndDecode(invocation, options, resultFuture)
         .whenComplete(
             (response, throwable) -> {
               if (throwable != null) {
-                if (!resultFuture.isDone() && shouldRetry(retryer, throwable, resultFuture)) {
+                long delay;
+                if (!resultFuture.isDone()
+                    && (delay = retryDelay(retryer, throwable, resultFuture)) >= 0) {
                   if (methodHandlerConfiguration.getLogLevel() != Logger.Level.NONE) {
                     methodHandlerConfiguration
                         .getLogger()
@@ -103,7 +115,11 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
                             methodHandlerConfiguration.getLogLevel());
                   }
 
-                  resultFuture.setInner(executeAndDecode(invocation, options, retryer));
+                  if (delay == 0) {
+                    resultFuture.setInner(executeAndDecode(invocation, options, retryer));
+                  } else {
+                    scheduleRetry(invocation, options, retryer, resultFuture, delay);
+                  }
                 }
               } else {
                 resultFuture.complete(response);
@@ -113,20 +129,94 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
     return resultFuture;
   }
 
+  /**
+   * Waits out the backoff on the retry scheduler instead of sleeping on the thread that completed
+   * the failed attempt, then hands the next attempt to the retry executor, so a slow interceptor or
+   * client never holds up the retries of other calls sharing the scheduler.
+   */
+  private void scheduleRetry(
+      Invocation invocation,
+      Options options,
+      Retryer retryer,
+      CancellableFuture<Object> resultFuture,
+      long delay) {
+    try {
+      resultFuture.setPending(
+          retryScheduler.schedule(
+              () -> retry(invocation, options, retryer, resultFuture),
+              delay,
+              TimeUnit.MILLISECONDS));
+    } catch (RejectedExecutionException e) {
+      resultFuture.completeExceptionally(e);
+    }
+  }
+
+  private void retry(
+      Invocation invocation,
+      Options options,
+      Retryer retryer,
+      CancellableFuture<Object> resultFuture) {
+    if (resultFuture.isDone()) {
+      return;
+    }
+    try {
+      retryExecutor.execute(
+          () -> {
+            if (resultFuture.isDone()) {
+              return;
+            }
+            try {
+              resultFuture.setInner(executeAndDecode(invocation, options, retryer));
+            } catch (Throwable e) {
+              // the executor would keep this to itself and leave the caller waiting
+              resultFuture.completeExceptionally(e);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      resultFuture.completeExceptionally(e);
+    }
+  }
+
   private static class CancellableFuture<T> extends CompletableFuture<T> {
     private CompletableFuture<T> inner = null;
+    private volatile CompletableFuture<?> sent = null;
+    private volatile Future<?> pending = null;
 
     public void setInner(CompletableFuture<T> value) {
       inner = value;
       inner.whenComplete(pipeTo(this));
     }
 
+    /** The future of the client for the attempt in flight, cancelled along with this one. */
+    void setSent(CompletableFuture<?> value) {
+      sent = value;
+      if (isCancelled()) {
+        value.cancel(true);
+      }
+    }
+
+    /** The retry waiting on the scheduler, cancelled along with this future. */
+    void setPending(Future<?> value) {
+      pending = value;
+      if (isCancelled()) {
+        value.cancel(false);
+      }
+    }
+
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
       final boolean result = super.cancel(mayInterruptIfRunning);
+      Future<?> retry = pending;
+      if (retry != null) {
+        retry.cancel(false);
+      }
       if (inner != null) {
         inner.cancel(mayInterruptIfRunning);
       }
+      CompletableFuture<?> attempt = sent;
+      if (attempt != null) {
+        attempt.cancel(mayInterruptIfRunning);
+      }
       return result;
     }
 
@@ -146,7 +236,11 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
     }
   }
 
-  private boolean shouldRetry(
+  /**
+   * @return the milliseconds to wait before retrying, or {@literal -1} if the result future was
+   *     completed instead.
+   */
+  private long retryDelay(
       Retryer retryer, Throwable throwable, CompletableFuture<Object> resultFuture) {
     if (throwable instanceof CompletionException) {
       throwable = throwable.getCause();
@@ -154,13 +248,16 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
 
     if (!(throwable instanceof RetryableException)) {
       resultFuture.completeExceptionally(throwable);
-      return false;
+      return -1;
     }
 
     RetryableException retryableException = (RetryableException) throwable;
     try {
+      if (retryScheduler != null && retryer instanceof AsyncRetryer) {
+        return Math.max(0, ((AsyncRetryer) retryer).delayOrPropagate(retryableException));
+      }
       retryer.continueOrPropagate(retryableException);
-      return true;
+      return 0;
     } catch (RetryableException th) {
       Throwable cause = th.getCause();
       if (methodHandlerConfiguration.getPropagationPolicy() == UNWRAP && cause != null) {
@@ -168,11 +265,12 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
       } else {
         resultFuture.completeExceptionally(th);
       }
-      return false;
+      return -1;
     }
   }
 
-  private CompletableFuture<Object> executeAndDecode(Invocation invocation, Options options) {
+  private CompletableFuture<Object> executeAndDecode(
+      Invocation invocation, Options options, CancellableFuture<Object> resultFuture) {
     RequestTemplate template = invocation.requestTemplate();
     Request request = targetRequest(template);
 
@@ -186,9 +284,10 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
     }
 
     long start = System.nanoTime();
-    return client
-        .execute(request, options, Optional.ofNullable(requestContext))
-        .thenApply(
+    CompletableFuture<Response> sent =
+        client.execute(request, options, Optional.ofNullable(requestContext));
+    resultFuture.setSent(sent);
+    return sent.thenApply(
             response -> {
               // TODO: remove in Feign 12
               Response withRequest = ensureRequestIsSet(response, template, request);
@@ -267,6 +366,8 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
     private final MethodInfoResolver methodInfoResolver;
     private final RequestTemplateFactoryResolver requestTemplateFactoryResolver;
     private final Options options;
+    private final ScheduledExecutorService retryScheduler;
+    private final Executor retryExecutor;
 
     Factory(
         AsyncClient<C> client,
@@ -279,7 +380,9 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
         ExceptionPropagationPolicy propagationPolicy,
         MethodInfoResolver methodInfoResolver,
         RequestTemplateFactoryResolver requestTemplateFactoryResolver,
-        Options options) {
+        Options options,
+        ScheduledExecutorService retryScheduler,
+        Executor retryExecutor) {
       this.client = checkNotNull(client, "client");
       this.retryer = checkNotNull(retryer, "retryer");
       this.requestInterceptors = checkNotNull(requestInterceptors, "requestInterceptors");
@@ -292,6 +395,33 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
       this.requestTemplateFactoryResolver =
           checkNotNull(requestTemplateFactoryResolver, "requestTemplateFactoryResolver");
       this.options = checkNotNull(options, "options");
+      this.retryScheduler = schedulesRetries(retryer) ? retryScheduler : null;
+      this.retryExecutor = retryExecutor;
+    }
+
+    /**
+     * Backoffs are scheduled for {@link AsyncRetryer}s, unless a subclass overrides the blocking
+     * {@link Retryer#continueOrPropagate(RetryableException)} only, which then takes precedence.
+     */
+    private static boolean schedulesRetries(Retryer retryer) {
+      if (!(retryer instanceof AsyncRetryer)) {
+        return false;
+      }
+      try {
+        Class<?> blocking =
+            retryer
+                .getClass()
+                .getMethod("continueOrPropagate", RetryableException.class)
+                .getDeclaringClass();
+        Class<?> delaying =
+            retryer
+                .getClass()
+                .getMethod("delayOrPropagate", RetryableException.class)
+                .getDeclaringClass();
+        return blocking.isAssignableFrom(delaying);
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
     }
 
     @Override
@@ -316,7 +446,9 @@ final class AsynchronousMethodHandler<C> implements MethodHandler {
           client,
           responseHandler,
           requestContext,
-          methodInfoResolver.resolve(target.type(), metadata.method()));
+          methodInfoResolver.resolve(target.type(), metadata.method()),
+          retryScheduler,
+          retryExecutor);
     }
   }
 }
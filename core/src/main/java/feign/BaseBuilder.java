@@ -443,6 +443,7 @@ public abstract class BaseBuilder<B extends BaseBuilder<B, T>, T> implements Clo
         .filter(field -> !Objects.equals(field.getName(), "methodInterceptors"))
         // caller-owned lifecycle resources are not capability-enriched
         .filter(field -> !Objects.equals(field.getName(), "executorService"))
+        .filter(field -> !Objects.equals(field.getName(), "retryScheduler"))
         // skip primitive types
         .filter(field -> !field.getType().isPrimitive())
         // skip enumerations
@@ -68,7 +68,7 @@ public enum CollectionFormat {
       if (separator == null) {
         // exploded
         builder.append(valueCount++ == 0 ? "" : "&");
-        builder.append(UriUtils.encode(field, charset));
+        UriUtils.encode(field, charset, builder);
         if (value != null) {
           builder.append('=');
           builder.append(value);
@@ -76,12 +76,16 @@ public enum CollectionFormat {
       } else {
         // delimited with a separator character
         if (builder.length() == 0) {
-          builder.append(UriUtils.encode(field, charset));
+          UriUtils.encode(field, charset, builder);
         }
         if (value == null) {
           continue;
         }
-        builder.append(valueCount++ == 0 ? "=" : UriUtils.encode(separator, charset));
+        if (valueCount++ == 0) {
+          builder.append('=');
+        } else {
+          UriUtils.encode(separator, charset, builder);
+        }
         builder.append(value);
       }
     }
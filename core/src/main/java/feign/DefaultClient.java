@@ -166,7 +166,7 @@ public class DefaultClient implements Client {
     boolean deflateEncodedRequest = this.isDeflate(contentEncodingValues);
 
     boolean hasAcceptHeader = false;
-    Integer contentLength = null;
+    Long contentLength = null;
     for (String field : request.headers().keySet()) {
       if (field.equalsIgnoreCase("Accept")) {
         hasAcceptHeader = true;
@@ -174,7 +174,7 @@ public class DefaultClient implements Client {
       for (String value : request.headers().get(field)) {
         if (field.equalsIgnoreCase(CONTENT_LENGTH)) {
           if (!gzipEncodedRequest && !deflateEncodedRequest) {
-            contentLength = Integer.valueOf(value);
+            contentLength = Long.valueOf(value);
           }
         }
         // Avoid add "Accept-encoding" twice or more when "compression" option is enabled
@@ -191,10 +191,13 @@ public class DefaultClient implements Client {
       connection.addRequestProperty("Accept", "*/*");
     }
 
-    byte[] body = request.body();
+    Request.Body requestBody = request.requestBody();
+    boolean streaming = requestBody != null && requestBody.isStreaming();
+    byte[] body = streaming ? null : request.body();
 
-    if (body != null && body.length > 0) {
-      if (disableRequestBuffering) {
+    if (streaming || body != null && body.length > 0) {
+      /* a streaming body is never buffered, that is what it is for */
+      if (disableRequestBuffering || streaming) {
         if (contentLength != null) {
           connection.setFixedLengthStreamingMode(contentLength);
         } else {
@@ -209,7 +212,11 @@ public class DefaultClient implements Client {
         out = new DeflaterOutputStream(out);
       }
       try {
-        out.write(body);
+        if (streaming) {
+          requestBody.writeTo(out);
+        } else {
+          out.write(body);
+        }
       } finally {
         try {
           out.close();
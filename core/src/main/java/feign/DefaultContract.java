@@ -137,7 +137,7 @@ public class DefaultContract extends DeclarativeContract {
         });
   }
 
-  private static Map<String, Collection<String>> toMap(String[] input) {
+  static Map<String, Collection<String>> toMap(String[] input) {
     final Map<String, Collection<String>> result =
         new LinkedHashMap<String, Collection<String>>(input.length);
     for (final String header : input) {
@@ -17,7 +17,7 @@ package feign;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
-public class DefaultRetryer implements Retryer {
+public class DefaultRetryer implements AsyncRetryer {
 
   private final int maxAttempts;
   private final long period;
@@ -42,6 +42,20 @@ public class DefaultRetryer implements Retryer {
   }
 
   public void continueOrPropagate(RetryableException e) {
+    long interval = delayOrPropagate(e);
+    if (interval <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(interval);
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  @Override
+  public long delayOrPropagate(RetryableException e) {
     if (attempt++ >= maxAttempts) {
       throw e;
     }
@@ -53,18 +67,14 @@ public class DefaultRetryer implements Retryer {
         interval = maxPeriod;
       }
       if (interval < 0) {
-        return;
+        return 0;
       }
     } else {
       interval = nextMaxInterval();
     }
-    try {
-      Thread.sleep(interval);
-    } catch (InterruptedException ignored) {
-      Thread.currentThread().interrupt();
-      throw e;
-    }
+    // counted here, so backoffs scheduled by async clients are included
     sleptForMillis += interval;
+    return interval;
   }
 
   /**
@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+/**
+ * Controls how {@link FeignException#errorStatus(String, Response, Integer, Integer,
+ * feign.codec.ErrorBodyCapture, ExceptionConstructionPolicy) status-derived} exceptions such as
+ * {@link FeignException.NotFound} are built.
+ */
+public enum ExceptionConstructionPolicy {
+
+  /** Capture the stack trace and format the message up front. */
+  FULL,
+
+  /**
+   * Skip capturing the stack trace and format the message only when {@link
+   * FeignException#getMessage()} is first called. Suited to statuses that are handled as ordinary
+   * control flow, where the exception is caught and inspected but never logged with its trace.
+   */
+  STACKLESS
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ResponseInterceptor} that returns the listed error statuses as a {@link TypedResponse}
+ * instead of passing them to the {@link feign.codec.ErrorDecoder}, so no exception is created at
+ * all. It only applies to methods declared to return {@code TypedResponse<T>}; the returned
+ * response carries the status, reason and headers, and a {@code null} body.
+ *
+ * <pre>
+ * interface Inventory {
+ *   &#64;RequestLine("GET /items/{id}")
+ *   TypedResponse&lt;Item&gt; item(&#64;Param("id") String id);
+ * }
+ *
+ * Inventory inventory = Feign.builder()
+ *     .responseInterceptor(new ExpectedStatusInterceptor(404, 409))
+ *     .target(Inventory.class, url);
+ *
+ * TypedResponse&lt;Item&gt; response = inventory.item("42");
+ * if (response.status() == 404) { ... }
+ * </pre>
+ */
+@Experimental
+public class ExpectedStatusInterceptor implements ResponseInterceptor {
+
+  private final int[] statuses;
+
+  public ExpectedStatusInterceptor(int... statuses) {
+    this.statuses = statuses.clone();
+    Arrays.sort(this.statuses);
+  }
+
+  @Override
+  public Object intercept(InvocationContext invocationContext, Chain chain) throws Exception {
+    Response response = invocationContext.response();
+    if (Arrays.binarySearch(statuses, response.status()) < 0
+        || !TypedResponse.class.equals(Types.getRawType(invocationContext.returnType()))) {
+      return chain.next(invocationContext);
+    }
+    response.close();
+    return TypedResponse.builder(response).build();
+  }
+}
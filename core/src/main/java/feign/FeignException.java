@@ -19,9 +19,12 @@ import static feign.Util.*;
 import static java.lang.String.format;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 
+import feign.codec.ErrorBodyCapture;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.ObjectOutputStream;
 import java.io.Reader;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
@@ -32,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,6 +49,9 @@ public class FeignException extends RuntimeException {
   private byte[] responseBody;
   private Map<String, Collection<String>> responseHeaders;
   private final Request request;
+  private transient volatile Supplier<String> messageSupplier;
+  private String lazyMessage;
+  private transient Response.Body unreadBody;
 
   protected FeignException(int status, String message, Throwable cause) {
     super(message, cause);
@@ -122,6 +129,26 @@ public class FeignException extends RuntimeException {
     this.request = checkRequestNotNull(request);
   }
 
+  /**
+   * Creates an exception whose message is only built the first time {@link #getMessage()} is
+   * called. Pass {@code false} for {@code writableStackTrace} to skip capturing the stack trace,
+   * which dominates the cost of exceptions used for expected outcomes.
+   */
+  protected FeignException(
+      int status,
+      Supplier<String> message,
+      Request request,
+      byte[] responseBody,
+      Map<String, Collection<String>> responseHeaders,
+      boolean writableStackTrace) {
+    super(null, null, true, writableStackTrace);
+    this.status = status;
+    this.messageSupplier = checkNotNull(message, "message");
+    this.responseBody = responseBody;
+    this.responseHeaders = caseInsensitiveCopyOf(responseHeaders);
+    this.request = checkRequestNotNull(request);
+  }
+
   private Request checkRequestNotNull(Request request) {
     return checkNotNull(request, EXCEPTION_MESSAGE_TEMPLATE_NULL_REQUEST);
   }
@@ -130,6 +157,21 @@ public class FeignException extends RuntimeException {
     return this.status;
   }
 
+  @Override
+  public String getMessage() {
+    Supplier<String> supplier = messageSupplier;
+    if (supplier != null) {
+      lazyMessage = supplier.get();
+      messageSupplier = null;
+    }
+    return lazyMessage != null ? lazyMessage : super.getMessage();
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    getMessage();
+    out.defaultWriteObject();
+  }
+
   /**
    * The Response Body, if present.
    *
@@ -153,6 +195,24 @@ public class FeignException extends RuntimeException {
     return Optional.of(ByteBuffer.wrap(this.responseBody));
   }
 
+  /**
+   * The error response body as it arrived, when the error decoder left it unread with {@link
+   * ErrorBodyCapture#unread()}. The caller must close the stream.
+   *
+   * @return the body, or empty if it was read into {@link #responseBody()} instead.
+   * @throws IOException if the body can no longer be read.
+   */
+  @Experimental
+  public Optional<InputStream> responseBodyStream() throws IOException {
+    Response.Body body = unreadBody;
+    return body != null ? Optional.of(body.asInputStream()) : Optional.empty();
+  }
+
+  /** Whether this exception took over the response body, which must then be left open. */
+  boolean holdsResponseBody() {
+    return unreadBody != null;
+  }
+
   public Map<String, Collection<String>> responseHeaders() {
     if (this.responseHeaders == null) {
       return Collections.emptyMap();
@@ -177,13 +237,7 @@ public class FeignException extends RuntimeException {
   }
 
   static FeignException errorReading(Request request, Response response, IOException cause) {
-    byte[] body = {};
-    try {
-      if (response.body() != null) {
-        body = Util.toByteArray(response.body().asInputStream());
-      }
-    } catch (IOException ignored) { // NOPMD
-    }
+    byte[] body = ErrorBodyCapture.DEFAULT.read(response);
     return new FeignException(
         response.status(),
         format("%s reading %s %s", cause.getMessage(), request.httpMethod(), request.url()),
@@ -199,13 +253,66 @@ public class FeignException extends RuntimeException {
 
   public static FeignException errorStatus(
       String methodKey, Response response, Integer maxBodyBytesLength, Integer maxBodyCharsLength) {
+    return errorStatus(
+        methodKey, response, maxBodyBytesLength, maxBodyCharsLength, ErrorBodyCapture.DEFAULT);
+  }
 
-    byte[] body = {};
-    try {
-      if (response.body() != null) {
-        body = Util.toByteArray(response.body().asInputStream());
-      }
-    } catch (IOException ignored) { // NOPMD
+  /**
+   * Creates the exception for an error {@code response}, reading only as much of its body as {@code
+   * errorBodyCapture} allows.
+   *
+   * @param maxBodyBytesLength bodies at least this long are abbreviated in the message
+   * @param maxBodyCharsLength number of characters of an abbreviated body kept in the message
+   */
+  public static FeignException errorStatus(
+      String methodKey,
+      Response response,
+      Integer maxBodyBytesLength,
+      Integer maxBodyCharsLength,
+      ErrorBodyCapture errorBodyCapture) {
+    return errorStatus(
+        methodKey,
+        response,
+        maxBodyBytesLength,
+        maxBodyCharsLength,
+        errorBodyCapture,
+        ExceptionConstructionPolicy.FULL);
+  }
+
+  /**
+   * Creates the exception for an error {@code response} as {@code policy} dictates.
+   *
+   * @see ExceptionConstructionPolicy
+   */
+  public static FeignException errorStatus(
+      String methodKey,
+      Response response,
+      Integer maxBodyBytesLength,
+      Integer maxBodyCharsLength,
+      ErrorBodyCapture errorBodyCapture,
+      ExceptionConstructionPolicy policy) {
+
+    byte[] body = errorBodyCapture.read(response);
+
+    if (policy == ExceptionConstructionPolicy.STACKLESS) {
+      // capture the parts the message needs rather than the response, which holds the body stream
+      int status = response.status();
+      String reason = response.reason();
+      Request request = response.request();
+      Map<String, Collection<String>> headers = response.headers();
+      Supplier<String> message =
+          () ->
+              new FeignExceptionMessageBuilder()
+                  .withResponse(status, reason, request, headers)
+                  .withMethodKey(methodKey)
+                  .withMaxBodyBytesLength(maxBodyBytesLength)
+                  .withMaxBodyCharsLength(maxBodyCharsLength)
+                  .withBody(body)
+                  .build();
+      return withUnreadBody(
+          stacklessErrorStatus(status, message, request, body, headers),
+          response,
+          errorBodyCapture);
     }
 
     String message =
@@ -217,7 +324,18 @@ public class FeignException extends RuntimeException {
             .withBody(body)
             .build();
 
-    return errorStatus(response.status(), message, response.request(), body, response.headers());
+    return withUnreadBody(
+        errorStatus(response.status(), message, response.request(), body, response.headers()),
+        response,
+        errorBodyCapture);
+  }
+
+  private static FeignException withUnreadBody(
+      FeignException exception, Response response, ErrorBodyCapture errorBodyCapture) {
+    if (errorBodyCapture.isUnread()) {
+      exception.unreadBody = response.body();
+    }
+    return exception;
   }
 
   private static FeignException errorStatus(
@@ -299,6 +417,56 @@ public class FeignException extends RuntimeException {
     }
   }
 
+  private static FeignException stacklessErrorStatus(
+      int status,
+      Supplier<String> message,
+      Request request,
+      byte[] body,
+      Map<String, Collection<String>> headers) {
+    switch (status) {
+      case 400:
+        return new BadRequest(message, request, body, headers);
+      case 401:
+        return new Unauthorized(message, request, body, headers);
+      case 403:
+        return new Forbidden(message, request, body, headers);
+      case 404:
+        return new NotFound(message, request, body, headers);
+      case 405:
+        return new MethodNotAllowed(message, request, body, headers);
+      case 406:
+        return new NotAcceptable(message, request, body, headers);
+      case 409:
+        return new Conflict(message, request, body, headers);
+      case 410:
+        return new Gone(message, request, body, headers);
+      case 415:
+        return new UnsupportedMediaType(message, request, body, headers);
+      case 429:
+        return new TooManyRequests(message, request, body, headers);
+      case 422:
+        return new UnprocessableEntity(message, request, body, headers);
+      case 500:
+        return new InternalServerError(message, request, body, headers);
+      case 501:
+        return new NotImplemented(message, request, body, headers);
+      case 502:
+        return new BadGateway(message, request, body, headers);
+      case 503:
+        return new ServiceUnavailable(message, request, body, headers);
+      case 504:
+        return new GatewayTimeout(message, request, body, headers);
+      default:
+        if (isClientError(status)) {
+          return new FeignClientException(status, message, request, body, headers);
+        }
+        if (isServerError(status)) {
+          return new FeignServerException(status, message, request, body, headers);
+        }
+        return new FeignException(status, message, request, body, headers, false);
+    }
+  }
+
   static FeignException errorExecuting(Request request, IOException cause) {
     final Long nonRetryable = null;
     return new RetryableException(
@@ -319,6 +487,15 @@ public class FeignException extends RuntimeException {
         Map<String, Collection<String>> headers) {
       super(status, message, request, body, headers);
     }
+
+    private FeignClientException(
+        int status,
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(status, message, request, body, headers, false);
+    }
   }
 
   public static class BadRequest extends FeignClientException {
@@ -326,6 +503,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(400, message, request, body, headers);
     }
+
+    private BadRequest(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(400, message, request, body, headers);
+    }
   }
 
   public static class Unauthorized extends FeignClientException {
@@ -333,6 +518,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(401, message, request, body, headers);
     }
+
+    private Unauthorized(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(401, message, request, body, headers);
+    }
   }
 
   public static class Forbidden extends FeignClientException {
@@ -340,6 +533,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(403, message, request, body, headers);
     }
+
+    private Forbidden(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(403, message, request, body, headers);
+    }
   }
 
   public static class NotFound extends FeignClientException {
@@ -347,6 +548,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(404, message, request, body, headers);
     }
+
+    private NotFound(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(404, message, request, body, headers);
+    }
   }
 
   public static class MethodNotAllowed extends FeignClientException {
@@ -354,6 +563,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(405, message, request, body, headers);
     }
+
+    private MethodNotAllowed(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(405, message, request, body, headers);
+    }
   }
 
   public static class NotAcceptable extends FeignClientException {
@@ -361,6 +578,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(406, message, request, body, headers);
     }
+
+    private NotAcceptable(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(406, message, request, body, headers);
+    }
   }
 
   public static class Conflict extends FeignClientException {
@@ -368,6 +593,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(409, message, request, body, headers);
     }
+
+    private Conflict(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(409, message, request, body, headers);
+    }
   }
 
   public static class Gone extends FeignClientException {
@@ -375,6 +608,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(410, message, request, body, headers);
     }
+
+    private Gone(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(410, message, request, body, headers);
+    }
   }
 
   public static class UnsupportedMediaType extends FeignClientException {
@@ -382,6 +623,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(415, message, request, body, headers);
     }
+
+    private UnsupportedMediaType(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(415, message, request, body, headers);
+    }
   }
 
   public static class TooManyRequests extends FeignClientException {
@@ -389,6 +638,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(429, message, request, body, headers);
     }
+
+    private TooManyRequests(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(429, message, request, body, headers);
+    }
   }
 
   public static class UnprocessableEntity extends FeignClientException {
@@ -396,6 +653,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(422, message, request, body, headers);
     }
+
+    private UnprocessableEntity(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(422, message, request, body, headers);
+    }
   }
 
   public static class FeignServerException extends FeignException {
@@ -407,6 +672,15 @@ public class FeignException extends RuntimeException {
         Map<String, Collection<String>> headers) {
       super(status, message, request, body, headers);
     }
+
+    private FeignServerException(
+        int status,
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(status, message, request, body, headers, false);
+    }
   }
 
   public static class InternalServerError extends FeignServerException {
@@ -414,6 +688,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(500, message, request, body, headers);
     }
+
+    private InternalServerError(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(500, message, request, body, headers);
+    }
   }
 
   public static class NotImplemented extends FeignServerException {
@@ -421,6 +703,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(501, message, request, body, headers);
     }
+
+    private NotImplemented(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(501, message, request, body, headers);
+    }
   }
 
   public static class BadGateway extends FeignServerException {
@@ -428,6 +718,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(502, message, request, body, headers);
     }
+
+    private BadGateway(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(502, message, request, body, headers);
+    }
   }
 
   public static class ServiceUnavailable extends FeignServerException {
@@ -435,6 +733,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(503, message, request, body, headers);
     }
+
+    private ServiceUnavailable(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(503, message, request, body, headers);
+    }
   }
 
   public static class GatewayTimeout extends FeignServerException {
@@ -442,6 +748,14 @@ public class FeignException extends RuntimeException {
         String message, Request request, byte[] body, Map<String, Collection<String>> headers) {
       super(504, message, request, body, headers);
     }
+
+    private GatewayTimeout(
+        Supplier<String> message,
+        Request request,
+        byte[] body,
+        Map<String, Collection<String>> headers) {
+      super(504, message, request, body, headers);
+    }
   }
 
   private static class FeignExceptionMessageBuilder {
@@ -449,7 +763,10 @@ public class FeignException extends RuntimeException {
     private static final int MAX_BODY_BYTES_LENGTH = 400;
     private static final int MAX_BODY_CHARS_LENGTH = 200;
 
-    private Response response;
+    private int status;
+    private String reason;
+    private Request request;
+    private Map<String, Collection<String>> headers;
 
     private byte[] body;
     private String methodKey;
@@ -457,7 +774,17 @@ public class FeignException extends RuntimeException {
     private Integer maxBodyCharsLength;
 
     public FeignExceptionMessageBuilder withResponse(Response response) {
-      this.response = response;
+      return withResponse(
+          response.status(), response.reason(), response.request(), response.headers());
+    }
+
+    /** Takes only the parts of a response the message needs, so its body can be released. */
+    public FeignExceptionMessageBuilder withResponse(
+        int status, String reason, Request request, Map<String, Collection<String>> headers) {
+      this.status = status;
+      this.reason = reason;
+      this.request = request;
+      this.headers = headers;
       return this;
     }
 
@@ -490,17 +817,15 @@ public class FeignException extends RuntimeException {
       if (maxBodyCharsLength == null) {
         maxBodyCharsLength = MAX_BODY_CHARS_LENGTH;
       }
-      if (response.reason() != null) {
-        result.append(format("[%d %s]", response.status(), response.reason()));
+      if (reason != null) {
+        result.append(format("[%d %s]", status, reason));
       } else {
-        result.append(format("[%d]", response.status()));
+        result.append(format("[%d]", status));
       }
       result.append(
-          format(
-              " during [%s] to [%s] [%s]",
-              response.request().httpMethod(), response.request().url(), methodKey));
+          format(" during [%s] to [%s] [%s]", request.httpMethod(), request.url(), methodKey));
 
-      result.append(format(": [%s]", getBodyAsString(body, response.headers())));
+      result.append(format(": [%s]", getBodyAsString(body, headers)));
 
       return result.toString();
     }
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+import static feign.Util.checkNotNull;
+import static feign.Util.checkState;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Base of the classes that {@code feign-contract-apt} generates at compile time for each Feign
+ * interface, as {@code Feign_<Interface>} in the same package. A generated client carries the
+ * {@link MethodMetadata} that {@link DefaultContract} would parse, and implements the interface by
+ * dispatching each method straight to its handler, instead of through a {@link
+ * java.lang.reflect.Proxy}.
+ *
+ * <p>{@link Feign} and {@link AsyncFeign} look up the generated client of the targeted interface,
+ * and use its metadata when their contract is {@link DefaultContract} itself. When no {@link
+ * Capability} replaced the {@link InvocationHandlerFactory} either, they return an instance of the
+ * generated class; otherwise they still return a proxy. Without a generated client, or with any
+ * other contract, interfaces are parsed by reflection as before.
+ */
+@Experimental
+public abstract class GeneratedClient<T> {
+
+  private static final ClassValue<Optional<GeneratedClient<?>>> GENERATED =
+      new ClassValue<Optional<GeneratedClient<?>>>() {
+        @Override
+        protected Optional<GeneratedClient<?>> computeValue(Class<?> type) {
+          return Optional.ofNullable(load(type));
+        }
+      };
+
+  private final Class<T> type;
+
+  protected GeneratedClient(Class<T> type) {
+    this.type = checkNotNull(type, "type");
+  }
+
+  /** The generated client of the given interface, or {@code null} if none was generated. */
+  @SuppressWarnings("unchecked")
+  public static <T> GeneratedClient<T> forType(Class<T> type) {
+    return (GeneratedClient<T>) GENERATED.get(type).orElse(null);
+  }
+
+  /**
+   * The generated client of the given interface when the given contract is the one it was generated
+   * for, or {@code null}.
+   */
+  static <T> GeneratedClient<T> forContract(Contract contract, Class<T> type) {
+    Class<?> contractType = contract.getClass();
+    if (contractType != DefaultContract.class && contractType != Contract.Default.class) {
+      return null;
+    }
+    return forType(type);
+  }
+
+  private static GeneratedClient<?> load(Class<?> type) {
+    if (!type.isInterface()) {
+      return null;
+    }
+    String name = type.getName();
+    int dot = name.lastIndexOf('.');
+    String generated =
+        name.substring(0, dot + 1) + "Feign_" + name.substring(dot + 1).replace('$', '_');
+    try {
+      Class<?> generatedClass = Class.forName(generated, true, type.getClassLoader());
+      if (!GeneratedClient.class.isAssignableFrom(generatedClass)) {
+        return null;
+      }
+      GeneratedClient<?> client =
+          (GeneratedClient<?>) generatedClass.getConstructor().newInstance();
+      return client.type == type ? client : null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /** The interface this client implements. */
+  public final Class<T> type() {
+    return type;
+  }
+
+  /**
+   * The metadata of every method handled by Feign, in the order of the handlers passed to {@link
+   * #newInstance(Target, MethodHandler[])}. Fails like {@link DefaultContract} on invalid
+   * interfaces.
+   */
+  protected abstract List<MethodMetadata> metadata();
+
+  /** An implementation of the interface calling the handler of each method. */
+  protected abstract T newInstance(Target<T> target, MethodHandler[] handlers);
+
+  /** Starts the metadata of a method, like {@link Contract.BaseContract} does. */
+  protected static MethodMetadata method(
+      Class<?> targetType, String name, Class<?>... parameterTypes) {
+    Method method;
+    try {
+      method = targetType.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          "generated client of " + targetType.getName() + " is out of date", e);
+    }
+    MethodMetadata data = new MethodMetadata();
+    data.targetType(targetType);
+    data.method(method);
+    data.returnType(Types.resolve(targetType, targetType, method.getGenericReturnType()));
+    data.configKey(Feign.configKey(targetType, method));
+    return data;
+  }
+
+  /** Applies {@link Headers} on an interface. */
+  protected static void classHeaders(MethodMetadata data, String... headers) {
+    checkState(headers.length > 0, "Headers annotation was empty on type %s.", data.configKey());
+    Map<String, Collection<String>> merged = DefaultContract.toMap(headers);
+    merged.putAll(data.template().headers());
+    data.template().headers(null); // to clear
+    data.template().headers(merged);
+  }
+
+  /** Applies {@link Headers} on a method. */
+  protected static void methodHeaders(MethodMetadata data, String... headers) {
+    checkState(headers.length > 0, "Headers annotation was empty on method %s.", data.configKey());
+    data.template().headers(DefaultContract.toMap(headers));
+  }
+
+  /** Applies {@link Body} on a method. */
+  protected static void body(MethodMetadata data, String body) {
+    if (body.indexOf('{') == -1) {
+      data.template().body(body);
+    } else {
+      data.template().bodyTemplate(body);
+    }
+  }
+
+  /** Applies {@link Param} on a parameter. */
+  protected static void param(
+      MethodMetadata data, int index, String name, Class<? extends Param.Expander> expander) {
+    Collection<String> names = data.indexToName().get(index);
+    if (names == null) {
+      names = new ArrayList<>();
+      data.indexToName().put(index, names);
+    }
+    names.add(name);
+    if (expander != Param.ToStringExpander.class) {
+      data.indexToExpanderClass().put(index, expander);
+    }
+    if (!data.template().hasRequestVariable(name)) {
+      data.formParams().add(name);
+    }
+  }
+
+  /** Applies {@link QueryMap} on a parameter. */
+  protected static void queryMap(MethodMetadata data, int index, QueryMap.MapEncoder encoder) {
+    checkState(
+        data.queryMapIndex() == null, "QueryMap annotation was present on multiple parameters.");
+    data.queryMapIndex(index);
+    data.queryMapEncoder(encoder.instance());
+  }
+
+  /** Applies {@link HeaderMap} on a parameter. */
+  protected static void headerMap(MethodMetadata data, int index) {
+    checkState(
+        data.headerMapIndex() == null, "HeaderMap annotation was present on multiple parameters.");
+    data.headerMapIndex(index);
+  }
+
+  /** Checks an annotated parameter, which cannot be sent along with a body. */
+  protected static void annotatedParameter(MethodMetadata data) {
+    checkState(
+        data.formParams().isEmpty() || data.bodyIndex() == null,
+        "Body parameters cannot be used with form parameters.");
+  }
+
+  /** Makes an unannotated parameter the body. */
+  protected static void bodyParameter(MethodMetadata data, int index) {
+    checkState(data.formParams().isEmpty(), "Body parameters cannot be used with form parameters.");
+    checkState(data.bodyIndex() == null, "Method has too many Body parameters: %s", data.method());
+    data.bodyIndex(index);
+    data.bodyType(
+        Types.resolve(
+            data.targetType(), data.targetType(), data.method().getGenericParameterTypes()[index]));
+  }
+
+  /** Base of the generated implementations, comparing and printing like Feign's proxies. */
+  protected abstract static class Implementation {
+
+    private final Target<?> target;
+    protected final MethodHandler[] handlers;
+
+    protected Implementation(Target<?> target, MethodHandler[] handlers) {
+      this.target = checkNotNull(target, "target");
+      this.handlers = checkNotNull(handlers, "handlers for %s", target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Implementation && target.equals(((Implementation) obj).target);
+    }
+
+    @Override
+    public int hashCode() {
+      return target.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return target.toString();
+    }
+  }
+}
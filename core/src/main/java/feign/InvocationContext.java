@@ -71,13 +71,16 @@ public class InvocationContext {
       return disconnectResponseBodyIfNeeded(response);
     }
 
+    boolean bodyHandedOver = false;
     try {
       final boolean shouldDecodeResponseBody =
           (response.status() >= 200 && response.status() < 300)
               || (response.status() == 404 && dismiss404 && !isVoidType(returnType));
 
       if (!shouldDecodeResponseBody) {
-        throw decodeError(configKey, response);
+        Exception error = decodeError(configKey, response);
+        bodyHandedOver = holdsResponseBody(error);
+        throw error;
       }
 
       if (isVoidType(returnType) && !decodeVoid) {
@@ -93,7 +96,7 @@ public class InvocationContext {
 
       return decode(response, returnType);
     } finally {
-      if (closeAfterDecode) {
+      if (closeAfterDecode && !bodyHandedOver) {
         ensureClosed(response.body());
       }
     }
@@ -129,13 +132,22 @@ public class InvocationContext {
   }
 
   private Exception decodeError(String methodKey, Response response) {
+    Exception error = null;
     try {
-      return errorDecoder.decode(methodKey, response);
+      error = errorDecoder.decode(methodKey, response);
+      return error;
     } finally {
-      ensureClosed(response.body());
+      if (!holdsResponseBody(error)) {
+        ensureClosed(response.body());
+      }
     }
   }
 
+  /** Whether the exception streams the body left unread by {@code ErrorBodyCapture.unread()}. */
+  private static boolean holdsResponseBody(Exception error) {
+    return error instanceof FeignException && ((FeignException) error).holdsResponseBody();
+  }
+
   private boolean isVoidType(Type returnType) {
     return returnType == Void.class
         || returnType == void.class
@@ -17,6 +17,7 @@ package feign;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 
 /** Controls reflective method dispatch. */
@@ -37,6 +38,22 @@ public interface InvocationHandlerFactory {
     }
   }
 
+  /**
+   * An {@link InvocationHandlerFactory} that can implement interfaces itself, instead of through a
+   * {@link java.lang.reflect.Proxy} calling its {@link InvocationHandler}. Feign only uses it when
+   * no {@link Capability} decorated the factory.
+   */
+  @Experimental
+  interface Direct extends InvocationHandlerFactory {
+
+    /**
+     * An implementation of the interface of the {@code target} whose methods call their handler:
+     * {@code handlers[i]} for the method of {@code metadata.get(i)}. Methods without metadata and
+     * default methods are left to the implementation. Returns {@code null} to fall back to a proxy.
+     */
+    <T> T newInstance(Target<T> target, List<MethodMetadata> metadata, MethodHandler[] handlers);
+  }
+
   /**
    * @deprecated use {@link DefaultInvocationHandlerFactory} instead.
    */
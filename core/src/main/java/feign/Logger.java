@@ -82,17 +82,25 @@ public abstract class Logger {
         }
       }
 
-      int bodyLength = 0;
-      if (request.body() != null) {
-        bodyLength = request.length();
+      long bodyLength = 0;
+      /* a streaming body would have to be read into memory to be logged */
+      boolean streaming = request.requestBody() != null && request.requestBody().isStreaming();
+      if (streaming || request.body() != null) {
+        bodyLength = request.requestBody().contentLength();
         if (logLevel.ordinal() >= Level.FULL.ordinal()) {
           String bodyText =
-              request.charset() != null ? new String(request.body(), request.charset()) : null;
+              !streaming && request.charset() != null
+                  ? new String(request.body(), request.charset())
+                  : null;
           log(configKey, ""); // CRLF
           log(configKey, "%s", bodyText != null ? bodyText : "Binary data");
         }
       }
-      log(configKey, "---> END HTTP (%s-byte body)", bodyLength);
+      if (bodyLength < 0) {
+        log(configKey, "---> END HTTP (unknown-length body)");
+      } else {
+        log(configKey, "---> END HTTP (%s-byte body)", bodyLength);
+      }
     }
   }
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+import static feign.Util.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Process-wide cache of the {@link MethodMetadata} parsed from Feign interfaces, so that building
+ * many clients of the same interface parses it once. {@link Feign} and {@link AsyncFeign} read
+ * their metadata from this cache.
+ *
+ * <p>Metadata is cached per interface and per contract. As {@link DefaultContract} and {@link
+ * Contract.Default} have no configuration, all their instances share the same entries. Any other
+ * contract is keyed by its identity: share a single instance between builders for them to share its
+ * metadata. Entries are held weakly, and go away with their interface or contract.
+ *
+ * <p>Services building many clients at startup can {@link #preload(Contract, Collection) preload}
+ * their interfaces, to parse them in parallel before building the clients.
+ */
+@Experimental
+public final class MetadataCache {
+
+  private static final ClassValue<Map<Object, List<MethodMetadata>>> CACHE =
+      new ClassValue<Map<Object, List<MethodMetadata>>>() {
+        @Override
+        protected Map<Object, List<MethodMetadata>> computeValue(Class<?> type) {
+          return new WeakHashMap<>();
+        }
+      };
+
+  private MetadataCache() {}
+
+  /**
+   * Parses the given interfaces with the given contract in parallel, on the {@link
+   * ForkJoinPool#commonPool() common pool}, and caches their metadata.
+   *
+   * @throws IllegalStateException if an interface isn't valid for the contract.
+   */
+  public static void preload(Contract contract, Collection<? extends Class<?>> types) {
+    preload(contract, types, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses the given interfaces with the given contract in parallel, on the given pool, and caches
+   * their metadata.
+   *
+   * @throws IllegalStateException if an interface isn't valid for the contract.
+   */
+  public static void preload(
+      Contract contract, Collection<? extends Class<?>> types, ForkJoinPool pool) {
+    checkNotNull(contract, "contract");
+    checkNotNull(pool, "pool");
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(types.size());
+    for (Class<?> type : types) {
+      tasks.add(pool.submit(() -> metadata(contract, type)));
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+  /**
+   * The metadata of the given interface for the given contract, parsed on first use. The metadata
+   * of a {@link GeneratedClient} is used when the contract is {@link DefaultContract} itself.
+   */
+  static List<MethodMetadata> metadata(Contract contract, Class<?> type) {
+    Map<Object, List<MethodMetadata>> cache = CACHE.get(type);
+    Object key = keyOf(contract);
+    synchronized (cache) {
+      List<MethodMetadata> metadata = cache.get(key);
+      if (metadata == null) {
+        GeneratedClient<?> generated = GeneratedClient.forContract(contract, type);
+        metadata =
+            Collections.unmodifiableList(
+                generated != null ? generated.metadata() : contract.parseAndValidateMetadata(type));
+        cache.put(key, metadata);
+      }
+      return metadata;
+    }
+  }
+
+  private static Object keyOf(Contract contract) {
+    Class<?> contractType = contract.getClass();
+    return contractType == DefaultContract.class || contractType == Contract.Default.class
+        ? contractType
+        : contract;
+  }
+}
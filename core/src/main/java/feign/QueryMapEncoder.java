@@ -18,6 +18,7 @@ package feign;
 import feign.querymap.BeanQueryMapEncoder;
 import feign.querymap.FieldQueryMapEncoder;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * A QueryMapEncoder encodes Objects into maps of query parameter names to values.
@@ -35,6 +36,19 @@ public interface QueryMapEncoder {
    */
   Map<String, Object> encode(Object object);
 
+  /**
+   * Encodes the given object, passing each query parameter name and value to {@code parameters}
+   * instead of collecting them into a map. The default implementation visits the map returned by
+   * {@link #encode(Object)}; encoders that can produce the parameters directly should override it.
+   *
+   * @param object the object to encode
+   * @param parameters receives the name and value of each query parameter
+   */
+  @Experimental
+  default void encode(Object object, BiConsumer<String, Object> parameters) {
+    encode(object).forEach(parameters);
+  }
+
   /**
    * @deprecated use {@link DefaultQueryMapEncoder} instead.
    */
@@ -55,6 +55,27 @@ public class ReflectiveFeign<C> extends Feign {
   public <T> T newInstance(Target<T> target, C requestContext) {
     TargetSpecificationVerifier.verify(target);
 
+    GeneratedClient<T> generated = targetToHandlersByName.generatedClient(target.type());
+    if (generated != null && factory.getClass() == DefaultInvocationHandlerFactory.class) {
+      List<MethodMetadata> metadataList = targetToHandlersByName.metadata(target.type());
+      return generated.newInstance(
+          target,
+          targetToHandlersByName.createMethodHandlers(target, metadataList, requestContext));
+    }
+    if (factory instanceof InvocationHandlerFactory.Direct) {
+      List<MethodMetadata> metadataList = targetToHandlersByName.metadata(target.type());
+      T instance =
+          ((InvocationHandlerFactory.Direct) factory)
+              .newInstance(
+                  target,
+                  metadataList,
+                  targetToHandlersByName.createMethodHandlers(
+                      target, metadataList, requestContext));
+      if (instance != null) {
+        return instance;
+      }
+    }
+
     Map<Method, MethodHandler> methodToHandler =
         targetToHandlersByName.apply(target, requestContext);
     InvocationHandler handler = factory.create(target, methodToHandler);
@@ -134,10 +155,23 @@ public class ReflectiveFeign<C> extends Feign {
       this.factory = factory;
     }
 
+    /**
+     * The client generated at compile time for the given interface, when it was generated for the
+     * contract in use.
+     */
+    <T> GeneratedClient<T> generatedClient(Class<T> type) {
+      return GeneratedClient.forContract(contract, type);
+    }
+
+    /** The metadata of the given interface, parsed once per contract and shared between clients. */
+    List<MethodMetadata> metadata(Class<?> type) {
+      return MetadataCache.metadata(contract, type);
+    }
+
     public Map<Method, MethodHandler> apply(Target target, C requestContext) {
       final Map<Method, MethodHandler> result = new LinkedHashMap<>();
 
-      final List<MethodMetadata> metadataList = contract.parseAndValidateMetadata(target.type());
+      final List<MethodMetadata> metadataList = metadata(target.type());
       for (MethodMetadata md : metadataList) {
         final Method method = md.method();
         if (method.getDeclaringClass() == Object.class) {
@@ -216,6 +250,16 @@ public class ReflectiveFeign<C> extends Feign {
       return candidateReturn != currentReturn && currentReturn.isAssignableFrom(candidateReturn);
     }
 
+    /** The handlers of the given methods, in the same order. */
+    MethodHandler[] createMethodHandlers(
+        Target<?> target, List<MethodMetadata> metadataList, C requestContext) {
+      MethodHandler[] handlers = new MethodHandler[metadataList.size()];
+      for (int i = 0; i < handlers.length; i++) {
+        handlers[i] = createMethodHandler(target, metadataList.get(i), requestContext);
+      }
+      return handlers;
+    }
+
     private MethodHandler createMethodHandler(
         final Target<?> target, final MethodMetadata md, final C requestContext) {
       if (md.isIgnored()) {
@@ -19,7 +19,12 @@ import static feign.Util.checkNotNull;
 import static feign.Util.getThreadIdentifier;
 import static feign.Util.valuesOrEmpty;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.nio.charset.Charset;
 import java.time.Duration;
@@ -259,12 +264,24 @@ public final class Request implements Serializable {
 
   /**
    * If present, this is the replayable body to send to the server. In some cases, this may be
-   * interpretable as text.
+   * interpretable as text. A {@link Body#isStreaming() streaming} body is written into memory on
+   * first call.
    *
    * @see #charset()
    */
   public byte[] body() {
-    return body.data;
+    return body.asBytes();
+  }
+
+  /**
+   * The Request.Body internal object, for clients that can send a {@link Body#isStreaming()
+   * streaming} body without reading it into memory.
+   *
+   * @return the request body.
+   */
+  @Experimental
+  public Body requestBody() {
+    return body;
   }
 
   public boolean isBinary() {
@@ -274,7 +291,8 @@ public final class Request implements Serializable {
   /**
    * Request Length.
    *
-   * @return size of the request body.
+   * @return size of the request body. A streaming body of unknown size is written into memory to
+   *     tell, see {@link Body#contentLength()}.
    */
   public int length() {
     return this.body.length();
@@ -520,10 +538,18 @@ public final class Request implements Serializable {
 
     private byte[] data;
 
+    private transient Content content;
+
+    private transient byte[] buffered;
+
     private Body() {
       super();
     }
 
+    private Body(Content content) {
+      this.content = content;
+    }
+
     private Body(byte[] data) {
       this.data = data;
     }
@@ -533,17 +559,79 @@ public final class Request implements Serializable {
       this.encoding = encoding;
     }
 
+    /**
+     * A streaming body is serialized as the bytes its content writes, as the content itself is
+     * neither serializable nor held by the body.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+      return content != null ? new Body(asBytes()) : this;
+    }
+
     public Optional<Charset> getEncoding() {
       return Optional.ofNullable(this.encoding);
     }
 
     public int length() {
+      if (content != null) {
+        long length = content.length();
+        return length < 0 ? asBytes().length : (int) Math.min(length, Integer.MAX_VALUE);
+      }
       /* calculate the content length based on the data provided */
       return data != null ? data.length : 0;
     }
 
+    /**
+     * The size of the body in bytes, which unlike {@link #length()} may exceed 2 GiB.
+     *
+     * @return the size, or {@code -1} if the body is streamed and its size is unknown.
+     */
+    @Experimental
+    public long contentLength() {
+      return content != null ? content.length() : length();
+    }
+
+    /**
+     * Whether the body is written by a {@link Content} when sent, rather than held in memory.
+     * Clients that support it call {@link #writeTo(OutputStream)}, while {@link #asBytes()} writes
+     * it into memory for the others.
+     */
+    @Experimental
+    public boolean isStreaming() {
+      return content != null;
+    }
+
+    /**
+     * Writes the body to the given stream, without reading a streaming body into memory first.
+     *
+     * @param out to write to, left open.
+     * @throws IOException if the body could not be written.
+     */
+    @Experimental
+    public void writeTo(OutputStream out) throws IOException {
+      if (content != null) {
+        content.writeTo(out);
+      } else if (data != null) {
+        out.write(data);
+      }
+    }
+
     public byte[] asBytes() {
-      return data;
+      if (content == null) {
+        return data;
+      }
+      byte[] bytes = buffered;
+      if (bytes == null) {
+        long length = content.length();
+        ByteArrayOutputStream out =
+            new ByteArrayOutputStream(length > 0 && length < Integer.MAX_VALUE ? (int) length : 32);
+        try {
+          content.writeTo(out);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        buffered = bytes = out.toByteArray();
+      }
+      return bytes;
     }
 
     public String asString() {
@@ -587,5 +675,42 @@ public final class Request implements Serializable {
     public static Body empty() {
       return new Body();
     }
+
+    /**
+     * Creates a request body that is written by the given content each time the request is sent,
+     * instead of being held in memory. It is binary, and sent without a charset.
+     *
+     * @param content to write, which must be able to write the same bytes more than once.
+     * @return a new streaming Request.Body.
+     */
+    @Experimental
+    public static Body create(Content content) {
+      return new Body(checkNotNull(content, "content"));
+    }
+
+    /**
+     * Writes a {@link #isStreaming() streaming} request body.
+     *
+     * <p>Requests are retried, so {@link #writeTo(OutputStream)} may be called more than once and
+     * has to write the same bytes each time.
+     */
+    @Experimental
+    public interface Content {
+
+      /**
+       * The number of bytes {@link #writeTo(OutputStream)} writes, sent as {@code Content-Length}.
+       *
+       * @return the size, or {@code -1} if unknown, for the body to be sent in chunks.
+       */
+      long length();
+
+      /**
+       * Writes the body.
+       *
+       * @param out to write to, which is closed by the caller.
+       * @throws IOException if the body could not be read or written.
+       */
+      void writeTo(OutputStream out) throws IOException;
+    }
   }
 }
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -39,8 +40,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -52,13 +51,13 @@ import java.util.stream.Collectors;
 @SuppressWarnings("UnusedReturnValue")
 public final class RequestTemplate implements Serializable {
 
-  private static final Pattern QUERY_STRING_PATTERN = Pattern.compile("(?<!\\{)\\?");
   private final Map<String, QueryTemplate> queries = new LinkedHashMap<>();
   private final Map<String, HeaderTemplate> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
   private String target;
   private String fragment;
   private boolean resolved = false;
   private UriTemplate uriTemplate;
+  private volatile String resolvedUri;
   private BodyTemplate bodyTemplate;
   private HttpMethod method;
   private transient Charset charset = Util.UTF_8;
@@ -67,6 +66,7 @@ public final class RequestTemplate implements Serializable {
   private CollectionFormat collectionFormat = CollectionFormat.EXPLODED;
   private MethodMetadata methodMetadata;
   private Target<?> feignTarget;
+  private transient volatile Map<Class<?>, Object> tags;
 
   /** Create a new Request Template. */
   public RequestTemplate() {
@@ -134,8 +134,10 @@ public final class RequestTemplate implements Serializable {
             requestTemplate.collectionFormat,
             requestTemplate.methodMetadata,
             requestTemplate.feignTarget);
+    template.resolvedUri = requestTemplate.resolvedUri;
+    template.tags = requestTemplate.tags;
 
-    if (!requestTemplate.queries().isEmpty()) {
+    if (!requestTemplate.queries.isEmpty()) {
       template.queries.putAll(requestTemplate.queries);
     }
 
@@ -165,11 +167,13 @@ public final class RequestTemplate implements Serializable {
     this.collectionFormat =
         (toCopy.collectionFormat != null) ? toCopy.collectionFormat : CollectionFormat.EXPLODED;
     this.uriTemplate = toCopy.uriTemplate;
+    this.resolvedUri = toCopy.resolvedUri;
     this.bodyTemplate = toCopy.bodyTemplate;
     this.resolved = false;
     this.methodMetadata = toCopy.methodMetadata;
     this.target = toCopy.target;
     this.feignTarget = toCopy.feignTarget;
+    this.tags = toCopy.tags;
   }
 
   /**
@@ -180,75 +184,104 @@ public final class RequestTemplate implements Serializable {
    * @return a new Request Template with all of the variables resolved.
    */
   public RequestTemplate resolve(Map<String, ?> variables) {
+    /*
+     * create a new template from this one. queries and headers are not copied, only their resolved
+     * values are kept.
+     */
+    RequestTemplate source = this.parsed();
+    RequestTemplate resolved =
+        new RequestTemplate(
+            source.target,
+            source.fragment,
+            null,
+            source.bodyTemplate,
+            source.method,
+            source.charset,
+            source.body,
+            source.decodeSlash,
+            source.collectionFormat,
+            source.methodMetadata,
+            source.feignTarget);
+    resolved.tags = source.tags;
+    return source.resolveInto(
+        resolved, source.uriTemplate, source.queries.values(), source.headers.values(), variables);
+  }
 
-    StringBuilder uri = new StringBuilder();
-
-    /* create a new template form this one, but explicitly */
-    RequestTemplate resolved = RequestTemplate.from(this);
+  /**
+   * Like {@link #resolve(Map)}, but replaces this template's uri, query and header templates with
+   * their resolved values instead of copying it. Only for templates created for a single
+   * invocation, which nothing else refers to.
+   */
+  RequestTemplate resolveInPlace(Map<String, ?> variables) {
+    this.materializeUri();
+    UriTemplate uriTemplate = this.uriTemplate;
+    List<QueryTemplate> queryTemplates = new ArrayList<>(this.queries.values());
+    List<HeaderTemplate> headerTemplates = new ArrayList<>(this.headers.values());
+    this.uriTemplate = null;
+    this.queries.clear();
+    this.headers.clear();
+    return this.resolveInto(this, uriTemplate, queryTemplates, headerTemplates, variables);
+  }
 
-    if (this.uriTemplate == null) {
-      /* create a new uri template using the default root */
-      this.uriTemplate = UriTemplate.create("", !this.decodeSlash, this.charset);
+  /** Expands the given templates of this template into {@code resolved}, which has none yet. */
+  private RequestTemplate resolveInto(
+      RequestTemplate resolved,
+      UriTemplate uriTemplate,
+      Collection<QueryTemplate> queryTemplates,
+      Collection<HeaderTemplate> headerTemplates,
+      Map<String, ?> variables) {
+    if (uriTemplate == null) {
+      /* use a uri template for the default root */
+      uriTemplate = UriTemplate.create("", !this.decodeSlash, this.charset);
     }
 
-    String expanded = this.uriTemplate.expand(variables);
+    StringBuilder uri = new StringBuilder();
+    String expanded = uriTemplate.expand(variables);
     if (expanded != null) {
       uri.append(expanded);
     }
+    if (uri.length() > 0 && "/{?;".indexOf(uri.charAt(0)) < 0) {
+      /* if the start of the url is a literal, it must begin with a slash. */
+      uri.insert(0, '/');
+    }
 
     /*
-     * for simplicity, combine the queries into the uri and use the resulting uri to seed the
-     * resolved template.
+     * an expanded uri only holds encoded values, so it is usually final as is. it is parsed by
+     * uri(String) instead when it contains a query, a fragment or a scheme, or when parsing would
+     * render a query differently: empty values gain or lose their '=', and repeated names are
+     * regrouped with the template's collection format.
      */
-    if (!this.queries.isEmpty()) {
-      /*
-       * since we only want to keep resolved query values, reset any queries on the resolved copy
-       */
-      resolved.queries(Collections.emptyMap());
-      StringBuilder query = new StringBuilder();
-      Iterator<QueryTemplate> queryTemplates = this.queries.values().iterator();
-
-      while (queryTemplates.hasNext()) {
-        QueryTemplate queryTemplate = queryTemplates.next();
+    boolean hasQuery = queryStart(uri) >= 0;
+    boolean literal = !hasQuery && uri.indexOf("#") < 0 && !UriUtils.isAbsolute(uri.toString());
+
+    if (!queryTemplates.isEmpty()) {
+      /* the uri may already have a query, in which case additional queries are appended */
+      uri.append(hasQuery ? '&' : '?');
+      for (QueryTemplate queryTemplate : queryTemplates) {
         String queryExpanded = queryTemplate.expand(variables);
         if (Util.isNotBlank(queryExpanded)) {
-          query.append(queryExpanded);
-          if (queryTemplates.hasNext()) {
-            query.append("&");
-          }
-        }
-      }
-
-      String queryString = query.toString();
-      if (!queryString.isEmpty()) {
-        Matcher queryMatcher = QUERY_STRING_PATTERN.matcher(uri);
-        if (queryMatcher.find()) {
-          /* the uri already has a query, so any additional queries should be appended */
-          uri.append("&");
-        } else {
-          uri.append("?");
+          uri.append(queryExpanded).append('&');
+          literal = literal && isLiteralQuery(queryTemplate, queryExpanded);
         }
-        uri.append(queryString);
       }
+      /* drop the trailing separator, or the lone '?' when no query had a value */
+      uri.setLength(uri.length() - 1);
     }
 
-    /* add the uri to result */
-    resolved.uri(uri.toString());
+    if (literal) {
+      /* keep the expanded uri as is; it is only parsed if it is changed piecemeal */
+      resolved.resolvedUri = uri.toString();
+    } else {
+      resolved.uri(uri.toString());
+    }
 
     /* headers */
-    if (!this.headers.isEmpty()) {
-      /*
-       * same as the query string, we only want to keep resolved values, so clear the header map on
-       * the resolved instance
-       */
-      resolved.headers(Collections.emptyMap());
-      for (HeaderTemplate headerTemplate : this.headers.values()) {
-        /* resolve the header */
-        String header = headerTemplate.expand(variables);
-        if (!header.isEmpty()) {
-          /* append the header as a new literal as the value has already been expanded. */
-          resolved.appendHeader(headerTemplate.getName(), Collections.singletonList(header), true);
-        }
+    for (HeaderTemplate headerTemplate : headerTemplates) {
+      /* resolve the header */
+      String header = headerTemplate.expand(variables);
+      if (!header.isEmpty()) {
+        /* append the header as a new literal as the value has already been expanded. */
+        resolved.appendHeader(headerTemplate.getName(), Collections.singletonList(header), true);
       }
     }
 
@@ -261,6 +294,80 @@ public final class RequestTemplate implements Serializable {
     return resolved;
   }
 
+  /**
+   * Whether {@code expanded}, the expansion of {@code queryTemplate}, reads back unchanged when
+   * parsed by {@link #uri(String)}.
+   */
+  private boolean isLiteralQuery(QueryTemplate queryTemplate, String expanded) {
+    if (expanded.endsWith("=") || expanded.contains("=&")) {
+      /* empty values are rendered without their '=' once parsed */
+      return false;
+    }
+    /*
+     * other formats join the values with an encoded delimiter, so only an exploded query repeats
+     * its name, and those pairs are regrouped with the template's format once parsed.
+     */
+    return queryTemplate.getCollectionFormat() != CollectionFormat.EXPLODED
+        || this.collectionFormat == CollectionFormat.EXPLODED
+        || expanded.indexOf('&') < 0;
+  }
+
+  /**
+   * Parses an expanded uri kept by {@link #resolve(Map)} into the uri and query templates, at most
+   * once. Called before anything reads or changes them, so resolving stays cheap when only the
+   * final url is needed. The templates are parsed aside and published by clearing {@link
+   * #resolvedUri} last, so a logger reading the template from another thread never sees them half
+   * built.
+   */
+  private void materializeUri() {
+    if (this.resolvedUri == null) {
+      return;
+    }
+    synchronized (this) {
+      String uri = this.resolvedUri;
+      if (uri == null) {
+        return;
+      }
+      RequestTemplate parsed = new RequestTemplate();
+      parsed.decodeSlash = this.decodeSlash;
+      parsed.charset = this.charset;
+      parsed.collectionFormat = this.collectionFormat;
+      parsed.uri(uri);
+      this.uriTemplate = parsed.uriTemplate;
+      this.queries.putAll(parsed.queries);
+      if (parsed.fragment != null) {
+        this.fragment = parsed.fragment;
+      }
+      this.resolvedUri = null;
+    }
+  }
+
+  /**
+   * The index of the {@code ?} starting the query, ignoring those in {@code {?...}} expressions.
+   */
+  private static int queryStart(CharSequence uri) {
+    for (int i = 0; i < uri.length(); i++) {
+      if (uri.charAt(i) == '?' && (i == 0 || uri.charAt(i - 1) != '{')) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns this template, or, while it still holds an unparsed expanded uri, a parsed copy of it,
+   * for {@link #resolve(Map)} to expand without changing this template.
+   */
+  RequestTemplate parsed() {
+    if (this.resolvedUri == null) {
+      return this;
+    }
+    RequestTemplate parsed = RequestTemplate.from(this);
+    parsed.resolved = this.resolved;
+    parsed.materializeUri();
+    return parsed;
+  }
+
   /**
    * Resolves all expressions, using the variables provided. Values not present in the {@code
    * alreadyEncoded} map are pct-encoded.
@@ -337,6 +444,7 @@ public final class RequestTemplate implements Serializable {
    * @return a RequestTemplate for chaining.
    */
   public RequestTemplate decodeSlash(boolean decodeSlash) {
+    this.materializeUri();
     this.decodeSlash = decodeSlash;
     this.uriTemplate =
         UriTemplate.create(this.uriTemplate.toString(), !this.decodeSlash, this.charset);
@@ -399,6 +507,7 @@ public final class RequestTemplate implements Serializable {
    */
   @Deprecated
   public RequestTemplate append(CharSequence value) {
+    this.materializeUri();
     /* proxy to url */
     if (this.uriTemplate != null) {
       return this.uri(value.toString(), true);
@@ -445,6 +554,7 @@ public final class RequestTemplate implements Serializable {
    * @return a RequestTemplate for chaining.
    */
   public RequestTemplate uri(String uri, boolean append) {
+    this.materializeUri();
     /* validate and ensure that the url is always a relative one */
     if (UriUtils.isAbsolute(uri)) {
       throw new IllegalArgumentException("url values must be not be absolute.");
@@ -471,15 +581,15 @@ public final class RequestTemplate implements Serializable {
      * templates may provide query parameters. since we want to manage those explicity, we will need
      * to extract those out, leaving the uriTemplate with only the path to deal with.
      */
-    Matcher queryMatcher = QUERY_STRING_PATTERN.matcher(uri);
-    if (queryMatcher.find()) {
-      String queryString = uri.substring(queryMatcher.start() + 1);
+    int queryStart = queryStart(uri);
+    if (queryStart >= 0) {
+      String queryString = uri.substring(queryStart + 1);
 
       /* parse the query string */
       this.extractQueryTemplates(queryString, append);
 
       /* reduce the uri to the path */
-      uri = uri.substring(0, queryMatcher.start());
+      uri = uri.substring(0, queryStart);
     }
 
     /* replace the uri template */
@@ -518,6 +628,7 @@ public final class RequestTemplate implements Serializable {
         /*
          * target has a query string, we need to make sure that they are recorded as queries
          */
+        this.materializeUri();
         this.extractQueryTemplates(targetUri.getRawQuery(), true);
       }
 
@@ -541,6 +652,22 @@ public final class RequestTemplate implements Serializable {
    * @return the url
    */
   public String url() {
+    String resolvedUri = this.resolvedUri;
+    if (resolvedUri != null) {
+      /* resolved and untouched since, the expanded uri is already in its final form */
+      StringBuilder url = new StringBuilder();
+      if (this.target != null) {
+        url.append(this.target);
+      }
+      url.append(resolvedUri);
+      if (url.length() == 0 || url.charAt(0) == '?') {
+        url.insert(0, '/');
+      }
+      if (fragment != null) {
+        url.append(fragment);
+      }
+      return url.toString();
+    }
 
     /* build the fully qualified url with all query parameters */
     StringBuilder url = new StringBuilder(this.path());
@@ -560,6 +687,7 @@ public final class RequestTemplate implements Serializable {
    * @return the uri path.
    */
   public String path() {
+    this.materializeUri();
     /* build the fully qualified url with all query parameters */
     StringBuilder path = new StringBuilder();
     if (this.target != null) {
@@ -585,6 +713,7 @@ public final class RequestTemplate implements Serializable {
    * @return the uri template path without host/port, or "/" if no path is set
    */
   public String requestUriTemplate() {
+    this.materializeUri();
     if (this.uriTemplate != null) {
       return this.uriTemplate.toString();
     }
@@ -597,6 +726,7 @@ public final class RequestTemplate implements Serializable {
    * @return a list of template variable names
    */
   public List<String> variables() {
+    this.materializeUri();
     /* combine the variables from the uri, query, header, and body templates */
     List<String> variables = new ArrayList<>(this.uriTemplate.getVariables());
 
@@ -664,6 +794,7 @@ public final class RequestTemplate implements Serializable {
    */
   private RequestTemplate appendQuery(
       String name, Iterable<String> values, CollectionFormat collectionFormat) {
+    this.materializeUri();
     if (!values.iterator().hasNext()) {
       /* empty value, clear the existing values */
       this.queries.remove(name);
@@ -692,6 +823,7 @@ public final class RequestTemplate implements Serializable {
    */
   @SuppressWarnings("unused")
   public RequestTemplate queries(Map<String, Collection<String>> queries) {
+    this.materializeUri();
     if (queries == null || queries.isEmpty()) {
       this.queries.clear();
     } else {
@@ -706,6 +838,7 @@ public final class RequestTemplate implements Serializable {
    * @return registered Query Parameters.
    */
   public Map<String, Collection<String>> queries() {
+    this.materializeUri();
     Map<String, Collection<String>> queryMap = new LinkedHashMap<>();
     this.queries.forEach(
         (key, queryTemplate) -> {
@@ -900,6 +1033,19 @@ public final class RequestTemplate implements Serializable {
     return this;
   }
 
+  /**
+   * Set a body that is written when the request is sent, rather than held in memory. {@code
+   * Content-Length} is set when the size of the content is known.
+   *
+   * @param content to write, possibly more than once.
+   * @return a RequestTemplate for chaining.
+   * @see Request.Body#create(Request.Body.Content)
+   */
+  @Experimental
+  public RequestTemplate body(Request.Body.Content content) {
+    return this.body(Request.Body.create(content));
+  }
+
   /**
    * Set the Body for this request.
    *
@@ -915,8 +1061,8 @@ public final class RequestTemplate implements Serializable {
     this.bodyTemplate = null;
 
     header(CONTENT_LENGTH, Collections.emptyList());
-    if (body.length() > 0) {
-      header(CONTENT_LENGTH, String.valueOf(body.length()));
+    if (body.contentLength() > 0) {
+      header(CONTENT_LENGTH, String.valueOf(body.contentLength()));
     }
 
     return this;
@@ -1010,6 +1156,7 @@ public final class RequestTemplate implements Serializable {
    * @return a List of all the variable names.
    */
   public Collection<String> getRequestVariables() {
+    this.materializeUri();
     final Collection<String> variables = new LinkedHashSet<>(this.uriTemplate.getVariables());
     this.queries.values().forEach(queryTemplate -> variables.addAll(queryTemplate.getVariables()));
     this.headers
@@ -1034,6 +1181,7 @@ public final class RequestTemplate implements Serializable {
    * @return the Query String.
    */
   public String queryLine() {
+    this.materializeUri();
     StringBuilder queryString = new StringBuilder();
 
     if (!this.queries.isEmpty()) {
@@ -1110,6 +1258,39 @@ public final class RequestTemplate implements Serializable {
     return feignTarget;
   }
 
+  /**
+   * Attaches {@code value} to this template under {@code type}, so components taking part in the
+   * same invocation can share state through the template instead of a side table. Copies of the
+   * template start out with the same tags. Tags are not serialized.
+   *
+   * @param type the tag is stored and looked up by.
+   * @param value to attach, or {@literal null} to remove the tag.
+   * @return a RequestTemplate for chaining.
+   */
+  @Experimental
+  public synchronized <T> RequestTemplate tag(Class<T> type, T value) {
+    checkNotNull(type, "type");
+    Map<Class<?>, Object> updated = this.tags == null ? new HashMap<>() : new HashMap<>(this.tags);
+    if (value == null) {
+      updated.remove(type);
+    } else {
+      updated.put(type, type.cast(value));
+    }
+    this.tags = updated.isEmpty() ? null : updated;
+    return this;
+  }
+
+  /**
+   * The tag attached under {@code type}.
+   *
+   * @return the tag, or {@literal null} if there is none.
+   */
+  @Experimental
+  public <T> T tag(Class<T> type) {
+    Map<Class<?>, Object> current = this.tags;
+    return current == null ? null : type.cast(current.get(type));
+  }
+
   /** Factory for creating RequestTemplate. */
   interface Factory {
 
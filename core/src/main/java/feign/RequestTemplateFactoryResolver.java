@@ -109,8 +109,7 @@ final class RequestTemplateFactoryResolver {
         // add query map parameters after initial resolve so that they take
         // precedence over any predefined values
         Object value = argv[metadata.queryMapIndex()];
-        Map<String, Object> queryMap = toQueryMap(value, metadata.queryMapEncoder());
-        template = addQueryMapQueryParameters(queryMap, template);
+        template = addQueryMapQueryParameters(value, metadata.queryMapEncoder(), template);
       }
 
       if (metadata.headerMapIndex() != null) {
@@ -178,37 +177,52 @@ final class RequestTemplateFactoryResolver {
 
     @SuppressWarnings("unchecked")
     private RequestTemplate addQueryMapQueryParameters(
-        Map<String, Object> queryMap, RequestTemplate mutable) {
-      for (Map.Entry<String, Object> currEntry : queryMap.entrySet()) {
-        Collection<String> values = new ArrayList<String>();
-
-        Object currValue = currEntry.getValue();
-        if (currValue instanceof Iterable<?>) {
-          Iterator<?> iter = ((Iterable<?>) currValue).iterator();
-          while (iter.hasNext()) {
-            Object nextObject = iter.next();
-            values.add(nextObject == null ? null : UriUtils.encode(nextObject.toString()));
-          }
-        } else if (currValue instanceof Object[]) {
-          for (Object value : (Object[]) currValue) {
-            values.add(value == null ? null : UriUtils.encode(value.toString()));
-          }
-        } else {
-          if (currValue != null) {
-            values.add(UriUtils.encode(currValue.toString()));
-          }
+        Object value, QueryMapEncoder queryMapEncoder, RequestTemplate mutable) {
+      if (value instanceof Map) {
+        for (Map.Entry<String, Object> currEntry : ((Map<String, Object>) value).entrySet()) {
+          addQueryMapQueryParameter(currEntry.getKey(), currEntry.getValue(), mutable);
         }
+        return mutable;
+      }
+      try {
+        // encode with @QueryMap annotation if exists otherwise with the one from this resolver,
+        // straight into the template
+        (queryMapEncoder != null ? queryMapEncoder : this.queryMapEncoder)
+            .encode(
+                value, (name, currValue) -> addQueryMapQueryParameter(name, currValue, mutable));
+      } catch (EncodeException e) {
+        throw new IllegalStateException(e);
+      }
+      return mutable;
+    }
 
-        if (values.size() > 0) {
-          mutable.query(UriUtils.encode(currEntry.getKey()), values);
+    private void addQueryMapQueryParameter(String name, Object currValue, RequestTemplate mutable) {
+      Collection<String> values = new ArrayList<String>();
+      if (currValue instanceof Iterable<?>) {
+        Iterator<?> iter = ((Iterable<?>) currValue).iterator();
+        while (iter.hasNext()) {
+          Object nextObject = iter.next();
+          values.add(nextObject == null ? null : UriUtils.encode(nextObject.toString()));
+        }
+      } else if (currValue instanceof Object[]) {
+        for (Object value : (Object[]) currValue) {
+          values.add(value == null ? null : UriUtils.encode(value.toString()));
+        }
+      } else {
+        if (currValue != null) {
+          values.add(UriUtils.encode(currValue.toString()));
         }
       }
-      return mutable;
+
+      if (values.size() > 0) {
+        mutable.query(UriUtils.encode(name), values);
+      }
     }
 
     protected RequestTemplate resolve(
         Object[] argv, RequestTemplate mutable, Map<String, Object> variables) {
-      return mutable.resolve(variables);
+      // mutable is this invocation's own copy of the metadata's template
+      return mutable.resolveInPlace(variables);
     }
   }
 
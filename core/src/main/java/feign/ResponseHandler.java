@@ -82,7 +82,9 @@ public class ResponseHandler {
       }
       throw errorReading(response.request(), response, e);
     } catch (Exception e) {
-      ensureClosed(response.body());
+      if (!(e instanceof FeignException && ((FeignException) e).holdsResponseBody())) {
+        ensureClosed(response.body());
+      }
       throw e;
     }
   }
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.batch;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import feign.Experimental;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Collects concurrent calls of a single-item method into one call of a bulk method of the same
+ * interface, when a {@link BatchingCapability} is added to the client. The single-item method takes
+ * exactly one argument, the key; the bulk method takes a {@code List}, {@code Set} or {@code
+ * Collection} of keys and returns either a {@code Map} of results by key, or a {@code List} of
+ * them. A list is matched to the keys by position, unless a {@link
+ * BatchingCapability.Builder#keyedBy key function} is registered for its elements.
+ *
+ * <pre>
+ * interface Users {
+ *   &#64;Batched(value = "findAll", maxSize = 50)
+ *   &#64;RequestLine("GET /users/{id}")
+ *   CompletableFuture&lt;User&gt; find(&#64;Param("id") String id);
+ *
+ *   &#64;RequestLine("GET /users?ids={ids}")
+ *   CompletableFuture&lt;Map&lt;String, User&gt;&gt; findAll(&#64;Param("ids") List&lt;String&gt; ids);
+ * }
+ * </pre>
+ */
+@Experimental
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Batched {
+
+  /** Name of the bulk method, which takes the collection of keys as its only argument. */
+  String value();
+
+  /** Distinct keys sent in one bulk call at most; a full batch is sent right away. */
+  int maxSize() default 100;
+
+  /** Milliseconds to wait for other calls after the first call of a batch, before sending it. */
+  long maxDelayMillis() default 5;
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.batch;
+
+import static feign.Util.checkNotNull;
+import static feign.Util.checkState;
+
+import feign.Capability;
+import feign.Experimental;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request.Options;
+import feign.Util;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Sends the concurrent calls of the methods annotated with {@link Batched} as one call of their
+ * bulk method, then completes each call with its own result. Against an API offering a bulk
+ * endpoint, this turns a fan-out of hundreds of requests into a few.
+ *
+ * <p>A batch starts with the first call of a method, and is sent once it holds {@link
+ * Batched#maxSize()} distinct keys, or {@link Batched#maxDelayMillis()} later. Calls for the same
+ * key share one slot and one result. When the bulk call fails, every call of the batch fails with
+ * its exception. A {@code null} key is not batched.
+ *
+ * <p>It works best with {@link feign.AsyncFeign}, whose methods return a {@code CompletableFuture}
+ * right away. Synchronous methods are batched too, but only calls made concurrently from different
+ * threads can share a batch, each of them waiting for the bulk call, at most for the delay of the
+ * batch and the connect and read timeouts of the client, after which it fails with a {@link
+ * feign.FeignException}.
+ *
+ * <pre>
+ * Users users = AsyncFeign.builder()
+ *     .addCapability(BatchingCapability.builder().keyedBy(User.class, User::id).build())
+ *     .target(Users.class, "https://users.example.com");
+ * </pre>
+ */
+@Experimental
+public final class BatchingCapability implements Capability {
+
+  private final ScheduledExecutorService scheduler;
+  private final Executor executor;
+  private final Map<Class<?>, Function<Object, Object>> keyFunctions;
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder batchedCalls = new LongAdder();
+  private volatile Options options = new Options();
+
+  private BatchingCapability(Builder builder) {
+    this.scheduler = builder.scheduler != null ? builder.scheduler : DefaultScheduler.INSTANCE;
+    this.executor = builder.executor != null ? builder.executor : DefaultExecutor.INSTANCE;
+    this.keyFunctions = new LinkedHashMap<>(builder.keyFunctions);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Keeps the options of the client being built, whose timeouts bound synchronous calls. */
+  @Override
+  public Options enrich(Options options) {
+    if (options != null) {
+      this.options = options;
+    }
+    return options;
+  }
+
+  @Override
+  public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+    return (target, dispatch) -> {
+      Options clientOptions = options;
+      Map<Method, MethodHandler> decorated = new LinkedHashMap<>(dispatch);
+      for (Map.Entry<Method, MethodHandler> entry : dispatch.entrySet()) {
+        Method method = entry.getKey();
+        Batched batched = method.getAnnotation(Batched.class);
+        if (batched == null || Util.isDefault(method)) {
+          continue;
+        }
+        String configKey = Feign.configKey(target.type(), method);
+        checkState(
+            method.getParameterCount() == 1,
+            "@Batched method %s must take exactly one argument, its key",
+            configKey);
+        checkState(batched.maxSize() > 0, "maxSize of %s must be positive", configKey);
+        checkState(batched.maxDelayMillis() >= 0, "maxDelayMillis of %s is negative", configKey);
+        Method bulkMethod = bulkMethod(dispatch, method, batched.value(), configKey);
+        decorated.put(
+            method,
+            new BatchingMethodHandler(
+                this,
+                entry.getValue(),
+                method,
+                dispatch.get(bulkMethod),
+                bulkMethod,
+                batched.maxSize(),
+                TimeUnit.MILLISECONDS.toNanos(batched.maxDelayMillis()),
+                clientOptions));
+      }
+      return invocationHandlerFactory.create(target, decorated);
+    };
+  }
+
+  private static Method bulkMethod(
+      Map<Method, MethodHandler> dispatch, Method method, String name, String configKey) {
+    Method bulkMethod = null;
+    for (Method candidate : dispatch.keySet()) {
+      if (candidate.getName().equals(name)
+          && candidate.getParameterCount() == 1
+          && !Util.isDefault(candidate)
+          && candidate.getDeclaringClass().isAssignableFrom(method.getDeclaringClass())) {
+        checkState(bulkMethod == null, "bulk method %s of %s is ambiguous", name, configKey);
+        bulkMethod = candidate;
+      }
+    }
+    checkState(
+        bulkMethod != null,
+        "bulk method %s of %s not found: it must take the collection of keys as only argument",
+        name,
+        configKey);
+    return bulkMethod;
+  }
+
+  /** Bulk calls sent so far. */
+  public long batches() {
+    return batches.sum();
+  }
+
+  /** Calls completed by a bulk call so far, each of them saving a request. */
+  public long batchedCalls() {
+    return batchedCalls.sum();
+  }
+
+  ScheduledExecutorService scheduler() {
+    return scheduler;
+  }
+
+  Executor executor() {
+    return executor;
+  }
+
+  void recordBatch(int calls) {
+    batches.increment();
+    batchedCalls.add(calls);
+  }
+
+  /** The key of a result of a bulk method, or {@code null} if no key function applies. */
+  Function<Object, Object> keyFunction(Object result) {
+    for (Map.Entry<Class<?>, Function<Object, Object>> entry : keyFunctions.entrySet()) {
+      if (entry.getKey().isInstance(result)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /** Daemon threads sending the batches of all capabilities once their delay elapsed. */
+  private static final class DefaultExecutor {
+
+    static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(
+            r -> {
+              final Thread result = new Thread(r, "feign-batch");
+              result.setDaemon(true);
+              return result;
+            });
+  }
+
+  private static final class DefaultScheduler {
+
+    static final ScheduledExecutorService INSTANCE = create();
+
+    private static ScheduledExecutorService create() {
+      ScheduledThreadPoolExecutor scheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                final Thread result = new Thread(r, "feign-batch-scheduler");
+                result.setDaemon(true);
+                return result;
+              });
+      scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
+    }
+  }
+
+  public static final class Builder {
+
+    private ScheduledExecutorService scheduler;
+    private Executor executor;
+    private final Map<Class<?>, Function<Object, Object>> keyFunctions = new LinkedHashMap<>();
+
+    /**
+     * Schedules the batches sent after their delay, which are then handed over to the {@link
+     * #executor(Executor) executor}. Defaults to a shared daemon thread.
+     */
+    public Builder scheduler(ScheduledExecutorService scheduler) {
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+      return this;
+    }
+
+    /**
+     * Runs the bulk calls of the batches sent after their delay, so that a synchronous bulk method
+     * does not hold up the timers of other batches. The caller owns its lifecycle. Defaults to
+     * daemon threads shared by all capabilities, which stop when idle.
+     */
+    public Builder executor(Executor executor) {
+      this.executor = checkNotNull(executor, "executor");
+      return this;
+    }
+
+    /**
+     * Matches the results of bulk methods returning a list to their keys with the given function,
+     * instead of by position.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Builder keyedBy(Class<T> type, Function<? super T, ?> key) {
+      checkNotNull(type, "type");
+      checkNotNull(key, "key");
+      keyFunctions.put(type, (Function<Object, Object>) key);
+      return this;
+    }
+
+    public BatchingCapability build() {
+      return new BatchingCapability(this);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.batch;
+
+import static feign.Util.checkState;
+
+import feign.FeignException;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request.Options;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/** Adds the calls of a {@link Batched} method to the current batch, and sends full batches. */
+final class BatchingMethodHandler implements MethodHandler {
+
+  private final BatchingCapability capability;
+  private final MethodHandler delegate;
+  private final MethodHandler bulk;
+  private final boolean async;
+  private final boolean bulkTakesSet;
+  private final int maxSize;
+  private final long maxDelayNanos;
+  private final long maxWaitNanos;
+
+  /** The batch collecting calls, guarded by {@code this}. */
+  private Batch current;
+
+  BatchingMethodHandler(
+      BatchingCapability capability,
+      MethodHandler delegate,
+      Method method,
+      MethodHandler bulk,
+      Method bulkMethod,
+      int maxSize,
+      long maxDelayNanos,
+      Options options) {
+    Class<?> keysType = bulkMethod.getParameterTypes()[0];
+    this.bulkTakesSet = !keysType.isAssignableFrom(ArrayList.class);
+    checkState(
+        !bulkTakesSet || keysType.isAssignableFrom(LinkedHashSet.class),
+        "bulk method %s must take a List, Set or Collection of keys",
+        bulkMethod.getName());
+    this.capability = capability;
+    this.delegate = delegate;
+    this.async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+    this.bulk = bulk;
+    this.maxSize = maxSize;
+    this.maxDelayNanos = maxDelayNanos;
+    // as long as the bulk call may take once the batch is sent
+    this.maxWaitNanos =
+        maxDelayNanos
+            + options.connectTimeoutUnit().toNanos(options.connectTimeout())
+            + options.readTimeoutUnit().toNanos(options.readTimeout());
+  }
+
+  @Override
+  public Object invoke(Object[] argv) throws Throwable {
+    Object key = argv[0];
+    if (key == null) {
+      return delegate.invoke(argv);
+    }
+    CompletableFuture<Object> result = add(key);
+    if (async) {
+      return result;
+    }
+    try {
+      return result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } catch (TimeoutException e) {
+      result.cancel(false);
+      throw new BatchTimeoutException(
+          "batched call for key " + key + " timed out after " + maxWaitNanos / 1_000_000 + "ms", e);
+    }
+  }
+
+  private CompletableFuture<Object> add(Object key) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    Batch batch;
+    boolean first;
+    boolean full;
+    synchronized (this) {
+      batch = current;
+      first = batch == null;
+      if (first) {
+        batch = current = new Batch();
+      }
+      batch.calls.computeIfAbsent(key, k -> new ArrayList<>(1)).add(result);
+      full = batch.calls.size() >= maxSize;
+      if (full) {
+        current = null;
+      }
+    }
+    if (full) {
+      send(batch);
+    } else if (first) {
+      schedule(batch);
+    }
+    return result;
+  }
+
+  private void schedule(Batch batch) {
+    try {
+      batch.timer =
+          capability
+              .scheduler()
+              .schedule(
+                  () -> capability.executor().execute(() -> sendIfCurrent(batch)),
+                  maxDelayNanos,
+                  TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      sendIfCurrent(batch);
+    }
+  }
+
+  private void sendIfCurrent(Batch batch) {
+    synchronized (this) {
+      if (current != batch) {
+        return;
+      }
+      current = null;
+    }
+    send(batch);
+  }
+
+  private void send(Batch batch) {
+    ScheduledFuture<?> timer = batch.timer;
+    if (timer != null) {
+      timer.cancel(false);
+    }
+    Collection<Object> keys =
+        bulkTakesSet
+            ? new LinkedHashSet<>(batch.calls.keySet())
+            : new ArrayList<>(batch.calls.keySet());
+    capability.recordBatch(batch.calls.size());
+    Object result;
+    try {
+      result = bulk.invoke(new Object[] {keys});
+    } catch (Throwable throwable) {
+      batch.fail(throwable);
+      return;
+    }
+    if (result instanceof CompletableFuture) {
+      ((CompletableFuture<?>) result)
+          .whenComplete(
+              (results, throwable) -> {
+                if (throwable != null) {
+                  batch.fail(
+                      throwable instanceof CompletionException && throwable.getCause() != null
+                          ? throwable.getCause()
+                          : throwable);
+                } else {
+                  complete(batch, results);
+                }
+              });
+    } else {
+      complete(batch, result);
+    }
+  }
+
+  private void complete(Batch batch, Object results) {
+    try {
+      Map<?, ?> resultsByKey = byKey(batch, results);
+      for (Map.Entry<Object, List<CompletableFuture<Object>>> call : batch.calls.entrySet()) {
+        Object result = resultsByKey.get(call.getKey());
+        for (CompletableFuture<Object> future : call.getValue()) {
+          future.complete(result);
+        }
+      }
+    } catch (RuntimeException e) {
+      batch.fail(e);
+    }
+  }
+
+  private Map<?, ?> byKey(Batch batch, Object results) {
+    if (results == null) {
+      return new HashMap<>();
+    }
+    if (results instanceof Map) {
+      return (Map<?, ?>) results;
+    }
+    checkState(
+        results instanceof Collection,
+        "bulk method must return a Map or a List, but returned %s",
+        results.getClass().getName());
+    Collection<?> values = (Collection<?>) results;
+    Map<Object, Object> resultsByKey = new HashMap<>();
+    Function<Object, Object> keyFunction =
+        values.isEmpty() ? null : capability.keyFunction(values.iterator().next());
+    if (keyFunction != null) {
+      for (Object value : values) {
+        resultsByKey.put(keyFunction.apply(value), value);
+      }
+      return resultsByKey;
+    }
+    checkState(
+        values.size() == batch.calls.size(),
+        "bulk method returned %s results for %s keys, register a key function to match them",
+        values.size(),
+        batch.calls.size());
+    int i = 0;
+    Object[] keys = batch.calls.keySet().toArray();
+    for (Object value : values) {
+      resultsByKey.put(keys[i++], value);
+    }
+    return resultsByKey;
+  }
+
+  /** Raised in a synchronous call whose batch did not complete within the client's timeouts. */
+  static final class BatchTimeoutException extends FeignException {
+
+    private static final long serialVersionUID = 1L;
+
+    BatchTimeoutException(String message, Throwable cause) {
+      super(-1, message, cause);
+    }
+  }
+
+  private static final class Batch {
+
+    final Map<Object, List<CompletableFuture<Object>>> calls = new LinkedHashMap<>();
+    volatile ScheduledFuture<?> timer;
+
+    void fail(Throwable throwable) {
+      for (List<CompletableFuture<Object>> futures : calls.values()) {
+        for (CompletableFuture<Object> future : futures) {
+          future.completeExceptionally(throwable);
+        }
+      }
+    }
+  }
+}
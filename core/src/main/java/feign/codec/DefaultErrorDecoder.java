@@ -17,7 +17,9 @@ package feign.codec;
 
 import static feign.FeignException.errorStatus;
 import static feign.Util.RETRY_AFTER;
+import static feign.Util.checkNotNull;
 
+import feign.ExceptionConstructionPolicy;
 import feign.FeignException;
 import feign.Response;
 import feign.RetryableException;
@@ -30,21 +32,53 @@ public class DefaultErrorDecoder implements ErrorDecoder {
       new ErrorDecoder.RetryAfterDecoder();
   private Integer maxBodyBytesLength;
   private Integer maxBodyCharsLength;
+  private final ErrorBodyCapture errorBodyCapture;
+  private final ExceptionConstructionPolicy exceptionConstructionPolicy;
 
   public DefaultErrorDecoder() {
-    this.maxBodyBytesLength = null;
-    this.maxBodyCharsLength = null;
+    this(null, null);
   }
 
   public DefaultErrorDecoder(Integer maxBodyBytesLength, Integer maxBodyCharsLength) {
+    this(maxBodyBytesLength, maxBodyCharsLength, ErrorBodyCapture.DEFAULT);
+  }
+
+  /**
+   * @param errorBodyCapture how much of the error body to read into the exception; use {@link
+   *     ErrorBodyCapture#unbounded()} to keep all of it.
+   */
+  public DefaultErrorDecoder(
+      Integer maxBodyBytesLength, Integer maxBodyCharsLength, ErrorBodyCapture errorBodyCapture) {
+    this(
+        maxBodyBytesLength, maxBodyCharsLength, errorBodyCapture, ExceptionConstructionPolicy.FULL);
+  }
+
+  /**
+   * @param exceptionConstructionPolicy use {@link ExceptionConstructionPolicy#STACKLESS} when error
+   *     statuses are expected and caught, to skip the stack trace and defer formatting the message.
+   */
+  public DefaultErrorDecoder(
+      Integer maxBodyBytesLength,
+      Integer maxBodyCharsLength,
+      ErrorBodyCapture errorBodyCapture,
+      ExceptionConstructionPolicy exceptionConstructionPolicy) {
     this.maxBodyBytesLength = maxBodyBytesLength;
     this.maxBodyCharsLength = maxBodyCharsLength;
+    this.errorBodyCapture = checkNotNull(errorBodyCapture, "errorBodyCapture");
+    this.exceptionConstructionPolicy =
+        checkNotNull(exceptionConstructionPolicy, "exceptionConstructionPolicy");
   }
 
   @Override
   public Exception decode(String methodKey, Response response) {
     FeignException exception =
-        errorStatus(methodKey, response, maxBodyBytesLength, maxBodyCharsLength);
+        errorStatus(
+            methodKey,
+            response,
+            maxBodyBytesLength,
+            maxBodyCharsLength,
+            errorBodyCapture,
+            exceptionConstructionPolicy);
     Long retryAfter = retryAfterDecoder.apply(firstOrNull(response.headers(), RETRY_AFTER));
     if (retryAfter != null) {
       return new RetryableException(
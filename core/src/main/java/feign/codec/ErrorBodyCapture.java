@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.codec;
+
+import static feign.Util.checkArgument;
+import static feign.Util.ensureClosed;
+
+import feign.Experimental;
+import feign.Response;
+import feign.Util;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Controls how much of an error response body is read into memory by {@link ErrorDecoder}s. At most
+ * {@link #maxBytes()} are kept. Up to {@link #maxDrainBytes()} more are read and discarded so the
+ * connection can be reused; anything beyond that is abandoned by closing the stream, which lets the
+ * client abort the connection instead of downloading the rest.
+ *
+ * <p>Reads go through a small per-thread buffer, so capturing a typical error body allocates only
+ * the resulting array.
+ *
+ * <p>Decoders that need the whole body can opt in with {@link #unread()}, which leaves it unread
+ * for the caller to stream from the exception, or with {@link #unbounded()}, which reads all of it
+ * into memory. They can also read {@link Response#body()} as a stream themselves before any capture
+ * takes place.
+ */
+@Experimental
+public final class ErrorBodyCapture {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final ThreadLocal<byte[]> BUFFER =
+      ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+  /** Keeps up to 1 MiB and drains up to 64 KiB beyond that. */
+  public static final ErrorBodyCapture DEFAULT = new ErrorBodyCapture(1 << 20, 64 << 10);
+
+  private static final ErrorBodyCapture UNBOUNDED = new ErrorBodyCapture(Integer.MAX_VALUE, 0);
+
+  private static final ErrorBodyCapture UNREAD = new ErrorBodyCapture(0, 0, true);
+
+  private final int maxBytes;
+  private final int maxDrainBytes;
+  private final boolean unread;
+
+  private ErrorBodyCapture(int maxBytes, int maxDrainBytes) {
+    this(maxBytes, maxDrainBytes, false);
+  }
+
+  private ErrorBodyCapture(int maxBytes, int maxDrainBytes, boolean unread) {
+    this.maxBytes = maxBytes;
+    this.maxDrainBytes = maxDrainBytes;
+    this.unread = unread;
+  }
+
+  /** Keeps at most {@code maxBytes} of the body, draining up to 64 KiB beyond that. */
+  public static ErrorBodyCapture limit(int maxBytes) {
+    checkArgument(maxBytes >= 0, "maxBytes must not be negative: %s", maxBytes);
+    return new ErrorBodyCapture(maxBytes, DEFAULT.maxDrainBytes);
+  }
+
+  /** Reads the whole body into memory, however large. */
+  public static ErrorBodyCapture unbounded() {
+    return UNBOUNDED;
+  }
+
+  /**
+   * Reads none of the body. {@link feign.FeignException#errorStatus} hands it to the exception
+   * instead, where {@link feign.FeignException#responseBodyStream()} streams it. Whoever catches
+   * the exception must close that stream; the body is closed already if the call was retried.
+   */
+  public static ErrorBodyCapture unread() {
+    return UNREAD;
+  }
+
+  /**
+   * Returns a copy that reads and discards at most {@code maxDrainBytes} past the captured prefix
+   * before abandoning the stream. Zero abandons it as soon as the prefix is full.
+   */
+  public ErrorBodyCapture drainLimit(int maxDrainBytes) {
+    checkArgument(maxDrainBytes >= 0, "maxDrainBytes must not be negative: %s", maxDrainBytes);
+    return new ErrorBodyCapture(maxBytes, maxDrainBytes, unread);
+  }
+
+  public int maxBytes() {
+    return maxBytes;
+  }
+
+  public int maxDrainBytes() {
+    return maxDrainBytes;
+  }
+
+  /** Whether the body is left unread for the caller, as {@link #unread()} does. */
+  public boolean isUnread() {
+    return unread;
+  }
+
+  /**
+   * Reads at most {@link #maxBytes()} of the response body and closes its stream. Returns an empty
+   * array if there is no body or it cannot be read, and leaves the body untouched if {@link
+   * #isUnread()}.
+   */
+  public byte[] read(Response response) {
+    Response.Body body = response.body();
+    if (body == null || unread) {
+      return new byte[0];
+    }
+    InputStream in = null;
+    try {
+      in = body.asInputStream();
+      if (maxBytes == Integer.MAX_VALUE) {
+        return Util.toByteArray(in);
+      }
+      return read(in);
+    } catch (IOException ignored) { // NOPMD
+      return new byte[0];
+    } finally {
+      ensureClosed(in);
+    }
+  }
+
+  /**
+   * Returns a copy of {@code response} whose body holds the captured prefix and can be read any
+   * number of times. The original body is consumed and closed. If {@link #isUnread()}, {@code
+   * response} is returned as it is.
+   */
+  public Response capture(Response response) {
+    if (response.body() == null || unread) {
+      return response;
+    }
+    return response.toBuilder().body(read(response)).build();
+  }
+
+  private byte[] read(InputStream in) throws IOException {
+    byte[] buffer = BUFFER.get();
+    int prefix = Math.min(maxBytes, buffer.length);
+    int filled = fill(in, buffer, prefix);
+    if (filled < prefix) {
+      return Arrays.copyOf(buffer, filled);
+    }
+    byte[] captured;
+    if (maxBytes <= buffer.length) {
+      captured = Arrays.copyOf(buffer, filled);
+    } else {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.length * 2);
+      out.write(buffer, 0, filled);
+      int remaining = maxBytes - filled;
+      while (remaining > 0) {
+        int wanted = Math.min(remaining, buffer.length);
+        int read = fill(in, buffer, wanted);
+        out.write(buffer, 0, read);
+        if (read < wanted) {
+          return out.toByteArray();
+        }
+        remaining -= read;
+      }
+      captured = out.toByteArray();
+    }
+    drain(in, buffer);
+    return captured;
+  }
+
+  /** Reads until {@code length} bytes are in {@code buffer} or the stream ends. */
+  private static int fill(InputStream in, byte[] buffer, int length) throws IOException {
+    int filled = 0;
+    while (filled < length) {
+      int read = in.read(buffer, filled, length - filled);
+      if (read < 0) {
+        break;
+      }
+      filled += read;
+    }
+    return filled;
+  }
+
+  private void drain(InputStream in, byte[] buffer) throws IOException {
+    long drained = 0;
+    while (drained < maxDrainBytes) {
+      int read = in.read(buffer, 0, (int) Math.min(buffer.length, maxDrainBytes - drained));
+      if (read < 0) {
+        return;
+      }
+      drained += read;
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (unread) {
+      return "ErrorBodyCapture{unread}";
+    }
+    return "ErrorBodyCapture{maxBytes=" + maxBytes + ", maxDrainBytes=" + maxDrainBytes + '}';
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.codec;
+
+import feign.Experimental;
+import feign.Response;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * A {@link JsonDecoder} that can also read a response body token by token, so that a decoder
+ * looking for part of a document binds that part straight to its type, instead of first decoding
+ * the whole document into a tree of maps and lists and converting the part afterwards.
+ */
+@Experimental
+public interface StreamingJsonDecoder extends JsonDecoder {
+
+  /**
+   * Opens a cursor positioned before the root value of the response body.
+   *
+   * @return the cursor, or {@code null} if the body is empty.
+   */
+  Cursor cursor(Response response) throws IOException;
+
+  /**
+   * A cursor over a JSON document. Each method acts on the next value of the document, or of the
+   * object or array the cursor is in.
+   */
+  @Experimental
+  interface Cursor extends Closeable {
+
+    /**
+     * Moves into the next value if it is an object.
+     *
+     * @return false, leaving the value unread, if it is not an object.
+     */
+    boolean beginObject() throws IOException;
+
+    /**
+     * Moves into the next value if it is an array.
+     *
+     * @return false, leaving the value unread, if it is not an array.
+     */
+    boolean beginArray() throws IOException;
+
+    /**
+     * Reads the name of the next field of the current object, leaving the cursor before its value.
+     *
+     * @return the name, or {@code null} after leaving the object at its end.
+     */
+    String nextField() throws IOException;
+
+    /**
+     * Checks whether the current array has another element.
+     *
+     * @return false after leaving the array at its end.
+     */
+    boolean hasNextElement() throws IOException;
+
+    /** Binds the next value, however deep, to the given type. */
+    Object read(Type type) throws IOException;
+
+    /** Skips the next value, however deep. */
+    void skipValue() throws IOException;
+  }
+}
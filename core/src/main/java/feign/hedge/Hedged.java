@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hedge;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import feign.Experimental;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a method, or all methods of an interface, into hedging by a {@link HedgingCapability}: when
+ * no response arrived after a delay, another copy of the request is sent, and the first response
+ * wins. Only safe requests are hedged by default, that is {@code GET}, {@code HEAD} and {@code
+ * OPTIONS}; see {@link HedgingCapability.Builder#methods(feign.Request.HttpMethod...)}.
+ *
+ * <pre>
+ * interface GitHub {
+ *   &#64;Hedged(percentile = 90)
+ *   &#64;RequestLine("GET /repos/{owner}/{repo}/contributors")
+ *   List&lt;Contributor&gt; contributors(&#64;Param("owner") String owner, &#64;Param("repo") String repo);
+ * }
+ * </pre>
+ */
+@Experimental
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface Hedged {
+
+  /** How many copies may be sent in addition to the original request, usually one or two. */
+  int hedges() default 1;
+
+  /**
+   * Milliseconds to wait for a response before sending each copy. By default, the delay is the
+   * {@link #percentile()} of the recent latencies of the method instead.
+   */
+  long delayMillis() default -1;
+
+  /**
+   * Percentile of the recent latencies of the method to wait for before sending each copy, when no
+   * {@link #delayMillis()} is given. Until enough latencies were observed, requests are not hedged.
+   */
+  double percentile() default 95;
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hedge;
+
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Experimental;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Request.Options;
+import feign.Response;
+import feign.timing.LatencyHistogram;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuts the tail latency of idempotent requests by sending another copy when the first one is slow,
+ * then using whichever response arrives first. The other copies are cancelled, and their responses
+ * closed if they arrive anyway.
+ *
+ * <p>Only the methods annotated with {@link Hedged}, or declared by an interface annotated with it,
+ * are hedged, and only for the {@link Builder#methods(HttpMethod...) HTTP methods} allowed, {@code
+ * GET}, {@code HEAD} and {@code OPTIONS} by default. The delay before each copy is either fixed, or
+ * a percentile of the latencies recently observed for the method. Hedges are bounded to a share of
+ * the requests sent, like retries by {@link feign.retry.RetryBudget}: every hedged request deposits
+ * {@code maxHedgeRatio} of a token and every copy withdraws a whole one, so that a slow server does
+ * not also receive twice the load.
+ *
+ * <p>Add it as a {@link Capability} of an {@link feign.AsyncFeign} client; it decorates the {@link
+ * AsyncClient}, below the retryer, so each attempt is hedged on its own. Cancelling the future
+ * returned by the method cancels every copy in flight.
+ *
+ * <pre>
+ * GitHub github = AsyncFeign.builder()
+ *     .addCapability(HedgingCapability.builder().maxHedgeRatio(0.05).build())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ */
+@Experimental
+public final class HedgingCapability implements Capability {
+
+  /** Latencies observed before a percentile delay applies, and between its updates. */
+  static final int MIN_SAMPLES = 20;
+
+  /** Latencies observed before they are forgotten, to follow the recent ones. */
+  static final int WINDOW = 1000;
+
+  /** Tokens are counted in thousandths to allow fractional deposits. */
+  private static final long SCALE = 1000;
+
+  private static final Policy NOT_HEDGED = new Policy(0, -1, 0);
+
+  private final ScheduledExecutorService scheduler;
+  private final Executor executor;
+  private final Set<HttpMethod> methods;
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong tokens;
+  private final ConcurrentMap<Method, Policy> policies = new ConcurrentHashMap<>();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder wonHedges = new LongAdder();
+  private final LongAdder rejectedHedges = new LongAdder();
+
+  private HedgingCapability(Builder builder) {
+    this.scheduler = builder.scheduler != null ? builder.scheduler : DefaultScheduler.INSTANCE;
+    this.executor = builder.executor != null ? builder.executor : DefaultExecutor.INSTANCE;
+    this.methods = builder.methods;
+    this.deposit = Math.round(builder.maxHedgeRatio * SCALE);
+    this.capacity = builder.maxBurst * SCALE;
+    this.tokens = new AtomicLong(capacity);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public AsyncClient<Object> enrich(AsyncClient<Object> client) {
+    return (request, options, requestContext) -> {
+      Policy policy = policy(request);
+      if (policy == NOT_HEDGED) {
+        return client.execute(request, options, requestContext);
+      }
+      deposit();
+      long delay = policy.delayNanos();
+      if (delay < 0) {
+        long start = System.nanoTime();
+        return client
+            .execute(request, options, requestContext)
+            .whenComplete(
+                (response, throwable) -> {
+                  if (throwable == null) {
+                    policy.record(System.nanoTime() - start);
+                  }
+                });
+      }
+      HedgedCall call = new HedgedCall(client, request, options, requestContext, policy, delay);
+      call.send(false);
+      call.scheduleHedge();
+      return call;
+    };
+  }
+
+  /** The copies sent so far, in addition to the original requests. */
+  public long hedges() {
+    return hedges.sum();
+  }
+
+  /** The copies whose response arrived before the one of the original request. */
+  public long wonHedges() {
+    return wonHedges.sum();
+  }
+
+  /** The copies not sent so far, as {@code maxHedgeRatio} was reached. */
+  public long rejectedHedges() {
+    return rejectedHedges.sum();
+  }
+
+  private Policy policy(Request request) {
+    if (request.requestTemplate() == null
+        || request.requestTemplate().methodMetadata() == null
+        || !methods.contains(request.httpMethod())) {
+      return NOT_HEDGED;
+    }
+    MethodMetadata metadata = request.requestTemplate().methodMetadata();
+    Method method = metadata.method();
+    return method != null
+        ? policies.computeIfAbsent(method, HedgingCapability::create)
+        : NOT_HEDGED;
+  }
+
+  private static Policy create(Method method) {
+    Hedged hedged = method.getAnnotation(Hedged.class);
+    if (hedged == null) {
+      hedged = method.getDeclaringClass().getAnnotation(Hedged.class);
+    }
+    if (hedged == null || hedged.hedges() == 0) {
+      return NOT_HEDGED;
+    }
+    checkArgument(hedged.hedges() > 0, "hedges must be positive on %s", method);
+    checkArgument(
+        hedged.percentile() > 0 && hedged.percentile() <= 100,
+        "percentile must be between 0 and 100 on %s",
+        method);
+    return new Policy(
+        hedged.hedges(),
+        hedged.delayMillis() >= 0 ? TimeUnit.MILLISECONDS.toNanos(hedged.delayMillis()) : -1,
+        hedged.percentile());
+  }
+
+  private void deposit() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current >= capacity) {
+        return;
+      }
+    } while (!tokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+  }
+
+  private boolean withdraw() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - SCALE));
+    return true;
+  }
+
+  /** How a method is hedged, and the latencies recently observed for it. */
+  private static final class Policy {
+
+    private final int hedges;
+    private final long fixedDelayNanos;
+    private final double percentile;
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile LatencyHistogram latencies = new LatencyHistogram();
+    private volatile long delayNanos = -1;
+
+    Policy(int hedges, long fixedDelayNanos, double percentile) {
+      this.hedges = hedges;
+      this.fixedDelayNanos = fixedDelayNanos;
+      this.percentile = percentile;
+    }
+
+    /**
+     * @return the nanoseconds to wait before sending a copy, or {@literal -1} until enough
+     *     latencies were observed.
+     */
+    long delayNanos() {
+      return fixedDelayNanos >= 0 ? fixedDelayNanos : delayNanos;
+    }
+
+    void record(long nanos) {
+      if (fixedDelayNanos >= 0) {
+        return;
+      }
+      LatencyHistogram current = latencies;
+      current.record(nanos);
+      int count = samples.incrementAndGet();
+      if (count % MIN_SAMPLES == 0) {
+        delayNanos = current.valueAtPercentile(percentile);
+        if (count >= WINDOW) {
+          latencies = new LatencyHistogram();
+          samples.set(0);
+        }
+      }
+    }
+  }
+
+  /** The copies of one request, completed with the first response. */
+  private final class HedgedCall extends CompletableFuture<Response> {
+
+    private final AsyncClient<Object> client;
+    private final Request request;
+    private final Options options;
+    private final Optional<Object> requestContext;
+    private final Policy policy;
+    private final long delayNanos;
+    private final List<CompletableFuture<Response>> attempts = new ArrayList<>(2);
+    private int failed;
+    private int hedgesLeft;
+
+    /** Hedges that took a token and are about to be sent, which a failure has to wait for. */
+    private int sending;
+
+    /** Set once every attempt failed, after which no hedge still pending is sent. */
+    private boolean settled;
+
+    private ScheduledFuture<?> timer;
+
+    HedgedCall(
+        AsyncClient<Object> client,
+        Request request,
+        Options options,
+        Optional<Object> requestContext,
+        Policy policy,
+        long delayNanos) {
+      this.client = client;
+      this.request = request;
+      this.options = options;
+      this.requestContext = requestContext;
+      this.policy = policy;
+      this.delayNanos = delayNanos;
+      this.hedgesLeft = policy.hedges;
+    }
+
+    void send(boolean hedge) {
+      long start = System.nanoTime();
+      CompletableFuture<Response> attempt;
+      try {
+        attempt = client.execute(request, options, requestContext);
+      } catch (RuntimeException e) {
+        attempt = new CompletableFuture<>();
+        attempt.completeExceptionally(e);
+      }
+      synchronized (this) {
+        if (hedge) {
+          sending--;
+        }
+        if (isDone()) {
+          attempt.cancel(true);
+        } else {
+          attempts.add(attempt);
+        }
+      }
+      final CompletableFuture<Response> sent = attempt;
+      attempt.whenComplete(
+          (response, throwable) -> {
+            if (throwable == null) {
+              succeeded(sent, response, System.nanoTime() - start, hedge);
+            } else {
+              failed(throwable);
+            }
+          });
+    }
+
+    synchronized void scheduleHedge() {
+      if (hedgesLeft == 0 || isDone()) {
+        return;
+      }
+      hedgesLeft--;
+      try {
+        timer = scheduler.schedule(this::dispatch, delayNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        hedgesLeft = 0;
+      }
+    }
+
+    /** Hands the copy over to the executor, which may block while sending it, unlike a timer. */
+    private void dispatch() {
+      if (isDone()) {
+        return;
+      }
+      try {
+        executor.execute(this::hedge);
+      } catch (RejectedExecutionException e) {
+        rejectedHedges.increment();
+      }
+    }
+
+    private void hedge() {
+      synchronized (this) {
+        if (isDone() || settled) {
+          return;
+        }
+        if (!withdraw()) {
+          rejectedHedges.increment();
+          return;
+        }
+        sending++;
+      }
+      hedges.increment();
+      send(true);
+      scheduleHedge();
+    }
+
+    private void succeeded(
+        CompletableFuture<Response> winner, Response response, long nanos, boolean hedge) {
+      if (!complete(response)) {
+        response.close();
+        return;
+      }
+      policy.record(nanos);
+      if (hedge) {
+        wonHedges.increment();
+      }
+      cancelAttempts(winner);
+    }
+
+    private void failed(Throwable throwable) {
+      synchronized (this) {
+        if (++failed < attempts.size() + sending || isDone() || settled) {
+          return;
+        }
+        // a hedge still waiting on its timer or the executor is dropped rather than sent after
+        // the call failed
+        settled = true;
+        hedgesLeft = 0;
+        if (timer != null) {
+          timer.cancel(false);
+        }
+      }
+      if (completeExceptionally(throwable)) {
+        cancelAttempts(null);
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean result = super.cancel(mayInterruptIfRunning);
+      cancelAttempts(null);
+      return result;
+    }
+
+    private void cancelAttempts(CompletableFuture<Response> winner) {
+      List<CompletableFuture<Response>> losers;
+      synchronized (this) {
+        if (timer != null) {
+          timer.cancel(false);
+        }
+        losers = new ArrayList<>(attempts);
+      }
+      for (CompletableFuture<Response> attempt : losers) {
+        if (attempt != winner) {
+          attempt.cancel(true);
+        }
+      }
+    }
+  }
+
+  /** Daemon threads sending the copies of all capabilities, stopped when idle. */
+  private static final class DefaultExecutor {
+
+    static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(
+            r -> {
+              final Thread result = new Thread(r, "feign-hedge");
+              result.setDaemon(true);
+              return result;
+            });
+  }
+
+  /** A single daemon thread for the timers of all capabilities, stopped when idle. */
+  private static final class DefaultScheduler {
+
+    static final ScheduledExecutorService INSTANCE = create();
+
+    private static ScheduledExecutorService create() {
+      ScheduledThreadPoolExecutor scheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                final Thread result = new Thread(r, "feign-hedge-scheduler");
+                result.setDaemon(true);
+                return result;
+              });
+      scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
+    }
+  }
+
+  public static final class Builder {
+
+    private ScheduledExecutorService scheduler;
+    private Executor executor;
+    private Set<HttpMethod> methods =
+        EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+    private double maxHedgeRatio = 0.1;
+    private long maxBurst = 10;
+
+    private Builder() {}
+
+    /**
+     * Runs the timers that hand copies over to the {@link #executor(Executor) executor}. Defaults
+     * to a single daemon thread shared by all capabilities.
+     */
+    public Builder scheduler(ScheduledExecutorService scheduler) {
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+      return this;
+    }
+
+    /**
+     * Sends the copies, usually the executor of the client, such as the one given to {@link
+     * feign.AsyncFeign.AsyncBuilder#executorService(ExecutorService)}. The caller owns its
+     * lifecycle. Defaults to daemon threads shared by all capabilities, which stop when idle.
+     */
+    public Builder executor(Executor executor) {
+      this.executor = checkNotNull(executor, "executor");
+      return this;
+    }
+
+    /**
+     * The HTTP methods that may be hedged, {@code GET}, {@code HEAD} and {@code OPTIONS} by
+     * default. {@code PUT} and {@code DELETE} are only idempotent when the server implements them
+     * so, and are not hedged unless allowed here.
+     */
+    public Builder methods(HttpMethod... methods) {
+      checkArgument(methods.length > 0, "at least one method must be hedged");
+      this.methods = EnumSet.noneOf(HttpMethod.class);
+      for (HttpMethod method : methods) {
+        this.methods.add(checkNotNull(method, "method"));
+      }
+      return this;
+    }
+
+    /** Copies allowed per hedged request sent, over time. Defaults to {@code 0.1}. */
+    public Builder maxHedgeRatio(double maxHedgeRatio) {
+      checkArgument(
+          maxHedgeRatio >= 0 && maxHedgeRatio <= 1,
+          "maxHedgeRatio must be between 0 and 1: %s",
+          maxHedgeRatio);
+      this.maxHedgeRatio = maxHedgeRatio;
+      return this;
+    }
+
+    /** Copies allowed in a row after a quiet period. Defaults to {@code 10}. */
+    public Builder maxBurst(int maxBurst) {
+      checkArgument(maxBurst >= 1, "maxBurst must be at least 1: %s", maxBurst);
+      this.maxBurst = maxBurst;
+      return this;
+    }
+
+    public HedgingCapability build() {
+      return new HedgingCapability(this);
+    }
+  }
+}
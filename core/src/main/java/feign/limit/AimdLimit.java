@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.limit;
+
+import static feign.Util.checkArgument;
+
+import feign.Experimental;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one for every successful request
+ * made while at least half of it was in use, and shrinks by {@code backoffRatio} for every dropped
+ * request or one slower than {@code timeout}.
+ */
+@Experimental
+public final class AimdLimit implements LimitAlgorithm {
+
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final long timeoutNanos;
+
+  /** Starts at 20 in-flight requests, between 1 and 200, backing off by 10% past 5 seconds. */
+  public AimdLimit() {
+    this(20, 1, 200, 0.9, 5, TimeUnit.SECONDS);
+  }
+
+  public AimdLimit(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double backoffRatio,
+      long timeout,
+      TimeUnit unit) {
+    checkArgument(minLimit >= 1, "minLimit must be at least 1: %s", minLimit);
+    checkArgument(maxLimit >= minLimit, "maxLimit must be at least minLimit: %s", maxLimit);
+    checkArgument(
+        initialLimit >= minLimit && initialLimit <= maxLimit,
+        "initialLimit must be between minLimit and maxLimit: %s",
+        initialLimit);
+    checkArgument(
+        backoffRatio > 0 && backoffRatio < 1,
+        "backoffRatio must be between 0 and 1: %s",
+        backoffRatio);
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.timeoutNanos = unit.toNanos(timeout);
+  }
+
+  @Override
+  public int initialLimit() {
+    return initialLimit;
+  }
+
+  @Override
+  public int update(int limit, int inFlight, long rttNanos, boolean dropped) {
+    if (dropped || rttNanos > timeoutNanos) {
+      return Math.max(minLimit, (int) (limit * backoffRatio));
+    }
+    if (inFlight * 2 >= limit) {
+      return Math.min(maxLimit, limit + 1);
+    }
+    return limit;
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.limit;
+
+import static feign.Util.checkNotNull;
+
+import feign.AsyncClient;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.RetryableException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Limits the requests in flight to what the server can currently take, instead of letting them
+ * queue up in executors and connection pools while it slows down.
+ *
+ * <p>The limit is kept per key, by default the {@link feign.MethodMetadata#configKey() config key}
+ * of the method called, and adjusted after every request by a {@link LimitAlgorithm} from its round
+ * trip time and whether it was dropped: failed, or answered with {@code 429} or {@code 503}. {@link
+ * AimdLimit} is the default; {@link VegasLimit} reacts to latency before requests fail. Requests
+ * beyond the limit are not sent, and a {@link RetryableException} is thrown instead so the {@link
+ * feign.Retryer} can back off and try again.
+ *
+ * <p>Add it as a {@link Capability}; it decorates the {@link Client} or {@link AsyncClient}. Its
+ * state is lock-free and may be shared between clients. {@code feign-micrometer} publishes it
+ * through {@code ConcurrencyLimiterMetrics}.
+ *
+ * <pre>
+ * ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().algorithm(VegasLimit::new).build();
+ * GitHub github = Feign.builder()
+ *     .addCapability(limiter)
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ */
+@Experimental
+public final class ConcurrencyLimiter implements Capability {
+
+  private final Supplier<LimitAlgorithm> algorithm;
+  private final Function<Request, String> keyMapper;
+  private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+  private final List<Consumer<String>> keyListeners = new CopyOnWriteArrayList<>();
+
+  private ConcurrencyLimiter(Builder builder) {
+    this.algorithm = builder.algorithm;
+    this.keyMapper = builder.keyMapper;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return (request, options) -> {
+      Limit limit = limit(request);
+      limit.acquire(request);
+      long start = System.nanoTime();
+      boolean dropped = true;
+      try {
+        Response response = client.execute(request, options);
+        dropped = isDropped(response);
+        return response;
+      } finally {
+        limit.release(System.nanoTime() - start, dropped);
+      }
+    };
+  }
+
+  @Override
+  public AsyncClient<Object> enrich(AsyncClient<Object> client) {
+    return (request, options, requestContext) -> {
+      Limit limit = limit(request);
+      try {
+        limit.acquire(request);
+      } catch (RetryableException e) {
+        CompletableFuture<Response> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(e);
+        return rejected;
+      }
+      long start = System.nanoTime();
+      CompletableFuture<Response> result;
+      try {
+        result = client.execute(request, options, requestContext);
+      } catch (RuntimeException e) {
+        limit.release(System.nanoTime() - start, true);
+        throw e;
+      }
+      InFlight inFlight = new InFlight(result);
+      result.whenComplete(
+          (response, throwable) -> {
+            if (throwable instanceof CancellationException) {
+              limit.abandon();
+            } else {
+              limit.release(System.nanoTime() - start, throwable != null || isDropped(response));
+            }
+            if (throwable != null) {
+              inFlight.completeExceptionally(throwable);
+            } else if (!inFlight.complete(response)) {
+              response.close();
+            }
+          });
+      return inFlight;
+    };
+  }
+
+  /** The keys limited so far. */
+  public Set<String> keys() {
+    return Collections.unmodifiableSet(limits.keySet());
+  }
+
+  /** The current limit under {@code key}, or {@literal -1} if nothing was sent under it. */
+  public int limit(String key) {
+    Limit limit = limits.get(key);
+    return limit != null ? limit.limit.get() : -1;
+  }
+
+  /** The requests in flight under {@code key}. */
+  public int inFlight(String key) {
+    Limit limit = limits.get(key);
+    return limit != null ? limit.inFlight.get() : 0;
+  }
+
+  /** The requests rejected under {@code key} so far. */
+  public long rejected(String key) {
+    Limit limit = limits.get(key);
+    return limit != null ? limit.rejected.sum() : 0;
+  }
+
+  /**
+   * Calls {@code listener} with every key limited from now on, for example to register metrics for
+   * it. Keys limited already are listed by {@link #keys()}.
+   */
+  public void addKeyListener(Consumer<String> listener) {
+    keyListeners.add(checkNotNull(listener, "listener"));
+  }
+
+  private static boolean isDropped(Response response) {
+    return response.status() == 429 || response.status() == 503;
+  }
+
+  private Limit limit(Request request) {
+    String key = request != null ? keyMapper.apply(request) : null;
+    String limitKey = key != null ? key : "";
+    Limit limit = limits.get(limitKey);
+    if (limit != null) {
+      return limit;
+    }
+    Limit created = new Limit(algorithm.get());
+    limit = limits.putIfAbsent(limitKey, created);
+    if (limit != null) {
+      return limit;
+    }
+    for (Consumer<String> listener : keyListeners) {
+      listener.accept(limitKey);
+    }
+    return created;
+  }
+
+  private static String configKey(Request request) {
+    RequestTemplate template = request.requestTemplate();
+    return template != null && template.methodMetadata() != null
+        ? template.methodMetadata().configKey()
+        : null;
+  }
+
+  private static String targetName(Request request) {
+    RequestTemplate template = request.requestTemplate();
+    return template != null && template.feignTarget() != null
+        ? template.feignTarget().name()
+        : null;
+  }
+
+  /**
+   * Completed along with the future of the client, and cancelling it cancels the request in flight,
+   * which frees its permit.
+   */
+  private static final class InFlight extends CompletableFuture<Response> {
+
+    private final CompletableFuture<Response> sent;
+
+    InFlight(CompletableFuture<Response> sent) {
+      this.sent = sent;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean result = super.cancel(mayInterruptIfRunning);
+      sent.cancel(mayInterruptIfRunning);
+      return result;
+    }
+  }
+
+  private static final class Limit {
+
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    Limit(LimitAlgorithm algorithm) {
+      this.algorithm = algorithm;
+      this.limit = new AtomicInteger(Math.max(1, algorithm.initialLimit()));
+    }
+
+    void acquire(Request request) {
+      int current;
+      do {
+        current = inFlight.get();
+        if (current >= limit.get()) {
+          rejected.increment();
+          throw new RetryableException(
+              -1,
+              "Concurrency limit of "
+                  + limit.get()
+                  + " reached executing "
+                  + request.httpMethod()
+                  + " "
+                  + request.url(),
+              request.httpMethod(),
+              (Long) null,
+              request);
+        }
+      } while (!inFlight.compareAndSet(current, current + 1));
+    }
+
+    void release(long rttNanos, boolean dropped) {
+      int sampled = inFlight.getAndDecrement();
+      limit.updateAndGet(
+          current -> Math.max(1, algorithm.update(current, sampled, rttNanos, dropped)));
+    }
+
+    /** Frees the permit of a cancelled request, which tells nothing about the server. */
+    void abandon() {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  public static final class Builder {
+
+    private Supplier<LimitAlgorithm> algorithm = AimdLimit::new;
+    private Function<Request, String> keyMapper = ConcurrencyLimiter::configKey;
+
+    private Builder() {}
+
+    /**
+     * Creates the {@link LimitAlgorithm} of each key, like {@code VegasLimit::new}. Defaults to
+     * {@link AimdLimit}.
+     */
+    public Builder algorithm(Supplier<LimitAlgorithm> algorithm) {
+      this.algorithm = checkNotNull(algorithm, "algorithm");
+      return this;
+    }
+
+    /** Keeps a limit per {@link feign.Target#name() target} rather than per method. */
+    public Builder perTarget() {
+      this.keyMapper = ConcurrencyLimiter::targetName;
+      return this;
+    }
+
+    /** Keeps a single limit for all requests. */
+    public Builder global() {
+      this.keyMapper = request -> "";
+      return this;
+    }
+
+    public ConcurrencyLimiter build() {
+      return new ConcurrencyLimiter(this);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.limit;
+
+import feign.Experimental;
+
+/**
+ * Decides the concurrency limit of a {@link ConcurrencyLimiter} from the round trip time of each
+ * request. Implementations may keep state, such as the lowest round trip time seen, as a new
+ * instance is created for each key of the limiter; they are called concurrently and may be called
+ * more than once for a sample, so updating that state must be idempotent.
+ */
+@Experimental
+public interface LimitAlgorithm {
+
+  /** The limit before any request completed. */
+  int initialLimit();
+
+  /**
+   * Returns the limit after a request completed.
+   *
+   * @param limit the current limit
+   * @param inFlight requests in flight when this one completed, itself included
+   * @param rttNanos round trip time of the request, until its response headers arrived
+   * @param dropped whether the request failed, or was answered with {@code 429} or {@code 503}
+   */
+  int update(int limit, int inFlight, long rttNanos, boolean dropped);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.limit;
+
+import static feign.Util.checkArgument;
+
+import feign.Experimental;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates the requests queued at the server from how much slower a request was than the fastest
+ * one seen, in the style of TCP Vegas: {@code queue = limit * (1 - minRtt / rtt)}. The limit grows
+ * while the queue is short, shrinks while it is long, and shrinks on every dropped request. Steps
+ * are logarithmic in the limit, so it converges quickly without large swings.
+ */
+@Experimental
+public final class VegasLimit implements LimitAlgorithm {
+
+  private final int initialLimit;
+  private final int maxLimit;
+  private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+
+  /** Starts at 20 in-flight requests, and allows up to 1000. */
+  public VegasLimit() {
+    this(20, 1000);
+  }
+
+  public VegasLimit(int initialLimit, int maxLimit) {
+    checkArgument(maxLimit >= 1, "maxLimit must be at least 1: %s", maxLimit);
+    checkArgument(
+        initialLimit >= 1 && initialLimit <= maxLimit,
+        "initialLimit must be between 1 and maxLimit: %s",
+        initialLimit);
+    this.initialLimit = initialLimit;
+    this.maxLimit = maxLimit;
+  }
+
+  @Override
+  public int initialLimit() {
+    return initialLimit;
+  }
+
+  @Override
+  public int update(int limit, int inFlight, long rttNanos, boolean dropped) {
+    int step = Math.max(1, (int) Math.log10(limit));
+    if (dropped) {
+      return Math.max(1, limit - step);
+    }
+    long minRtt = minRttNanos.accumulateAndGet(Math.max(1, rttNanos), Math::min);
+    if (inFlight * 2 < limit) {
+      return limit;
+    }
+    int queue = (int) Math.ceil(limit * (1 - (double) minRtt / Math.max(1, rttNanos)));
+    int newLimit;
+    if (queue <= step) {
+      newLimit = limit + 6 * step;
+    } else if (queue < 3 * step) {
+      newLimit = limit + step;
+    } else if (queue > 6 * step) {
+      newLimit = limit - step;
+    } else {
+      newLimit = limit;
+    }
+    return Math.max(1, Math.min(maxLimit, newLimit));
+  }
+
+  /** The fastest round trip time seen, or {@link Long#MAX_VALUE} before any. */
+  long minRttNanos() {
+    return minRttNanos.get();
+  }
+}
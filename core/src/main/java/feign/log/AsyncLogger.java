@@ -0,0 +1,322 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.log;
+
+import static feign.Util.UTF_8;
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+import static feign.Util.decodeOrDefault;
+import static feign.Util.ensureClosed;
+
+import feign.Experimental;
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Logger} that records one {@link LogEvent} per request, response, error or retry and
+ * hands it to a background thread instead of formatting and writing on the calling thread.
+ *
+ * <p>Events go through a bounded, lock-free ring. The drain thread writes them to a {@link
+ * LogEventSink} in batches; when the ring is full the event is dropped rather than blocking the
+ * request, and {@link #overflowCount()} goes up.
+ *
+ * <pre>
+ * AsyncLogger logger = AsyncLogger.builder(LogEventSink.toFile(Paths.get("feign.log")))
+ *     .maxBodyLength(512)
+ *     .build();
+ * GitHub github = Feign.builder().logger(logger).logLevel(Logger.Level.HEADERS)...
+ * </pre>
+ *
+ * <p>Unlike the line-oriented loggers, {@link Level#HEADERS} reports the response body length from
+ * {@link Response.Body#length()} instead of reading the body into memory; only {@link Level#FULL}
+ * buffers it, and at most {@link Builder#maxBodyLength(int)} bytes of it end up in the event.
+ *
+ * <p>Call {@link #close()} to write out pending events and release the sink.
+ */
+@Experimental
+public class AsyncLogger extends Logger implements Closeable {
+
+  private final LogEventSink sink;
+  private final LogEventRing ring;
+  private final int batchSize;
+  private final int maxBodyLength;
+  private final long flushIntervalNanos;
+  private final Thread drainer;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder overflowed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /** Threads inside {@link #publish}, which {@link #close()} waits out before its last drain. */
+  private final AtomicInteger publishing = new AtomicInteger();
+
+  protected AsyncLogger(Builder builder) {
+    this.sink = builder.sink;
+    this.ring = new LogEventRing(builder.bufferSize);
+    this.batchSize = builder.batchSize;
+    this.maxBodyLength = builder.maxBodyLength;
+    this.flushIntervalNanos = builder.flushIntervalNanos;
+    this.drainer = new Thread(this::drain, builder.threadName);
+    this.drainer.setDaemon(true);
+    this.drainer.start();
+  }
+
+  public static Builder builder(LogEventSink sink) {
+    return new Builder(sink);
+  }
+
+  /** Events handed to the sink so far. */
+  public long writtenCount() {
+    return written.sum();
+  }
+
+  /** Events rejected because the ring was full. */
+  public long overflowCount() {
+    return overflowed.sum();
+  }
+
+  /**
+   * Events that never reached the sink: overflows, sink failures, and events logged after close.
+   */
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  /** Number of events the ring holds before new ones overflow. */
+  public int capacity() {
+    return ring.capacity();
+  }
+
+  @Override
+  protected void logRequest(String configKey, Level logLevel, Request request) {
+    LogEvent.Builder event =
+        LogEvent.builder(LogEvent.Type.REQUEST, configKey)
+            .request(request, resolveProtocolVersion(request.protocolVersion()));
+    if (logLevel.ordinal() >= Level.HEADERS.ordinal()) {
+      event.headers(request.headers(), this::shouldLogRequestHeader);
+      Request.Body requestBody = request.requestBody();
+      if (requestBody != null && requestBody.isStreaming()) {
+        /* reading a streaming body into memory just to log it would defeat its purpose */
+        event.body((int) Math.min(requestBody.contentLength(), Integer.MAX_VALUE), null, false);
+      } else {
+        byte[] body = request.body();
+        if (body == null) {
+          event.body(0, null, false);
+        } else if (logLevel.ordinal() >= Level.FULL.ordinal()) {
+          event.body(body.length, bodyText(body, request.charset()), body.length > maxBodyLength);
+        } else {
+          event.body(body.length, null, false);
+        }
+      }
+    }
+    publish(event.build());
+  }
+
+  @Override
+  protected void logRetry(String configKey, Level logLevel) {
+    publish(LogEvent.builder(LogEvent.Type.RETRY, configKey).build());
+  }
+
+  @Override
+  protected Response logAndRebufferResponse(
+      String configKey, Level logLevel, Response response, long elapsedTime) throws IOException {
+    int status = response.status();
+    LogEvent.Builder event =
+        LogEvent.builder(LogEvent.Type.RESPONSE, configKey)
+            .status(
+                resolveProtocolVersion(response.protocolVersion()),
+                status,
+                response.reason(),
+                elapsedTime);
+    if (response.request() != null) {
+      event.request(response.request(), resolveProtocolVersion(response.protocolVersion()));
+    }
+    if (logLevel.ordinal() < Level.HEADERS.ordinal()) {
+      publish(event.build());
+      return response;
+    }
+
+    event.headers(response.headers(), this::shouldLogResponseHeader);
+    if (response.body() == null || status == 204 || status == 205) {
+      event.body(0, null, false);
+    } else if (logLevel.ordinal() >= Level.FULL.ordinal()) {
+      byte[] bodyData = Util.toByteArray(response.body().asInputStream());
+      ensureClosed(response.body());
+      event.body(bodyData.length, bodyText(bodyData, UTF_8), bodyData.length > maxBodyLength);
+      publish(event.build());
+      return response.toBuilder().body(bodyData).build();
+    } else {
+      Integer length = response.body().length();
+      event.body(length != null ? length : -1, null, false);
+    }
+    publish(event.build());
+    return response;
+  }
+
+  @Override
+  protected IOException logIOException(
+      String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+    publish(
+        LogEvent.builder(LogEvent.Type.ERROR, configKey)
+            .error(ioe, elapsedTime, logLevel.ordinal() >= Level.FULL.ordinal())
+            .build());
+    return ioe;
+  }
+
+  /** Records the message; {@code format} is only applied when a sink renders the event. */
+  @Override
+  protected void log(String configKey, String format, Object... args) {
+    publish(LogEvent.builder(LogEvent.Type.MESSAGE, configKey).message(format, args).build());
+  }
+
+  private String bodyText(byte[] body, Charset charset) {
+    if (charset == null) {
+      return "Binary data";
+    }
+    if (body.length <= maxBodyLength) {
+      return decodeOrDefault(body, charset, "Binary data");
+    }
+    byte[] prefix = new byte[maxBodyLength];
+    System.arraycopy(body, 0, prefix, 0, maxBodyLength);
+    return decodeOrDefault(prefix, charset, "Binary data");
+  }
+
+  private void publish(LogEvent event) {
+    publishing.incrementAndGet();
+    try {
+      if (closed.get()) {
+        dropped.increment();
+      } else if (!ring.offer(event)) {
+        overflowed.increment();
+        dropped.increment();
+      }
+    } finally {
+      publishing.decrementAndGet();
+    }
+  }
+
+  private void drain() {
+    List<LogEvent> batch = new ArrayList<>(batchSize);
+    while (!closed.get()) {
+      if (ring.drainTo(batch, batchSize) == 0) {
+        LockSupport.parkNanos(this, flushIntervalNanos);
+      } else {
+        write(batch);
+      }
+    }
+  }
+
+  private void write(List<LogEvent> batch) {
+    try {
+      sink.write(batch);
+      written.add(batch.size());
+    } catch (IOException | RuntimeException e) {
+      dropped.add(batch.size());
+    } finally {
+      batch.clear();
+    }
+  }
+
+  /**
+   * Stops the drain thread, writes out the events already accepted and closes the sink. Events
+   * logged afterwards are counted as dropped.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    LockSupport.unpark(drainer);
+    try {
+      drainer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // an event that passed the closed check before it was set still lands in the ring
+    while (publishing.get() > 0) {
+      Thread.yield();
+    }
+    // the drain thread is gone, so this thread is now the ring's only consumer
+    List<LogEvent> batch = new ArrayList<>(batchSize);
+    while (ring.drainTo(batch, batchSize) > 0) {
+      write(batch);
+    }
+    sink.close();
+  }
+
+  public static class Builder {
+
+    private final LogEventSink sink;
+    private int bufferSize = 8192;
+    private int batchSize = 256;
+    private int maxBodyLength = 1024;
+    private long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private String threadName = "feign-async-logger";
+
+    Builder(LogEventSink sink) {
+      this.sink = checkNotNull(sink, "sink");
+    }
+
+    /** Ring capacity, rounded up to a power of two. Defaults to 8192 events. */
+    public Builder bufferSize(int bufferSize) {
+      checkArgument(bufferSize > 0, "bufferSize must be positive");
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /** Maximum number of events per {@link LogEventSink#write(List)}. Defaults to 256. */
+    public Builder batchSize(int batchSize) {
+      checkArgument(batchSize > 0, "batchSize must be positive");
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /** Bytes of a body kept in an event at {@link Level#FULL}. Defaults to 1024. */
+    public Builder maxBodyLength(int maxBodyLength) {
+      checkArgument(maxBodyLength >= 0, "maxBodyLength must not be negative");
+      this.maxBodyLength = maxBodyLength;
+      return this;
+    }
+
+    /** How long the drain thread idles when the ring is empty. Defaults to 10 milliseconds. */
+    public Builder flushInterval(long flushInterval, TimeUnit unit) {
+      checkArgument(flushInterval > 0, "flushInterval must be positive");
+      this.flushIntervalNanos = unit.toNanos(flushInterval);
+      return this;
+    }
+
+    public Builder threadName(String threadName) {
+      this.threadName = checkNotNull(threadName, "threadName");
+      return this;
+    }
+
+    public AsyncLogger build() {
+      return new AsyncLogger(this);
+    }
+  }
+}
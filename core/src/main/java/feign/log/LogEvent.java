@@ -0,0 +1,324 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.log;
+
+import feign.Request;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * One structured record per request, response, error or retry, as emitted by {@link AsyncLogger}.
+ *
+ * <p>Events are created on the calling thread with only the references they need; anything costly
+ * (header filtering, message formatting, stack traces) is done lazily, when a {@link LogEventSink}
+ * first asks for it on the logger's drain thread.
+ */
+public final class LogEvent {
+
+  /** What an event describes. */
+  public enum Type {
+    REQUEST,
+    RESPONSE,
+    ERROR,
+    RETRY,
+    /** A free-form message passed to {@code feign.Logger#log}. */
+    MESSAGE
+  }
+
+  private final Type type;
+  private final String configKey;
+  private final long timestamp;
+  private final String method;
+  private final String url;
+  private final String protocolVersion;
+  private final int status;
+  private final String reason;
+  private final long elapsedMillis;
+  private final Map<String, Collection<String>> rawHeaders;
+  private final Predicate<String> headerFilter;
+  private final int bodyLength;
+  private final String body;
+  private final boolean bodyTruncated;
+  private final Throwable error;
+  private final boolean stackTrace;
+  private final String format;
+  private final Object[] args;
+  private Map<String, Collection<String>> headers;
+  private String text;
+
+  private LogEvent(Builder builder) {
+    this.type = builder.type;
+    this.configKey = builder.configKey;
+    this.timestamp = builder.timestamp;
+    this.method = builder.method;
+    this.url = builder.url;
+    this.protocolVersion = builder.protocolVersion;
+    this.status = builder.status;
+    this.reason = builder.reason;
+    this.elapsedMillis = builder.elapsedMillis;
+    this.rawHeaders = builder.headers;
+    this.headerFilter = builder.headerFilter;
+    this.bodyLength = builder.bodyLength;
+    this.body = builder.body;
+    this.bodyTruncated = builder.bodyTruncated;
+    this.error = builder.error;
+    this.stackTrace = builder.stackTrace;
+    this.format = builder.format;
+    this.args = builder.args;
+  }
+
+  static Builder builder(Type type, String configKey) {
+    return new Builder(type, configKey);
+  }
+
+  public Type type() {
+    return type;
+  }
+
+  /** value of {@link feign.Feign#configKey(Class, java.lang.reflect.Method)} */
+  public String configKey() {
+    return configKey;
+  }
+
+  /** wall-clock time, in epoch milliseconds, at which the event was recorded. */
+  public long timestamp() {
+    return timestamp;
+  }
+
+  /** HTTP method, or {@code null} when the event does not describe a request or response. */
+  public String method() {
+    return method;
+  }
+
+  /** request URL, or {@code null} when the event does not describe a request or response. */
+  public String url() {
+    return url;
+  }
+
+  public String protocolVersion() {
+    return protocolVersion;
+  }
+
+  /** response status, or {@code -1} when the event does not describe a response. */
+  public int status() {
+    return status;
+  }
+
+  public String reason() {
+    return reason;
+  }
+
+  /** time spent in the client, or {@code -1} when not measured for this event. */
+  public long elapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /** headers that passed the logger's header filter, empty below {@code Level.HEADERS}. */
+  public Map<String, Collection<String>> headers() {
+    if (headers == null) {
+      headers = filterHeaders();
+    }
+    return headers;
+  }
+
+  /** body length in bytes, or {@code -1} when unknown or not logged. */
+  public int bodyLength() {
+    return bodyLength;
+  }
+
+  /** body text, possibly truncated, or {@code null} below {@code Level.FULL}. */
+  public String body() {
+    return body;
+  }
+
+  public boolean bodyTruncated() {
+    return bodyTruncated;
+  }
+
+  /** cause of an {@link Type#ERROR} event. */
+  public Throwable error() {
+    return error;
+  }
+
+  /** Formats the event like the line-oriented {@link feign.Logger} output, as a single string. */
+  @Override
+  public String toString() {
+    if (text == null) {
+      text = format();
+    }
+    return text;
+  }
+
+  private String format() {
+    StringBuilder out = new StringBuilder(128).append(methodTag(configKey));
+    switch (type) {
+      case REQUEST:
+        out.append("---> ").append(method).append(' ').append(url);
+        out.append(' ').append(protocolVersion);
+        appendHeadersAndBody(out, "---> END HTTP");
+        break;
+      case RESPONSE:
+        out.append("<--- ").append(protocolVersion).append(' ').append(status);
+        if (reason != null) {
+          out.append(' ').append(reason);
+        }
+        out.append(" (").append(elapsedMillis).append("ms)");
+        appendHeadersAndBody(out, "<--- END HTTP");
+        break;
+      case ERROR:
+        out.append("<--- ERROR ")
+            .append(error.getClass().getSimpleName())
+            .append(": ")
+            .append(error.getMessage())
+            .append(" (")
+            .append(elapsedMillis)
+            .append("ms)");
+        if (stackTrace) {
+          out.append(System.lineSeparator()).append(stackTrace(error)).append("<--- END ERROR");
+        }
+        break;
+      case RETRY:
+        out.append("---> RETRYING");
+        break;
+      default:
+        out.append(String.format(format, args));
+    }
+    return out.toString();
+  }
+
+  private void appendHeadersAndBody(StringBuilder out, String end) {
+    if (rawHeaders == null) {
+      return;
+    }
+    for (Map.Entry<String, Collection<String>> header : headers().entrySet()) {
+      for (String value : header.getValue()) {
+        out.append(System.lineSeparator()).append(header.getKey()).append(": ").append(value);
+      }
+    }
+    if (body != null) {
+      out.append(System.lineSeparator()).append(System.lineSeparator()).append(body);
+      if (bodyTruncated) {
+        out.append("...");
+      }
+    }
+    out.append(System.lineSeparator()).append(end);
+    if (bodyLength < 0) {
+      out.append(" (unknown-length body)");
+    } else {
+      out.append(" (").append(bodyLength).append("-byte body)");
+    }
+  }
+
+  private Map<String, Collection<String>> filterHeaders() {
+    if (rawHeaders == null || rawHeaders.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, Collection<String>> filtered = new LinkedHashMap<>(rawHeaders.size());
+    for (Map.Entry<String, Collection<String>> header : rawHeaders.entrySet()) {
+      if (header.getValue() != null && headerFilter.test(header.getKey())) {
+        filtered.put(header.getKey(), header.getValue());
+      }
+    }
+    return Collections.unmodifiableMap(filtered);
+  }
+
+  private static String methodTag(String configKey) {
+    int paren = configKey.indexOf('(');
+    return '[' + (paren < 0 ? configKey : configKey.substring(0, paren)) + "] ";
+  }
+
+  private static String stackTrace(Throwable error) {
+    StringWriter sw = new StringWriter();
+    error.printStackTrace(new PrintWriter(sw));
+    return sw.toString();
+  }
+
+  static final class Builder {
+    private final Type type;
+    private final String configKey;
+    private final long timestamp = System.currentTimeMillis();
+    private String method;
+    private String url;
+    private String protocolVersion;
+    private int status = -1;
+    private String reason;
+    private long elapsedMillis = -1;
+    private Map<String, Collection<String>> headers;
+    private Predicate<String> headerFilter;
+    private int bodyLength = -1;
+    private String body;
+    private boolean bodyTruncated;
+    private Throwable error;
+    private boolean stackTrace;
+    private String format;
+    private Object[] args;
+
+    private Builder(Type type, String configKey) {
+      this.type = type;
+      this.configKey = configKey;
+    }
+
+    Builder request(Request request, String protocolVersion) {
+      this.method = request.httpMethod().name();
+      this.url = request.url();
+      this.protocolVersion = protocolVersion;
+      return this;
+    }
+
+    Builder status(String protocolVersion, int status, String reason, long elapsedMillis) {
+      this.protocolVersion = protocolVersion;
+      this.status = status;
+      this.reason = reason;
+      this.elapsedMillis = elapsedMillis;
+      return this;
+    }
+
+    Builder headers(Map<String, Collection<String>> headers, Predicate<String> headerFilter) {
+      this.headers = headers;
+      this.headerFilter = headerFilter;
+      return this;
+    }
+
+    Builder body(int bodyLength, String body, boolean bodyTruncated) {
+      this.bodyLength = bodyLength;
+      this.body = body;
+      this.bodyTruncated = bodyTruncated;
+      return this;
+    }
+
+    Builder error(Throwable error, long elapsedMillis, boolean withStackTrace) {
+      this.error = error;
+      this.elapsedMillis = elapsedMillis;
+      this.stackTrace = withStackTrace;
+      return this;
+    }
+
+    Builder message(String format, Object[] args) {
+      this.format = format;
+      this.args = args;
+      return this;
+    }
+
+    LogEvent build() {
+      return new LogEvent(this);
+    }
+  }
+}
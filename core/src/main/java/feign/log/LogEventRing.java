@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.log;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring. Each slot carries a sequence number so
+ * producers claim a slot with one CAS and publish it with an ordered write; the single consumer
+ * never contends with them.
+ */
+final class LogEventRing {
+
+  private final int mask;
+  private final AtomicReferenceArray<LogEvent> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private long head;
+
+  LogEventRing(int requestedCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+    this.mask = capacity - 1;
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /** Returns false without blocking when the ring is full. */
+  boolean offer(LogEvent event) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) position & mask;
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.lazySet(index, event);
+          sequences.lazySet(index, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        return false;
+      }
+    }
+  }
+
+  /** Moves up to {@code max} published events into {@code batch}. Single consumer only. */
+  int drainTo(List<LogEvent> batch, int max) {
+    int drained = 0;
+    while (drained < max) {
+      int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        break;
+      }
+      batch.add(slots.get(index));
+      slots.lazySet(index, null);
+      sequences.lazySet(index, head + mask + 1);
+      head++;
+      drained++;
+    }
+    return drained;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.log;
+
+import static feign.Util.checkNotNull;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Destination for batches of {@link LogEvent}s drained by {@link AsyncLogger}. Sinks are only ever
+ * called from the logger's drain thread, so they need not be thread-safe.
+ */
+public interface LogEventSink extends Closeable {
+
+  /**
+   * Writes a batch of events, oldest first. The list is reused after this method returns.
+   *
+   * @throws IOException counted as dropped events by the logger; the drain thread keeps running.
+   */
+  void write(List<LogEvent> batch) throws IOException;
+
+  @Override
+  default void close() throws IOException {}
+
+  /**
+   * Writes each event as one record to {@code logger} at {@link Level#FINE}, checking the level
+   * once per batch.
+   */
+  static LogEventSink toJavaLogger(java.util.logging.Logger logger) {
+    checkNotNull(logger, "logger");
+    return batch -> {
+      if (logger.isLoggable(Level.FINE)) {
+        for (LogEvent event : batch) {
+          logger.fine(event.toString());
+        }
+      }
+    };
+  }
+
+  /** Appends each event to {@code file}, flushing once per batch. */
+  static LogEventSink toFile(Path file) throws IOException {
+    BufferedWriter writer =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    return new LogEventSink() {
+      @Override
+      public void write(List<LogEvent> batch) throws IOException {
+        for (LogEvent event : batch) {
+          writer.write(event.toString());
+          writer.newLine();
+        }
+        writer.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+        writer.close();
+      }
+    };
+  }
+}
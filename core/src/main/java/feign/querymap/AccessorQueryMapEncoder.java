@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.querymap;
+
+import feign.Experimental;
+import feign.Param;
+import feign.QueryMapEncoder;
+import feign.codec.EncodeException;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A {@link QueryMapEncoder} that reads query parameters through accessors generated once per class,
+ * instead of reflecting on every call.
+ *
+ * <p>The first time a class is encoded, its fields or bean properties are resolved into a plan of
+ * named getters, with {@link Param} aliases applied. Public getters of classes visible to Feign are
+ * bound with {@link LambdaMetafactory}; all other getters and fields use {@link MethodHandle}s. The
+ * plans are cached per class and safe to share between threads.
+ *
+ * <p>{@link #encode(Object, BiConsumer)} hands each non-null value straight to the caller, so Feign
+ * adds them to the request template without building a map first. Parameters are visited in a
+ * stable order: fields from the class up to its superclasses in declaration order, or properties in
+ * {@link Introspector} order. When two fields or properties share a name, the first one wins.
+ * Unlike {@link FieldQueryMapEncoder}, static fields are not encoded.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .queryMapEncoder(AccessorQueryMapEncoder.fields())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ */
+@Experimental
+public final class AccessorQueryMapEncoder implements QueryMapEncoder {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private final boolean beanProperties;
+  private final Map<Class<?>, List<Accessor>> classToAccessors = new ConcurrentHashMap<>();
+
+  private AccessorQueryMapEncoder(boolean beanProperties) {
+    this.beanProperties = beanProperties;
+  }
+
+  /**
+   * Encodes the member variables, like {@link FieldQueryMapEncoder}.
+   *
+   * @return a new encoder.
+   */
+  public static AccessorQueryMapEncoder fields() {
+    return new AccessorQueryMapEncoder(false);
+  }
+
+  /**
+   * Encodes the java beans getter properties, like {@link BeanQueryMapEncoder}.
+   *
+   * @return a new encoder.
+   */
+  public static AccessorQueryMapEncoder beanProperties() {
+    return new AccessorQueryMapEncoder(true);
+  }
+
+  @Override
+  public Map<String, Object> encode(Object object) throws EncodeException {
+    if (object == null) {
+      return Collections.emptyMap();
+    }
+    List<Accessor> accessors = accessors(object.getClass());
+    Map<String, Object> nameToValue = new LinkedHashMap<>(accessors.size() * 4 / 3 + 1);
+    for (Accessor accessor : accessors) {
+      Object value = accessor.get(object);
+      if (value != null && value != object) {
+        nameToValue.put(accessor.name, value);
+      }
+    }
+    return nameToValue;
+  }
+
+  @Override
+  public void encode(Object object, BiConsumer<String, Object> parameters) throws EncodeException {
+    if (object == null) {
+      return;
+    }
+    for (Accessor accessor : accessors(object.getClass())) {
+      Object value = accessor.get(object);
+      if (value != null && value != object) {
+        parameters.accept(accessor.name, value);
+      }
+    }
+  }
+
+  private List<Accessor> accessors(Class<?> type) {
+    List<Accessor> accessors = classToAccessors.get(type);
+    if (accessors == null) {
+      accessors = beanProperties ? parseProperties(type) : parseFields(type);
+      classToAccessors.putIfAbsent(type, accessors);
+    }
+    return accessors;
+  }
+
+  private static List<Accessor> parseFields(Class<?> type) {
+    Set<String> names = new LinkedHashSet<>();
+    List<Accessor> accessors = new ArrayList<>();
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (field.isSynthetic() || Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        String name = name(field, field.getName());
+        if (names.add(name)) {
+          field.setAccessible(true);
+          try {
+            accessors.add(
+                new Accessor(
+                    name, new HandleGetter(MethodHandles.lookup().unreflectGetter(field))));
+          } catch (IllegalAccessException e) {
+            throw new EncodeException("Failure encoding object into query map", e);
+          }
+        }
+      }
+    }
+    return Collections.unmodifiableList(accessors);
+  }
+
+  private static List<Accessor> parseProperties(Class<?> type) {
+    Set<String> names = new LinkedHashSet<>();
+    List<Accessor> accessors = new ArrayList<>();
+    try {
+      for (PropertyDescriptor pd : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+        Method readMethod = pd.getReadMethod();
+        if (readMethod == null || "class".equals(pd.getName())) {
+          continue;
+        }
+        String name = name(readMethod, pd.getName());
+        if (names.add(name)) {
+          accessors.add(new Accessor(name, getter(readMethod)));
+        }
+      }
+    } catch (IntrospectionException | IllegalAccessException e) {
+      throw new EncodeException("Failure encoding object into query map", e);
+    }
+    return Collections.unmodifiableList(accessors);
+  }
+
+  private static String name(AnnotatedElement element, String defaultName) {
+    Param alias = element.getAnnotation(Param.class);
+    return alias != null ? alias.value() : defaultName;
+  }
+
+  private static Function<Object, Object> getter(Method readMethod) throws IllegalAccessException {
+    Function<Object, Object> lambda = lambdaGetter(readMethod);
+    if (lambda != null) {
+      return lambda;
+    }
+    readMethod.setAccessible(true);
+    return new HandleGetter(MethodHandles.lookup().unreflect(readMethod));
+  }
+
+  /**
+   * Binds a public getter to a {@link Function} with {@link LambdaMetafactory}, which the JIT can
+   * inline like a direct call. The generated class lives alongside Feign, so this is only done when
+   * the getter can be linked from here; {@code null} is returned otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> lambdaGetter(Method readMethod) {
+    Class<?> declaringClass = readMethod.getDeclaringClass();
+    Class<?> returnType = readMethod.getReturnType();
+    if (!Modifier.isPublic(readMethod.getModifiers())
+        || !Modifier.isPublic(declaringClass.getModifiers())
+        || !isVisible(declaringClass)
+        || (!returnType.isPrimitive() && !isVisible(returnType))) {
+      return null;
+    }
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodHandle handle = lookup.unreflect(readMethod);
+      CallSite site =
+          LambdaMetafactory.metafactory(
+              lookup,
+              "apply",
+              MethodType.methodType(Function.class),
+              GETTER_TYPE,
+              handle,
+              MethodType.methodType(handle.type().wrap().returnType(), declaringClass));
+      return (Function<Object, Object>) site.getTarget().invoke();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  private static boolean isVisible(Class<?> type) {
+    ClassLoader classLoader = AccessorQueryMapEncoder.class.getClassLoader();
+    try {
+      return Class.forName(type.getName(), false, classLoader) == type;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /** A named getter of one query parameter. */
+  private static final class Accessor {
+
+    private final String name;
+    private final Function<Object, Object> getter;
+
+    private Accessor(String name, Function<Object, Object> getter) {
+      this.name = name;
+      this.getter = getter;
+    }
+
+    private Object get(Object object) {
+      try {
+        return getter.apply(object);
+      } catch (EncodeException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        throw new EncodeException("Failure encoding object into query map", e);
+      }
+    }
+  }
+
+  /** A getter backed by a field getter or method handle, adapted to {@code (Object)Object}. */
+  private static final class HandleGetter implements Function<Object, Object> {
+
+    private final MethodHandle handle;
+
+    private HandleGetter(MethodHandle handle) {
+      this.handle = handle.asType(GETTER_TYPE);
+    }
+
+    @Override
+    public Object apply(Object object) {
+      try {
+        return handle.invokeExact(object);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new EncodeException("Failure encoding object into query map", t);
+      }
+    }
+  }
+}
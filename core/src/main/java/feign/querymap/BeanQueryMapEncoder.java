@@ -24,6 +24,7 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * the query map will be generated using java beans accessible getter property as query parameter
@@ -36,7 +37,7 @@ import java.util.*;
  */
 public class BeanQueryMapEncoder implements QueryMapEncoder {
   private final Map<Class<?>, ObjectParamMetadata> classToMetadata =
-      new HashMap<Class<?>, ObjectParamMetadata>();
+      new ConcurrentHashMap<Class<?>, ObjectParamMetadata>();
 
   @Override
   public Map<String, Object> encode(Object object) throws EncodeException {
@@ -46,13 +47,10 @@ public class BeanQueryMapEncoder implements QueryMapEncoder {
     try {
       ObjectParamMetadata metadata = getMetadata(object.getClass());
       Map<String, Object> propertyNameToValue = new HashMap<String, Object>();
-      for (PropertyDescriptor pd : metadata.objectProperties) {
-        Method method = pd.getReadMethod();
-        Object value = method.invoke(object);
+      for (ObjectProperty property : metadata.objectProperties) {
+        Object value = property.readMethod.invoke(object);
         if (value != null && value != object) {
-          Param alias = method.getAnnotation(Param.class);
-          String name = alias != null ? alias.value() : pd.getName();
-          propertyNameToValue.put(name, value);
+          propertyNameToValue.put(property.name, value);
         }
       }
       return propertyNameToValue;
@@ -65,31 +63,44 @@ public class BeanQueryMapEncoder implements QueryMapEncoder {
     ObjectParamMetadata metadata = classToMetadata.get(objectType);
     if (metadata == null) {
       metadata = ObjectParamMetadata.parseObjectType(objectType);
-      classToMetadata.put(objectType, metadata);
+      classToMetadata.putIfAbsent(objectType, metadata);
     }
     return metadata;
   }
 
   private static class ObjectParamMetadata {
 
-    private final List<PropertyDescriptor> objectProperties;
+    private final List<ObjectProperty> objectProperties;
 
-    private ObjectParamMetadata(List<PropertyDescriptor> objectProperties) {
+    private ObjectParamMetadata(List<ObjectProperty> objectProperties) {
       this.objectProperties = Collections.unmodifiableList(objectProperties);
     }
 
     private static ObjectParamMetadata parseObjectType(Class<?> type)
         throws IntrospectionException {
-      List<PropertyDescriptor> properties = new ArrayList<PropertyDescriptor>();
+      List<ObjectProperty> properties = new ArrayList<ObjectProperty>();
 
       for (PropertyDescriptor pd : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
         boolean isGetterMethod = pd.getReadMethod() != null && !"class".equals(pd.getName());
         if (isGetterMethod) {
-          properties.add(pd);
+          properties.add(new ObjectProperty(pd));
         }
       }
 
       return new ObjectParamMetadata(properties);
     }
   }
+
+  /** A readable property, with its {@link Param} alias resolved. */
+  private static class ObjectProperty {
+
+    private final Method readMethod;
+    private final String name;
+
+    private ObjectProperty(PropertyDescriptor pd) {
+      this.readMethod = pd.getReadMethod();
+      Param alias = readMethod.getAnnotation(Param.class);
+      this.name = alias != null ? alias.value() : pd.getName();
+    }
+  }
 }
@@ -21,9 +21,9 @@ import feign.codec.EncodeException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -47,30 +47,21 @@ public class FieldQueryMapEncoder implements QueryMapEncoder {
     ObjectParamMetadata metadata =
         classToMetadata.computeIfAbsent(object.getClass(), ObjectParamMetadata::parseObjectType);
 
-    return metadata.objectFields.stream()
-        .map(field -> this.FieldValuePair(object, field))
-        .filter(fieldObjectPair -> fieldObjectPair.right.isPresent())
-        .collect(Collectors.toMap(this::fieldName, fieldObjectPair -> fieldObjectPair.right.get()));
-  }
-
-  private String fieldName(Pair<Field, Optional<Object>> pair) {
-    Param alias = pair.left.getAnnotation(Param.class);
-    return alias != null ? alias.value() : pair.left.getName();
-  }
-
-  private Pair<Field, Optional<Object>> FieldValuePair(Object object, Field field) {
-    try {
-      return Pair.pair(field, Optional.ofNullable(field.get(object)));
-    } catch (IllegalAccessException e) {
-      throw new EncodeException("Failure encoding object into query map", e);
+    Map<String, Object> fieldNameToValue = new HashMap<>();
+    for (ObjectField field : metadata.objectFields) {
+      Object value = field.get(object);
+      if (value != null && fieldNameToValue.putIfAbsent(field.name, value) != null) {
+        throw new IllegalStateException("Duplicate key " + field.name);
+      }
     }
+    return fieldNameToValue;
   }
 
   private static class ObjectParamMetadata {
 
-    private final List<Field> objectFields;
+    private final List<ObjectField> objectFields;
 
-    private ObjectParamMetadata(List<Field> objectFields) {
+    private ObjectParamMetadata(List<ObjectField> objectFields) {
       this.objectFields = Collections.unmodifiableList(objectFields);
     }
 
@@ -87,21 +78,29 @@ public class FieldQueryMapEncoder implements QueryMapEncoder {
           allFields.stream()
               .filter(field -> !field.isSynthetic())
               .peek(field -> field.setAccessible(true))
+              .map(ObjectField::new)
               .collect(Collectors.toList()));
     }
   }
 
-  private static class Pair<T, U> {
-    private Pair(T left, U right) {
-      this.right = right;
-      this.left = left;
-    }
+  /** A field, with its {@link Param} alias resolved. */
+  private static class ObjectField {
+
+    private final Field field;
+    private final String name;
 
-    public final T left;
-    public final U right;
+    private ObjectField(Field field) {
+      this.field = field;
+      Param alias = field.getAnnotation(Param.class);
+      this.name = alias != null ? alias.value() : field.getName();
+    }
 
-    public static <T, U> Pair<T, U> pair(T left, U right) {
-      return new Pair<>(left, right);
+    private Object get(Object object) {
+      try {
+        return field.get(object);
+      } catch (IllegalAccessException e) {
+        throw new EncodeException("Failure encoding object into query map", e);
+      }
     }
   }
 }
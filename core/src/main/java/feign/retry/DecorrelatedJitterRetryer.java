@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.retry;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import feign.AsyncRetryer;
+import feign.Experimental;
+import feign.RetryableException;
+import feign.Retryer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries with decorrelated jitter: each backoff is drawn at random between {@code period} and
+ * three times the previous backoff, capped at {@code maxPeriod}. Unlike the fixed exponential
+ * backoff of {@link feign.DefaultRetryer}, clients that failed at the same time spread their
+ * retries out instead of hitting a recovering server in lockstep.
+ *
+ * <p>A {@link RetryableException#retryAfter() retry after} asked for by the server is honoured,
+ * capped at {@code maxPeriod}, and seeds the next backoff. Combine it with a {@link RetryBudget} to
+ * also bound the share of retries across all invocations.
+ */
+@Experimental
+public class DecorrelatedJitterRetryer implements AsyncRetryer {
+
+  private final long period;
+  private final long maxPeriod;
+  private final int maxAttempts;
+  int attempt;
+  long previousDelay;
+
+  public DecorrelatedJitterRetryer() {
+    this(100, SECONDS.toMillis(1), 5);
+  }
+
+  /**
+   * @param period the smallest backoff in milliseconds.
+   * @param maxPeriod the largest backoff in milliseconds.
+   * @param maxAttempts the number of attempts, including the first one.
+   */
+  public DecorrelatedJitterRetryer(long period, long maxPeriod, int maxAttempts) {
+    if (period <= 0 || maxPeriod < period) {
+      throw new IllegalArgumentException("period must be positive and not above maxPeriod");
+    }
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+    }
+    this.period = period;
+    this.maxPeriod = maxPeriod;
+    this.maxAttempts = maxAttempts;
+    this.attempt = 1;
+    this.previousDelay = period;
+  }
+
+  // visible for testing;
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  @Override
+  public long delayOrPropagate(RetryableException e) {
+    if (attempt++ >= maxAttempts) {
+      throw e;
+    }
+
+    long delay;
+    if (e.retryAfter() != null) {
+      delay = Math.max(0, Math.min(e.retryAfter() - currentTimeMillis(), maxPeriod));
+    } else {
+      long upper = Math.min(maxPeriod, previousDelay * 3);
+      delay = ThreadLocalRandom.current().nextLong(period, upper + 1);
+    }
+    previousDelay = Math.max(period, delay);
+    return delay;
+  }
+
+  @Override
+  public Retryer clone() {
+    return new DecorrelatedJitterRetryer(period, maxPeriod, maxAttempts);
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.retry;
+
+import feign.AsyncClient;
+import feign.AsyncRetryer;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.RetryableException;
+import feign.Retryer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounds retries to a share of the requests sent, so that a struggling server does not receive
+ * {@code maxAttempts} times its normal load from clients retrying all at once.
+ *
+ * <p>The budget is a token bucket per key, by default the {@link feign.MethodMetadata#configKey()
+ * config key} of the method called. Every call deposits {@code ratio} of a token when its first
+ * attempt is sent and every retry withdraws a whole one, so with a ratio of {@code 0.1} at most
+ * about one retry is made for ten requests. Each bucket starts full with {@code maxTokens}, which
+ * also caps it, to allow bursts of retries after a quiet period. Retries that find the bucket empty
+ * are rejected: the {@link RetryableException} is propagated as if the retryer had given up.
+ *
+ * <p>Add it as a {@link Capability}; it counts the requests of the client and wraps its {@link
+ * Retryer}. The buckets are lock-free and may be shared between clients.
+ *
+ * <pre>
+ * RetryBudget budget = RetryBudget.builder().ratio(0.1).build();
+ * GitHub github = Feign.builder()
+ *     .retryer(new DecorrelatedJitterRetryer())
+ *     .addCapability(budget)
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ */
+@Experimental
+public final class RetryBudget implements Capability {
+
+  /** Tokens are counted in thousandths to allow fractional deposits. */
+  private static final long SCALE = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final Function<Request, String> keyMapper;
+  private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final LongAdder rejected = new LongAdder();
+
+  private RetryBudget(Builder builder) {
+    this.deposit = Math.round(builder.ratio * SCALE);
+    this.capacity = Math.round(builder.maxTokens * SCALE);
+    this.keyMapper = builder.keyMapper;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return (request, options) -> {
+      if (firstAttempt(request)) {
+        bucket(request).deposit(deposit, capacity);
+      }
+      return client.execute(request, options);
+    };
+  }
+
+  @Override
+  public AsyncClient<Object> enrich(AsyncClient<Object> client) {
+    return (request, options, requestContext) -> {
+      if (firstAttempt(request)) {
+        bucket(request).deposit(deposit, capacity);
+      }
+      return client.execute(request, options, requestContext);
+    };
+  }
+
+  @Override
+  public Retryer enrich(Retryer retryer) {
+    return new BudgetedRetryer(retryer);
+  }
+
+  /** The keys of the buckets created so far. */
+  public Set<String> keys() {
+    return Collections.unmodifiableSet(buckets.keySet());
+  }
+
+  /** The tokens left for retries under {@code key}. */
+  public double tokens(String key) {
+    Bucket bucket = buckets.get(key);
+    return (bucket != null ? bucket.tokens.get() : capacity) / (double) SCALE;
+  }
+
+  /** The retries allowed under {@code key} so far. */
+  public long retries(String key) {
+    Bucket bucket = buckets.get(key);
+    return bucket != null ? bucket.retries.sum() : 0;
+  }
+
+  /** The retries rejected under {@code key} so far, as its bucket was empty. */
+  public long rejectedRetries(String key) {
+    Bucket bucket = buckets.get(key);
+    return bucket != null ? bucket.rejected.sum() : 0;
+  }
+
+  /** The retries rejected under all keys so far. */
+  public long rejectedRetries() {
+    return rejected.sum();
+  }
+
+  private Bucket bucket(Request request) {
+    String key = request != null ? keyMapper.apply(request) : null;
+    return buckets.computeIfAbsent(key != null ? key : "", k -> new Bucket(capacity));
+  }
+
+  /**
+   * Tags the template of the call on its first attempt. Retries send new requests from the same
+   * template, so they find the tag and do not refill the bucket they draw from.
+   */
+  private boolean firstAttempt(Request request) {
+    RequestTemplate template = request.requestTemplate();
+    if (template == null) {
+      return true;
+    }
+    if (template.tag(RetryBudget.class) == this) {
+      return false;
+    }
+    template.tag(RetryBudget.class, this);
+    return true;
+  }
+
+  private boolean tryRetry(Request request) {
+    Bucket bucket = bucket(request);
+    if (bucket.withdraw(SCALE)) {
+      bucket.retries.increment();
+      return true;
+    }
+    bucket.rejected.increment();
+    rejected.increment();
+    return false;
+  }
+
+  private void refund(Request request) {
+    Bucket bucket = bucket(request);
+    bucket.retries.decrement();
+    bucket.deposit(SCALE, capacity);
+  }
+
+  private static String configKey(Request request) {
+    RequestTemplate template = request.requestTemplate();
+    return template != null && template.methodMetadata() != null
+        ? template.methodMetadata().configKey()
+        : null;
+  }
+
+  private static String targetName(Request request) {
+    RequestTemplate template = request.requestTemplate();
+    return template != null && template.feignTarget() != null
+        ? template.feignTarget().name()
+        : null;
+  }
+
+  private static final class Bucket {
+
+    private final AtomicLong tokens;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    Bucket(long capacity) {
+      this.tokens = new AtomicLong(capacity);
+    }
+
+    void deposit(long amount, long capacity) {
+      long current;
+      do {
+        current = tokens.get();
+        if (current >= capacity) {
+          return;
+        }
+      } while (!tokens.compareAndSet(current, Math.min(capacity, current + amount)));
+    }
+
+    boolean withdraw(long amount) {
+      long current;
+      do {
+        current = tokens.get();
+        if (current < amount) {
+          return false;
+        }
+      } while (!tokens.compareAndSet(current, current - amount));
+      return true;
+    }
+  }
+
+  /**
+   * Takes a token before letting the retryer decide, and gives it back if the retryer gives up
+   * anyway.
+   */
+  private final class BudgetedRetryer implements AsyncRetryer {
+
+    private final Retryer delegate;
+
+    BudgetedRetryer(Retryer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+      if (!tryRetry(e.request())) {
+        throw e;
+      }
+      try {
+        delegate.continueOrPropagate(e);
+      } catch (RetryableException propagated) {
+        refund(e.request());
+        throw propagated;
+      }
+    }
+
+    @Override
+    public long delayOrPropagate(RetryableException e) {
+      if (!(delegate instanceof AsyncRetryer)) {
+        continueOrPropagate(e);
+        return 0;
+      }
+      if (!tryRetry(e.request())) {
+        throw e;
+      }
+      try {
+        return ((AsyncRetryer) delegate).delayOrPropagate(e);
+      } catch (RetryableException propagated) {
+        refund(e.request());
+        throw propagated;
+      }
+    }
+
+    @Override
+    public Retryer clone() {
+      return new BudgetedRetryer(delegate.clone());
+    }
+  }
+
+  public static final class Builder {
+
+    private double ratio = 0.1;
+    private double maxTokens = 10;
+    private Function<Request, String> keyMapper = RetryBudget::configKey;
+
+    private Builder() {}
+
+    /**
+     * The share of requests that may be retried, {@code 0.1} by default.
+     *
+     * @param ratio between {@code 0} and {@code 1}.
+     */
+    public Builder ratio(double ratio) {
+      if (ratio < 0 || ratio > 1) {
+        throw new IllegalArgumentException("ratio must be between 0 and 1: " + ratio);
+      }
+      this.ratio = ratio;
+      return this;
+    }
+
+    /** The retries a full bucket allows in a burst, {@code 10} by default. */
+    public Builder maxTokens(double maxTokens) {
+      if (maxTokens < 1) {
+        throw new IllegalArgumentException("maxTokens must allow at least one retry: " + maxTokens);
+      }
+      this.maxTokens = maxTokens;
+      return this;
+    }
+
+    /** Shares one bucket between all the methods of a {@link feign.Target}. */
+    public Builder perTarget() {
+      this.keyMapper = RetryBudget::targetName;
+      return this;
+    }
+
+    /** Shares one bucket between all the requests of the clients the budget is added to. */
+    public Builder global() {
+      this.keyMapper = request -> "";
+      return this;
+    }
+
+    public RetryBudget build() {
+      return new RetryBudget(this);
+    }
+  }
+}
@@ -173,6 +173,10 @@ public final class QueryTemplate {
     return name.toString();
   }
 
+  public CollectionFormat getCollectionFormat() {
+    return collectionFormat;
+  }
+
   @Override
   public String toString() {
     return this.queryString(this.name.toString(), this.getValues());
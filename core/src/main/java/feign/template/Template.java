@@ -137,7 +137,7 @@ public class Template {
       if (expanded != null) {
         if (!this.encodeSlash) {
           logger.fine("Explicit slash decoding specified, decoding all slashes in uri");
-          expanded = expanded.replaceAll("%2F", "/");
+          expanded = UriUtils.decodeSlash(expanded);
         }
         resolved = expanded;
       }
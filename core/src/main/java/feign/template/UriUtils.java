@@ -16,32 +16,49 @@
 package feign.template;
 
 import feign.Util;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class UriUtils {
 
-  private static final Pattern PCT_ENCODED_PATTERN = Pattern.compile("%[0-9A-Fa-f][0-9A-Fa-f]");
+  private static final byte UNRESERVED = 1;
+  private static final byte RESERVED = 2;
+
+  /** Character classes of the US-ASCII characters, all others need to be pct-encoded. */
+  private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  static {
+    for (int c = 0; c < CHARACTER_CLASSES.length; c++) {
+      if (isUnreserved(c)) {
+        CHARACTER_CLASSES[c] = UNRESERVED;
+      } else if (isReserved(c)) {
+        CHARACTER_CLASSES[c] = RESERVED;
+      }
+    }
+  }
 
   /**
-   * Determines if the value is already pct-encoded.
+   * Determines if the value is already pct-encoded. Only US-ASCII characters can be unreserved, so
+   * the value is inspected as is and the charset is not used.
    *
    * @param value to check.
    * @return {@literal true} if the value is already pct-encoded
    */
   public static boolean isEncoded(String value, Charset charset) {
-    for (byte b : value.getBytes(charset)) {
-      if (!isUnreserved((char) b) && b != '%') {
-        /* break if there are any unreserved character */
+    boolean pctEncoded = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '%') {
+        pctEncoded = pctEncoded || isPctEncoded(value, i);
+      } else if (!is(c, UNRESERVED)) {
+        /* break if there are any reserved or non ascii characters */
         return false;
       }
     }
-    return PCT_ENCODED_PATTERN.matcher(value).find();
+    return pctEncoded;
   }
 
   /**
@@ -51,7 +68,7 @@ public class UriUtils {
    * @return the encoded value.
    */
   public static String encode(String value) {
-    return encodeChunk(value, Util.UTF_8, false);
+    return encode(value, Util.UTF_8);
   }
 
   /**
@@ -59,10 +76,34 @@ public class UriUtils {
    *
    * @param value to encode.
    * @param charset to use.
-   * @return the encoded value.
+   * @return the encoded value, or {@code value} itself if nothing needed to be encoded.
    */
   public static String encode(String value, Charset charset) {
-    return encodeChunk(value, charset, false);
+    int start = indexOfChunkEncoding(value);
+    if (start < 0) {
+      return value;
+    }
+    StringBuilder encoded = new StringBuilder(value.length() + 16).append(value, 0, start);
+    encodeChars(value, start, charset, UNRESERVED, false, encoded);
+    return encoded.toString();
+  }
+
+  /**
+   * Uri Encode the value into {@code builder}. Already encoded values are appended as is.
+   *
+   * @param value to encode.
+   * @param charset to use.
+   * @param builder to append the encoded value to.
+   * @return the builder, for chaining.
+   */
+  public static StringBuilder encode(String value, Charset charset, StringBuilder builder) {
+    int start = indexOfChunkEncoding(value);
+    if (start < 0) {
+      return builder.append(value);
+    }
+    builder.append(value, 0, start);
+    encodeChars(value, start, charset, UNRESERVED, false, builder);
+    return builder;
   }
 
   public static String encode(String value, boolean allowReservedCharacters) {
@@ -106,67 +147,179 @@ public class UriUtils {
    *
    * @param value inspect.
    * @param charset to use.
-   * @return a new String with the reserved characters preserved.
+   * @return a new String with the reserved characters preserved, or {@code value} itself if nothing
+   *     needed to be encoded.
    */
   public static String encodeInternal(
       String value, Charset charset, boolean allowReservedCharacters) {
-    /* value is encoded, we need to split it up and skip the parts that are already encoded */
-    Matcher matcher = PCT_ENCODED_PATTERN.matcher(value);
+    int start = indexOfEncoding(value, allowReservedCharacters);
+    if (start < 0) {
+      return value;
+    }
+    StringBuilder encoded = new StringBuilder(value.length() + 16).append(value, 0, start);
+    encodeChars(
+        value, start, charset, allowedClasses(value, allowReservedCharacters), true, encoded);
+    return encoded.toString();
+  }
 
-    if (!matcher.find()) {
-      return encodeChunk(value, charset, true);
+  /**
+   * Encodes the value into {@code builder}, preserving all reserved characters. Values that are
+   * already pct-encoded are appended as is.
+   *
+   * @param value inspect.
+   * @param charset to use.
+   * @param builder to append the encoded value to.
+   * @return the builder, for chaining.
+   */
+  public static StringBuilder encode(
+      String value, Charset charset, boolean allowReservedCharacters, StringBuilder builder) {
+    int start = indexOfEncoding(value, allowReservedCharacters);
+    if (start < 0) {
+      return builder.append(value);
     }
+    builder.append(value, 0, start);
+    encodeChars(
+        value, start, charset, allowedClasses(value, allowReservedCharacters), true, builder);
+    return builder;
+  }
 
-    int length = value.length();
-    StringBuilder encoded = new StringBuilder(length + 8);
-    int index = 0;
+  /**
+   * Replaces all encoded slashes, {@literal %2F}, in the value with a {@literal /}.
+   *
+   * @param value to decode the slashes of.
+   * @return the value with decoded slashes, or {@code value} itself if it had none.
+   */
+  static String decodeSlash(String value) {
+    int index = value.indexOf("%2F");
+    if (index < 0) {
+      return value;
+    }
+    StringBuilder decoded = new StringBuilder(value.length());
+    int start = 0;
     do {
-      /* split out the value before the encoded value */
-      String before = value.substring(index, matcher.start());
-
-      /* encode it */
-      encoded.append(encodeChunk(before, charset, allowReservedCharacters));
+      decoded.append(value, start, index).append('/');
+      start = index + 3;
+      index = value.indexOf("%2F", start);
+    } while (index >= 0);
+    return decoded.append(value, start, value.length()).toString();
+  }
 
-      /* append the encoded value */
-      encoded.append(matcher.group());
+  /**
+   * Index of the first character {@link #encode(String, Charset)} changes, or -1 if the value is
+   * returned as is. Values made of unreserved characters and pct-encoded triplets only are already
+   * encoded; any other value is encoded as a whole, including its {@literal %} characters.
+   */
+  private static int indexOfChunkEncoding(String value) {
+    int firstPercent = -1;
+    boolean pctEncoded = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '%') {
+        if (firstPercent < 0) {
+          firstPercent = i;
+        }
+        pctEncoded = pctEncoded || isPctEncoded(value, i);
+      } else if (!is(c, UNRESERVED)) {
+        return (firstPercent < 0) ? i : firstPercent;
+      }
+    }
+    return (pctEncoded) ? -1 : firstPercent;
+  }
 
-      /* update the string search index */
-      index = matcher.end();
-    } while (matcher.find());
+  /**
+   * Index of the first character {@link #encodeInternal(String, Charset, boolean)} changes, or -1
+   * if the value is returned as is. Reserved characters are only encoded when not allowed and the
+   * value holds pct-encoded triplets, which are always kept.
+   */
+  private static int indexOfEncoding(String value, boolean allowReservedCharacters) {
+    int firstEncoded = -1;
+    int firstReserved = -1;
+    boolean pctEncoded = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '%') {
+        if (isPctEncoded(value, i)) {
+          pctEncoded = true;
+          i += 2;
+        } else if (firstEncoded < 0) {
+          firstEncoded = i;
+        }
+      } else if (is(c, RESERVED)) {
+        if (firstReserved < 0) {
+          firstReserved = i;
+        }
+      } else if (!is(c, UNRESERVED) && firstEncoded < 0) {
+        firstEncoded = i;
+      }
+    }
+    if (pctEncoded && !allowReservedCharacters && firstReserved >= 0) {
+      return (firstEncoded < 0) ? firstReserved : Math.min(firstEncoded, firstReserved);
+    }
+    return firstEncoded;
+  }
 
-    /* append the rest of the string */
-    String tail = value.substring(index, length);
-    encoded.append(encodeChunk(tail, charset, allowReservedCharacters));
-    return encoded.toString();
+  /**
+   * Reserved characters are kept when allowed, or when the value holds no pct-encoded triplets at
+   * all.
+   */
+  private static byte allowedClasses(String value, boolean allowReservedCharacters) {
+    if (!allowReservedCharacters) {
+      for (int i = value.indexOf('%'); i >= 0; i = value.indexOf('%', i + 1)) {
+        if (isPctEncoded(value, i)) {
+          return UNRESERVED;
+        }
+      }
+    }
+    return UNRESERVED | RESERVED;
   }
 
   /**
-   * Encode a Uri Chunk, ensuring that all reserved characters are also encoded.
+   * Encodes the characters of the value from {@code start} on, in a single pass. Runs of non
+   * US-ASCII characters are converted to bytes in {@code charset} and pct-encoded.
    *
    * @param value to encode.
+   * @param start of the characters to encode.
    * @param charset to use.
-   * @return an encoded uri chunk.
+   * @param allowed character classes that are appended as is.
+   * @param keepPctEncoded if pct-encoded triplets are appended as is.
+   * @param builder to append to.
    */
-  private static String encodeChunk(String value, Charset charset, boolean allowReserved) {
-    if (isEncoded(value, charset)) {
-      return value;
-    }
-
-    byte[] data = value.getBytes(charset);
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      for (byte b : data) {
-        if (isUnreserved((char) b)) {
-          bos.write(b);
-        } else if (isReserved((char) b) && allowReserved) {
-          bos.write(b);
+  private static void encodeChars(
+      String value,
+      int start,
+      Charset charset,
+      byte allowed,
+      boolean keepPctEncoded,
+      StringBuilder builder) {
+    int length = value.length();
+    int i = start;
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c < CHARACTER_CLASSES.length) {
+        if ((CHARACTER_CLASSES[c] & allowed) != 0) {
+          builder.append(c);
+          i++;
+        } else if (c == '%' && keepPctEncoded && isPctEncoded(value, i)) {
+          builder.append(value, i, i + 3);
+          i += 3;
         } else {
-          pctEncode(b, bos);
+          pctEncode(c, builder);
+          i++;
         }
+      } else {
+        int end = i + 1;
+        while (end < length && value.charAt(end) >= CHARACTER_CLASSES.length) {
+          end++;
+        }
+        for (byte b : value.substring(i, end).getBytes(charset)) {
+          if (b >= 0 && (CHARACTER_CLASSES[b] & allowed) != 0) {
+            builder.append((char) b);
+          } else {
+            pctEncode(b & 0xFF, builder);
+          }
+        }
+        i = end;
       }
-      return new String(bos.toByteArray(), charset);
-    } catch (IOException ioe) {
-      throw new IllegalStateException(
-          "Error occurred during encoding of the uri: " + ioe.getMessage(), ioe);
     }
   }
 
@@ -174,14 +327,24 @@ public class UriUtils {
    * Percent Encode the provided byte.
    *
    * @param data to encode
-   * @param bos with the output stream to use.
+   * @param builder to append to.
    */
-  private static void pctEncode(byte data, ByteArrayOutputStream bos) {
-    bos.write('%');
-    char hex1 = Character.toUpperCase(Character.forDigit((data >> 4) & 0xF, 16));
-    char hex2 = Character.toUpperCase(Character.forDigit(data & 0xF, 16));
-    bos.write(hex1);
-    bos.write(hex2);
+  private static void pctEncode(int data, StringBuilder builder) {
+    builder.append('%').append(HEX_DIGITS[(data >> 4) & 0xF]).append(HEX_DIGITS[data & 0xF]);
+  }
+
+  private static boolean isPctEncoded(String value, int index) {
+    return index + 2 < value.length()
+        && isHexDigit(value.charAt(index + 1))
+        && isHexDigit(value.charAt(index + 2));
+  }
+
+  private static boolean isHexDigit(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+
+  private static boolean is(char c, byte characterClass) {
+    return c < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[c] & characterClass) != 0;
   }
 
   private static boolean isAlpha(int c) {
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Default {@link TimingSink} that keeps one {@link LatencyHistogram} per config key and {@link
+ * Phase}. Histograms are created the first time a phase takes a non-zero amount of time for a given
+ * key, so methods that never retry or never encode a body do not pay for those histograms.
+ */
+public final class HistogramTimingSink implements TimingSink {
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>> histograms =
+      new ConcurrentHashMap<>();
+
+  @Override
+  public void record(InvocationTiming timing) {
+    AtomicReferenceArray<LatencyHistogram> perPhase = histograms.get(timing.configKey());
+    if (perPhase == null) {
+      perPhase =
+          histograms.computeIfAbsent(
+              timing.configKey(), key -> new AtomicReferenceArray<>(PHASES.length));
+    }
+    for (Phase phase : PHASES) {
+      long nanos = timing.nanos(phase);
+      if (nanos == 0 && phase != Phase.TOTAL) {
+        continue;
+      }
+      LatencyHistogram histogram = perPhase.get(phase.ordinal());
+      if (histogram == null) {
+        perPhase.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+        histogram = perPhase.get(phase.ordinal());
+      }
+      histogram.record(nanos);
+    }
+  }
+
+  /** Config keys for which at least one invocation was recorded. */
+  public Set<String> configKeys() {
+    return Collections.unmodifiableSet(histograms.keySet());
+  }
+
+  /**
+   * Returns the histogram for {@code phase} of {@code configKey}, or {@code null} if that phase has
+   * not been observed for the key.
+   */
+  public LatencyHistogram histogram(String configKey, Phase phase) {
+    AtomicReferenceArray<LatencyHistogram> perPhase = histograms.get(configKey);
+    return perPhase == null ? null : perPhase.get(phase.ordinal());
+  }
+}
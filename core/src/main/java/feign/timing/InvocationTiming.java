@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Nanosecond timings of one method invocation, broken down by {@link Phase}. Phases that repeat
+ * across retries are summed. Instances are handed to a {@link TimingSink} once the invocation
+ * completes and are not modified afterwards.
+ */
+public final class InvocationTiming {
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final String configKey;
+  private final long startNanos;
+  private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+  private final AtomicInteger attempts = new AtomicInteger();
+  private volatile boolean failed;
+
+  InvocationTiming(String configKey, long startNanos) {
+    this.configKey = configKey;
+    this.startNanos = startNanos;
+  }
+
+  /** The {@link feign.Feign#configKey(Class, java.lang.reflect.Method) config key} invoked. */
+  public String configKey() {
+    return configKey;
+  }
+
+  /** Nanoseconds spent in {@code phase}, or zero if it did not occur. */
+  public long nanos(Phase phase) {
+    return nanos.get(phase.ordinal());
+  }
+
+  /** Number of times the request was handed to the client. */
+  public int attempts() {
+    return attempts.get();
+  }
+
+  /** Whether the invocation completed with an exception. */
+  public boolean failed() {
+    return failed;
+  }
+
+  long startNanos() {
+    return startNanos;
+  }
+
+  void add(Phase phase, long elapsed) {
+    nanos.addAndGet(phase.ordinal(), elapsed);
+  }
+
+  void attempt() {
+    attempts.incrementAndGet();
+  }
+
+  void complete(long endNanos, boolean failed) {
+    this.failed = failed;
+    nanos.set(Phase.TOTAL.ordinal(), endNanos - startNanos);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(configKey).append(" {");
+    for (Phase phase : PHASES) {
+      long value = nanos.get(phase.ordinal());
+      if (value != 0) {
+        builder.append(' ').append(phase).append('=').append(value / 1000).append("us");
+      }
+    }
+    return builder
+        .append(" attempts=")
+        .append(attempts.get())
+        .append(failed ? " failed }" : " }")
+        .toString();
+  }
+}
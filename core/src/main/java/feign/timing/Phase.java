@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+/** The stages of a single Feign method invocation measured by {@link PhaseTimingCapability}. */
+public enum Phase {
+
+  /** Resolving the method arguments into a {@link feign.RequestTemplate}, excluding encoding. */
+  TEMPLATE,
+
+  /** Serializing the body parameter with the {@link feign.codec.Encoder}. */
+  ENCODE,
+
+  /** Running every {@link feign.RequestInterceptor}, summed across attempts. */
+  REQUEST_INTERCEPTORS,
+
+  /**
+   * Connecting, sending the request and waiting for the response headers — that is, time to first
+   * byte — summed across attempts. Clients do not report connect and send separately.
+   */
+  EXECUTE,
+
+  /** Reading the response body and running the {@link feign.codec.Decoder}. */
+  DECODE,
+
+  /** Time spent inside {@link feign.Retryer#continueOrPropagate}, typically sleeping. */
+  RETRY_BACKOFF,
+
+  /** Wall-clock time from entering the proxy method until the result or error is available. */
+  TOTAL
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+import static feign.Util.checkNotNull;
+
+import feign.AsyncClient;
+import feign.AsyncRetryer;
+import feign.Capability;
+import feign.Client;
+import feign.Experimental;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.interceptor.Invocation;
+import feign.interceptor.MethodInterceptor;
+import feign.interceptor.MethodInterceptors;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breaks every invocation down into {@link Phase}s and reports the result to a {@link TimingSink}.
+ * By default timings are recorded into a {@link HistogramTimingSink}, which keeps a lock-free
+ * {@link LatencyHistogram} per config key and phase:
+ *
+ * <pre>
+ * PhaseTimingCapability timing = new PhaseTimingCapability();
+ * GitHub github = Feign.builder().addCapability(timing).target(GitHub.class, url);
+ * ...
+ * HistogramTimingSink histograms = (HistogramTimingSink) timing.sink();
+ * histograms.histogram("GitHub#repos(String)", Phase.EXECUTE).valueAtPercentile(99);
+ * </pre>
+ *
+ * <p>Works with both {@link Feign} and {@link feign.AsyncFeign}. The timing travels with the
+ * invocation as a {@link RequestTemplate#tag(Class) tag} on its resolved template, so nothing is
+ * left behind when an asynchronous invocation never completes.
+ */
+@Experimental
+public class PhaseTimingCapability implements Capability {
+
+  private final TimingSink sink;
+  private final ThreadLocal<InvocationTiming> entered = new ThreadLocal<>();
+
+  public PhaseTimingCapability() {
+    this(new HistogramTimingSink());
+  }
+
+  public PhaseTimingCapability(TimingSink sink) {
+    this.sink = checkNotNull(sink, "sink");
+  }
+
+  public TimingSink sink() {
+    return sink;
+  }
+
+  @Override
+  public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+    return (target, dispatch) -> {
+      Map<Method, MethodHandler> timed = new LinkedHashMap<>();
+      for (Map.Entry<Method, MethodHandler> entry : dispatch.entrySet()) {
+        String configKey = Feign.configKey(target.type(), entry.getKey());
+        MethodHandler handler = entry.getValue();
+        timed.put(
+            entry.getKey(),
+            argv -> {
+              InvocationTiming previous = entered.get();
+              entered.set(new InvocationTiming(configKey, System.nanoTime()));
+              try {
+                return handler.invoke(argv);
+              } finally {
+                if (previous == null) {
+                  entered.remove();
+                } else {
+                  entered.set(previous);
+                }
+              }
+            });
+      }
+      return invocationHandlerFactory.create(target, timed);
+    };
+  }
+
+  /** Discovered reflectively by the builder; runs the timing interceptor ahead of all others. */
+  public MethodInterceptors enrich(MethodInterceptors methodInterceptors) {
+    List<MethodInterceptor> interceptors = new ArrayList<>();
+    interceptors.add(this::intercept);
+    interceptors.addAll(methodInterceptors.interceptors());
+    return new MethodInterceptors(interceptors);
+  }
+
+  private Object intercept(Invocation invocation, MethodInterceptor.Chain chain) throws Throwable {
+    long now = System.nanoTime();
+    InvocationTiming timing = entered.get();
+    if (timing == null) {
+      timing = new InvocationTiming(invocation.methodMetadata().configKey(), now);
+    } else {
+      timing.add(Phase.TEMPLATE, now - timing.startNanos() - timing.nanos(Phase.ENCODE));
+    }
+    invocation.requestTemplate().tag(InvocationTiming.class, timing);
+    Object result;
+    try {
+      result = chain.next(invocation);
+    } catch (Throwable e) {
+      complete(timing, true);
+      throw e;
+    }
+    if (result instanceof CompletableFuture) {
+      InvocationTiming pending = timing;
+      ((CompletableFuture<?>) result)
+          .whenComplete((value, error) -> complete(pending, error != null));
+    } else {
+      complete(timing, false);
+    }
+    return result;
+  }
+
+  private void complete(InvocationTiming timing, boolean failed) {
+    timing.complete(System.nanoTime(), failed);
+    sink.record(timing);
+  }
+
+  private InvocationTiming timingOf(Request request) {
+    return request == null ? null : timingOf(request.requestTemplate());
+  }
+
+  private InvocationTiming timingOf(RequestTemplate template) {
+    return template == null ? null : template.tag(InvocationTiming.class);
+  }
+
+  @Override
+  public Encoder enrich(Encoder encoder) {
+    return (object, bodyType, template) -> {
+      InvocationTiming timing = entered.get();
+      long start = System.nanoTime();
+      try {
+        encoder.encode(object, bodyType, template);
+      } finally {
+        if (timing != null) {
+          timing.add(Phase.ENCODE, System.nanoTime() - start);
+        }
+      }
+    };
+  }
+
+  @Override
+  public RequestInterceptor enrich(RequestInterceptor requestInterceptor) {
+    return template -> {
+      InvocationTiming timing = timingOf(template);
+      long start = System.nanoTime();
+      try {
+        requestInterceptor.apply(template);
+      } finally {
+        if (timing != null) {
+          timing.add(Phase.REQUEST_INTERCEPTORS, System.nanoTime() - start);
+        }
+      }
+    };
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return (request, options) -> {
+      InvocationTiming timing = timingOf(request);
+      if (timing == null) {
+        return client.execute(request, options);
+      }
+      timing.attempt();
+      long start = System.nanoTime();
+      try {
+        return client.execute(request, options);
+      } finally {
+        timing.add(Phase.EXECUTE, System.nanoTime() - start);
+      }
+    };
+  }
+
+  @Override
+  public AsyncClient<Object> enrich(AsyncClient<Object> client) {
+    return (request, options, requestContext) -> {
+      InvocationTiming timing = timingOf(request);
+      if (timing == null) {
+        return client.execute(request, options, requestContext);
+      }
+      timing.attempt();
+      long start = System.nanoTime();
+      return client
+          .execute(request, options, requestContext)
+          .whenComplete((response, error) -> timing.add(Phase.EXECUTE, System.nanoTime() - start));
+    };
+  }
+
+  @Override
+  public Decoder enrich(Decoder decoder) {
+    return (response, type) -> {
+      InvocationTiming timing = timingOf(response.request());
+      long start = System.nanoTime();
+      try {
+        return decoder.decode(response, type);
+      } finally {
+        if (timing != null) {
+          timing.add(Phase.DECODE, System.nanoTime() - start);
+        }
+      }
+    };
+  }
+
+  @Override
+  public Retryer enrich(Retryer retryer) {
+    return new TimedRetryer(retryer);
+  }
+
+  private final class TimedRetryer implements AsyncRetryer {
+
+    private final Retryer delegate;
+
+    TimedRetryer(Retryer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+      InvocationTiming timing = timingOf(e.request());
+      long start = System.nanoTime();
+      try {
+        delegate.continueOrPropagate(e);
+      } finally {
+        if (timing != null) {
+          timing.add(Phase.RETRY_BACKOFF, System.nanoTime() - start);
+        }
+      }
+    }
+
+    /** Scheduled backoffs are recorded as the delay asked for, as no thread waits for them. */
+    @Override
+    public long delayOrPropagate(RetryableException e) {
+      if (!(delegate instanceof AsyncRetryer)) {
+        continueOrPropagate(e);
+        return 0;
+      }
+      long delay = ((AsyncRetryer) delegate).delayOrPropagate(e);
+      InvocationTiming timing = timingOf(e.request());
+      if (timing != null && delay > 0) {
+        timing.add(Phase.RETRY_BACKOFF, TimeUnit.MILLISECONDS.toNanos(delay));
+      }
+      return delay;
+    }
+
+    @Override
+    public Retryer clone() {
+      return new TimedRetryer(delegate.clone());
+    }
+  }
+}
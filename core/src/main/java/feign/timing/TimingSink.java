@@ -0,0 +1,26 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+/**
+ * Receives the {@link InvocationTiming} of every completed invocation. Called on whichever thread
+ * completed the invocation, so implementations must be thread-safe and should not block.
+ */
+@FunctionalInterface
+public interface TimingSink {
+
+  void record(InvocationTiming timing);
+}
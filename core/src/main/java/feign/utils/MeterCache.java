@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.utils;
+
+import feign.Experimental;
+import feign.MethodMetadata;
+import feign.Target;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Meter handles resolved once per method and target, so steady-state requests do a couple of hash
+ * probes instead of building tags and going through the metrics registry. Shared by the metrics
+ * modules.
+ *
+ * <p>{@link MethodMetadata} keys are held weakly and compared by identity, since metadata may be
+ * shared between clients and outlive this cache's owner. At most {@value #MAX_TARGETS} targets are
+ * cached per method, so clients built against many dynamic targets fall back to the registry rather
+ * than growing the cache. Whenever the registry's removal count changes, everything cached is
+ * dropped, so meters removed from the registry are never handed out again. Callers only cache
+ * meters whose tags are fully determined by the method, the target and, for {@link #statusSlots},
+ * the response status.
+ */
+@Experimental
+public final class MeterCache<M> {
+
+  static final int MAX_TARGETS = 64;
+  private static final int MIN_STATUS = 100;
+  private static final int MAX_STATUS = 599;
+
+  private final ConcurrentMap<Object, ConcurrentMap<Target<?>, M>> meters =
+      new ConcurrentHashMap<>();
+  private final ReferenceQueue<MethodMetadata> collected = new ReferenceQueue<>();
+  private final LongSupplier removals;
+  private volatile long seenRemovals;
+
+  /** A cache that is never invalidated, for registries that cannot report removals. */
+  public MeterCache() {
+    this(() -> 0L);
+  }
+
+  /**
+   * @param removals how many meters have been removed from the registry so far. The cache is
+   *     cleared whenever this changes.
+   */
+  public MeterCache(LongSupplier removals) {
+    this.removals = removals;
+    this.seenRemovals = removals.getAsLong();
+  }
+
+  /** Returns the cached meter, or {@code null} when there is none yet or the key is incomplete. */
+  public M get(MethodMetadata methodMetadata, Target<?> target) {
+    if (methodMetadata == null || target == null) {
+      return null;
+    }
+    final long removed = removals.getAsLong();
+    if (removed != seenRemovals) {
+      meters.clear();
+      seenRemovals = removed;
+      return null;
+    }
+    final ConcurrentMap<Target<?>, M> byTarget = meters.get(new Lookup(methodMetadata));
+    return byTarget != null ? byTarget.get(target) : null;
+  }
+
+  /**
+   * Caches {@code meter} unless another thread won or the method already has {@value #MAX_TARGETS}
+   * targets, returning whichever meter the caller should use.
+   */
+  public M put(MethodMetadata methodMetadata, Target<?> target, M meter) {
+    if (methodMetadata == null || target == null) {
+      return meter;
+    }
+    expungeCollected();
+    ConcurrentMap<Target<?>, M> byTarget = meters.get(new Lookup(methodMetadata));
+    if (byTarget == null) {
+      final ConcurrentMap<Target<?>, M> created = new ConcurrentHashMap<>();
+      byTarget = meters.putIfAbsent(new WeakKey(methodMetadata, collected), created);
+      if (byTarget == null) {
+        byTarget = created;
+      }
+    }
+    if (byTarget.size() >= MAX_TARGETS && !byTarget.containsKey(target)) {
+      return meter;
+    }
+    final M existing = byTarget.putIfAbsent(target, meter);
+    return existing != null ? existing : meter;
+  }
+
+  /** Number of methods currently cached. */
+  int size() {
+    expungeCollected();
+    return meters.size();
+  }
+
+  private void expungeCollected() {
+    for (Reference<?> ref; (ref = collected.poll()) != null; ) {
+      meters.remove(ref);
+    }
+  }
+
+  /**
+   * Returns the per-status slot table for a method and target, creating it on first use, or {@code
+   * null} when the key is incomplete. Index it with {@link #statusSlot(int)}.
+   */
+  public static <M> AtomicReferenceArray<M> statusSlots(
+      MeterCache<AtomicReferenceArray<M>> cache, MethodMetadata methodMetadata, Target<?> target) {
+    if (methodMetadata == null || target == null) {
+      return null;
+    }
+    AtomicReferenceArray<M> slots = cache.get(methodMetadata, target);
+    if (slots == null) {
+      slots =
+          cache.put(
+              methodMetadata, target, new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1));
+    }
+    return slots;
+  }
+
+  /** Slot for {@code status}, or {@code -1} when it is outside the cached range. */
+  public static int statusSlot(int status) {
+    return status < MIN_STATUS || status > MAX_STATUS ? -1 : status - MIN_STATUS;
+  }
+
+  /** Stored key: weak, identity-compared. */
+  private static final class WeakKey extends WeakReference<MethodMetadata> {
+
+    private final int hash;
+
+    WeakKey(MethodMetadata methodMetadata, ReferenceQueue<MethodMetadata> queue) {
+      super(methodMetadata, queue);
+      this.hash = System.identityHashCode(methodMetadata);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      final Object referent = get();
+      return referent != null
+          && (obj instanceof WeakKey && ((WeakKey) obj).get() == referent
+              || obj instanceof Lookup && ((Lookup) obj).methodMetadata == referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /** Probe key, so lookups do not create references. */
+  private static final class Lookup {
+
+    private final MethodMetadata methodMetadata;
+
+    Lookup(MethodMetadata methodMetadata) {
+      this.methodMetadata = methodMetadata;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof WeakKey && ((WeakKey) obj).get() == methodMetadata
+          || obj instanceof Lookup && ((Lookup) obj).methodMetadata == methodMetadata;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(methodMetadata);
+    }
+  }
+}
@@ -65,6 +65,8 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -676,6 +678,147 @@ public class AsyncFeignTest {
     assertThat(server.getRequestCount()).isEqualTo(4);
   }
 
+  @Test
+  void schedulesRetryBackoffAndRunsTheAttemptOnTheExecutor() throws Throwable {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("foo 2"));
+
+    ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "retry-scheduler"));
+    ExecutorService executor =
+        Executors.newCachedThreadPool(r -> new Thread(r, "client-executor"));
+    List<String> attemptThreads = Collections.synchronizedList(new ArrayList<>());
+    try {
+      TestInterfaceAsync api =
+          AsyncFeign.builder()
+              .retryer(new DefaultRetryer(50, 50, 2))
+              .retryScheduler(scheduler)
+              .executorService(executor)
+              .requestInterceptor(_ -> attemptThreads.add(Thread.currentThread().getName()))
+              .errorDecoder(
+                  (_, response) ->
+                      new RetryableException(
+                          response.status(),
+                          "play it again sam!",
+                          HttpMethod.POST,
+                          NON_RETRYABLE,
+                          response.request()))
+              .target(TestInterfaceAsync.class, "http://localhost:" + server.getPort());
+
+      unwrap(api.post());
+
+      assertThat(server.getRequestCount()).isEqualTo(2);
+      assertThat(attemptThreads).hasSize(2).last().isEqualTo("client-executor");
+    } finally {
+      scheduler.shutdownNow();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void completesExceptionallyWhenScheduledRetryThrows() throws Throwable {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+
+    AtomicInteger attempts = new AtomicInteger();
+    TestInterfaceAsync api =
+        AsyncFeign.builder()
+            .retryer(new DefaultRetryer(10, 10, 2))
+            .requestInterceptor(
+                _ -> {
+                  if (attempts.incrementAndGet() > 1) {
+                    throw new IllegalStateException("interceptor failed");
+                  }
+                })
+            .errorDecoder(
+                (_, response) ->
+                    new RetryableException(
+                        response.status(),
+                        "play it again sam!",
+                        HttpMethod.POST,
+                        NON_RETRYABLE,
+                        response.request()))
+            .target(TestInterfaceAsync.class, "http://localhost:" + server.getPort());
+
+    CompletableFuture<String> result = api.post();
+
+    assertThatExceptionOfType(ExecutionException.class)
+        .isThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .withCauseInstanceOf(IllegalStateException.class);
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void cancellingWithdrawsTheScheduledRetry() throws Throwable {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    scheduler.setRemoveOnCancelPolicy(true);
+    try {
+      TestInterfaceAsync api =
+          AsyncFeign.builder()
+              .retryer(new DefaultRetryer(60_000, 60_000, 2))
+              .retryScheduler(scheduler)
+              .errorDecoder(
+                  (_, response) ->
+                      new RetryableException(
+                          response.status(),
+                          "play it again sam!",
+                          HttpMethod.POST,
+                          NON_RETRYABLE,
+                          response.request()))
+              .target(TestInterfaceAsync.class, "http://localhost:" + server.getPort());
+
+      CompletableFuture<String> result = api.post();
+      for (int i = 0; i < 500 && scheduler.getQueue().isEmpty(); i++) {
+        Thread.sleep(10);
+      }
+      assertThat(scheduler.getQueue()).hasSize(1);
+
+      result.cancel(true);
+
+      assertThat(scheduler.getQueue()).isEmpty();
+      assertThat(server.getRequestCount()).isEqualTo(1);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  void retryerOverridingContinueOrPropagateStillBlocks() throws Throwable {
+    server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("foo 2"));
+
+    AtomicInteger continued = new AtomicInteger();
+    TestInterfaceAsync api =
+        AsyncFeign.builder()
+            .retryer(
+                new DefaultRetryer(1, 1, 2) {
+                  @Override
+                  public void continueOrPropagate(RetryableException e) {
+                    continued.incrementAndGet();
+                    super.continueOrPropagate(e);
+                  }
+
+                  @Override
+                  public Retryer clone() {
+                    return this;
+                  }
+                })
+            .errorDecoder(
+                (_, response) ->
+                    new RetryableException(
+                        response.status(),
+                        "play it again sam!",
+                        HttpMethod.POST,
+                        NON_RETRYABLE,
+                        response.request()))
+            .target(TestInterfaceAsync.class, "http://localhost:" + server.getPort());
+
+    unwrap(api.post());
+
+    assertThat(continued.get()).isEqualTo(1);
+  }
+
   @Test
   void throwsOriginalExceptionAfterFailedRetries() throws Throwable {
     server.enqueue(new MockResponse().setResponseCode(503).setBody("foo 1"));
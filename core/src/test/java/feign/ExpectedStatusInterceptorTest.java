@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class ExpectedStatusInterceptorTest {
+
+  interface Api {
+
+    @RequestLine("GET /items/{id}")
+    TypedResponse<String> item(@Param("id") String id);
+
+    @RequestLine("GET /items/{id}")
+    String plainItem(@Param("id") String id);
+  }
+
+  private static Api api(int status) {
+    return Feign.builder()
+        .client(
+            (request, options) ->
+                Response.builder()
+                    .status(status)
+                    .reason("reason")
+                    .request(request)
+                    .headers(Collections.singletonMap("X-Id", Collections.singletonList("42")))
+                    .body("body", Util.UTF_8)
+                    .build())
+        .responseInterceptor(new ExpectedStatusInterceptor(409, 404))
+        .target(Api.class, "http://localhost");
+  }
+
+  @Test
+  void expectedStatusIsReturnedInsteadOfThrown() {
+    TypedResponse<String> response = api(404).item("42");
+
+    assertThat(response.status()).isEqualTo(404);
+    assertThat(response.body()).isNull();
+    assertThat(response.headers()).containsKey("x-id");
+  }
+
+  @Test
+  void successIsStillDecoded() {
+    assertThat(api(200).item("42").body()).isEqualTo("body");
+  }
+
+  @Test
+  void otherStatusesStillThrow() {
+    assertThatExceptionOfType(FeignException.InternalServerError.class)
+        .isThrownBy(() -> api(500).item("42"));
+  }
+
+  @Test
+  void onlyAppliesToTypedResponseMethods() {
+    assertThatExceptionOfType(FeignException.NotFound.class)
+        .isThrownBy(() -> api(404).plainItem("42"));
+  }
+}
@@ -18,7 +18,9 @@ package feign;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import feign.codec.ErrorBodyCapture;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -323,4 +325,68 @@ class FeignExceptionTest {
       super(status, message, request, content, headers);
     }
   }
+
+  @Test
+  void stacklessPolicySkipsStackTraceAndDefersMessage() {
+    Request request =
+        Request.create(Request.HttpMethod.GET, "/home", Collections.emptyMap(), null, null, null);
+    Response response =
+        Response.builder()
+            .status(404)
+            .reason("Not Found")
+            .body("missing".getBytes(StandardCharsets.UTF_8))
+            .headers(Collections.emptyMap())
+            .request(request)
+            .build();
+
+    FeignException full = FeignException.errorStatus("Api#home()", response);
+    FeignException stackless =
+        FeignException.errorStatus(
+            "Api#home()",
+            response,
+            null,
+            null,
+            ErrorBodyCapture.DEFAULT,
+            ExceptionConstructionPolicy.STACKLESS);
+
+    assertThat(stackless).isInstanceOf(FeignException.NotFound.class);
+    assertThat(stackless.getStackTrace()).isEmpty();
+    assertThat(full.getStackTrace()).isNotEmpty();
+    assertThat(stackless.getMessage()).isEqualTo(full.getMessage());
+    assertThat(stackless.contentUTF8()).isEqualTo("missing");
+    assertThat(stackless.request()).isSameAs(request);
+  }
+
+  @Test
+  void stacklessMessageDoesNotRetainTheResponse() throws InterruptedException {
+    Request request =
+        Request.create(Request.HttpMethod.GET, "/home", Collections.emptyMap(), null, null, null);
+    Response response =
+        Response.builder()
+            .status(503)
+            .reason("Service Unavailable")
+            .body("later".getBytes(StandardCharsets.UTF_8))
+            .headers(Collections.emptyMap())
+            .request(request)
+            .build();
+    WeakReference<Response> released = new WeakReference<>(response);
+
+    FeignException stackless =
+        FeignException.errorStatus(
+            "Api#home()",
+            response,
+            null,
+            null,
+            ErrorBodyCapture.DEFAULT,
+            ExceptionConstructionPolicy.STACKLESS);
+    response = null;
+    for (int i = 0; i < 50 && released.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(released.get()).isNull();
+    assertThat(stackless.getMessage())
+        .isEqualTo("[503 Service Unavailable] during [GET] to [/home] [Api#home()]: [later]");
+  }
 }
@@ -22,7 +22,10 @@ import static org.mockito.Mockito.verify;
 
 import feign.Logger.Level;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class LoggerMethodsTest {
@@ -54,4 +57,36 @@ public class LoggerMethodsTest {
     verify(spyBody).close();
     assertThat(rebufferedResponse.body()).isNotSameAs(spyBody);
   }
+
+  @Test
+  void streamingBodyOfUnknownLengthIsNotLoggedAsNegative() {
+    List<String> messages = new ArrayList<>();
+    Logger recording =
+        new Logger() {
+          @Override
+          protected void log(String configKey, String format, Object... args) {
+            messages.add(String.format(format, args));
+          }
+        };
+    Request request =
+        Request.create(
+            Request.HttpMethod.POST,
+            "/api",
+            Collections.emptyMap(),
+            Request.Body.create(
+                new Request.Body.Content() {
+                  @Override
+                  public long length() {
+                    return -1;
+                  }
+
+                  @Override
+                  public void writeTo(OutputStream out) {}
+                }),
+            null);
+
+    recording.logRequest("someMethod()", Level.FULL, request);
+
+    assertThat(messages).last().isEqualTo("---> END HTTP (unknown-length body)");
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MetadataCacheTest {
+
+  interface Users {
+    @RequestLine("GET /users")
+    String users();
+  }
+
+  interface Orders {
+    @RequestLine("GET /orders")
+    String orders();
+  }
+
+  interface Invalid {
+    String notAnnotated();
+  }
+
+  /** Counts the interfaces it parses, to tell cache hits from misses. */
+  static class CountingContract implements Contract {
+    final AtomicInteger parsed = new AtomicInteger();
+
+    @Override
+    public List<MethodMetadata> parseAndValidateMetadata(Class<?> targetType) {
+      parsed.incrementAndGet();
+      return new DefaultContract().parseAndValidateMetadata(targetType);
+    }
+  }
+
+  private static Users users(Contract contract) {
+    return Feign.builder().contract(contract).target(Users.class, "http://localhost");
+  }
+
+  @Test
+  void buildersSharingAContractParseOnce() {
+    CountingContract contract = new CountingContract();
+    users(contract);
+    users(contract);
+
+    assertThat(contract.parsed).hasValue(1);
+  }
+
+  @Test
+  void otherContractInstancesParseAgain() {
+    CountingContract contract = new CountingContract();
+    CountingContract other = new CountingContract();
+    users(contract);
+    users(other);
+
+    assertThat(contract.parsed).hasValue(1);
+    assertThat(other.parsed).hasValue(1);
+  }
+
+  @Test
+  void defaultContractInstancesShareMetadata() {
+    List<MethodMetadata> metadata = MetadataCache.metadata(new DefaultContract(), Users.class);
+
+    assertThat(MetadataCache.metadata(new DefaultContract(), Users.class)).isSameAs(metadata);
+    assertThat(MetadataCache.metadata(new Contract.Default(), Users.class))
+        .isNotSameAs(metadata)
+        .isSameAs(MetadataCache.metadata(new Contract.Default(), Users.class));
+    assertThatThrownBy(() -> metadata.add(new MethodMetadata()))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void preloadParsesEachInterfaceOnce() {
+    CountingContract contract = new CountingContract();
+    MetadataCache.preload(contract, Arrays.asList(Users.class, Orders.class), new ForkJoinPool(2));
+    users(contract);
+    Feign.builder().contract(contract).target(Orders.class, "http://localhost");
+
+    assertThat(contract.parsed).hasValue(2);
+  }
+
+  @Test
+  void invalidInterfacesAreNotCached() {
+    CountingContract contract = new CountingContract();
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(
+              () -> MetadataCache.preload(contract, Collections.singletonList(Invalid.class)))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("notAnnotated() not annotated");
+    }
+
+    assertThat(contract.parsed).hasValue(2);
+  }
+}
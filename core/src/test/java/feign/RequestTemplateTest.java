@@ -29,6 +29,8 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class RequestTemplateTest {
 
@@ -90,6 +92,148 @@ public class RequestTemplateTest {
     assertThat(template).hasUrl("/hostedzone/Z1PA6795UKMFR9");
   }
 
+  @Test
+  void resolvedTemplateCanStillBeChanged() {
+    RequestTemplate template =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/repos/{owner}")
+            .query("page", "{page}")
+            .query("empty", "{empty}");
+
+    RequestTemplate resolved = template.resolve(mapOf("owner", "open feign", "page", 2));
+    resolved.target("https://api.github.com");
+
+    assertThat(resolved.url()).isEqualTo("https://api.github.com/repos/open%20feign?page=2");
+    assertThat(resolved.path()).isEqualTo("https://api.github.com/repos/open%20feign");
+    assertThat(resolved.queries()).containsExactly(entry("page", asList("2")));
+
+    resolved.query("sort", "asc").uri("/contributors", true);
+
+    assertThat(resolved.url())
+        .isEqualTo("https://api.github.com/repos/open%20feign/contributors?page=2&sort=asc");
+  }
+
+  /**
+   * Resolves {@code template} and checks that the expanded url kept as is reads the same as the url
+   * rebuilt from the parsed uri and query templates, and that resolving in place agrees.
+   */
+  private static String assertLiteralMatchesParsed(
+      RequestTemplate template, Map<String, ?> variables) {
+    RequestTemplate resolved = template.resolve(variables);
+    String url = resolved.url();
+    assertThat(resolved.parsed().url()).as("parsed url of %s", variables).isEqualTo(url);
+    assertThat(RequestTemplate.from(template).resolveInPlace(variables).url())
+        .as("in-place url of %s", variables)
+        .isEqualTo(url);
+    return url;
+  }
+
+  @ParameterizedTest
+  @EnumSource(CollectionFormat.class)
+  void literalUrlMatchesParsedUrlForEveryCollectionFormat(CollectionFormat queryFormat) {
+    for (CollectionFormat templateFormat : CollectionFormat.values()) {
+      RequestTemplate template =
+          new RequestTemplate()
+              .method(HttpMethod.GET)
+              .uri("/items/{id}")
+              .collectionFormat(templateFormat)
+              .query("tag", Collections.singletonList("{tag}"), queryFormat)
+              .query("sort", "{sort}");
+
+      assertLiteralMatchesParsed(
+          template, mapOf("id", "1", "tag", asList("a", "b"), "sort", "asc"));
+      assertLiteralMatchesParsed(template, mapOf("id", "1", "tag", asList("a|b", "c,d")));
+      assertLiteralMatchesParsed(template, mapOf("id", "1", "tag", "single"));
+      assertLiteralMatchesParsed(template, mapOf("id", "1"));
+    }
+  }
+
+  @Test
+  void repeatedNamesOnNonExplodedTemplatesAreRegrouped() {
+    RequestTemplate template =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/items")
+            .collectionFormat(CollectionFormat.CSV)
+            .query("tag", Collections.singletonList("{tag}"), CollectionFormat.EXPLODED);
+
+    String url = assertLiteralMatchesParsed(template, mapOf("tag", asList("a", "b")));
+
+    assertThat(url).isEqualTo("/items?tag=a%2Cb");
+  }
+
+  @ParameterizedTest
+  @EnumSource(CollectionFormat.class)
+  void literalUrlMatchesParsedUrlForEmptyValues(CollectionFormat queryFormat) {
+    RequestTemplate template =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/items")
+            .query("tag", Collections.singletonList("{tag}"), queryFormat)
+            .query("sort", "{sort}");
+
+    assertLiteralMatchesParsed(template, mapOf("tag", "", "sort", "asc"));
+    assertLiteralMatchesParsed(template, mapOf("tag", asList("", "a"), "sort", ""));
+    assertLiteralMatchesParsed(template, mapOf("tag", asList("a", ""), "sort", "asc"));
+    assertLiteralMatchesParsed(template, mapOf("tag", Collections.emptyList(), "sort", "asc"));
+  }
+
+  @Test
+  void literalUrlMatchesParsedUrlForEncodedSlashes() {
+    for (boolean decodeSlash : new boolean[] {true, false}) {
+      RequestTemplate template =
+          new RequestTemplate()
+              .method(HttpMethod.GET)
+              .uri("/files/{path}")
+              .decodeSlash(decodeSlash)
+              .query("dir", "{dir}");
+
+      assertLiteralMatchesParsed(template, mapOf("path", "a/b", "dir", "c/d"));
+      assertLiteralMatchesParsed(template, mapOf("path", "a%2Fb", "dir", "c%2Fd"));
+    }
+  }
+
+  @Test
+  void accessorsParseTheResolvedTemplateOnce() {
+    RequestTemplate resolved =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/repos/{owner}")
+            .query("page", "{page}")
+            .resolve(mapOf("owner", "feign", "page", 2));
+    String url = resolved.url();
+    assertThat(resolved.parsed()).as("unparsed after resolve").isNotSameAs(resolved);
+
+    assertThat(resolved.path()).isEqualTo("/repos/feign");
+    assertThat(resolved.parsed()).as("parsed by the first accessor").isSameAs(resolved);
+    assertThat(resolved.queries()).containsExactly(entry("page", asList("2")));
+    assertThat(resolved.parsed()).as("not parsed again").isSameAs(resolved);
+
+    assertThat(resolved.queryLine()).isEqualTo("?page=2");
+    assertThat(resolved.requestUriTemplate()).isEqualTo("/repos/feign");
+    assertThat(resolved.variables()).isEmpty();
+    assertThat(resolved.url()).isEqualTo(url);
+  }
+
+  @Test
+  void resolveInPlaceKeepsTheTemplate() {
+    RequestTemplate template =
+        new RequestTemplate()
+            .method(HttpMethod.GET)
+            .uri("/repos/{owner}")
+            .query("page", "{page}")
+            .header("Accept", "{accept}");
+
+    RequestTemplate resolved =
+        template.resolveInPlace(mapOf("owner", "feign", "page", 2, "accept", "text/plain"));
+
+    assertThat(resolved).isSameAs(template);
+    assertThat(resolved.resolved()).isTrue();
+    assertThat(resolved.url()).isEqualTo("/repos/feign?page=2");
+    assertThat(resolved.headers()).containsExactly(entry("Accept", asList("text/plain")));
+  }
+
   @Test
   void resolveTemplateWithBinaryBody() {
     RequestTemplate template =
@@ -654,4 +798,19 @@ public class RequestTemplateTest {
             entry("filter", Collections.singletonList("{filter}")),
             entry("sort", Collections.singletonList("{sort}")));
   }
+
+  @Test
+  void tagsAreCopiedButNotShared() {
+    RequestTemplate template = new RequestTemplate().tag(String.class, "original");
+    RequestTemplate copy = RequestTemplate.from(template);
+    RequestTemplate resolved = template.resolve(Collections.emptyMap());
+
+    copy.tag(String.class, "changed");
+    resolved.tag(String.class, null);
+
+    assertThat(template.tag(String.class)).isEqualTo("original");
+    assertThat(copy.tag(String.class)).isEqualTo("changed");
+    assertThat(resolved.tag(String.class)).isNull();
+    assertThat(template.tag(Integer.class)).isNull();
+  }
 }
@@ -19,6 +19,12 @@ import static feign.Util.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import feign.Request.Body;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import org.junit.jupiter.api.Test;
 
 public class RequestTest {
@@ -34,4 +40,34 @@ public class RequestTest {
     assertThat(body.isBinary()).isFalse();
     assertThat(body.asString()).isEqualTo(content);
   }
+
+  @Test
+  void streamingBodyIsSerializedAsItsBytes() throws Exception {
+    Body body =
+        Body.create(
+            new Body.Content() {
+              @Override
+              public long length() {
+                return -1;
+              }
+
+              @Override
+              public void writeTo(OutputStream out) throws IOException {
+                out.write("streamed".getBytes(UTF_8));
+              }
+            });
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(body);
+    }
+    Body copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (Body) in.readObject();
+    }
+
+    assertThat(copy.isStreaming()).isFalse();
+    assertThat(copy.asBytes()).isEqualTo("streamed".getBytes(UTF_8));
+  }
 }
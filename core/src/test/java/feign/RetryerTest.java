@@ -69,6 +69,18 @@ class RetryerTest {
     assertThat(retryer.sleptForMillis).isEqualTo(1000);
   }
 
+  @Test
+  void delayOrPropagateReturnsBackoffWithoutSleeping() {
+    final Long nonRetryable = null;
+    RetryableException e = new RetryableException(-1, null, null, nonRetryable, REQUEST);
+    DefaultRetryer retryer = new DefaultRetryer();
+
+    assertThat(retryer.delayOrPropagate(e)).isEqualTo(150);
+    assertThat(retryer.delayOrPropagate(e)).isEqualTo(225);
+    assertThat(retryer.attempt).isEqualTo(3);
+    assertThat(retryer.sleptForMillis).isEqualTo(375);
+  }
+
   @Test
   void neverRetryAlwaysPropagates() {
     assertThrows(
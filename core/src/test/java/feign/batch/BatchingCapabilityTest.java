@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Feign;
+import feign.FeignException;
+import feign.Param;
+import feign.Request.Options;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class BatchingCapabilityTest {
+
+  interface Users {
+
+    @Batched(value = "findAll", maxDelayMillis = 50)
+    @RequestLine("GET /users/{id}")
+    CompletableFuture<String> find(@Param("id") String id);
+
+    @Batched(value = "findAll", maxSize = 2, maxDelayMillis = 60_000)
+    @RequestLine("GET /users/{id}")
+    CompletableFuture<String> findInPairs(@Param("id") String id);
+
+    @Batched(value = "list", maxDelayMillis = 50)
+    @RequestLine("GET /users/{id}")
+    CompletableFuture<String> findInList(@Param("id") String id);
+
+    @RequestLine("GET /users?ids={ids}")
+    CompletableFuture<Map<String, String>> findAll(@Param("ids") Set<String> ids);
+
+    @RequestLine("GET /list?ids={ids}")
+    CompletableFuture<List<String>> list(@Param("ids") List<String> ids);
+  }
+
+  interface SyncUsers {
+
+    @Batched(value = "findAll", maxSize = 2, maxDelayMillis = 60_000)
+    @RequestLine("GET /users/{id}")
+    String find(@Param("id") String id);
+
+    @RequestLine("GET /users?ids={ids}")
+    Map<String, String> findAll(@Param("ids") List<String> ids);
+  }
+
+  interface SlowSyncUsers {
+
+    @Batched(value = "findAll", maxDelayMillis = 10)
+    @RequestLine("GET /users/{id}")
+    String find(@Param("id") String id);
+
+    @RequestLine("GET /users?ids={ids}")
+    Map<String, String> findAll(@Param("ids") List<String> ids);
+  }
+
+  interface Misconfigured {
+
+    @Batched("findAll")
+    @RequestLine("GET /users/{id}")
+    String find(@Param("id") String id);
+  }
+
+  private final List<String> urls = new CopyOnWriteArrayList<>();
+  private volatile int status = 200;
+
+  /** Answers {@code /users} with {@code id=user-id} pairs, and {@code /list} in reverse order. */
+  private Response respond(feign.Request request) {
+    urls.add(request.url());
+    List<String> ids = new ArrayList<>();
+    String url = request.url();
+    for (String param : url.substring(url.indexOf('?') + 1).split("&")) {
+      ids.add(param.substring(param.indexOf('=') + 1));
+    }
+    StringBuilder body = new StringBuilder();
+    if (url.contains("/list")) {
+      Collections.reverse(ids);
+      for (String id : ids) {
+        body.append(body.length() > 0 ? "," : "").append("user-").append(id);
+      }
+    } else {
+      for (String id : ids) {
+        body.append(body.length() > 0 ? "," : "").append(id).append("=user-").append(id);
+      }
+    }
+    return Response.builder()
+        .status(status)
+        .request(request)
+        .body(body.toString(), Util.UTF_8)
+        .build();
+  }
+
+  private static final Decoder DECODER =
+      (response, type) -> {
+        String body = Util.toString(response.body().asReader(Util.UTF_8));
+        if (!(type instanceof ParameterizedType)) {
+          return body;
+        }
+        if (((ParameterizedType) type).getRawType() == List.class) {
+          return Arrays.asList(body.split(","));
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String entry : body.split(",")) {
+          map.put(entry.substring(0, entry.indexOf('=')), entry.substring(entry.indexOf('=') + 1));
+        }
+        return map;
+      };
+
+  private Users users(BatchingCapability batching) {
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> CompletableFuture.completedFuture(respond(request));
+    return AsyncFeign.builder()
+        .client(client)
+        .decoder(DECODER)
+        .addCapability(batching)
+        .target(Users.class, "http://localhost");
+  }
+
+  @Test
+  void concurrentCallsShareOneBulkCall() throws Exception {
+    BatchingCapability batching = BatchingCapability.builder().build();
+    Users users = users(batching);
+
+    CompletableFuture<String> a = users.find("a");
+    CompletableFuture<String> b = users.find("b");
+    CompletableFuture<String> again = users.find("a");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("user-a");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("user-b");
+    assertThat(again.get(5, TimeUnit.SECONDS)).isEqualTo("user-a");
+    assertThat(urls).containsExactly("http://localhost/users?ids=a&ids=b");
+    assertThat(batching.batches()).isEqualTo(1);
+    assertThat(batching.batchedCalls()).isEqualTo(2);
+  }
+
+  @Test
+  void fullBatchIsSentRightAway() throws Exception {
+    Users users = users(BatchingCapability.builder().build());
+
+    CompletableFuture<String> a = users.findInPairs("a");
+    CompletableFuture<String> b = users.findInPairs("b");
+    CompletableFuture<String> c = users.findInPairs("c");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("user-a");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("user-b");
+    assertThat(c).isNotDone();
+    assertThat(urls).containsExactly("http://localhost/users?ids=a&ids=b");
+  }
+
+  @Test
+  void listResultsAreMatchedByKey() throws Exception {
+    Users users =
+        users(BatchingCapability.builder().keyedBy(String.class, s -> s.substring(5)).build());
+
+    CompletableFuture<String> a = users.findInList("a");
+    CompletableFuture<String> b = users.findInList("b");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("user-a");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("user-b");
+  }
+
+  @Test
+  void bulkFailureFailsEveryCall() {
+    status = 503;
+    Users users = users(BatchingCapability.builder().build());
+
+    CompletableFuture<String> a = users.findInPairs("a");
+    CompletableFuture<String> b = users.findInPairs("b");
+
+    for (CompletableFuture<String> call : Arrays.asList(a, b)) {
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+          .withCauseInstanceOf(FeignException.ServiceUnavailable.class);
+    }
+  }
+
+  @Test
+  void synchronousCallsAreBatchedAcrossThreads() throws Exception {
+    SyncUsers users =
+        Feign.builder()
+            .client((request, options) -> respond(request))
+            .decoder(DECODER)
+            .addCapability(BatchingCapability.builder().build())
+            .target(SyncUsers.class, "http://localhost");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> a = executor.submit(() -> users.find("a"));
+      Future<String> b = executor.submit(() -> users.find("b"));
+
+      assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("user-a");
+      assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("user-b");
+      assertThat(urls).hasSize(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void synchronousCallsWaitNoLongerThanTheClientTimeouts() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<String> bulkThread = new AtomicReference<>();
+    SlowSyncUsers users =
+        Feign.builder()
+            .client(
+                (request, options) -> {
+                  bulkThread.set(Thread.currentThread().getName());
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  return respond(request);
+                })
+            .options(new Options(10, TimeUnit.MILLISECONDS, 50, TimeUnit.MILLISECONDS, true))
+            .decoder(DECODER)
+            .addCapability(BatchingCapability.builder().build())
+            .target(SlowSyncUsers.class, "http://localhost");
+    try {
+      long start = System.nanoTime();
+      assertThatExceptionOfType(FeignException.class)
+          .isThrownBy(() -> users.find("a"))
+          .withMessageContaining("timed out after 70ms")
+          .withCauseInstanceOf(TimeoutException.class);
+      assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+      // sent by the timer, but not on the timer's thread
+      assertThat(bulkThread.get()).isEqualTo("feign-batch");
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void missingBulkMethodFailsFast() {
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(
+            () ->
+                Feign.builder()
+                    .addCapability(BatchingCapability.builder().build())
+                    .target(Misconfigured.class, "http://localhost"))
+        .withMessageContaining("bulk method findAll");
+  }
+}
@@ -28,6 +28,7 @@ import feign.FeignException;
 import feign.Headers;
 import feign.Logger;
 import feign.Param;
+import feign.Request;
 import feign.RequestLine;
 import feign.Response;
 import feign.Util;
@@ -35,6 +36,7 @@ import feign.assertj.MockWebServerAssertions;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
@@ -239,6 +241,82 @@ public abstract class AbstractClientTest {
     api.postEmptyStringBody("");
   }
 
+  /**
+   * Clients that read a streaming body into memory before sending it should override this test to
+   * check {@link #postStreamingBodies()} returns {@code true}, and say why.
+   */
+  @Test
+  public void streamingBody() throws Exception {
+    assertThat(postStreamingBodies()).as("streaming body read into memory").isFalse();
+  }
+
+  /**
+   * Posts a streaming body of known, then of unknown length, and checks that both arrive whole.
+   *
+   * @return whether the client read them into memory before sending them.
+   */
+  protected boolean postStreamingBodies() throws Exception {
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse());
+
+    TestInterface api =
+        newBuilder()
+            .encoder((object, bodyType, template) -> template.body((Request.Body.Content) object))
+            .target(TestInterface.class, "http://localhost:" + server.getPort());
+
+    StreamingContent sized = new StreamingContent(3, 1000);
+    api.postStream(sized);
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Length")).isEqualTo("3000");
+    assertThat(request.getBody().readUtf8()).isEqualTo(StreamingContent.text(3, 1000));
+
+    StreamingContent unsized = new StreamingContent(-1, 1000);
+    api.postStream(unsized);
+    assertThat(server.takeRequest().getBody().readUtf8()).isEqualTo(StreamingContent.text(3, 1000));
+
+    return sized.buffered || unsized.buffered;
+  }
+
+  /** Writes three chunks of a given size, with or without telling their length. */
+  static final class StreamingContent implements Request.Body.Content {
+
+    private final long length;
+    private final int chunkSize;
+
+    /** Whether it was written into memory, as {@link Request.Body#asBytes()} does. */
+    volatile boolean buffered;
+
+    StreamingContent(long chunks, int chunkSize) {
+      this.length = chunks < 0 ? -1 : chunks * chunkSize;
+      this.chunkSize = chunkSize;
+    }
+
+    static String text(int chunks, int chunkSize) {
+      StringBuilder builder = new StringBuilder();
+      for (int chunk = 0; chunk < chunks; chunk++) {
+        for (int i = 0; i < chunkSize; i++) {
+          builder.append((char) ('a' + chunk));
+        }
+      }
+      return builder.toString();
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      buffered |= out instanceof ByteArrayOutputStream;
+      for (int chunk = 0; chunk < 3; chunk++) {
+        byte[] bytes = new byte[chunkSize];
+        Arrays.fill(bytes, (byte) ('a' + chunk));
+        out.write(bytes);
+      }
+    }
+  }
+
   /**
    * Some client implementation tests should override this test if the PATCH operation is
    * unsupported.
@@ -628,6 +706,10 @@ public abstract class AbstractClientTest {
     @RequestLine("PUT")
     String noPutBody();
 
+    @RequestLine("POST /")
+    @Headers("Content-Type: application/octet-stream")
+    String postStream(Request.Body.Content body);
+
     @RequestLine("PATCH")
     String noPatchBody();
 
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class ErrorBodyCaptureTest {
+
+  /** Produces {@code length} bytes of 'x' and records how far it was read and whether it closed. */
+  static class CountingStream extends InputStream {
+    private final long length;
+    long position;
+    boolean closed;
+
+    CountingStream(long length) {
+      this.length = length;
+    }
+
+    @Override
+    public int read() {
+      if (position >= length) {
+        return -1;
+      }
+      position++;
+      return 'x';
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= length) {
+        return -1;
+      }
+      int n = (int) Math.min(len, length - position);
+      Arrays.fill(b, off, off + n, (byte) 'x');
+      position += n;
+      return n;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static Response response(InputStream body) {
+    return Response.builder()
+        .status(500)
+        .reason("Internal Server Error")
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+        .headers(Collections.emptyMap())
+        .body(body, null)
+        .build();
+  }
+
+  @Test
+  void readsSmallBodiesCompletely() {
+    CountingStream body = new CountingStream(100);
+
+    byte[] captured = ErrorBodyCapture.DEFAULT.read(response(body));
+
+    assertThat(captured).hasSize(100);
+    assertThat(body.closed).isTrue();
+  }
+
+  @Test
+  void keepsPrefixAndDrainsShortRemainder() {
+    CountingStream body = new CountingStream(20_000);
+
+    byte[] captured = ErrorBodyCapture.limit(10_000).read(response(body));
+
+    assertThat(captured).hasSize(10_000);
+    assertThat(body.position).isEqualTo(20_000);
+    assertThat(body.closed).isTrue();
+  }
+
+  @Test
+  void abandonsHugeBodies() {
+    CountingStream body = new CountingStream(200L << 20);
+
+    byte[] captured = ErrorBodyCapture.limit(1024).drainLimit(0).read(response(body));
+
+    assertThat(captured).hasSize(1024);
+    assertThat(body.position).isEqualTo(1024);
+    assertThat(body.closed).isTrue();
+  }
+
+  @Test
+  void drainsNoMoreThanTheDrainLimit() {
+    CountingStream body = new CountingStream(1 << 20);
+
+    byte[] captured = ErrorBodyCapture.limit(1024).drainLimit(100).read(response(body));
+
+    assertThat(captured).hasSize(1024);
+    assertThat(body.position).isEqualTo(1124);
+    assertThat(body.closed).isTrue();
+  }
+
+  @Test
+  void unboundedReadsEverything() {
+    CountingStream body = new CountingStream(3 << 20);
+
+    assertThat(ErrorBodyCapture.unbounded().read(response(body))).hasSize(3 << 20);
+  }
+
+  @Test
+  void captureMakesBodyRepeatable() throws IOException {
+    Response captured = ErrorBodyCapture.limit(10).capture(response(new CountingStream(50)));
+
+    assertThat(captured.body().isRepeatable()).isTrue();
+    assertThat(Util.toByteArray(captured.body().asInputStream())).hasSize(10);
+    assertThat(Util.toByteArray(captured.body().asInputStream())).hasSize(10);
+  }
+
+  @Test
+  void defaultErrorDecoderHonorsLimit() {
+    ErrorDecoder decoder = new DefaultErrorDecoder(null, null, ErrorBodyCapture.limit(16));
+
+    FeignException exception =
+        (FeignException) decoder.decode("Service#foo()", response(new CountingStream(1 << 20)));
+
+    assertThat(exception.status()).isEqualTo(500);
+    assertThat(exception.responseBody())
+        .hasValueSatisfying(b -> assertThat(b.remaining()).isEqualTo(16));
+  }
+
+  @Test
+  void unreadHandsTheBodyToTheException() throws IOException {
+    CountingStream body = new CountingStream(1 << 20);
+    ErrorDecoder decoder = new DefaultErrorDecoder(null, null, ErrorBodyCapture.unread());
+
+    FeignException exception = (FeignException) decoder.decode("Service#foo()", response(body));
+
+    assertThat(body.position).isZero();
+    assertThat(exception.responseBody())
+        .hasValueSatisfying(b -> assertThat(b.hasRemaining()).isFalse());
+    try (InputStream in = exception.responseBodyStream().get()) {
+      assertThat(Util.toByteArray(in)).hasSize(1 << 20);
+    }
+    assertThat(body.closed).isTrue();
+  }
+
+  @Test
+  void unreadBodyIsLeftOpenForTheCaller() throws IOException {
+    CountingStream body = new CountingStream(1 << 20);
+    Api api =
+        Feign.builder()
+            .client((request, options) -> response(body))
+            .errorDecoder(new DefaultErrorDecoder(null, null, ErrorBodyCapture.unread()))
+            .target(Api.class, "http://localhost");
+
+    FeignException exception = catchThrowableOfType(api::get, FeignException.class);
+
+    assertThat(body.closed).isFalse();
+    try (InputStream in = exception.responseBodyStream().get()) {
+      assertThat(Util.toByteArray(in)).hasSize(1 << 20);
+    }
+  }
+
+  interface Api {
+
+    @RequestLine("GET /api")
+    String get();
+  }
+}
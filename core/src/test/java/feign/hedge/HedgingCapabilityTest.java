@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hedge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class HedgingCapabilityTest {
+
+  interface Api {
+
+    @Hedged(delayMillis = 10)
+    @RequestLine("GET /items")
+    CompletableFuture<String> items();
+
+    @Hedged(delayMillis = 10)
+    @RequestLine("POST /items")
+    CompletableFuture<String> create();
+
+    @Hedged(delayMillis = 10)
+    @RequestLine("PUT /items")
+    CompletableFuture<String> replace();
+
+    @Hedged(delayMillis = 10, hedges = 2)
+    @RequestLine("GET /slow")
+    CompletableFuture<String> slow();
+
+    @Hedged(delayMillis = 200)
+    @RequestLine("GET /patient")
+    CompletableFuture<String> patient();
+  }
+
+  /** Leaves every request pending, for the test to complete. */
+  private final List<CompletableFuture<Response>> sent = new CopyOnWriteArrayList<>();
+
+  private Api api(HedgingCapability hedging) {
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> {
+          CompletableFuture<Response> future = new CompletableFuture<>();
+          sent.add(future);
+          return future;
+        };
+    return AsyncFeign.builder()
+        .client(client)
+        .addCapability(hedging)
+        .target(Api.class, "http://localhost");
+  }
+
+  private static Response response(String body) {
+    return Response.builder()
+        .status(200)
+        .request(
+            Request.create(
+                Request.HttpMethod.GET,
+                "http://localhost",
+                Collections.emptyMap(),
+                null,
+                Util.UTF_8,
+                null))
+        .body(body, Util.UTF_8)
+        .build();
+  }
+
+  private void awaitSent(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (sent.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(sent).hasSize(count);
+  }
+
+  @Test
+  void firstResponseWinsAndTheOtherCopyIsCancelled() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result = api(hedging).items();
+
+    awaitSent(2);
+    sent.get(1).complete(response("hedge"));
+
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+    assertThat(sent.get(0)).isCancelled();
+    assertThat(hedging.hedges()).isEqualTo(1);
+    assertThat(hedging.wonHedges()).isEqualTo(1);
+  }
+
+  @Test
+  void fastResponsesAreNotHedged() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result = api(hedging).items();
+
+    awaitSent(1);
+    sent.get(0).complete(response("first"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+
+    Thread.sleep(50);
+    assertThat(sent).hasSize(1);
+    assertThat(hedging.hedges()).isZero();
+  }
+
+  @Test
+  void nonIdempotentRequestsAreNotHedged() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result = api(hedging).create();
+
+    Thread.sleep(50);
+    assertThat(sent).hasSize(1);
+    sent.get(0).complete(response("created"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+  }
+
+  @Test
+  void putIsOnlyHedgedWhenAllowed() throws Exception {
+    CompletableFuture<String> notHedged = api(HedgingCapability.builder().build()).replace();
+
+    Thread.sleep(50);
+    assertThat(sent).hasSize(1);
+    sent.get(0).complete(response("replaced"));
+    assertThat(notHedged.get(5, TimeUnit.SECONDS)).isEqualTo("replaced");
+
+    HedgingCapability hedging =
+        HedgingCapability.builder().methods(HttpMethod.GET, HttpMethod.PUT).build();
+    CompletableFuture<String> hedged = api(hedging).replace();
+
+    awaitSent(3);
+    sent.get(2).complete(response("hedge"));
+    assertThat(hedged.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+    assertThat(hedging.wonHedges()).isEqualTo(1);
+  }
+
+  @Test
+  void copiesAreSentFromTheExecutor() throws Exception {
+    AtomicInteger dispatched = new AtomicInteger();
+    Executor executor =
+        command -> {
+          dispatched.incrementAndGet();
+          new Thread(command, "client-executor").start();
+        };
+    HedgingCapability hedging = HedgingCapability.builder().executor(executor).build();
+    CompletableFuture<String> result = api(hedging).slow();
+
+    awaitSent(3);
+    assertThat(dispatched).hasValue(2);
+
+    sent.get(0).complete(response("first"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+  }
+
+  @Test
+  void rejectedDispatchesAreNotHedged() throws Exception {
+    Executor executor =
+        command -> {
+          throw new RejectedExecutionException("shut down");
+        };
+    HedgingCapability hedging = HedgingCapability.builder().executor(executor).build();
+    CompletableFuture<String> result = api(hedging).items();
+
+    awaitSent(1);
+    Thread.sleep(50);
+    assertThat(sent).hasSize(1);
+    assertThat(hedging.rejectedHedges()).isEqualTo(1);
+
+    sent.get(0).complete(response("first"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+  }
+
+  @Test
+  void hedgesAreCappedByTheRatio() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().maxHedgeRatio(0).maxBurst(1).build();
+    CompletableFuture<String> result = api(hedging).slow();
+
+    awaitSent(2);
+    Thread.sleep(50);
+    assertThat(sent).hasSize(2);
+    assertThat(hedging.rejectedHedges()).isEqualTo(1);
+
+    sent.get(0).complete(response("first"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    assertThat(sent.get(1)).isCancelled();
+    assertThat(hedging.wonHedges()).isZero();
+  }
+
+  @Test
+  void failingBeforeTheHedgeDelayDropsTheHedge() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result = api(hedging).patient();
+
+    awaitSent(1);
+    sent.get(0).completeExceptionally(new IllegalStateException("primary failed"));
+
+    assertThatExceptionOfType(ExecutionException.class)
+        .isThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .withRootCauseInstanceOf(IllegalStateException.class);
+    Thread.sleep(300);
+    assertThat(sent).hasSize(1);
+    assertThat(hedging.hedges()).isZero();
+  }
+
+  @Test
+  void failingWhileTheHedgeIsQueuedDropsTheHedge() throws Exception {
+    List<Runnable> queued = new CopyOnWriteArrayList<>();
+    HedgingCapability hedging = HedgingCapability.builder().executor(queued::add).build();
+    CompletableFuture<String> result = api(hedging).items();
+
+    awaitSent(1);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (queued.isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(queued).hasSize(1);
+    sent.get(0).completeExceptionally(new IllegalStateException("primary failed"));
+
+    assertThatExceptionOfType(ExecutionException.class)
+        .isThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .withRootCauseInstanceOf(IllegalStateException.class);
+    queued.get(0).run();
+    assertThat(sent).hasSize(1);
+    assertThat(hedging.hedges()).isZero();
+  }
+
+  @Test
+  void failingWhileTheHedgeIsBeingSentWaitsForIt() throws Exception {
+    CountDownLatch hedgeSending = new CountDownLatch(1);
+    CountDownLatch primaryFailed = new CountDownLatch(1);
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> {
+          if (!sent.isEmpty()) {
+            hedgeSending.countDown();
+            try {
+              primaryFailed.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          CompletableFuture<Response> future = new CompletableFuture<>();
+          sent.add(future);
+          return future;
+        };
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result =
+        AsyncFeign.builder()
+            .client(client)
+            .addCapability(hedging)
+            .target(Api.class, "http://localhost")
+            .items();
+
+    assertThat(hedgeSending.await(5, TimeUnit.SECONDS)).isTrue();
+    sent.get(0).completeExceptionally(new IllegalStateException("primary failed"));
+    assertThat(result).isNotDone();
+    primaryFailed.countDown();
+
+    awaitSent(2);
+    sent.get(1).complete(response("hedge"));
+    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+    assertThat(hedging.wonHedges()).isEqualTo(1);
+  }
+
+  @Test
+  void cancellingTheResultCancelsEveryCopy() throws Exception {
+    HedgingCapability hedging = HedgingCapability.builder().build();
+    CompletableFuture<String> result = api(hedging).slow();
+
+    awaitSent(3);
+    result.cancel(true);
+
+    assertThat(sent).allSatisfy(future -> assertThat(future).isCancelled());
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Util;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+  interface Api {
+
+    @RequestLine("GET /items")
+    String items();
+  }
+
+  interface AsyncApi {
+
+    @RequestLine("GET /items")
+    CompletableFuture<String> items();
+  }
+
+  @Test
+  void rejectsRequestsBeyondTheLimit() throws Exception {
+    ConcurrencyLimiter limiter =
+        ConcurrencyLimiter.builder()
+            .algorithm(() -> new AimdLimit(1, 1, 10, 0.5, 1, TimeUnit.SECONDS))
+            .build();
+    List<Request> requests = new CopyOnWriteArrayList<>();
+    List<CompletableFuture<Response>> sent = new CopyOnWriteArrayList<>();
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> {
+          CompletableFuture<Response> future = new CompletableFuture<>();
+          requests.add(request);
+          sent.add(future);
+          return future;
+        };
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client(client)
+            .retryer(Retryer.NEVER_RETRY)
+            .addCapability(limiter)
+            .target(AsyncApi.class, "http://localhost");
+
+    CompletableFuture<String> first = api.items();
+    assertThat(limiter.inFlight("AsyncApi#items()")).isEqualTo(1);
+
+    assertThatExceptionOfType(CompletionException.class)
+        .isThrownBy(() -> api.items().join())
+        .withCauseInstanceOf(RetryableException.class);
+    assertThat(limiter.rejected("AsyncApi#items()")).isEqualTo(1);
+    assertThat(sent).hasSize(1);
+
+    sent.get(0)
+        .complete(
+            Response.builder().status(200).request(requests.get(0)).body("ok", Util.UTF_8).build());
+    assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+    assertThat(limiter.inFlight("AsyncApi#items()")).isZero();
+    assertThat(limiter.limit("AsyncApi#items()")).isEqualTo(2);
+  }
+
+  @Test
+  void cancellingTheResultFreesThePermit() throws Exception {
+    ConcurrencyLimiter limiter =
+        ConcurrencyLimiter.builder()
+            .algorithm(() -> new AimdLimit(1, 1, 10, 0.5, 1, TimeUnit.SECONDS))
+            .build();
+    List<CompletableFuture<Response>> sent = new CopyOnWriteArrayList<>();
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> {
+          CompletableFuture<Response> future = new CompletableFuture<>();
+          sent.add(future);
+          return future;
+        };
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client(client)
+            .retryer(Retryer.NEVER_RETRY)
+            .addCapability(limiter)
+            .target(AsyncApi.class, "http://localhost");
+
+    CompletableFuture<String> first = api.items();
+    assertThat(limiter.inFlight("AsyncApi#items()")).isEqualTo(1);
+
+    first.cancel(true);
+
+    assertThat(sent.get(0)).isCancelled();
+    assertThat(limiter.inFlight("AsyncApi#items()")).isZero();
+    assertThat(limiter.limit("AsyncApi#items()")).isEqualTo(1);
+    api.items();
+    assertThat(sent).hasSize(2);
+    assertThat(limiter.rejected("AsyncApi#items()")).isZero();
+  }
+
+  @Test
+  void droppedRequestsLowerTheLimit() {
+    ConcurrencyLimiter limiter =
+        ConcurrencyLimiter.builder()
+            .algorithm(() -> new AimdLimit(10, 1, 10, 0.5, 1, TimeUnit.SECONDS))
+            .perTarget()
+            .build();
+    List<String> keys = new CopyOnWriteArrayList<>();
+    limiter.addKeyListener(keys::add);
+    Api api =
+        Feign.builder()
+            .client(
+                (request, options) ->
+                    Response.builder()
+                        .status(503)
+                        .request(request)
+                        .body("busy", Util.UTF_8)
+                        .build())
+            .retryer(Retryer.NEVER_RETRY)
+            .addCapability(limiter)
+            .target(Api.class, "http://localhost");
+
+    assertThatExceptionOfType(FeignException.ServiceUnavailable.class).isThrownBy(api::items);
+    assertThatExceptionOfType(FeignException.ServiceUnavailable.class).isThrownBy(api::items);
+
+    assertThat(keys).containsExactly("http://localhost");
+    assertThat(limiter.limit("http://localhost")).isEqualTo(2);
+    assertThat(limiter.inFlight("http://localhost")).isZero();
+  }
+
+  @Test
+  void aimdOnlyGrowsWhileTheLimitIsUsed() {
+    AimdLimit aimd = new AimdLimit(10, 1, 11, 0.9, 1, TimeUnit.SECONDS);
+
+    assertThat(aimd.update(10, 2, 1000, false)).isEqualTo(10);
+    assertThat(aimd.update(10, 5, 1000, false)).isEqualTo(11);
+    assertThat(aimd.update(11, 11, 1000, false)).isEqualTo(11);
+    assertThat(aimd.update(10, 5, TimeUnit.SECONDS.toNanos(2), false)).isEqualTo(9);
+    assertThat(aimd.update(1, 1, 1000, true)).isEqualTo(1);
+  }
+
+  @Test
+  void vegasShrinksAsLatencyQueuesUp() {
+    VegasLimit vegas = new VegasLimit(100, 1000);
+    AtomicInteger limit = new AtomicInteger(100);
+
+    limit.set(vegas.update(limit.get(), 100, 10_000_000, false));
+    assertThat(vegas.minRttNanos()).isEqualTo(10_000_000);
+    assertThat(limit).hasValue(112);
+
+    limit.set(vegas.update(limit.get(), 100, 40_000_000, false));
+    assertThat(limit).hasValue(110);
+
+    limit.set(vegas.update(limit.get(), 100, 40_000_000, true));
+    assertThat(limit).hasValue(108);
+  }
+}
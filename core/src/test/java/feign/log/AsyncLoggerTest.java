@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Logger;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.Util;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AsyncLoggerTest {
+
+  private static final String CONFIG_KEY = "SendsStuff#login(String,String)";
+  private static final Map<String, Collection<String>> HEADERS = new LinkedHashMap<>();
+
+  static {
+    HEADERS.put("Content-Type", Collections.singletonList("application/json"));
+    HEADERS.put("Authorization", Collections.singletonList("Bearer secret"));
+  }
+
+  private static final Request REQUEST =
+      Request.create(
+          HttpMethod.POST,
+          "http://api.example.com/login",
+          HEADERS,
+          "{\"customer_name\": \"netflix\"}".getBytes(Util.UTF_8),
+          Util.UTF_8);
+
+  private final List<LogEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+  private AsyncLogger newLogger(AsyncLogger.Builder builder) {
+    return new AsyncLogger(builder) {
+      @Override
+      protected boolean shouldLogRequestHeader(String header) {
+        return !header.equals("Authorization");
+      }
+    };
+  }
+
+  @Test
+  void recordsOneEventPerRequestAndResponse() throws IOException {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll));
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(REQUEST)
+            .headers(HEADERS)
+            .body("{\"token\":\"abcdef\"}", Util.UTF_8)
+            .build();
+
+    logger.logRequest(CONFIG_KEY, Logger.Level.HEADERS, REQUEST);
+    logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.HEADERS, response, 42);
+    logger.close();
+
+    assertThat(events).hasSize(2);
+    LogEvent request = events.get(0);
+    assertThat(request.type()).isEqualTo(LogEvent.Type.REQUEST);
+    assertThat(request.method()).isEqualTo("POST");
+    assertThat(request.url()).isEqualTo("http://api.example.com/login");
+    assertThat(request.headers()).containsOnlyKeys("Content-Type");
+    assertThat(request.bodyLength()).isEqualTo(28);
+    assertThat(request.body()).isNull();
+    assertThat(request.toString())
+        .startsWith("[SendsStuff#login] ---> POST http://api.example.com/login HTTP/1.1")
+        .contains("Content-Type: application/json")
+        .doesNotContain("Authorization")
+        .endsWith("---> END HTTP (28-byte body)");
+
+    LogEvent received = events.get(1);
+    assertThat(received.type()).isEqualTo(LogEvent.Type.RESPONSE);
+    assertThat(received.status()).isEqualTo(200);
+    assertThat(received.elapsedMillis()).isEqualTo(42);
+    assertThat(received.headers()).containsOnlyKeys("content-type", "authorization");
+    assertThat(received.bodyLength()).isEqualTo(18);
+    assertThat(logger.writtenCount()).isEqualTo(2);
+  }
+
+  @Test
+  void truncatesBodyAndRebuffersResponseAtFull() throws IOException {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll).maxBodyLength(5));
+    Response response =
+        Response.builder()
+            .status(200)
+            .request(REQUEST)
+            .headers(Collections.emptyMap())
+            .body("0123456789", Util.UTF_8)
+            .build();
+
+    Response rebuffered = logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response, 1);
+    logger.close();
+
+    assertThat(Util.toString(rebuffered.body().asReader(Util.UTF_8))).isEqualTo("0123456789");
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).body()).isEqualTo("01234");
+    assertThat(events.get(0).bodyTruncated()).isTrue();
+    assertThat(events.get(0).bodyLength()).isEqualTo(10);
+  }
+
+  @Test
+  void streamingBodyOfUnknownLengthIsNotRecordedAsNegative() throws IOException {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll));
+    Request request =
+        Request.create(
+            HttpMethod.POST,
+            "http://api.example.com/upload",
+            HEADERS,
+            Request.Body.create(
+                new Request.Body.Content() {
+                  @Override
+                  public long length() {
+                    return -1;
+                  }
+
+                  @Override
+                  public void writeTo(OutputStream out) {}
+                }),
+            null);
+
+    logger.logRequest(CONFIG_KEY, Logger.Level.FULL, request);
+    logger.close();
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).toString()).endsWith("---> END HTTP (unknown-length body)");
+  }
+
+  @Test
+  void formatsMessagesOnlyWhenRendered() throws IOException {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll));
+
+    logger.logRetry(CONFIG_KEY, Logger.Level.BASIC);
+    logger.logIOException(CONFIG_KEY, Logger.Level.BASIC, new ConnectException("refused"), 7);
+    logger.close();
+
+    assertThat(events)
+        .extracting(LogEvent::toString)
+        .containsExactly(
+            "[SendsStuff#login] ---> RETRYING",
+            "[SendsStuff#login] <--- ERROR ConnectException: refused (7ms)");
+  }
+
+  @Test
+  void countsOverflowWhenSinkFallsBehind() throws Exception {
+    CountDownLatch inSink = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncLogger logger =
+        newLogger(
+            AsyncLogger.builder(
+                    batch -> {
+                      inSink.countDown();
+                      try {
+                        release.await();
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                      }
+                      events.addAll(batch);
+                    })
+                .bufferSize(2)
+                .batchSize(1)
+                .flushInterval(1, TimeUnit.MILLISECONDS));
+
+    logger.logRetry(CONFIG_KEY, Logger.Level.BASIC);
+    assertThat(inSink.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 5; i++) {
+      logger.logRetry(CONFIG_KEY, Logger.Level.BASIC);
+    }
+    release.countDown();
+    logger.close();
+
+    assertThat(logger.capacity()).isEqualTo(2);
+    assertThat(logger.overflowCount()).isEqualTo(3);
+    assertThat(logger.droppedCount()).isEqualTo(3);
+    assertThat(logger.writtenCount()).isEqualTo(3);
+    assertThat(events).hasSize(3);
+  }
+
+  @Test
+  void dropsEventsLoggedAfterClose() throws IOException {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll));
+    logger.close();
+
+    logger.log(CONFIG_KEY, "%s", "late");
+
+    assertThat(events).isEmpty();
+    assertThat(logger.droppedCount()).isEqualTo(1);
+    assertThat(logger.overflowCount()).isZero();
+  }
+
+  @Test
+  void accountsForEveryEventLoggedWhileClosing() throws Exception {
+    AsyncLogger logger = newLogger(AsyncLogger.builder(events::addAll).bufferSize(1 << 16));
+    int threads = 4;
+    int eventsEach = 10_000;
+    CountDownLatch started = new CountDownLatch(threads);
+    List<Thread> publishers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread publisher =
+          new Thread(
+              () -> {
+                started.countDown();
+                for (int i = 0; i < eventsEach; i++) {
+                  logger.logRetry(CONFIG_KEY, Logger.Level.BASIC);
+                }
+              });
+      publisher.start();
+      publishers.add(publisher);
+    }
+    started.await();
+    logger.close();
+    for (Thread publisher : publishers) {
+      publisher.join();
+    }
+
+    assertThat(logger.writtenCount() + logger.droppedCount()).isEqualTo(threads * eventsEach);
+    assertThat(events).hasSize((int) logger.writtenCount());
+  }
+
+  @Test
+  void closesTheSinkOnceWhenClosedConcurrently() throws Exception {
+    AtomicInteger sinkCloses = new AtomicInteger();
+    AsyncLogger logger =
+        newLogger(
+            AsyncLogger.builder(
+                new LogEventSink() {
+                  @Override
+                  public void write(List<LogEvent> batch) {
+                    events.addAll(batch);
+                  }
+
+                  @Override
+                  public void close() {
+                    sinkCloses.incrementAndGet();
+                  }
+                }));
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> closers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread closer =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                  logger.close();
+                } catch (InterruptedException | IOException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      closer.start();
+      closers.add(closer);
+    }
+    start.countDown();
+    for (Thread closer : closers) {
+      closer.join();
+    }
+
+    assertThat(sinkCloses).hasValue(1);
+  }
+
+  @Test
+  void ringRoundsCapacityUpToPowerOfTwo() {
+    assertThat(new LogEventRing(1).capacity()).isEqualTo(2);
+    assertThat(new LogEventRing(1000).capacity()).isEqualTo(1024);
+    assertThat(new LogEventRing(1024).capacity()).isEqualTo(1024);
+    assertThat(new LogEventRing(3).capacity()).isEqualTo(4);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.querymap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+
+import feign.Feign;
+import feign.Param;
+import feign.QueryMap;
+import feign.RequestLine;
+import feign.Response;
+import feign.codec.EncodeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class AccessorQueryMapEncoderTest {
+
+  @Test
+  void encodesFieldsWithAliasesAndSuperclasses() {
+    assertThat(AccessorQueryMapEncoder.fields().encode(new Search("feign", 30, null)))
+        .containsExactly(entry("q", "feign"), entry("perPage", 30), entry("page", 1));
+  }
+
+  @Test
+  void encodesBeanProperties() {
+    assertThat(AccessorQueryMapEncoder.beanProperties().encode(new PublicBean()))
+        .containsExactly(entry("enabled", true), entry("sortBy", "stars"));
+    assertThat(AccessorQueryMapEncoder.beanProperties().encode(new PrivateBean()))
+        .containsExactly(entry("size", 10));
+  }
+
+  @Test
+  void visitsValuesWithoutMap() {
+    List<String> visited = new ArrayList<>();
+    AccessorQueryMapEncoder.fields()
+        .encode(new Search("feign", 30, "desc"), (name, value) -> visited.add(name + "=" + value));
+
+    assertThat(visited).containsExactly("q=feign", "perPage=30", "order=desc", "page=1");
+  }
+
+  @Test
+  void nullObjectHasNoParameters() {
+    assertThat(AccessorQueryMapEncoder.fields().encode(null)).isEmpty();
+  }
+
+  @Test
+  void getterFailuresAreWrapped() {
+    assertThatExceptionOfType(EncodeException.class)
+        .isThrownBy(() -> AccessorQueryMapEncoder.beanProperties().encode(new FailingBean()))
+        .withCauseInstanceOf(IllegalStateException.class);
+  }
+
+  interface SearchApi {
+
+    @RequestLine("GET /search")
+    Response search(@QueryMap Search search);
+  }
+
+  @Test
+  void addsParametersToTheRequest() {
+    AtomicReference<String> url = new AtomicReference<>();
+    SearchApi api =
+        Feign.builder()
+            .queryMapEncoder(AccessorQueryMapEncoder.fields())
+            .client(
+                (request, options) -> {
+                  url.set(request.url());
+                  return Response.builder().status(200).request(request).build();
+                })
+            .target(SearchApi.class, "http://localhost");
+
+    api.search(new Search("open feign", 30, null));
+
+    assertThat(url.get()).isEqualTo("http://localhost/search?q=open%20feign&perPage=30&page=1");
+  }
+
+  static class Paged {
+    private static final int MAX_PAGES = 100;
+
+    private final int page = 1;
+  }
+
+  static class Search extends Paged {
+
+    @Param("q")
+    private final String query;
+
+    private final Integer perPage;
+    private final String order;
+
+    Search(String query, Integer perPage, String order) {
+      this.query = query;
+      this.perPage = perPage;
+      this.order = order;
+    }
+  }
+
+  public static class PublicBean {
+
+    public boolean isEnabled() {
+      return true;
+    }
+
+    @Param("sortBy")
+    public String getSort() {
+      return "stars";
+    }
+
+    public List<String> getTags() {
+      return null;
+    }
+  }
+
+  private static class PrivateBean {
+
+    public int getSize() {
+      return 10;
+    }
+  }
+
+  public static class FailingBean {
+
+    public List<String> getValues() {
+      throw new IllegalStateException("unavailable");
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Util;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class DecorrelatedJitterRetryerTest {
+
+  private static final Request REQUEST =
+      Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, Util.UTF_8);
+
+  private static RetryableException retryable(Long retryAfter) {
+    return new RetryableException(-1, null, null, retryAfter, REQUEST);
+  }
+
+  @Test
+  void backoffStaysWithinDecorrelatedBounds() {
+    for (int run = 0; run < 100; run++) {
+      DecorrelatedJitterRetryer retryer = new DecorrelatedJitterRetryer(100, 1000, 6);
+      long previous = 100;
+      for (int attempt = 1; attempt < 6; attempt++) {
+        long delay = retryer.delayOrPropagate(retryable(null));
+        assertThat(delay).isBetween(100L, Math.min(1000, previous * 3));
+        previous = delay;
+      }
+      assertThatExceptionOfType(RetryableException.class)
+          .isThrownBy(() -> retryer.delayOrPropagate(retryable(null)));
+    }
+  }
+
+  @Test
+  void honoursRetryAfterUpToMaxPeriod() {
+    DecorrelatedJitterRetryer retryer =
+        new DecorrelatedJitterRetryer(100, 1000, 5) {
+          @Override
+          protected long currentTimeMillis() {
+            return 0;
+          }
+        };
+
+    assertThat(retryer.delayOrPropagate(retryable(400L))).isEqualTo(400);
+    assertThat(retryer.delayOrPropagate(retryable(5000L))).isEqualTo(1000);
+    assertThat(retryer.previousDelay).isEqualTo(1000);
+  }
+
+  @Test
+  void rejectsFewerThanOneAttempt() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new DecorrelatedJitterRetryer(100, 1000, 0))
+        .withMessageContaining("maxAttempts");
+  }
+
+  @Test
+  void cloneStartsOver() {
+    DecorrelatedJitterRetryer retryer = new DecorrelatedJitterRetryer(1, 1, 2);
+    retryer.delayOrPropagate(retryable(null));
+
+    DecorrelatedJitterRetryer clone = (DecorrelatedJitterRetryer) retryer.clone();
+
+    assertThat(clone.attempt).isEqualTo(1);
+  }
+}
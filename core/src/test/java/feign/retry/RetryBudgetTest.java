@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Util;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  interface Api {
+
+    @RequestLine("GET /flaky")
+    String flaky();
+
+    @RequestLine("GET /ok")
+    String ok();
+  }
+
+  private static Api api(RetryBudget budget, AtomicInteger attempts) {
+    return Feign.builder()
+        .client(
+            (request, options) -> {
+              attempts.incrementAndGet();
+              return Response.builder()
+                  .status(request.url().endsWith("/ok") ? 200 : 503)
+                  .request(request)
+                  .body("body", Util.UTF_8)
+                  .build();
+            })
+        .retryer(new DecorrelatedJitterRetryer(1, 1, 3))
+        .errorDecoder(
+            (methodKey, response) ->
+                new RetryableException(
+                    response.status(), "unavailable", null, (Long) null, response.request()))
+        .addCapability(budget)
+        .target(Api.class, "http://localhost");
+  }
+
+  @Test
+  void rejectsRetriesOnceTheBucketIsEmpty() {
+    RetryBudget budget = RetryBudget.builder().ratio(0).maxTokens(3).build();
+    AtomicInteger attempts = new AtomicInteger();
+    Api api = api(budget, attempts);
+
+    assertThatExceptionOfType(RetryableException.class).isThrownBy(api::flaky);
+    assertThatExceptionOfType(RetryableException.class).isThrownBy(api::flaky);
+
+    // 2 retries for the first call, 1 for the second before the bucket ran dry
+    assertThat(attempts).hasValue(5);
+    assertThat(budget.retries("Api#flaky()")).isEqualTo(3);
+    assertThat(budget.rejectedRetries("Api#flaky()")).isEqualTo(1);
+    assertThat(budget.rejectedRetries()).isEqualTo(1);
+    assertThat(budget.tokens("Api#flaky()")).isZero();
+  }
+
+  @Test
+  void requestsRefillTheBucket() {
+    RetryBudget budget = RetryBudget.builder().ratio(0.5).maxTokens(1).perTarget().build();
+    AtomicInteger attempts = new AtomicInteger();
+    Api api = api(budget, attempts);
+
+    // the first retry empties the bucket and the second attempt does not refill it
+    assertThatExceptionOfType(RetryableException.class).isThrownBy(api::flaky);
+    assertThat(budget.tokens("http://localhost")).isZero();
+    assertThat(budget.rejectedRetries("http://localhost")).isEqualTo(1);
+
+    api.ok();
+    api.ok();
+
+    assertThat(budget.keys()).containsExactly("http://localhost");
+    assertThat(budget.tokens("http://localhost")).isEqualTo(1);
+  }
+
+  @Test
+  void retriesDoNotRefillTheBucket() {
+    RetryBudget budget = RetryBudget.builder().ratio(1).maxTokens(2).build();
+    AtomicInteger attempts = new AtomicInteger();
+
+    assertThatExceptionOfType(RetryableException.class)
+        .isThrownBy(() -> api(budget, attempts).flaky());
+
+    // only the first attempt deposits, so the call cannot fund its own retries
+    assertThat(attempts).hasValue(3);
+    assertThat(budget.retries("Api#flaky()")).isEqualTo(2);
+    assertThat(budget.rejectedRetries("Api#flaky()")).isEqualTo(1);
+    assertThat(budget.tokens("Api#flaky()")).isZero();
+  }
+
+  @Test
+  void givesTokenBackWhenTheRetryerGivesUp() {
+    RetryBudget budget = RetryBudget.builder().ratio(0).maxTokens(5).build();
+    AtomicInteger attempts = new AtomicInteger();
+
+    assertThatExceptionOfType(RetryableException.class)
+        .isThrownBy(() -> api(budget, attempts).flaky());
+
+    // 3 attempts: 2 retries taken, the third failure is not retried and refunded
+    assertThat(attempts).hasValue(3);
+    assertThat(budget.tokens("Api#flaky()")).isEqualTo(3);
+    assertThat(budget.rejectedRetries()).isZero();
+  }
+}
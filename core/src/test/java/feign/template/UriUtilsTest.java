@@ -43,6 +43,32 @@ class UriUtilsTest {
     assertThat(encoded).isEqualTo("/api/user@host:port#section[a-z]/data");
   }
 
+  @Test
+  void unchangedValuesAreReturnedAsIs() {
+    String value = "repos-feign_1.0~";
+    assertThat(UriUtils.encode(value, UTF_8)).isSameAs(value);
+    assertThat(UriUtils.encode("/api/user@host", UTF_8, true)).isEqualTo("/api/user@host");
+
+    String encoded = "foo%20bar";
+    assertThat(UriUtils.encode(encoded, UTF_8)).isSameAs(encoded);
+  }
+
+  @Test
+  void encodeIntoBuilder() {
+    StringBuilder builder = new StringBuilder("q=");
+    UriUtils.encode("caf\u00e9 & co", UTF_8, builder);
+    assertThat(builder).hasToString("q=caf%C3%A9%20%26%20co");
+
+    builder.setLength(0);
+    UriUtils.encode("a/b%2Fc d", UTF_8, false, builder);
+    assertThat(builder).hasToString("a%2Fb%2Fc%20d");
+  }
+
+  @Test
+  void decodeSlash() {
+    assertThat(UriUtils.decodeSlash("a%2Fb%2F%2fc")).isEqualTo("a/b/%2fc");
+  }
+
   @ParameterizedTest
   @MethodSource("provideValuesToEncode")
   void testVariousEncodingScenarios(String input, String expected) {
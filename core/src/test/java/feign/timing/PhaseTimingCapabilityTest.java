@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import feign.AsyncFeign;
+import feign.DefaultRetryer;
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PhaseTimingCapabilityTest {
+
+  private static final String CONFIG_KEY = "Api#post(String)";
+
+  interface Api {
+
+    @RequestLine("POST /")
+    String post(String body);
+  }
+
+  interface AsyncApi {
+
+    @RequestLine("POST /")
+    CompletableFuture<String> post(String body);
+  }
+
+  private static Response ok(feign.Request request) {
+    return Response.builder()
+        .status(200)
+        .reason("OK")
+        .request(request)
+        .headers(Collections.emptyMap())
+        .body("pong", Util.UTF_8)
+        .build();
+  }
+
+  @Test
+  void recordsEveryPhaseIntoHistograms() {
+    PhaseTimingCapability timing = new PhaseTimingCapability();
+    AtomicInteger calls = new AtomicInteger();
+    Api api =
+        Feign.builder()
+            .client(
+                (request, options) -> {
+                  if (calls.getAndIncrement() == 0) {
+                    throw new IOException("connection reset");
+                  }
+                  return ok(request);
+                })
+            .retryer(new DefaultRetryer(1, 1, 2))
+            .requestInterceptor(template -> template.header("X-Trace", "1"))
+            .addCapability(timing)
+            .target(Api.class, "http://localhost");
+
+    assertThat(api.post("ping")).isEqualTo("pong");
+
+    HistogramTimingSink histograms = (HistogramTimingSink) timing.sink();
+    assertThat(histograms.configKeys()).containsExactly(CONFIG_KEY);
+    for (Phase phase : Phase.values()) {
+      assertThat(histograms.histogram(CONFIG_KEY, phase)).as(phase.name()).isNotNull();
+      assertThat(histograms.histogram(CONFIG_KEY, phase).count()).as(phase.name()).isEqualTo(1);
+    }
+    assertThat(histograms.histogram(CONFIG_KEY, Phase.TOTAL).max())
+        .isGreaterThanOrEqualTo(histograms.histogram(CONFIG_KEY, Phase.EXECUTE).max());
+  }
+
+  @Test
+  void reportsAttemptsAndFailures() {
+    List<InvocationTiming> timings = Collections.synchronizedList(new ArrayList<>());
+    Api api =
+        Feign.builder()
+            .client(
+                (request, options) -> {
+                  throw new IOException("connection refused");
+                })
+            .retryer(new DefaultRetryer(1, 1, 3))
+            .addCapability(new PhaseTimingCapability(timings::add))
+            .target(Api.class, "http://localhost");
+
+    try {
+      api.post("ping");
+    } catch (RuntimeException expected) {
+      // all three attempts failed
+    }
+
+    assertThat(timings).hasSize(1);
+    InvocationTiming timing = timings.get(0);
+    assertThat(timing.configKey()).isEqualTo(CONFIG_KEY);
+    assertThat(timing.failed()).isTrue();
+    assertThat(timing.attempts()).isEqualTo(3);
+    assertThat(timing.nanos(Phase.RETRY_BACKOFF)).isPositive();
+    assertThat(timing.nanos(Phase.DECODE)).isZero();
+  }
+
+  @Test
+  void recordsAsyncInvocationsOnCompletion() {
+    List<InvocationTiming> timings = Collections.synchronizedList(new ArrayList<>());
+    CompletableFuture<Response> pending = new CompletableFuture<>();
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client((request, options, context) -> pending.thenApply(unused -> ok(request)))
+            .addCapability(new PhaseTimingCapability(timings::add))
+            .target(AsyncApi.class, "http://localhost");
+
+    CompletableFuture<String> result = api.post("ping");
+    assertThat(timings).isEmpty();
+
+    pending.complete(null);
+
+    assertThat(result.join()).isEqualTo("pong");
+    assertThat(timings).hasSize(1);
+    InvocationTiming timing = timings.get(0);
+    assertThat(timing.failed()).isFalse();
+    assertThat(timing.attempts()).isEqualTo(1);
+    assertThat(timing.nanos(Phase.EXECUTE)).isPositive();
+    assertThat(timing.nanos(Phase.DECODE)).isPositive();
+    assertThat(timing.nanos(Phase.TOTAL)).isGreaterThanOrEqualTo(timing.nanos(Phase.EXECUTE));
+  }
+
+  @Test
+  void carriesTheTimingOnTheRequestTemplate() {
+    List<InvocationTiming> timings = Collections.synchronizedList(new ArrayList<>());
+    List<InvocationTiming> seen = Collections.synchronizedList(new ArrayList<>());
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client(
+                (request, options, context) -> {
+                  seen.add(request.requestTemplate().tag(InvocationTiming.class));
+                  return new CompletableFuture<>();
+                })
+            .addCapability(new PhaseTimingCapability(timings::add))
+            .target(AsyncApi.class, "http://localhost");
+
+    CompletableFuture<String> result = api.post("ping");
+
+    assertThat(seen).hasSize(1).doesNotContainNull();
+    assertThat(seen.get(0).configKey()).isEqualTo("AsyncApi#post(String)");
+    result.cancel(true);
+    assertThat(timings).hasSize(1);
+    assertThat(timings.get(0).failed()).isTrue();
+  }
+
+  @Test
+  void histogramPercentilesAreWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 10_000; micros++) {
+      histogram.record(micros * 1000);
+    }
+
+    assertThat(histogram.count()).isEqualTo(10_000);
+    assertThat(histogram.max()).isEqualTo(10_000_000);
+    assertThat(histogram.mean()).isCloseTo(5_000_500, within(1.0));
+    assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(5_000_000, within(160_000.0));
+    assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(9_900_000, within(310_000.0));
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(10_000_000);
+  }
+
+  @Test
+  void bucketsCoverEveryValue() {
+    long previous = -1;
+    for (long value = 0; value < 1L << 20; value += 7) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+      assertThat((long) index).isGreaterThanOrEqualTo(previous);
+      previous = index;
+    }
+    assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE))
+        .isEqualTo(LatencyHistogram.OVERFLOW_BUCKET);
+  }
+
+  @Test
+  void keepsTheLargestTrackedValuesOutOfTheOverflowBucket() {
+    long largestTracked = (1L << LatencyHistogram.MAX_MAGNITUDE) - 1;
+    int index = LatencyHistogram.bucketIndex(largestTracked);
+
+    assertThat(index).isEqualTo(LatencyHistogram.OVERFLOW_BUCKET - 1);
+    assertThat(LatencyHistogram.upperBound(index)).isEqualTo(largestTracked);
+    assertThat(LatencyHistogram.bucketIndex(largestTracked + 1))
+        .isEqualTo(LatencyHistogram.OVERFLOW_BUCKET);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.DefaultContract;
+import feign.MethodMetadata;
+import feign.RequestLine;
+import feign.Target.HardCodedTarget;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class MeterCacheTest {
+
+  interface Api {
+
+    @RequestLine("GET /")
+    void get();
+  }
+
+  private final HardCodedTarget<Api> target = new HardCodedTarget<>(Api.class, "http://a");
+
+  private static MethodMetadata metadata() {
+    return new DefaultContract().parseAndValidateMetadata(Api.class).get(0);
+  }
+
+  @Test
+  void ignoresIncompleteKeysAndOutOfRangeStatuses() {
+    MeterCache<String> cache = new MeterCache<>();
+
+    assertThat(cache.get(null, null)).isNull();
+    assertThat(cache.put(null, null, "meter")).isEqualTo("meter");
+    assertThat(MeterCache.statusSlot(99)).isEqualTo(-1);
+    assertThat(MeterCache.statusSlot(200)).isEqualTo(100);
+    assertThat(MeterCache.statusSlot(600)).isEqualTo(-1);
+  }
+
+  @Test
+  void keepsTheFirstMeterCachedPerMethodAndTarget() {
+    MeterCache<String> cache = new MeterCache<>();
+    MethodMetadata methodMetadata = metadata();
+
+    assertThat(cache.put(methodMetadata, target, "first")).isEqualTo("first");
+    assertThat(cache.put(methodMetadata, target, "second")).isEqualTo("first");
+    assertThat(cache.get(methodMetadata, target)).isEqualTo("first");
+    assertThat(cache.get(metadata(), target)).isNull();
+  }
+
+  @Test
+  void clearsWhenTheRegistryRemovesMeters() {
+    AtomicLong removals = new AtomicLong();
+    MeterCache<String> cache = new MeterCache<>(removals::get);
+    MethodMetadata methodMetadata = metadata();
+    cache.put(methodMetadata, target, "removed");
+
+    removals.incrementAndGet();
+
+    assertThat(cache.get(methodMetadata, target)).isNull();
+    assertThat(cache.put(methodMetadata, target, "fresh")).isEqualTo("fresh");
+    assertThat(cache.get(methodMetadata, target)).isEqualTo("fresh");
+  }
+
+  @Test
+  void stopsCachingPastTheTargetLimit() {
+    MeterCache<String> cache = new MeterCache<>();
+    MethodMetadata methodMetadata = metadata();
+    for (int i = 0; i < MeterCache.MAX_TARGETS; i++) {
+      cache.put(methodMetadata, new HardCodedTarget<>(Api.class, "http://" + i), "meter" + i);
+    }
+    HardCodedTarget<Api> extra = new HardCodedTarget<>(Api.class, "http://extra");
+
+    assertThat(cache.put(methodMetadata, extra, "uncached")).isEqualTo("uncached");
+    assertThat(cache.get(methodMetadata, extra)).isNull();
+  }
+
+  @Test
+  void releasesCollectedMethods() throws InterruptedException {
+    MeterCache<String> cache = new MeterCache<>();
+    cache.put(metadata(), target, "meter");
+
+    for (int i = 0; i < 50 && cache.size() > 0; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(cache.size()).isZero();
+  }
+}
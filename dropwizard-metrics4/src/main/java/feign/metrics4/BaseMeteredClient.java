@@ -15,52 +15,77 @@
  */
 package feign.metrics4;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import feign.FeignException;
 import feign.RequestTemplate;
 import feign.Response;
 import feign.utils.ExceptionUtils;
+import feign.utils.MeterCache;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 class BaseMeteredClient {
 
   protected final MetricRegistry metricRegistry;
   protected final FeignMetricName metricName;
   protected final MetricSuppliers metricSuppliers;
+  private final MeterCache<Timer> timers;
+  private final MeterCache<AtomicReferenceArray<Meter>> responseCodes;
 
   public BaseMeteredClient(
       MetricRegistry metricRegistry, FeignMetricName metricName, MetricSuppliers metricSuppliers) {
     this.metricRegistry = metricRegistry;
     this.metricName = metricName;
     this.metricSuppliers = metricSuppliers;
+    this.timers = new MeterCache<>(MetricRemovals.of(metricRegistry));
+    this.responseCodes = new MeterCache<>(MetricRemovals.of(metricRegistry));
   }
 
   protected Timer.Context createTimer(RequestTemplate template) {
-    return metricRegistry
-        .timer(
-            MetricRegistry.name(
-                metricName.metricName(template.methodMetadata(), template.feignTarget()),
-                "uri",
-                template.methodMetadata().template().path()),
-            metricSuppliers.timers())
-        .time();
+    Timer timer = timers.get(template.methodMetadata(), template.feignTarget());
+    if (timer == null) {
+      timer =
+          timers.put(
+              template.methodMetadata(),
+              template.feignTarget(),
+              metricRegistry.timer(
+                  MetricRegistry.name(
+                      metricName.metricName(template.methodMetadata(), template.feignTarget()),
+                      "uri",
+                      template.methodMetadata().template().path()),
+                  metricSuppliers.timers()));
+    }
+    return timer.time();
   }
 
   protected void recordSuccess(RequestTemplate template, Response response) {
-    metricRegistry
-        .meter(
-            MetricRegistry.name(
-                httpResponseCode(template),
-                "status_group",
-                response.status() / 100 + "xx",
-                "http_status",
-                String.valueOf(response.status()),
-                "http_method",
-                template.methodMetadata().template().method(),
-                "uri",
-                template.methodMetadata().template().path()),
-            metricSuppliers.meters())
-        .mark();
+    final int slot = MeterCache.statusSlot(response.status());
+    final AtomicReferenceArray<Meter> responseCodeMeters =
+        slot >= 0
+            ? MeterCache.statusSlots(
+                responseCodes, template.methodMetadata(), template.feignTarget())
+            : null;
+    Meter meter = responseCodeMeters != null ? responseCodeMeters.get(slot) : null;
+    if (meter == null) {
+      meter =
+          metricRegistry.meter(
+              MetricRegistry.name(
+                  httpResponseCode(template),
+                  "status_group",
+                  response.status() / 100 + "xx",
+                  "http_status",
+                  String.valueOf(response.status()),
+                  "http_method",
+                  template.methodMetadata().template().method(),
+                  "uri",
+                  template.methodMetadata().template().path()),
+              metricSuppliers.meters());
+      if (responseCodeMeters != null) {
+        responseCodeMeters.lazySet(slot, meter);
+      }
+    }
+    meter.mark();
   }
 
   protected void recordFailure(RequestTemplate template, FeignException e) {
@@ -19,15 +19,20 @@ import feign.FeignException;
 import feign.RequestTemplate;
 import feign.Response;
 import feign.utils.ExceptionUtils;
+import feign.utils.MeterCache;
+import io.dropwizard.metrics5.Counter;
 import io.dropwizard.metrics5.MetricName;
 import io.dropwizard.metrics5.MetricRegistry;
 import io.dropwizard.metrics5.Timer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class BaseMeteredClient {
 
   protected final MetricRegistry metricRegistry;
   protected final FeignMetricName metricName;
   protected final MetricSuppliers metricSuppliers;
+  private final MeterCache<Timer> timers;
+  private final MeterCache<AtomicReferenceArray<Counter>> responseCodes;
 
   public BaseMeteredClient(
       MetricRegistry metricRegistry, FeignMetricName metricName, MetricSuppliers metricSuppliers) {
@@ -35,27 +40,47 @@ public class BaseMeteredClient {
     this.metricRegistry = metricRegistry;
     this.metricName = metricName;
     this.metricSuppliers = metricSuppliers;
+    this.timers = new MeterCache<>(MetricRemovals.of(metricRegistry));
+    this.responseCodes = new MeterCache<>(MetricRemovals.of(metricRegistry));
   }
 
   protected Timer.Context createTimer(RequestTemplate template) {
-    return metricRegistry
-        .timer(
-            metricName
-                .metricName(template.methodMetadata(), template.feignTarget())
-                .tagged("uri", template.methodMetadata().template().path()),
-            metricSuppliers.timers())
-        .time();
+    Timer timer = timers.get(template.methodMetadata(), template.feignTarget());
+    if (timer == null) {
+      timer =
+          timers.put(
+              template.methodMetadata(),
+              template.feignTarget(),
+              metricRegistry.timer(
+                  metricName
+                      .metricName(template.methodMetadata(), template.feignTarget())
+                      .tagged("uri", template.methodMetadata().template().path()),
+                  metricSuppliers.timers()));
+    }
+    return timer.time();
   }
 
   protected void recordSuccess(RequestTemplate template, Response response) {
-    metricRegistry
-        .counter(
-            httpResponseCode(template)
-                .tagged("http_status", String.valueOf(response.status()))
-                .tagged("status_group", response.status() / 100 + "xx")
-                .tagged("http_method", template.methodMetadata().template().method())
-                .tagged("uri", template.methodMetadata().template().path()))
-        .inc();
+    final int slot = MeterCache.statusSlot(response.status());
+    final AtomicReferenceArray<Counter> responseCodeMeters =
+        slot >= 0
+            ? MeterCache.statusSlots(
+                responseCodes, template.methodMetadata(), template.feignTarget())
+            : null;
+    Counter meter = responseCodeMeters != null ? responseCodeMeters.get(slot) : null;
+    if (meter == null) {
+      meter =
+          metricRegistry.counter(
+              httpResponseCode(template)
+                  .tagged("http_status", String.valueOf(response.status()))
+                  .tagged("status_group", response.status() / 100 + "xx")
+                  .tagged("http_method", template.methodMetadata().template().method())
+                  .tagged("uri", template.methodMetadata().template().path()));
+      if (responseCodeMeters != null) {
+        responseCodeMeters.lazySet(slot, meter);
+      }
+    }
+    meter.inc();
   }
 
   protected void recordFailure(RequestTemplate template, FeignException e) {
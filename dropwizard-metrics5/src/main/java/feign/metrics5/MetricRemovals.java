@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.metrics5;
+
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.MetricRegistryListener;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts metrics removed from each registry, so a {@link feign.utils.MeterCache} can drop handles
+ * the registry no longer knows about. One listener is registered per registry, however many clients
+ * share it.
+ */
+final class MetricRemovals {
+
+  private static final Map<MetricRegistry, AtomicLong> REMOVALS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private MetricRemovals() {}
+
+  static LongSupplier of(MetricRegistry metricRegistry) {
+    final AtomicLong removals =
+        REMOVALS.computeIfAbsent(
+            metricRegistry,
+            registry -> {
+              final AtomicLong count = new AtomicLong();
+              registry.addListener(new Listener(count));
+              return count;
+            });
+    return removals::get;
+  }
+
+  private static final class Listener extends MetricRegistryListener.Base {
+
+    private final AtomicLong count;
+
+    Listener(AtomicLong count) {
+      this.count = count;
+    }
+
+    @Override
+    public void onCounterRemoved(MetricName name) {
+      count.incrementAndGet();
+    }
+
+    @Override
+    public void onMeterRemoved(MetricName name) {
+      count.incrementAndGet();
+    }
+
+    @Override
+    public void onTimerRemoved(MetricName name) {
+      count.incrementAndGet();
+    }
+  }
+}
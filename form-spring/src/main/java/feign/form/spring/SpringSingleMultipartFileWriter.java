@@ -15,11 +15,18 @@
  */
 package feign.form.spring;
 
+import static lombok.AccessLevel.PRIVATE;
+
+import feign.Request;
 import feign.codec.EncodeException;
 import feign.form.multipart.AbstractWriter;
 import feign.form.multipart.Output;
 import java.io.IOException;
+import java.io.OutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
 import lombok.val;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -38,13 +45,26 @@ public class SpringSingleMultipartFileWriter extends AbstractWriter {
   protected void write(Output output, String key, Object value) throws EncodeException {
     val file = (MultipartFile) value;
     writeFileMetadata(output, key, file.getOriginalFilename(), file.getContentType());
+    // read while the request is sent, rather than into memory now
+    output.write(new MultipartFileContent(file));
+  }
+
+  @RequiredArgsConstructor
+  @FieldDefaults(level = PRIVATE, makeFinal = true)
+  private static class MultipartFileContent implements Request.Body.Content {
+
+    MultipartFile file;
+
+    @Override
+    public long length() {
+      return file.getSize();
+    }
 
-    byte[] bytes;
-    try {
-      bytes = file.getBytes();
-    } catch (IOException ex) {
-      throw new EncodeException("Getting multipart file's content bytes error", ex);
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      try (val input = file.getInputStream()) {
+        StreamUtils.copy(input, out);
+      }
     }
-    output.write(bytes);
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.spring.converter;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Getter;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Implementation of interface {@link MultipartFile} where the file data was spooled to a temporary
+ * file. The file is deleted once this object is no longer reachable, unless it was moved with
+ * {@link #transferTo(File)}.
+ */
+@Getter
+final class FileMultipartFile implements MultipartFile {
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final String name;
+
+  private final String originalFilename;
+
+  private final String contentType;
+
+  private final Path file;
+
+  private final long size;
+
+  FileMultipartFile(
+      String name, String originalFilename, String contentType, Path file, long size) {
+    this.name = name;
+    this.originalFilename = originalFilename;
+    this.contentType = contentType;
+    this.file = file;
+    this.size = size;
+    CLEANER.register(this, new Delete(file));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public byte[] getBytes() throws IOException {
+    return Files.readAllBytes(file);
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return Files.newInputStream(file);
+  }
+
+  @Override
+  public void transferTo(File destination) throws IOException {
+    transferTo(destination.toPath());
+  }
+
+  @Override
+  public void transferTo(Path destination) throws IOException {
+    Files.move(file, destination, REPLACE_EXISTING);
+  }
+
+  private static final class Delete implements Runnable {
+
+    private final Path file;
+
+    Delete(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public void run() {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+        // nothing to report to, the file is left for the system to clean up
+      }
+    }
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.spring.converter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Reads a multipart body part by part, straight from the response stream.
+ *
+ * <p>Part bodies are scanned for the delimiter with Boyer-Moore-Horspool over a single fixed-size
+ * buffer, so no part is ever held in memory as a whole. Only the bytes that might start a delimiter
+ * are kept back when the buffer is refilled.
+ */
+final class MultipartReader {
+
+  private static final int HEADERS_SIZE_MAX = 10240;
+
+  private final InputStream input;
+
+  /** {@code CRLF--boundary}, which ends every part and the preamble. */
+  private final byte[] delimiter;
+
+  private final int[] skip = new int[256];
+
+  private final byte[] buffer;
+
+  private int position;
+
+  private int limit;
+
+  private boolean endOfInput;
+
+  /** Whether the bytes up to the next delimiter belong to the current part. */
+  private boolean inPart;
+
+  private boolean finished;
+
+  /** Counts parts, so streams of parts that were skipped can tell. */
+  private int partIndex;
+
+  private final InputStream partStream = new PartInputStream();
+
+  /**
+   * @param input the multipart body.
+   * @param boundary the boundary from the {@code Content-Type}.
+   * @param buffer the buffer to read with, at least twice as long as the boundary.
+   */
+  MultipartReader(InputStream input, byte[] boundary, byte[] buffer) {
+    if (buffer.length < 2 * (boundary.length + 4)) {
+      throw new IllegalArgumentException("Buffer too small for the boundary");
+    }
+    this.input = input;
+    this.buffer = buffer;
+    this.delimiter = new byte[boundary.length + 4];
+    delimiter[0] = '\r';
+    delimiter[1] = '\n';
+    delimiter[2] = '-';
+    delimiter[3] = '-';
+    System.arraycopy(boundary, 0, delimiter, 4, boundary.length);
+
+    int last = delimiter.length - 1;
+    Arrays.fill(skip, delimiter.length);
+    for (int i = 0; i < last; i++) {
+      skip[delimiter[i] & 0xFF] = last - i;
+    }
+
+    // the first boundary need not follow a line break, so read the body as if it did
+    buffer[0] = '\r';
+    buffer[1] = '\n';
+    limit = 2;
+    inPart = true;
+  }
+
+  /**
+   * Skips the rest of the current part, or the preamble, and reads the headers of the next one.
+   *
+   * @return the headers of the next part, or {@code null} after the last part.
+   * @throws IOException if the body could not be read or is not a multipart body.
+   */
+  Map<String, String> nextPart() throws IOException {
+    if (finished) {
+      return null;
+    }
+    while (inPart) {
+      partStream.skip(Long.MAX_VALUE);
+    }
+    // after the delimiter come either "--", closing the body, or padding and a line break
+    if (!ensure(2)) {
+      throw new EOFException("Multipart body ended after a delimiter");
+    }
+    if (buffer[position] == '-' && buffer[position + 1] == '-') {
+      finished = true;
+      return null;
+    }
+    while (ensure(1) && (buffer[position] == ' ' || buffer[position] == '\t')) {
+      position++;
+    }
+    expectLineBreak();
+    Map<String, String> headers = readHeaders();
+    inPart = true;
+    partIndex++;
+    return headers;
+  }
+
+  /** The number of parts read so far, which identifies the current one. */
+  int partIndex() {
+    return partIndex;
+  }
+
+  /** Stops reading, so the buffer can be reused; the current part stream ends. */
+  void close() {
+    finished = true;
+    inPart = false;
+  }
+
+  /**
+   * The body of the current part, which ends at the next delimiter. It is only valid until {@link
+   * #nextPart()} is called again.
+   */
+  InputStream partStream() {
+    return partStream;
+  }
+
+  /** Whether the current part has no bytes left, without consuming any. */
+  boolean isPartExhausted() throws IOException {
+    if (!inPart) {
+      return true;
+    }
+    ensure(delimiter.length);
+    if (limit - position >= delimiter.length && startsWithDelimiter(position)) {
+      return true;
+    }
+    return endOfInput && position == limit;
+  }
+
+  private Map<String, String> readHeaders() throws IOException {
+    IgnoreKeyCaseMap headers = new IgnoreKeyCaseMap();
+    int size = 0;
+    while (true) {
+      int end = lineEnd();
+      size += end - position + 2;
+      if (size > HEADERS_SIZE_MAX) {
+        throw new IOException("Multipart part headers exceed " + HEADERS_SIZE_MAX + " bytes");
+      }
+      String line = new String(buffer, position, end - position, UTF_8);
+      position = end + 2;
+      if (line.isEmpty()) {
+        return headers;
+      }
+      int colon = line.indexOf(':');
+      if (colon > 0) {
+        headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+      }
+    }
+  }
+
+  /** The index of the CR of the next line break, buffering the whole line. */
+  private int lineEnd() throws IOException {
+    int scanned = 0;
+    while (true) {
+      for (int i = position + scanned; i + 1 < limit; i++) {
+        if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+          return i;
+        }
+      }
+      int buffered = limit - position;
+      scanned = Math.max(0, buffered - 1);
+      if (buffered == buffer.length || !ensure(buffered + 1)) {
+        throw new IOException("Multipart part header line is too long or unterminated");
+      }
+    }
+  }
+
+  private void expectLineBreak() throws IOException {
+    if (!ensure(2) || buffer[position] != '\r' || buffer[position + 1] != '\n') {
+      throw new IOException("Multipart delimiter is not followed by a line break");
+    }
+    position += 2;
+  }
+
+  /**
+   * Makes at least {@code count} bytes available from {@code position}, moving them to the start of
+   * the buffer if needed.
+   *
+   * @return false if the input ended first.
+   */
+  private boolean ensure(int count) throws IOException {
+    if (limit - position >= count) {
+      return true;
+    }
+    if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, limit - position);
+      limit -= position;
+      position = 0;
+    }
+    while (limit < count && !endOfInput) {
+      int read = input.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        limit += read;
+      }
+    }
+    return limit - position >= count;
+  }
+
+  private boolean startsWithDelimiter(int index) {
+    for (int i = 0; i < delimiter.length; i++) {
+      if (buffer[index + i] != delimiter[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Boyer-Moore-Horspool search for the delimiter in the buffered bytes. */
+  private int indexOfDelimiter() {
+    int last = delimiter.length - 1;
+    int index = position;
+    while (index + last < limit) {
+      int i = last;
+      while (buffer[index + i] == delimiter[i]) {
+        if (i == 0) {
+          return index;
+        }
+        i--;
+      }
+      index += skip[buffer[index + last] & 0xFF];
+    }
+    return -1;
+  }
+
+  /**
+   * Returns how many bytes of the current part can be read from {@code position} without passing
+   * the delimiter, reading more input if none are known to be safe.
+   */
+  private int partBytesAvailable() throws IOException {
+    while (true) {
+      int found = indexOfDelimiter();
+      if (found >= 0) {
+        if (found == position) {
+          position += delimiter.length;
+          inPart = false;
+          return -1;
+        }
+        return found - position;
+      }
+      // the last bytes might be the start of a delimiter split across reads
+      int safe = limit - position - (delimiter.length - 1);
+      if (safe > 0) {
+        return safe;
+      }
+      if (endOfInput) {
+        throw new EOFException("Multipart body ended inside a part");
+      }
+      ensure(Math.min(buffer.length, limit - position + 1));
+    }
+  }
+
+  private final class PartInputStream extends InputStream {
+
+    private final byte[] single = new byte[1];
+
+    @Override
+    public int read() throws IOException {
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (!inPart) {
+        return -1;
+      }
+      if (length == 0) {
+        return 0;
+      }
+      int available = partBytesAvailable();
+      if (available < 0) {
+        return -1;
+      }
+      int count = Math.min(available, length);
+      System.arraycopy(buffer, position, bytes, offset, count);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+      long skipped = 0;
+      while (skipped < count && inPart) {
+        int available = partBytesAvailable();
+        if (available < 0) {
+          break;
+        }
+        int step = (int) Math.min(available, count - skipped);
+        position += step;
+        skipped += step;
+      }
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.spring.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Collects a part in memory until it grows past a threshold, and in a temporary file from then on.
+ */
+final class SpoolingOutputStream extends OutputStream {
+
+  private final long threshold;
+
+  private final Path directory;
+
+  private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+  private Path file;
+
+  private OutputStream fileStream;
+
+  private long size;
+
+  /**
+   * @param threshold the number of bytes kept in memory.
+   * @param directory where to create temporary files, or {@code null} for the default one.
+   */
+  SpoolingOutputStream(long threshold, Path directory) {
+    this.threshold = threshold;
+    this.directory = directory;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    if (fileStream == null && size + length > threshold) {
+      file =
+          directory != null
+              ? Files.createTempFile(directory, "feign-part", ".tmp")
+              : Files.createTempFile("feign-part", ".tmp");
+      fileStream = Files.newOutputStream(file);
+      memory.writeTo(fileStream);
+      memory = null;
+    }
+    if (fileStream != null) {
+      fileStream.write(bytes, offset, length);
+    } else {
+      memory.write(bytes, offset, length);
+    }
+    size += length;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (fileStream != null) {
+      fileStream.close();
+    }
+  }
+
+  /** Deletes the temporary file, if any, for a part that will not be returned. */
+  void discard() throws IOException {
+    close();
+    if (file != null) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /** Closes this stream and returns what was written to it as a multipart file. */
+  MultipartFile toMultipartFile(String name, String originalFilename, String contentType)
+      throws IOException {
+    close();
+    if (file == null) {
+      return new ByteArrayMultipartFile(name, originalFilename, contentType, memory.toByteArray());
+    }
+    return new FileMultipartFile(name, originalFilename, contentType, file, size);
+  }
+}
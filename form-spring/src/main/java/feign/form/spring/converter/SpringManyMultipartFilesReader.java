@@ -21,6 +21,7 @@ import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.MediaType.MULTIPART_FORM_DATA;
 
+import feign.Experimental;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.LinkedList;
@@ -46,7 +47,8 @@ import org.springframework.web.multipart.MultipartFile;
  *
  * <p>This reader supports an array of {@link MultipartFile} as the mapping return class type - each
  * multipart body is read into an underlying byte array (in memory) implemented via {@link
- * ByteArrayMultipartFile}.
+ * ByteArrayMultipartFile}, or spooled to a temporary file when it is larger than the threshold
+ * given to {@link #SpringManyMultipartFilesReader(int, long)}.
  */
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter<MultipartFile[]> {
@@ -55,20 +57,36 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
 
   private static final Pattern COLON_PATTERN = Pattern.compile(":");
 
-  private static final Pattern SEMICOLON_PATTERN = Pattern.compile(";");
+  static final Pattern SEMICOLON_PATTERN = Pattern.compile(";");
 
-  private static final Pattern EQUALITY_SIGN_PATTERN = Pattern.compile("=");
+  static final Pattern EQUALITY_SIGN_PATTERN = Pattern.compile("=");
 
   int bufSize;
 
+  long spoolThreshold;
+
   /**
    * Construct an {@code AbstractHttpMessageConverter} that can read mulitpart/form-data.
    *
    * @param bufSize The size of the buffer (in bytes) to read the HTTP multipart body.
    */
   public SpringManyMultipartFilesReader(int bufSize) {
+    this(bufSize, -1);
+  }
+
+  /**
+   * Construct an {@code AbstractHttpMessageConverter} that can read mulitpart/form-data, spooling
+   * large parts to temporary files.
+   *
+   * @param bufSize The size of the buffer (in bytes) to read the HTTP multipart body.
+   * @param spoolThreshold The size (in bytes) above which a part is kept in a temporary file
+   *     instead of in memory, or a negative value to keep every part in memory.
+   */
+  @Experimental
+  public SpringManyMultipartFilesReader(int bufSize, long spoolThreshold) {
     super(MULTIPART_FORM_DATA);
     this.bufSize = bufSize;
+    this.spoolThreshold = spoolThreshold;
   }
 
   @Override
@@ -98,11 +116,11 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
     MultipartStream multipartStream =
         new MultipartStream(inputMessage.getBody(), boundaryBytes, bufSize, null);
 
-    val multiparts = new LinkedList<ByteArrayMultipartFile>();
+    val multiparts = new LinkedList<MultipartFile>();
     for (boolean nextPart = multipartStream.skipPreamble();
         nextPart;
         nextPart = multipartStream.readBoundary()) {
-      ByteArrayMultipartFile multiPart;
+      MultipartFile multiPart;
       try {
         multiPart = readMultiPart(multipartStream);
       } catch (Exception e) {
@@ -111,7 +129,7 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
       }
       multiparts.add(multiPart);
     }
-    return multiparts.toArray(new ByteArrayMultipartFile[0]);
+    return multiparts.toArray(new MultipartFile[0]);
   }
 
   @Override
@@ -129,7 +147,7 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
     return boundaryString.getBytes(UTF_8);
   }
 
-  private ByteArrayMultipartFile readMultiPart(MultipartStream multipartStream) throws IOException {
+  private MultipartFile readMultiPart(MultipartStream multipartStream) throws IOException {
     val multiPartHeaders =
         splitIntoKeyValuePairs(
             multipartStream.readHeaders(), NEWLINES_PATTERN, COLON_PATTERN, false);
@@ -145,6 +163,20 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
       throw new HttpMessageConversionException("Content-Disposition is not of type form-data.");
     }
 
+    if (spoolThreshold >= 0) {
+      val spool = new SpoolingOutputStream(spoolThreshold, null);
+      try {
+        multipartStream.readBodyData(spool);
+      } catch (IOException e) {
+        spool.discard();
+        throw e;
+      }
+      return spool.toMultipartFile(
+          contentDisposition.get("name"),
+          contentDisposition.get("filename"),
+          multiPartHeaders.get(CONTENT_TYPE));
+    }
+
     val bodyStream = new ByteArrayOutputStream();
     multipartStream.readBodyData(bodyStream);
     return new ByteArrayMultipartFile(
@@ -154,7 +186,7 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
         bodyStream.toByteArray());
   }
 
-  private Map<String, String> splitIntoKeyValuePairs(
+  static Map<String, String> splitIntoKeyValuePairs(
       String str,
       Pattern entriesSeparatorPattern,
       Pattern keyValueSeparatorPattern,
@@ -173,7 +205,7 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
     return keyValuePairs;
   }
 
-  private String unquote(String value) {
+  static String unquote(String value) {
     if (value == null) {
       return null;
     }
@@ -182,7 +214,7 @@ public class SpringManyMultipartFilesReader extends AbstractHttpMessageConverter
         : value;
   }
 
-  private boolean isSurroundedBy(String value, String preSuffix) {
+  private static boolean isSurroundedBy(String value, String preSuffix) {
     return value.length() > 1 && value.startsWith(preSuffix) && value.endsWith(preSuffix);
   }
 }
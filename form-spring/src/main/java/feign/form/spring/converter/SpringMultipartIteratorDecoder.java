@@ -0,0 +1,387 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.spring.converter;
+
+import static feign.Util.ensureClosed;
+import static feign.form.spring.converter.SpringManyMultipartFilesReader.EQUALITY_SIGN_PATTERN;
+import static feign.form.spring.converter.SpringManyMultipartFilesReader.SEMICOLON_PATTERN;
+import static feign.form.spring.converter.SpringManyMultipartFilesReader.splitIntoKeyValuePairs;
+import static feign.form.spring.converter.SpringManyMultipartFilesReader.unquote;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+import feign.Experimental;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Decodes a multipart response into a closeable {@code Iterator} of {@link MultipartFile}, reading
+ * one part at a time while the response is read, so that memory stays constant however many parts
+ * there are and however large they are.
+ *
+ * <p>By default each part is returned lazily: its {@link MultipartFile#getInputStream() input
+ * stream} reads the part straight from the response, and is only valid until the iterator moves to
+ * the next part, which skips whatever was not read. The size of such a part is not known and is
+ * reported as {@code -1}. {@link Builder#withSpoolThreshold(long)} reads each part up front
+ * instead, keeping it in memory up to the threshold and spooling it to a temporary file above it,
+ * so that parts stay readable after the iterator moved on.
+ *
+ * <p>The returned iterator closes the {@code Response} when it reaches the last part or fails to
+ * read the body. If it is not read till the end, it has to be cast to {@code Closeable} and {@code
+ * Closeable#close} explicitly by the consumer.
+ *
+ * <p>Example: <br>
+ *
+ * <pre>
+ * <code>
+ * Feign.builder()
+ *   .decoder(StreamDecoder.create(SpringMultipartIteratorDecoder.builder().build()))
+ *   .doNotCloseAfterDecode() // Required to read the iterator after the response is processed
+ *   .target(Reports.class, "https://api");
+ * interface Reports {
+ *  {@literal @}RequestLine("GET /reports")
+ *   Stream&lt;MultipartFile&gt; reports();
+ * }</code>
+ * </pre>
+ */
+@Experimental
+public final class SpringMultipartIteratorDecoder implements Decoder {
+
+  private final int bufferSize;
+
+  private final long spoolThreshold;
+
+  private final Path spoolDirectory;
+
+  /** Buffers of released iterators, so that decoding does not allocate one per response. */
+  private final BlockingQueue<byte[]> buffers =
+      new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+  private SpringMultipartIteratorDecoder(int bufferSize, long spoolThreshold, Path spoolDirectory) {
+    this.bufferSize = bufferSize;
+    this.spoolThreshold = spoolThreshold;
+    this.spoolDirectory = spoolDirectory;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException {
+    if (response.status() == 404 || response.status() == 204) return Util.emptyValueOf(type);
+    if (response.body() == null) return null;
+    checkIteratorType(type);
+    byte[] boundary;
+    try {
+      boundary = boundary(response);
+    } catch (IllegalArgumentException e) {
+      ensureClosed(response);
+      throw new DecodeException(response.status(), e.getMessage(), response.request(), e);
+    }
+    byte[] buffer = buffers.poll();
+    if (buffer == null) {
+      buffer = new byte[bufferSize];
+    }
+    if (buffer.length < 2 * (boundary.length + 4)) {
+      // a boundary this long is unusual, the pooled buffer is kept for the next response
+      buffers.offer(buffer);
+      buffer = new byte[2 * (boundary.length + 4)];
+    }
+    MultipartReader reader = new MultipartReader(response.body().asInputStream(), boundary, buffer);
+    return new MultipartIterator(response, reader, buffer);
+  }
+
+  private static void checkIteratorType(Type type) {
+    if (!(type instanceof ParameterizedType)
+        || !Iterator.class.equals(((ParameterizedType) type).getRawType())) {
+      throw new IllegalArgumentException("Not an iterator type " + type);
+    }
+    Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+    if (!MultipartFile.class.equals(elementType)) {
+      throw new IllegalArgumentException("Not an iterator of MultipartFile " + type);
+    }
+  }
+
+  private static byte[] boundary(Response response) {
+    Collection<String> contentTypes = response.headers().get(CONTENT_TYPE);
+    if (contentTypes == null || contentTypes.isEmpty()) {
+      throw new IllegalArgumentException("Content-Type is missing.");
+    }
+    MediaType contentType;
+    try {
+      contentType = MediaType.parseMediaType(contentTypes.iterator().next());
+    } catch (InvalidMediaTypeException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+    String boundary = unquote(contentType.getParameter("boundary"));
+    if (!StringUtils.hasLength(boundary)) {
+      throw new IllegalArgumentException("Content-Type missing boundary information.");
+    }
+    return boundary.getBytes(UTF_8);
+  }
+
+  final class MultipartIterator implements Iterator<MultipartFile>, Closeable {
+
+    private final Response response;
+
+    private final MultipartReader reader;
+
+    private final byte[] buffer;
+
+    private MultipartFile current;
+
+    private boolean done;
+
+    MultipartIterator(Response response, MultipartReader reader, byte[] buffer) {
+      this.response = response;
+      this.reader = reader;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (current == null && !done) {
+        current = readNext();
+      }
+      return current != null;
+    }
+
+    /** Moves to the next part, skipping the rest of the current one, or returns null at the end. */
+    private MultipartFile readNext() {
+      try {
+        Map<String, String> headers = reader.nextPart();
+        if (headers == null) {
+          ensureClosed(this);
+          return null;
+        }
+        Map<String, String> contentDisposition =
+            splitIntoKeyValuePairs(
+                headers.get(CONTENT_DISPOSITION), SEMICOLON_PATTERN, EQUALITY_SIGN_PATTERN, true);
+        String name = contentDisposition.get("name");
+        String filename = contentDisposition.get("filename");
+        String contentType = headers.get(CONTENT_TYPE);
+        if (spoolThreshold < 0) {
+          return new StreamingMultipartFile(name, filename, contentType, reader);
+        }
+        SpoolingOutputStream spool = new SpoolingOutputStream(spoolThreshold, spoolDirectory);
+        try {
+          reader.partStream().transferTo(spool);
+        } catch (IOException e) {
+          spool.discard();
+          throw e;
+        }
+        return spool.toMultipartFile(name, filename, contentType);
+      } catch (IOException e) {
+        ensureClosed(this);
+        throw new DecodeException(
+            response.status(), "Multipart body could not be read.", response.request(), e);
+      }
+    }
+
+    @Override
+    public MultipartFile next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      MultipartFile next = current;
+      current = null;
+      return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (done) {
+        return;
+      }
+      done = true;
+      reader.close();
+      buffers.offer(buffer);
+      ensureClosed(response);
+    }
+  }
+
+  /** A part read straight from the response, which can only be read until the iterator moves on. */
+  static final class StreamingMultipartFile implements MultipartFile {
+
+    private final String name;
+
+    private final String originalFilename;
+
+    private final String contentType;
+
+    private final MultipartReader reader;
+
+    private final int partIndex;
+
+    StreamingMultipartFile(
+        String name, String originalFilename, String contentType, MultipartReader reader) {
+      this.name = name;
+      this.originalFilename = originalFilename;
+      this.contentType = contentType;
+      this.reader = reader;
+      this.partIndex = reader.partIndex();
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+      return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+      return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      checkCurrent();
+      try {
+        return reader.isPartExhausted();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /** Always {@code -1}, as the part has not been read yet. */
+    @Override
+    public long getSize() {
+      return -1;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+      try (InputStream input = getInputStream()) {
+        return input.readAllBytes();
+      }
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      checkCurrent();
+      InputStream part = reader.partStream();
+      return new InputStream() {
+        @Override
+        public int read() throws IOException {
+          checkCurrent();
+          return part.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+          checkCurrent();
+          return part.read(bytes, offset, length);
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+          checkCurrent();
+          return part.skip(count);
+        }
+      };
+    }
+
+    @Override
+    public void transferTo(File destination) throws IOException {
+      transferTo(destination.toPath());
+    }
+
+    @Override
+    public void transferTo(Path destination) throws IOException {
+      try (InputStream input = getInputStream();
+          OutputStream output = Files.newOutputStream(destination)) {
+        input.transferTo(output);
+      }
+    }
+
+    private void checkCurrent() {
+      if (reader.partIndex() != partIndex) {
+        throw new IllegalStateException(
+            "Part " + name + " was skipped, it can only be read before moving to the next one");
+      }
+    }
+  }
+
+  public static final class Builder {
+
+    private int bufferSize = 8192;
+
+    private long spoolThreshold = -1;
+
+    private Path spoolDirectory;
+
+    private Builder() {}
+
+    /** The size of the buffers the body is read with, 8192 bytes by default. */
+    public Builder withBufferSize(int bufferSize) {
+      if (bufferSize <= 0) {
+        throw new IllegalArgumentException("bufferSize must be positive");
+      }
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * Reads each part before returning it, keeping up to {@code spoolThreshold} bytes in memory and
+     * the rest in a temporary file, which is deleted once the part is no longer reachable. Parts
+     * are streamed lazily by default.
+     */
+    public Builder withSpoolThreshold(long spoolThreshold) {
+      if (spoolThreshold < 0) {
+        throw new IllegalArgumentException("spoolThreshold must not be negative");
+      }
+      this.spoolThreshold = spoolThreshold;
+      return this;
+    }
+
+    /** Where to create the temporary files of spooled parts, the system default if not set. */
+    public Builder withSpoolDirectory(Path spoolDirectory) {
+      this.spoolDirectory = spoolDirectory;
+      return this;
+    }
+
+    public SpringMultipartIteratorDecoder build() {
+      return new SpringMultipartIteratorDecoder(bufferSize, spoolThreshold, spoolDirectory);
+    }
+  }
+}
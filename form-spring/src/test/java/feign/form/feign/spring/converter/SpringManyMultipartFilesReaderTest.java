@@ -52,6 +52,23 @@ class SpringManyMultipartFilesReaderTest {
         .isEqualTo("Plain text");
   }
 
+  @Test
+  void spoolLargePartsTest() throws IOException {
+    var multipartFilesReader = new SpringManyMultipartFilesReader(4096, 9);
+    var multipartFiles =
+        multipartFilesReader.read(MultipartFile[].class, new ValidMultipartMessage());
+
+    assertThat(multipartFiles.length).isEqualTo(2);
+
+    assertThat(multipartFiles[0].getSize()).isEqualTo(8);
+    assertThat(multipartFiles[0].getBytes()).isEqualTo("{\"id\":1}".getBytes("US-ASCII"));
+
+    assertThat(multipartFiles[1].getSize()).isEqualTo(10);
+    assertThat(multipartFiles[1].getOriginalFilename()).isEqualTo("form-item-2-file-1");
+    assertThat(IOUtils.toString(multipartFiles[1].getInputStream(), "US-ASCII"))
+        .isEqualTo("Plain text");
+  }
+
   static class ValidMultipartMessage implements HttpInputMessage {
 
     @Override
@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.feign.spring.converter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.Request;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.form.spring.converter.SpringMultipartIteratorDecoder;
+import feign.stream.StreamDecoder;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+class SpringMultipartIteratorDecoderTest {
+
+  private static final String BOUNDARY = "Boundary_4_574237629_1500021738802";
+
+  interface Parts extends Iterator<MultipartFile> {}
+
+  interface PartStream extends Stream<MultipartFile> {}
+
+  private static final Type ITERATOR_TYPE = Parts.class.getGenericInterfaces()[0];
+
+  private static final String BODY =
+      "preamble, ignored\r\n"
+          + "--"
+          + BOUNDARY
+          + "\r\n"
+          + "Content-Type: application/json\r\n"
+          + "Content-Disposition: form-data; name=\"form-item-1\"\r\n"
+          + "\r\n"
+          + "{\"id\":1}"
+          + "\r\n"
+          + "--"
+          + BOUNDARY
+          + "  \r\n"
+          + "content-type: text/plain\r\n"
+          + "content-disposition: attachment; filename=\"report.txt\"; name=\"form-item-2\"\r\n"
+          + "\r\n"
+          + "Plain text\r\n--"
+          + BOUNDARY.substring(1)
+          + "\r\n"
+          + "--"
+          + BOUNDARY
+          + "\r\n"
+          + "Content-Disposition: form-data; name=\"empty\"\r\n"
+          + "\r\n"
+          + "\r\n"
+          + "--"
+          + BOUNDARY
+          + "--\r\n"
+          + "epilogue, ignored";
+
+  @Test
+  void streamsPartsLazily() throws IOException {
+    var parts = decode(SpringMultipartIteratorDecoder.builder().build(), BODY, 4096);
+
+    assertThat(parts.hasNext()).isTrue();
+    var first = parts.next();
+    assertThat(first.getName()).isEqualTo("form-item-1");
+    assertThat(first.getContentType()).isEqualTo("application/json");
+    assertThat(first.getSize()).isEqualTo(-1);
+    assertThat(first.isEmpty()).isFalse();
+    assertThat(new String(first.getBytes(), UTF_8)).isEqualTo("{\"id\":1}");
+
+    var second = parts.next();
+    assertThat(second.getName()).isEqualTo("form-item-2");
+    assertThat(second.getOriginalFilename()).isEqualTo("report.txt");
+    assertThat(new String(second.getBytes(), UTF_8))
+        .isEqualTo("Plain text\r\n--" + BOUNDARY.substring(1));
+
+    var third = parts.next();
+    assertThat(third.getName()).isEqualTo("empty");
+    assertThat(third.isEmpty()).isTrue();
+
+    assertThat(parts.hasNext()).isFalse();
+  }
+
+  @Test
+  void readsBoundariesSplitAcrossReads() throws IOException {
+    // the smallest buffer for the boundary, filled a few bytes at a time
+    var decoder =
+        SpringMultipartIteratorDecoder.builder()
+            .withBufferSize(2 * (BOUNDARY.length() + 4))
+            .build();
+    for (var chunk = 1; chunk <= 7; chunk++) {
+      var parts = decode(decoder, BODY, chunk);
+      var contents = new StringBuilder();
+      while (parts.hasNext()) {
+        contents.append(new String(parts.next().getBytes(), UTF_8)).append('|');
+      }
+      assertThat(contents.toString())
+          .isEqualTo("{\"id\":1}|Plain text\r\n--" + BOUNDARY.substring(1) + "||");
+    }
+  }
+
+  @Test
+  void skipsPartsThatWereNotRead() throws IOException {
+    var parts = decode(SpringMultipartIteratorDecoder.builder().build(), BODY, 4096);
+
+    var first = parts.next();
+    var second = parts.next();
+
+    assertThat(second.getName()).isEqualTo("form-item-2");
+    assertThatThrownBy(first::getInputStream).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void spoolsLargePartsToFiles(@TempDir Path directory) throws IOException {
+    var decoder =
+        SpringMultipartIteratorDecoder.builder()
+            .withSpoolThreshold(9)
+            .withSpoolDirectory(directory)
+            .build();
+    var parts = decode(decoder, BODY, 4096);
+
+    var first = parts.next();
+    var second = parts.next();
+    var third = parts.next();
+
+    // parts stay readable after the iterator moved on
+    assertThat(new String(first.getBytes(), UTF_8)).isEqualTo("{\"id\":1}");
+    assertThat(first.getSize()).isEqualTo(8);
+    assertThat(second.getSize()).isEqualTo(12 + BOUNDARY.length() + 1);
+    assertThat(third.isEmpty()).isTrue();
+    try (var files = Files.list(directory)) {
+      assertThat(files).hasSize(1);
+    }
+
+    var destination = directory.resolve("report.txt");
+    second.transferTo(destination);
+    assertThat(Files.readString(destination)).startsWith("Plain text");
+    try (var files = Files.list(directory)) {
+      assertThat(files).containsExactly(destination);
+    }
+  }
+
+  @Test
+  void failsOnTruncatedBody() throws IOException {
+    var body = BODY.substring(0, BODY.indexOf("Plain text") + 5);
+    var parts = decode(SpringMultipartIteratorDecoder.builder().build(), body, 4096);
+
+    parts.next();
+    var second = parts.next();
+
+    assertThatThrownBy(second::getBytes).isInstanceOf(IOException.class);
+    assertThatThrownBy(parts::hasNext).isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  void failsWithoutBoundary() {
+    var decoder = SpringMultipartIteratorDecoder.builder().build();
+    var response = response(BODY, 4096, "multipart/form-data");
+
+    assertThatThrownBy(() -> decoder.decode(response, ITERATOR_TYPE))
+        .isInstanceOf(DecodeException.class)
+        .hasMessageContaining("boundary");
+  }
+
+  @Test
+  void decodesStreams() throws IOException {
+    var decoder = StreamDecoder.create(SpringMultipartIteratorDecoder.builder().build());
+    var type = PartStream.class.getGenericInterfaces()[0];
+
+    @SuppressWarnings("unchecked")
+    var parts = (Stream<MultipartFile>) decoder.decode(response(BODY, 4096, null), type);
+
+    try (parts) {
+      assertThat(parts.map(MultipartFile::getName).collect(Collectors.toList()))
+          .containsExactly("form-item-1", "form-item-2", "empty");
+    }
+  }
+
+  @Test
+  void closingReleasesTheResponse() throws IOException {
+    var closed = new boolean[1];
+    var input =
+        new ByteArrayInputStream(BODY.getBytes(UTF_8)) {
+          @Override
+          public void close() {
+            closed[0] = true;
+          }
+        };
+    var response =
+        Response.builder()
+            .status(200)
+            .headers(headers("multipart/mixed; boundary=\"" + BOUNDARY + "\""))
+            .request(request())
+            .body(input, null)
+            .build();
+    var parts =
+        (Iterator<?>)
+            SpringMultipartIteratorDecoder.builder().build().decode(response, ITERATOR_TYPE);
+
+    parts.next();
+    ((Closeable) parts).close();
+
+    assertThat(closed[0]).isTrue();
+    assertThat(parts.hasNext()).isFalse();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Iterator<MultipartFile> decode(
+      SpringMultipartIteratorDecoder decoder, String body, int chunk) throws IOException {
+    return (Iterator<MultipartFile>)
+        decoder.decode(
+            response(body, chunk, "multipart/form-data; boundary=" + BOUNDARY), ITERATOR_TYPE);
+  }
+
+  private static Response response(String body, int chunk, String contentType) {
+    return Response.builder()
+        .status(200)
+        .headers(
+            headers(
+                contentType != null ? contentType : "multipart/form-data; boundary=" + BOUNDARY))
+        .request(request())
+        .body(new ChunkedInputStream(body.getBytes(UTF_8), chunk), null)
+        .build();
+  }
+
+  private static Map<String, Collection<String>> headers(String contentType) {
+    return Map.of("Content-Type", List.of(contentType));
+  }
+
+  private static Request request() {
+    return Request.create(
+        Request.HttpMethod.GET, "http://localhost", Collections.emptyMap(), null, UTF_8, null);
+  }
+
+  /** Returns at most {@code chunk} bytes per read, as a network stream would. */
+  private static final class ChunkedInputStream extends ByteArrayInputStream {
+
+    private final int chunk;
+
+    ChunkedInputStream(byte[] bytes, int chunk) {
+      super(bytes);
+      this.chunk = chunk;
+    }
+
+    @Override
+    public synchronized int read(byte[] bytes, int offset, int length) {
+      return super.read(bytes, offset, Math.min(length, chunk));
+    }
+  }
+}
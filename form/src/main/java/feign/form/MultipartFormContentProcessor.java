@@ -102,11 +102,17 @@ public class MultipartFormContentProcessor implements ContentProcessor {
       template.header(CONTENT_TYPE_HEADER, Collections.<String>emptyList()); // reset header
       template.header(CONTENT_TYPE_HEADER, contentTypeHeaderValue);
 
-      // Feign's clients try to determine binary/string content by charset presence
-      // so, I set it to null (in spite of availability charset) for backward
-      // compatibility.
-      val bytes = output.toByteArray();
-      template.body(bytes, null);
+      if (output.isStreaming()) {
+        // files and byte arrays are written when the request is sent, so the body is
+        // never held in memory as a whole
+        template.body(output.toContent());
+      } else {
+        // Feign's clients try to determine binary/string content by charset presence
+        // so, I set it to null (in spite of availability charset) for backward
+        // compatibility.
+        val bytes = output.toByteArray();
+        template.body(bytes, null);
+      }
     } catch (IOException ex) {
       throw new EncodeException("Output closing error", ex);
     }
@@ -34,6 +34,6 @@ public class ByteArrayWriter extends AbstractWriter {
     writeFileMetadata(output, key, null, null);
 
     byte[] bytes = (byte[]) value;
-    output.write(bytes);
+    output.write(new ByteArrayContent(bytes));
   }
 }
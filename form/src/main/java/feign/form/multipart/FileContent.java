@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form.multipart;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import feign.Request;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Reads a file part from disk in chunks while the request is sent, instead of loading it into the
+ * {@link Output} buffer.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+class FileContent implements Request.Body.Content {
+
+  File file;
+
+  @Override
+  public long length() {
+    return file.length();
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    Files.copy(file.toPath(), out);
+  }
+}
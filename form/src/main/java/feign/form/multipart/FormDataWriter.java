@@ -36,6 +36,6 @@ public class FormDataWriter extends AbstractWriter {
   protected void write(Output output, String key, Object value) throws EncodeException {
     val formData = (FormData) value;
     writeFileMetadata(output, key, formData.getFileName(), formData.getContentType());
-    output.write(formData.getData());
+    output.write(new ByteArrayContent(formData.getData()));
   }
 }
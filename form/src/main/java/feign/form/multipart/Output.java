@@ -17,18 +17,27 @@ package feign.form.multipart;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import feign.Experimental;
+import feign.Request;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.experimental.FieldDefaults;
+import lombok.val;
 
 /**
  * Output representation utility class.
  *
+ * <p>Bytes written to it are buffered, while {@link Request.Body.Content contents}, such as files,
+ * are only kept as references and written when the request is sent.
+ *
  * @author Artem Labazin
  */
 @RequiredArgsConstructor
@@ -37,6 +46,9 @@ public class Output implements Closeable {
 
   ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
+  /** The buffered bytes and contents written before the current buffer, in order. */
+  List<Object> parts = new ArrayList<>();
+
   @Getter Charset charset;
 
   /**
@@ -76,16 +88,101 @@ public class Output implements Closeable {
   }
 
   /**
-   * Returns byte array representation of this output class.
+   * Writes the content to the output when the request is sent, instead of buffering it now.
+   *
+   * @param content content to write after everything written to this output so far, possibly more
+   *     than once.
+   * @return this output
+   */
+  @Experimental
+  public Output write(Request.Body.Content content) {
+    if (outputStream.size() > 0) {
+      parts.add(outputStream.toByteArray());
+      outputStream.reset();
+    }
+    parts.add(content);
+    return this;
+  }
+
+  /**
+   * Answers whether any {@link Request.Body.Content} was written to this output, so it should be
+   * sent with {@link #toContent()} rather than {@link #toByteArray()}.
+   *
+   * @return {@code true} if the output holds content to be written later
+   */
+  @Experimental
+  public boolean isStreaming() {
+    return !parts.isEmpty();
+  }
+
+  /**
+   * Returns byte array representation of this output class, writing any {@link
+   * Request.Body.Content} into memory.
    *
    * @return byte array representation of output
    */
+  @SneakyThrows
   public byte[] toByteArray() {
-    return outputStream.toByteArray();
+    if (parts.isEmpty()) {
+      return outputStream.toByteArray();
+    }
+    val bytes = new ByteArrayOutputStream();
+    toContent().writeTo(bytes);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns everything written to this output as request body content, which is {@code
+   * Content-Length} bytes long when the length of every content written is known.
+   *
+   * @return content writing this output
+   */
+  @Experimental
+  public Request.Body.Content toContent() {
+    val snapshot = new ArrayList<Object>(parts);
+    if (outputStream.size() > 0) {
+      snapshot.add(outputStream.toByteArray());
+    }
+    return new PartsContent(snapshot);
   }
 
   @Override
   public void close() throws IOException {
     outputStream.close();
   }
+
+  @RequiredArgsConstructor
+  @FieldDefaults(level = PRIVATE, makeFinal = true)
+  private static class PartsContent implements Request.Body.Content {
+
+    List<Object> parts;
+
+    @Override
+    public long length() {
+      long length = 0;
+      for (val part : parts) {
+        if (part instanceof byte[]) {
+          length += ((byte[]) part).length;
+        } else {
+          val partLength = ((Request.Body.Content) part).length();
+          if (partLength < 0) {
+            return -1;
+          }
+          length += partLength;
+        }
+      }
+      return length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      for (val part : parts) {
+        if (part instanceof byte[]) {
+          out.write((byte[]) part);
+        } else {
+          ((Request.Body.Content) part).writeTo(out);
+        }
+      }
+    }
+  }
 }
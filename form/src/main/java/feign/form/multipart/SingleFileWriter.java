@@ -17,9 +17,7 @@ package feign.form.multipart;
 
 import feign.codec.EncodeException;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.FileNotFoundException;
 import lombok.val;
 
 /**
@@ -37,18 +35,12 @@ public class SingleFileWriter extends AbstractWriter {
   @Override
   protected void write(Output output, String key, Object value) throws EncodeException {
     val file = (File) value;
-    writeFileMetadata(output, key, file.getName(), null);
-
-    try (InputStream input = new FileInputStream(file)) {
-      val buf = new byte[4096];
-      int length = input.read(buf);
-      while (length > 0) {
-        output.write(buf, 0, length);
-        length = input.read(buf);
-      }
-    } catch (IOException ex) {
+    if (!file.isFile() || !file.canRead()) {
       val message = String.format("Writing file's '%s' content error", file.getName());
-      throw new EncodeException(message, ex);
+      throw new EncodeException(message, new FileNotFoundException(file.getPath()));
     }
+    writeFileMetadata(output, key, file.getName(), null);
+    // read while the request is sent, rather than into memory now
+    output.write(new FileContent(file));
   }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.form;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.form.multipart.Output;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MultipartStreamingTest {
+
+  private static final Encoder NOOP_DELEGATE = (object, bodyType, template) -> {};
+
+  @TempDir Path directory;
+
+  @Test
+  void filesAreWrittenWhenTheRequestIsSent() throws Exception {
+    File file = directory.resolve("file.txt").toFile();
+    Files.write(file.toPath(), "first".getBytes(UTF_8));
+
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("field", "value");
+    data.put("file", file);
+    data.put("bytes", new byte[] {'b', 'y', 't', 'e', 's'});
+    RequestTemplate template = new RequestTemplate();
+    new MultipartFormContentProcessor(NOOP_DELEGATE).process(template, UTF_8, data);
+
+    Request.Body body = template.requestBody();
+    assertThat(body.isStreaming()).isTrue();
+
+    Files.write(file.toPath(), "later".getBytes(UTF_8));
+    String written = write(body);
+    assertThat(written)
+        .contains("name=\"field\"", "value", "filename=\"file.txt\"", "later", "bytes")
+        .doesNotContain("first");
+    assertThat(template.headers().get("Content-Length"))
+        .containsExactly(String.valueOf(written.getBytes(UTF_8).length));
+    assertThat(new String(template.body(), UTF_8)).isEqualTo(written);
+  }
+
+  @Test
+  void parametersAloneAreBuffered() {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("field", "value");
+    RequestTemplate template = new RequestTemplate();
+    new MultipartFormContentProcessor(NOOP_DELEGATE).process(template, UTF_8, data);
+
+    assertThat(template.requestBody().isStreaming()).isFalse();
+    assertThat(new String(template.body(), UTF_8)).contains("value");
+  }
+
+  @Test
+  void missingFilesFailToEncode() {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("file", directory.resolve("missing.txt").toFile());
+
+    assertThatThrownBy(
+            () ->
+                new MultipartFormContentProcessor(NOOP_DELEGATE)
+                    .process(new RequestTemplate(), UTF_8, data))
+        .isInstanceOf(EncodeException.class)
+        .hasMessageContaining("missing.txt");
+  }
+
+  @Test
+  void contentOfUnknownLengthIsSentInChunks() throws Exception {
+    Output output = new Output(UTF_8);
+    output.write("head");
+    output.write(
+        new Request.Body.Content() {
+          @Override
+          public long length() {
+            return -1;
+          }
+
+          @Override
+          public void writeTo(OutputStream out) throws IOException {
+            out.write("-body-".getBytes(UTF_8));
+          }
+        });
+    output.write("tail");
+
+    assertThat(output.isStreaming()).isTrue();
+    assertThat(output.toContent().length()).isEqualTo(-1);
+    assertThat(new String(output.toByteArray(), UTF_8)).isEqualTo("head-body-tail");
+  }
+
+  private static String write(Request.Body body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.writeTo(out);
+    return new String(out.toByteArray(), UTF_8);
+  }
+}
@@ -15,6 +15,8 @@
  */
 package feign.graphql;
 
+import static feign.Util.checkArgument;
+
 import feign.Capability;
 import feign.Client;
 import feign.Contract;
@@ -25,6 +27,7 @@ import feign.codec.Encoder;
 import feign.codec.JsonCodec;
 import feign.codec.JsonDecoder;
 import feign.codec.JsonEncoder;
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.concurrent.Executor;
@@ -40,6 +43,8 @@ public class GraphqlCapability implements Capability {
   private final GraphqlRequestInterceptor interceptor;
   private final JsonEncoder jsonEncoder;
   private final JsonDecoder jsonDecoder;
+  private boolean multiplexSubscriptions;
+  private int subscriptionEventCapacity = GraphqlSubscriptionClient.DEFAULT_EVENT_CAPACITY;
 
   public GraphqlCapability(JsonCodec codec) {
     this(codec.encoder(), codec.decoder());
@@ -81,7 +86,7 @@ public class GraphqlCapability implements Capability {
   public GraphqlCapability(
       JsonEncoder encoder, JsonDecoder decoder, Duration eventTimeout, Executor executor) {
     this.graphqlEncoder = new GraphqlEncoder(encoder, contract);
-    this.graphqlDecoder = new GraphqlDecoder(decoder, eventTimeout, executor);
+    this.graphqlDecoder = new GraphqlDecoder(decoder, eventTimeout, executor, contract);
     this.interceptor = new GraphqlRequestInterceptor(encoder, contract);
     this.jsonEncoder = encoder;
     this.jsonDecoder = decoder;
@@ -104,6 +109,27 @@ public class GraphqlCapability implements Capability {
         });
   }
 
+  /**
+   * Shares one WebSocket connection between the subscriptions to the same endpoint, instead of
+   * opening one per subscription. See {@link GraphqlSubscriptionClient} for how a shared connection
+   * behaves.
+   */
+  public GraphqlCapability multiplexSubscriptions(boolean multiplexSubscriptions) {
+    this.multiplexSubscriptions = multiplexSubscriptions;
+    return this;
+  }
+
+  /**
+   * How many events a subscription buffers before it fails, {@value
+   * GraphqlSubscriptionClient#DEFAULT_EVENT_CAPACITY} by default. Only a shared connection can fill
+   * the buffer, as it is not flow-controlled; see {@link GraphqlSubscriptionClient}.
+   */
+  public GraphqlCapability subscriptionEventCapacity(int subscriptionEventCapacity) {
+    checkArgument(subscriptionEventCapacity > 0, "subscriptionEventCapacity must be positive");
+    this.subscriptionEventCapacity = subscriptionEventCapacity;
+    return this;
+  }
+
   @Override
   public Contract enrich(Contract contract) {
     return this.contract;
@@ -121,7 +147,14 @@ public class GraphqlCapability implements Capability {
 
   @Override
   public Client enrich(Client client) {
-    return new GraphqlSubscriptionClient(client, contract, jsonEncoder, jsonDecoder);
+    return new GraphqlSubscriptionClient(
+        client,
+        contract,
+        jsonEncoder,
+        jsonDecoder,
+        HttpClient.newHttpClient(),
+        multiplexSubscriptions,
+        subscriptionEventCapacity);
   }
 
   @Override
@@ -48,7 +48,9 @@ public class GraphqlContract extends DefaultContract {
 
           var variableName = extractFirstVariable(query);
           metadata.put(
-              data.configKey(), new QueryMetadata(query, variableName, isSubscription(query)));
+              data.configKey(),
+              new QueryMetadata(
+                  query, variableName, isSubscription(query), hasSingleRootField(query)));
         });
   }
 
@@ -104,15 +106,108 @@ public class GraphqlContract extends DefaultContract {
     return SUBSCRIPTION_PATTERN.matcher(query).find();
   }
 
+  /**
+   * Whether the operation selects exactly one root field, so that the response data holds that
+   * field alone. False whenever that cannot be told from the text, as with fragment spreads.
+   */
+  static boolean hasSingleRootField(String query) {
+    int depth = 0;
+    int fields = 0;
+    boolean directive = false;
+    for (int i = 0; i < query.length(); i++) {
+      char c = query.charAt(i);
+      if (c == '#') {
+        while (i < query.length() && query.charAt(i) != '\n') {
+          i++;
+        }
+      } else if (c == '"') {
+        i = skipString(query, i);
+      } else if (c == '(') {
+        i = skipArguments(query, i);
+      } else if (c == '{') {
+        depth++;
+      } else if (c == '}') {
+        if (--depth == 0) {
+          return fields == 1;
+        }
+      } else if (depth == 1 && c == '.') {
+        return false;
+      } else if (depth == 1 && c == '@') {
+        directive = true;
+      } else if (depth <= 1 && (Character.isLetter(c) || c == '_')) {
+        int end = i;
+        while (end < query.length()
+            && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+          end++;
+        }
+        if (depth == 0) {
+          // a fragment defined ahead of the operation would be taken for it
+          if (query.startsWith("fragment", i) && end - i == "fragment".length()) {
+            return false;
+          }
+          i = end - 1;
+          continue;
+        }
+        int next = end;
+        while (next < query.length() && Character.isWhitespace(query.charAt(next))) {
+          next++;
+        }
+        // an alias is followed by a colon and then names the field, which is what gets counted
+        boolean alias = next < query.length() && query.charAt(next) == ':';
+        if (!directive && !alias) {
+          fields++;
+        }
+        directive = false;
+        i = end - 1;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the index of the closing quote of the string starting at {@code start}. */
+  private static int skipString(String query, int start) {
+    boolean block = query.startsWith("\"\"\"", start);
+    int i = block ? start + 3 : start + 1;
+    while (i < query.length()) {
+      if (query.charAt(i) == '\\') {
+        i += 2;
+      } else if (block ? query.startsWith("\"\"\"", i) : query.charAt(i) == '"') {
+        return block ? i + 2 : i;
+      } else {
+        i++;
+      }
+    }
+    return i;
+  }
+
+  /** Returns the index of the parenthesis closing the one at {@code start}. */
+  private static int skipArguments(String query, int start) {
+    int depth = 0;
+    for (int i = start; i < query.length(); i++) {
+      char c = query.charAt(i);
+      if (c == '"') {
+        i = skipString(query, i);
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i;
+      }
+    }
+    return query.length();
+  }
+
   static class QueryMetadata {
     final String query;
     final String variableName;
     final boolean subscription;
+    final boolean singleRootField;
 
-    QueryMetadata(String query, String variableName, boolean subscription) {
+    QueryMetadata(
+        String query, String variableName, boolean subscription, boolean singleRootField) {
       this.query = query;
       this.variableName = variableName;
       this.subscription = subscription;
+      this.singleRootField = singleRootField;
     }
   }
 }
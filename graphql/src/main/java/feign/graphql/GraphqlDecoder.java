@@ -21,6 +21,7 @@ import feign.Response;
 import feign.Util;
 import feign.codec.Decoder;
 import feign.codec.JsonDecoder;
+import feign.codec.StreamingJsonDecoder;
 import feign.graphql.GraphqlSubscriptionClient.Subscription;
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -48,18 +49,30 @@ public class GraphqlDecoder implements Decoder {
   private final JsonDecoder jsonDecoder;
   private final long eventTimeoutMillis;
   private final Executor executor;
+  private final GraphqlContract contract;
 
   public GraphqlDecoder(JsonDecoder jsonDecoder) {
     this(jsonDecoder, DEFAULT_EVENT_TIMEOUT, Runnable::run);
   }
 
   public GraphqlDecoder(JsonDecoder jsonDecoder, Duration eventTimeout, Executor executor) {
+    this(jsonDecoder, eventTimeout, executor, null);
+  }
+
+  /**
+   * @param contract tells which queries select a single root field. Their responses are decoded in
+   *     one pass when {@code jsonDecoder} is a {@link StreamingJsonDecoder}, binding that field
+   *     straight to the return type rather than decoding the whole response into maps first.
+   */
+  public GraphqlDecoder(
+      JsonDecoder jsonDecoder, Duration eventTimeout, Executor executor, GraphqlContract contract) {
     if (eventTimeout.isNegative()) {
       throw new IllegalArgumentException("eventTimeout must not be negative: " + eventTimeout);
     }
     this.jsonDecoder = jsonDecoder;
     this.eventTimeoutMillis = eventTimeout.toMillis();
     this.executor = executor;
+    this.contract = contract;
   }
 
   @Override
@@ -89,6 +102,10 @@ public class GraphqlDecoder implements Decoder {
     if (response.body() == null) {
       return Util.emptyValueOf(type);
     }
+    if (jsonDecoder instanceof StreamingJsonDecoder streaming
+        && selectsSingleRootField(response.request())) {
+      return decodeSinglePass(streaming, response, type);
+    }
 
     var root = (Map<String, Object>) jsonDecoder.decode(response, Map.class);
     if (root == null) {
@@ -98,11 +115,86 @@ public class GraphqlDecoder implements Decoder {
     return unwrap(root, type, response.status(), response.request());
   }
 
+  private boolean selectsSingleRootField(Request request) {
+    if (contract == null || request == null || request.requestTemplate() == null) {
+      return false;
+    }
+    var meta = contract.lookupMetadata(request.requestTemplate());
+    return meta != null && meta.singleRootField;
+  }
+
+  /**
+   * Reads the response envelope token by token, with the same outcome as {@link #unwrap}: the
+   * single field under {@code data} binds straight to the return type, and {@code errors} are
+   * raised wherever they appear.
+   */
+  private Object decodeSinglePass(StreamingJsonDecoder decoder, Response response, Type type)
+      throws IOException {
+    Object errors = null;
+    String operationField = null;
+    Object result = null;
+    try (var cursor = decoder.cursor(response)) {
+      if (cursor == null || !cursor.beginObject()) {
+        return Util.emptyValueOf(type);
+      }
+      String name;
+      while ((name = cursor.nextField()) != null) {
+        if (name.equals("errors")) {
+          errors = cursor.read(Object.class);
+        } else if (name.equals("data") && cursor.beginObject()) {
+          operationField = cursor.nextField();
+          if (operationField == null) {
+            continue;
+          }
+          if (hasErrors(errors)) {
+            cursor.skipValue();
+          } else {
+            result = readOperationData(cursor, type);
+          }
+          while (cursor.nextField() != null) {
+            cursor.skipValue();
+          }
+        } else {
+          cursor.skipValue();
+        }
+      }
+    }
+
+    if (hasErrors(errors)) {
+      var field =
+          operationField != null
+              ? operationField
+              : resolveOperationField(Map.of(), response.request());
+      throw new GraphqlErrorException(
+          response.status(), field, errors.toString(), response.request());
+    }
+    return result == null ? Util.emptyValueOf(type) : result;
+  }
+
+  private Object readOperationData(StreamingJsonDecoder.Cursor cursor, Type type)
+      throws IOException {
+    if (isCollectionOrArrayType(type) || !cursor.beginArray()) {
+      return cursor.read(type);
+    }
+    if (!cursor.hasNextElement()) {
+      return null;
+    }
+    var first = cursor.read(type);
+    while (cursor.hasNextElement()) {
+      cursor.skipValue();
+    }
+    return first;
+  }
+
+  private static boolean hasErrors(Object errors) {
+    return errors instanceof List<?> errorList && !errorList.isEmpty();
+  }
+
   @SuppressWarnings("unchecked")
   private Object unwrap(Map<String, Object> root, Type type, int status, Request request)
       throws IOException {
     var errors = root.get("errors");
-    if (errors instanceof List<?> errorList && !errorList.isEmpty()) {
+    if (hasErrors(errors)) {
       var operationField = resolveOperationField(root, request);
       throw new GraphqlErrorException(status, operationField, errors.toString(), request);
     }
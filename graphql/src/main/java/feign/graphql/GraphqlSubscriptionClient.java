@@ -15,6 +15,7 @@
  */
 package feign.graphql;
 
+import static feign.Util.checkArgument;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import feign.Client;
@@ -37,13 +38,20 @@ import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -60,18 +68,44 @@ import java.util.stream.StreamSupport;
  * href="https://github.com/enisdenjo/graphql-ws/blob/master/PROTOCOL.md">graphql-transport-ws</a>
  * WebSocket protocol, delegating every other request to the wrapped {@link Client}.
  *
- * <p>The endpoint is the target URL with its scheme swapped to {@code ws}/{@code wss}. One
- * WebSocket connection is opened per subscription call and is closed when the returned {@code
+ * <p>The endpoint is the target URL with its scheme swapped to {@code ws}/{@code wss}. By default
+ * one WebSocket connection is opened per subscription call and is closed when the returned {@code
  * Stream} or {@code Flow.Publisher} is closed/cancelled.
+ *
+ * <p>When multiplexing, subscriptions to the same endpoint with the same forwarded headers share
+ * one connection instead, each keyed by its operation id. The connection is opened by the first
+ * subscription and closed when the last one ends. If it drops while subscriptions are open, it is
+ * reopened and every open subscription is started again; events sent meanwhile are lost.
+ *
+ * <p>Multiplexed subscriptions are not flow-controlled: frames are read as they arrive rather than
+ * as each consumer asks for them, so one slow consumer cannot stall the others. Each subscription
+ * buffers up to {@code eventCapacity} events, {@value #DEFAULT_EVENT_CAPACITY} by default; one
+ * falling further behind still receives the events buffered, then fails with an {@link
+ * IllegalStateException}, and the events sent after those are dropped. A dedicated connection only
+ * reads the next frame once the consumer took the previous event, so it never overflows.
  */
 @Experimental
 public class GraphqlSubscriptionClient implements Client {
 
+  /** How often a dropped multiplexed connection is reopened before its subscriptions fail. */
+  private static final int RECONNECT_ATTEMPTS = 5;
+
+  private static final long RECONNECT_DELAY_MILLIS = 100;
+
+  private static final long RECONNECT_DELAY_MAX_MILLIS = 5000;
+
+  static final int DEFAULT_EVENT_CAPACITY = 1024;
+
   private final Client delegate;
   private final GraphqlContract contract;
   private final JsonEncoder jsonEncoder;
   private final JsonDecoder jsonDecoder;
   private final HttpClient httpClient;
+  private final boolean multiplex;
+  private final int eventCapacity;
+
+  /** Open multiplexed connections; also guards every connection's set of subscriptions. */
+  private final Map<Endpoint, Connection> connections = new HashMap<>();
 
   public GraphqlSubscriptionClient(
       Client delegate, GraphqlContract contract, JsonEncoder encoder, JsonDecoder decoder) {
@@ -84,11 +118,45 @@ public class GraphqlSubscriptionClient implements Client {
       JsonEncoder encoder,
       JsonDecoder decoder,
       HttpClient httpClient) {
+    this(delegate, contract, encoder, decoder, httpClient, false);
+  }
+
+  /**
+   * @param multiplex whether subscriptions to the same endpoint share one connection, see the class
+   *     documentation.
+   */
+  public GraphqlSubscriptionClient(
+      Client delegate,
+      GraphqlContract contract,
+      JsonEncoder encoder,
+      JsonDecoder decoder,
+      HttpClient httpClient,
+      boolean multiplex) {
+    this(delegate, contract, encoder, decoder, httpClient, multiplex, DEFAULT_EVENT_CAPACITY);
+  }
+
+  /**
+   * @param multiplex whether subscriptions to the same endpoint share one connection, see the class
+   *     documentation.
+   * @param eventCapacity how many events a subscription buffers before it fails, see the class
+   *     documentation.
+   */
+  public GraphqlSubscriptionClient(
+      Client delegate,
+      GraphqlContract contract,
+      JsonEncoder encoder,
+      JsonDecoder decoder,
+      HttpClient httpClient,
+      boolean multiplex,
+      int eventCapacity) {
+    checkArgument(eventCapacity > 0, "eventCapacity must be positive");
     this.delegate = delegate;
     this.contract = contract;
     this.jsonEncoder = encoder;
     this.jsonDecoder = decoder;
     this.httpClient = httpClient;
+    this.multiplex = multiplex;
+    this.eventCapacity = eventCapacity;
   }
 
   @Override
@@ -106,24 +174,23 @@ public class GraphqlSubscriptionClient implements Client {
   private Response subscribe(
       Request request, Request.Options options, GraphqlContract.QueryMetadata meta)
       throws IOException {
-    var subscription = new Subscription(request, meta, jsonEncoder, jsonDecoder);
-
-    var builder = httpClient.newWebSocketBuilder().subprotocols("graphql-transport-ws");
-    if (options != null && options.connectTimeoutMillis() > 0) {
-      builder.connectTimeout(Duration.ofMillis(options.connectTimeoutMillis()));
-    }
-    request
-        .headers()
-        .forEach(
-            (name, values) -> {
-              if (isForwardable(name)) {
-                values.forEach(value -> builder.header(name, value));
-              }
-            });
+    var subscription = new Subscription(request, meta, jsonDecoder, eventCapacity);
+    var endpoint = Endpoint.of(request);
+
+    Connection connection;
+    synchronized (connections) {
+      connection =
+          multiplex
+              ? connections.computeIfAbsent(endpoint, key -> new Connection(key, request, true))
+              : new Connection(endpoint, request, false);
+      connection.register(subscription);
+    }
 
     try {
-      subscription.attach(builder.buildAsync(webSocketUri(request.url()), subscription).join());
+      connection.connect(options).join();
+      connection.start(subscription);
     } catch (CompletionException e) {
+      connection.release(subscription, false);
       var cause = e.getCause() == null ? e : e.getCause();
       throw new IOException("failed to open GraphQL subscription to " + request.url(), cause);
     }
@@ -156,6 +223,26 @@ public class GraphqlSubscriptionClient implements Client {
     return URI.create(scheme + url.substring(url.indexOf(':')));
   }
 
+  /**
+   * What a connection is shared by: the WebSocket URI and the headers its handshake forwards, so
+   * subscriptions authenticated differently never share one.
+   */
+  record Endpoint(URI uri, Map<String, List<String>> headers) {
+
+    static Endpoint of(Request request) {
+      var headers = new TreeMap<String, List<String>>();
+      request
+          .headers()
+          .forEach(
+              (name, values) -> {
+                if (isForwardable(name)) {
+                  headers.put(name.toLowerCase(Locale.ROOT), List.copyOf(values));
+                }
+              });
+      return new Endpoint(webSocketUri(request.url()), headers);
+    }
+  }
+
   /**
    * The messages this client sends, one record per <em>wire shape</em> rather than per type: the
    * configured {@link JsonEncoder} writes every component, so a shape carrying a component the
@@ -192,94 +279,165 @@ public class GraphqlSubscriptionClient implements Client {
   }
 
   /**
-   * A live subscription: the WebSocket listener, the queue of decoded {@code next} payloads and the
-   * {@link Response.Body} handed to {@link GraphqlDecoder} all in one, because they share a
-   * lifecycle.
+   * A WebSocket connection and its graphql-transport-ws handshake, routing server messages to the
+   * subscriptions running on it by operation id. Closed once its last subscription is released.
    */
-  static final class Subscription implements WebSocket.Listener, Response.Body {
+  final class Connection implements WebSocket.Listener {
 
-    private static final Object DONE = new Object();
+    private final Endpoint endpoint;
 
-    /**
-     * Unique per connection, so a stray message for another operation is never mistaken for ours.
-     */
-    private final String operationId = UUID.randomUUID().toString();
+    /** The request that opened this connection, which frames are decoded against. */
+    private final Request request;
 
-    /** Bounded: demand-driven reads keep this near empty, the capacity is a safety net. */
-    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>(1024);
+    private final boolean shared;
 
-    private final StringBuilder partial = new StringBuilder();
-    private final Request request;
-    private final GraphqlContract.QueryMetadata meta;
-    private final JsonEncoder jsonEncoder;
-    private final JsonDecoder jsonDecoder;
+    /**
+     * Guarded by {@link #connections}, so a connection being closed is never handed out. The two
+     * locks are never nested.
+     */
+    private final Map<String, Subscription> subscriptions = new LinkedHashMap<>();
 
     /**
-     * The already-encoded request body, decoded back so it can be sent as the subscribe payload.
+     * Set while holding {@link #connections}: no subscription is registered once this is set.
+     * Volatile so a reconnect, or a socket it opened, can see it without taking that lock.
      */
-    private final Operation operation;
+    private volatile boolean closed;
 
-    private final AtomicBoolean detached = new AtomicBoolean();
-    private final AtomicBoolean unsubscribed = new AtomicBoolean();
+    /** The operations subscribed since the last acknowledgement, guarded by this connection. */
+    private final Set<String> started = new HashSet<>();
 
+    private final StringBuilder partial = new StringBuilder();
+
+    private Request.Options options;
+    private CompletableFuture<WebSocket> opening;
     private volatile WebSocket webSocket;
+    private boolean acknowledged;
+    private boolean reconnecting;
+    private int reconnectAttempts;
+    private volatile boolean disconnected;
+
     private CompletableFuture<?> sends = CompletableFuture.completedFuture(null);
 
-    Subscription(
-        Request request,
-        GraphqlContract.QueryMetadata meta,
-        JsonEncoder jsonEncoder,
-        JsonDecoder jsonDecoder)
-        throws IOException {
+    Connection(Endpoint endpoint, Request request, boolean shared) {
+      this.endpoint = endpoint;
       this.request = request;
-      this.meta = meta;
-      this.jsonEncoder = jsonEncoder;
-      this.jsonDecoder = jsonDecoder;
-
-      var charset = request.charset() == null ? UTF_8 : request.charset();
-      this.operation =
-          request.body() == null
-              ? new Operation(meta.query, Map.of())
-              : decode(new String(request.body(), charset), Operation.class);
+      this.shared = shared;
     }
 
-    void attach(WebSocket webSocket) {
-      this.webSocket = webSocket;
+    /** Counts a subscription in, while holding the lock on {@link #connections}. */
+    void register(Subscription subscription) {
+      subscriptions.put(subscription.operationId, subscription);
+      subscription.connection = this;
     }
 
     /**
-     * Hands the subscription lifecycle to the decoder, so feign closing the response body right
-     * after decoding no longer tears it down.
+     * Sends the subscribe message if the connection is acknowledged already; otherwise the
+     * acknowledgement does.
      */
-    void detach() {
-      detached.set(true);
+    synchronized void start(Subscription subscription) {
+      if (acknowledged && started.add(subscription.operationId)) {
+        send(webSocket, subscription.subscribeMessage());
+      }
     }
 
-    Request request() {
-      return request;
+    /** Opens the connection on first use; later calls share the same attempt, unless it failed. */
+    synchronized CompletableFuture<WebSocket> connect(Request.Options options) {
+      if (opening == null) {
+        this.options = options;
+        var attempt = open();
+        opening = attempt;
+        attempt.whenComplete(
+            (ws, error) -> {
+              if (error != null) {
+                synchronized (this) {
+                  if (opening == attempt) {
+                    opening = null;
+                  }
+                }
+              }
+            });
+      }
+      return opening;
+    }
+
+    private CompletableFuture<WebSocket> open() {
+      if (closed) {
+        return CompletableFuture.failedFuture(
+            new IOException("GraphQL subscription connection closed"));
+      }
+      var builder = httpClient.newWebSocketBuilder().subprotocols("graphql-transport-ws");
+      if (options != null && options.connectTimeoutMillis() > 0) {
+        builder.connectTimeout(Duration.ofMillis(options.connectTimeoutMillis()));
+      }
+      endpoint
+          .headers()
+          .forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+      return builder.buildAsync(endpoint.uri(), this);
     }
 
     /**
-     * Blocking stream of raw {@code {data, errors}} payloads, one per {@code next} message.
+     * Removes a subscription, and closes the connection if it was the last one.
      *
-     * @param timeoutMillis how long to wait for each event; {@code 0} waits indefinitely
+     * @param complete whether to tell the server, which it already knows when it ended the
+     *     operation itself.
      */
-    Stream<Map<String, Object>> payloads(long timeoutMillis) {
-      return StreamSupport.stream(
-              Spliterators.spliteratorUnknownSize(
-                  new PayloadIterator(timeoutMillis), Spliterator.ORDERED),
-              false)
-          .onClose(this::unsubscribe);
+    void release(Subscription subscription, boolean complete) {
+      boolean last;
+      synchronized (connections) {
+        if (subscriptions.remove(subscription.operationId) == null) {
+          return;
+        }
+        last = subscriptions.isEmpty();
+        if (last) {
+          closed = true;
+          connections.remove(endpoint, this);
+        }
+      }
+      var ws = webSocket;
+      if (ws == null || disconnected) {
+        return;
+      }
+      synchronized (this) {
+        if (started.remove(subscription.operationId) && complete && acknowledged) {
+          send(ws, new ClientMessage.Complete(subscription.operationId, "complete"));
+        }
+        if (last) {
+          ws.request(1); // let the closing handshake be delivered
+          // whenComplete, not thenRun: the socket must close even if an earlier send failed.
+          sends.whenComplete((ignored, error) -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+        }
+      }
+    }
+
+    /** A dedicated connection reads the next frame only once its consumer took an event. */
+    void consumed() {
+      var ws = webSocket;
+      if (!shared && ws != null) {
+        ws.request(1);
+      }
     }
 
     @Override
     public void onOpen(WebSocket ws) {
-      send(ws, new ClientMessage.Control("connection_init"));
+      if (closed) {
+        // a reconnect that raced the release of the last subscription
+        ws.abort();
+        return;
+      }
+      synchronized (this) {
+        webSocket = ws;
+        reconnecting = false;
+        partial.setLength(0);
+        send(ws, new ClientMessage.Control("connection_init"));
+      }
       ws.request(1);
     }
 
     @Override
     public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+      if (ws != webSocket) {
+        return null;
+      }
       partial.append(data);
       if (!last) {
         ws.request(1);
@@ -287,9 +445,9 @@ public class GraphqlSubscriptionClient implements Client {
       }
       var text = partial.toString();
       partial.setLength(0);
-      // Only control frames pull the next one eagerly. A queued payload waits for the consumer to
-      // take it, which is what bounds the queue.
-      if (!handle(ws, text)) {
+      // On a dedicated connection only control frames pull the next one eagerly. A queued payload
+      // waits for the consumer to take it, which is what bounds the queue.
+      if (!handle(ws, text) || shared) {
         ws.request(1);
       }
       return null;
@@ -297,61 +455,164 @@ public class GraphqlSubscriptionClient implements Client {
 
     @Override
     public void onError(WebSocket ws, Throwable error) {
-      publish(error);
+      if (ws == webSocket) {
+        disconnected(error, true);
+      }
     }
 
     @Override
     public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
-      publish(DONE);
+      if (ws != webSocket) {
+        return null;
+      }
+      if (statusCode >= 4400 && statusCode < 4500) {
+        // the protocol's own refusals, which reconnecting would only repeat
+        disconnected(
+            new IOException(
+                "GraphQL subscription connection refused: " + statusCode + " " + reason),
+            false);
+      } else if (shared) {
+        disconnected(
+            new IOException("GraphQL subscription connection closed: " + statusCode), true);
+      } else {
+        disconnected(null, false);
+      }
       return null;
     }
 
+    /**
+     * @param error the cause, or null when the server simply ended the subscriptions.
+     * @param retryable whether a multiplexed connection should be reopened.
+     */
+    private void disconnected(Throwable error, boolean retryable) {
+      boolean reconnect;
+      synchronized (connections) {
+        reconnect = shared && retryable && !closed && !subscriptions.isEmpty();
+      }
+      if (reconnect) {
+        reconnect(error);
+      } else {
+        close(error);
+      }
+    }
+
+    private void reconnect(Throwable cause) {
+      long delay;
+      synchronized (this) {
+        if (reconnecting) {
+          return;
+        }
+        if (reconnectAttempts >= RECONNECT_ATTEMPTS) {
+          delay = -1;
+        } else {
+          reconnecting = true;
+          acknowledged = false;
+          started.clear();
+          sends = CompletableFuture.completedFuture(null);
+          delay = Math.min(RECONNECT_DELAY_MILLIS << reconnectAttempts, RECONNECT_DELAY_MAX_MILLIS);
+          reconnectAttempts++;
+        }
+      }
+      if (delay < 0) {
+        close(cause);
+        return;
+      }
+      CompletableFuture.runAsync(
+          () ->
+              open()
+                  .whenComplete(
+                      (ws, error) -> {
+                        if (error != null && !closed) {
+                          synchronized (this) {
+                            reconnecting = false;
+                          }
+                          reconnect(error);
+                        }
+                      }),
+          CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    /** Takes the connection out of use and ends its subscriptions. */
+    private void close(Throwable error) {
+      synchronized (connections) {
+        closed = true;
+        connections.remove(endpoint, this);
+      }
+      disconnected = true;
+      endAll(error);
+    }
+
+    /** Ends every subscription still open, with an error or as completed. */
+    private void endAll(Throwable error) {
+      List<Subscription> ended;
+      synchronized (connections) {
+        ended = new ArrayList<>(subscriptions.values());
+        subscriptions.clear();
+      }
+      for (var subscription : ended) {
+        subscription.publish(error == null ? Subscription.DONE : error);
+      }
+    }
+
     /**
      * @return true when this message queued an event, so the next frame waits for the consumer.
      */
     private boolean handle(WebSocket ws, String text) {
       ServerMessage message;
       try {
-        message = decode(text, ServerMessage.class);
+        message = decode(text);
       } catch (IOException | RuntimeException e) {
-        return publish(e);
+        endAll(e);
+        return true;
       }
-      if (message == null || (message.id() != null && !message.id().equals(operationId))) {
+      if (message == null) {
         return false;
       }
 
-      return switch (message.type()) {
+      switch (message.type()) {
         case "connection_ack" -> {
-          send(ws, new ClientMessage.Subscribe(operationId, "subscribe", operation));
-          yield false;
+          synchronized (this) {
+            acknowledged = true;
+            reconnectAttempts = 0;
+          }
+          // subscriptions registered after this snapshot see the acknowledgement when started
+          List<Subscription> registered;
+          synchronized (connections) {
+            registered = new ArrayList<>(subscriptions.values());
+          }
+          registered.forEach(this::start);
+          return false;
         }
-        case "next" -> publish(message.payloadFields());
-        case "error" ->
-            publish(
-                new GraphqlErrorException(
-                    HttpURLConnection.HTTP_OK,
-                    GraphqlContract.extractOperationField(meta.query),
-                    String.valueOf(message.payload()),
-                    request));
-        case "complete" -> publish(DONE);
         case "ping" -> {
           send(ws, new ClientMessage.Control("pong"));
-          yield false;
+          return false;
+        }
+        default -> {
+          Subscription subscription;
+          synchronized (connections) {
+            subscription = message.id() == null ? null : subscriptions.get(message.id());
+          }
+          if (subscription == null) {
+            // a stray message for another operation is never mistaken for ours
+            return false;
+          }
+          return switch (message.type()) {
+            case "next" -> subscription.publish(message.payloadFields());
+            case "error" -> {
+              release(subscription, false);
+              yield subscription.publish(subscription.error(message.payload()));
+            }
+            case "complete" -> {
+              release(subscription, false);
+              yield subscription.publish(Subscription.DONE);
+            }
+            default -> false;
+          };
         }
-        default -> false;
-      };
-    }
-
-    private boolean publish(Object event) {
-      if (!events.offer(event)) {
-        // Unreachable while reads are demand-driven; failing loudly beats growing without bound.
-        events.clear();
-        events.offer(new IllegalStateException("GraphQL subscription event queue overflowed"));
       }
-      return true;
     }
 
-    private <T> T decode(String json, Class<T> type) throws IOException {
+    private ServerMessage decode(String json) throws IOException {
       var envelope =
           Response.builder()
               .status(HttpURLConnection.HTTP_OK)
@@ -359,12 +620,13 @@ public class GraphqlSubscriptionClient implements Client {
               .request(request)
               .body(json, UTF_8)
               .build();
-      return type.cast(jsonDecoder.decode(envelope, type));
+      return (ServerMessage) jsonDecoder.decode(envelope, ServerMessage.class);
     }
 
     /**
-     * Sends are serialized: the JDK rejects a send while another is still in flight. A failure is
-     * surfaced to the consumer and the chain reset, so it cannot silently swallow later sends.
+     * Sends are serialized: the JDK rejects a send while another is still in flight. A failure ends
+     * the subscriptions of a dedicated connection, and the chain is reset so it cannot silently
+     * swallow later sends; a multiplexed connection reconnects instead.
      */
     private synchronized void send(WebSocket ws, ClientMessage message) {
       var json = toJson(message);
@@ -373,8 +635,8 @@ public class GraphqlSubscriptionClient implements Client {
               .thenCompose(ignored -> ws.sendText(json, true))
               .handle(
                   (ignored, error) -> {
-                    if (error != null) {
-                      publish(error);
+                    if (error != null && ws == webSocket) {
+                      disconnected(error, true);
                     }
                     return null;
                   });
@@ -385,21 +647,144 @@ public class GraphqlSubscriptionClient implements Client {
       jsonEncoder.encode(message, message.getClass(), template);
       return new String(template.body(), UTF_8);
     }
+  }
+
+  /**
+   * A live subscription: the queue of decoded {@code next} payloads and the {@link Response.Body}
+   * handed to {@link GraphqlDecoder} in one, because they share a lifecycle.
+   */
+  static final class Subscription implements Response.Body {
+
+    static final Object DONE = new Object();
+
+    /**
+     * Unique per connection, so a stray message for another operation is never mistaken for ours.
+     */
+    final String operationId = UUID.randomUUID().toString();
+
+    /**
+     * Holds up to {@link #capacity} payloads plus the event that ends the subscription.
+     * Demand-driven reads keep a dedicated connection's queue near empty; a multiplexed one relies
+     * on the bound.
+     */
+    private final BlockingQueue<Object> events;
+
+    private final int capacity;
+
+    /** Set once the queue overflowed, after which every later event is dropped. */
+    private boolean overflowed;
+
+    private final Request request;
+    private final GraphqlContract.QueryMetadata meta;
+
+    /**
+     * The already-encoded request body, decoded back so it can be sent as the subscribe payload.
+     */
+    private final Operation operation;
+
+    private final AtomicBoolean detached = new AtomicBoolean();
+    private final AtomicBoolean unsubscribed = new AtomicBoolean();
+
+    /** Set when registered, before the connection is opened. */
+    volatile Connection connection;
+
+    Subscription(
+        Request request, GraphqlContract.QueryMetadata meta, JsonDecoder jsonDecoder, int capacity)
+        throws IOException {
+      this.request = request;
+      this.meta = meta;
+      this.capacity = capacity;
+      this.events = new LinkedBlockingQueue<>(capacity + 1);
+
+      var charset = request.charset() == null ? UTF_8 : request.charset();
+      if (request.body() == null) {
+        this.operation = new Operation(meta.query, Map.of());
+      } else {
+        var envelope =
+            Response.builder()
+                .status(HttpURLConnection.HTTP_OK)
+                .headers(Collections.emptyMap())
+                .request(request)
+                .body(new String(request.body(), charset), UTF_8)
+                .build();
+        this.operation = (Operation) jsonDecoder.decode(envelope, Operation.class);
+      }
+    }
+
+    ClientMessage subscribeMessage() {
+      return new ClientMessage.Subscribe(operationId, "subscribe", operation);
+    }
+
+    GraphqlErrorException error(Object payload) {
+      return new GraphqlErrorException(
+          HttpURLConnection.HTTP_OK,
+          GraphqlContract.extractOperationField(meta.query),
+          String.valueOf(payload),
+          request);
+    }
+
+    /**
+     * Hands the subscription lifecycle to the decoder, so feign closing the response body right
+     * after decoding no longer tears it down.
+     */
+    void detach() {
+      detached.set(true);
+    }
+
+    Request request() {
+      return request;
+    }
+
+    /**
+     * Blocking stream of raw {@code {data, errors}} payloads, one per {@code next} message.
+     *
+     * @param timeoutMillis how long to wait for each event; {@code 0} waits indefinitely
+     */
+    Stream<Map<String, Object>> payloads(long timeoutMillis) {
+      return StreamSupport.stream(
+              Spliterators.spliteratorUnknownSize(
+                  new PayloadIterator(timeoutMillis), Spliterator.ORDERED),
+              false)
+          .onClose(this::unsubscribe);
+    }
+
+    /**
+     * Queues {@code event}. A payload that finds the queue full ends the subscription instead: the
+     * payloads already queued are still delivered, then the overflow error, which takes the slot
+     * kept free for the end of the subscription.
+     *
+     * @return true, as the event is queued.
+     */
+    boolean publish(Object event) {
+      synchronized (this) {
+        if (overflowed) {
+          return true;
+        }
+        var ending = event == DONE || event instanceof Throwable;
+        if (ending || events.size() < capacity) {
+          events.offer(event);
+          return true;
+        }
+        overflowed = true;
+        events.offer(
+            new IllegalStateException(
+                "GraphQL subscription fell more than " + capacity + " events behind"));
+      }
+      var owner = connection;
+      if (owner != null) {
+        owner.release(this, true);
+      }
+      return true;
+    }
 
     void unsubscribe() {
       if (!unsubscribed.compareAndSet(false, true)) {
         return;
       }
-      var ws = webSocket;
       publish(DONE);
-      if (ws == null) {
-        return;
-      }
-      ws.request(1); // let the closing handshake be delivered
-      synchronized (this) {
-        send(ws, new ClientMessage.Complete(operationId, "complete"));
-        // whenComplete, not thenRun: the socket must close even if an earlier send failed.
-        sends.whenComplete((ignored, error) -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+      var owner = connection;
+      if (owner != null) {
+        owner.release(this, true);
       }
     }
 
@@ -426,7 +811,7 @@ public class GraphqlSubscriptionClient implements Client {
     /**
      * Feign closes the response body right after decoding, which for a detached subscription is a
      * no-op — the caller owns it from there. Still attached means the decoder never took ownership
-     * (a {@code void} method, say), so the socket is closed here rather than leaked.
+     * (a {@code void} method, say), so the subscription is ended here rather than leaked.
      */
     @Override
     public void close() {
@@ -480,9 +865,9 @@ public class GraphqlSubscriptionClient implements Client {
                 "no GraphQL subscription event within " + timeoutMillis + "ms");
           }
           if (event != DONE) {
-            var ws = webSocket;
-            if (ws != null) {
-              ws.request(1); // consuming an event is what authorises the next read
+            var owner = connection;
+            if (owner != null) {
+              owner.consumed(); // consuming an event is what authorises the next read
             }
           }
           return event;
@@ -118,4 +118,23 @@ class GraphqlContractTest {
     var query = "query backendPendingDeployments { x }";
     assertThat(GraphqlContract.extractFirstVariable(query)).isNull();
   }
+
+  @Test
+  void detectsSingleRootField() {
+    assertThat(GraphqlContract.hasSingleRootField("{ user(id: \"1\") { id name } }")).isTrue();
+    assertThat(
+            GraphqlContract.hasSingleRootField(
+                "query q($in: Input = {a: \"}\"}) { me: user(in: $in) @include(if: true) { id } }"))
+        .isTrue();
+    assertThat(GraphqlContract.hasSingleRootField("query { # a comment { b c\n user { id } }"))
+        .isTrue();
+
+    assertThat(GraphqlContract.hasSingleRootField("{ user { id } books { id } }")).isFalse();
+    assertThat(GraphqlContract.hasSingleRootField("{ a: user { id } b: user { id } }")).isFalse();
+    assertThat(GraphqlContract.hasSingleRootField("{ ...Fields }")).isFalse();
+    assertThat(
+            GraphqlContract.hasSingleRootField(
+                "fragment F on Query { user { id } } query { ...F }"))
+        .isFalse();
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Feign;
+import feign.Headers;
+import feign.Response;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+import feign.mock.HttpMethod;
+import feign.mock.MockClient;
+import feign.mock.MockTarget;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Queries with a single root field are decoded without building a map of the response first. */
+class GraphqlSinglePassDecoderTest {
+
+  private final ObjectMapper mapper =
+      new ObjectMapper()
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+          .findAndRegisterModules();
+
+  /** Fails the test if the response is decoded into a map, which the two-pass path does. */
+  private final JacksonDecoder decoder =
+      new JacksonDecoder(mapper) {
+        @Override
+        public Object decode(Response response, Type type) throws IOException {
+          assertThat(type).isNotEqualTo(Map.class);
+          return super.decode(response, type);
+        }
+      };
+
+  private final MockClient mockClient = new MockClient();
+
+  public record Book(String id, String title) {}
+
+  public record Page(Book book, List<Book> books) {}
+
+  @Headers("Content-Type: application/json")
+  interface BookApi {
+
+    @GraphqlQuery("{ book(id: \"1\") { id title } }")
+    Book book();
+
+    @GraphqlQuery("{ books { id title } }")
+    List<Book> books();
+
+    @GraphqlQuery("{ books { id title } }")
+    Optional<Book> firstBook();
+
+    @GraphqlQuery("{ book(id: \"1\") { id title } books { id title } }")
+    Page page();
+  }
+
+  private BookApi api() {
+    return Feign.builder()
+        .addCapability(new GraphqlCapability(new JacksonEncoder(mapper), decoder))
+        .client(mockClient)
+        .target(new MockTarget<>(BookApi.class));
+  }
+
+  @Test
+  void bindsTheRootFieldAndSkipsTheRest() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"extensions\":{\"cost\":[1,{\"a\":null}]},"
+            + "\"data\":{\"book\":{\"id\":\"1\",\"title\":\"Dune\",\"extra\":{\"x\":[1,2]}}},"
+            + "\"errors\":[]}");
+
+    assertThat(api().book()).isEqualTo(new Book("1", "Dune"));
+  }
+
+  @Test
+  void bindsLists() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"data\":{\"books\":[{\"id\":\"1\",\"title\":\"Dune\"},{\"id\":\"2\",\"title\":\"Emma\"}]}}");
+
+    assertThat(api().books()).extracting(Book::title).containsExactly("Dune", "Emma");
+  }
+
+  @Test
+  void takesTheFirstElementForASingleValue() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"data\":{\"books\":[{\"id\":\"1\",\"title\":\"Dune\"},{\"id\":\"2\",\"title\":\"Emma\"}]}}");
+
+    assertThat(api().firstBook()).contains(new Book("1", "Dune"));
+  }
+
+  @Test
+  void emptyResultsAreEmpty() {
+    mockClient.ok(HttpMethod.POST, "/", "{\"data\":{\"books\":[]}}");
+    assertThat(api().firstBook()).isEmpty();
+
+    mockClient.ok(HttpMethod.POST, "/", "{\"data\":{\"books\":null}}");
+    assertThat(api().books()).isEmpty();
+
+    mockClient.ok(HttpMethod.POST, "/", "{\"data\":null}");
+    assertThat(api().book()).isNull();
+  }
+
+  @Test
+  void errorsAfterDataAreRaised() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"data\":{\"book\":null},\"errors\":[{\"message\":\"Not found\"}]}");
+
+    assertThatThrownBy(() -> api().book())
+        .isInstanceOf(GraphqlErrorException.class)
+        .hasMessageContaining("book")
+        .hasMessageContaining("Not found");
+  }
+
+  @Test
+  void errorsBeforeDataAreRaised() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"errors\":[{\"message\":\"Not found\"}],\"data\":{\"book\":{\"id\":\"1\"}}}");
+
+    assertThatThrownBy(() -> api().book())
+        .isInstanceOf(GraphqlErrorException.class)
+        .hasMessageContaining("book")
+        .hasMessageContaining("Not found");
+  }
+
+  @Test
+  void multipleRootFieldsStillBindTheWholeData() {
+    mockClient.ok(
+        HttpMethod.POST,
+        "/",
+        "{\"data\":{\"book\":{\"id\":\"1\",\"title\":\"Dune\"},"
+            + "\"books\":[{\"id\":\"2\",\"title\":\"Emma\"}]}}");
+
+    // the single-pass path does not apply, so the map is allowed here
+    var api =
+        Feign.builder()
+            .addCapability(
+                new GraphqlCapability(new JacksonEncoder(mapper), new JacksonDecoder(mapper)))
+            .client(mockClient)
+            .target(new MockTarget<>(BookApi.class));
+
+    var page = api.page();
+    assertThat(page.book()).isEqualTo(new Book("1", "Dune"));
+    assertThat(page.books()).containsExactly(new Book("2", "Emma"));
+  }
+}
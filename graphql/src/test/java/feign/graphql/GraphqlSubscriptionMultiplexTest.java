@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Feign;
+import feign.jackson.JacksonCodec;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GraphqlSubscriptionMultiplexTest {
+
+  private final ObjectMapper mapper =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private MockWebServer server;
+
+  private final AtomicInteger openSockets = new AtomicInteger();
+  private final AtomicInteger closedSockets = new AtomicInteger();
+  private final List<String> subscribed = new CopyOnWriteArrayList<>();
+  private final List<String> completed = new CopyOnWriteArrayList<>();
+
+  /** Events sent for each subscribe; the server sends a complete after them unless negative. */
+  private volatile int eventsEach = 3;
+
+  /** Close code the first socket is dropped with after its first event, or 0 to keep it. */
+  private volatile int dropFirstSocketWith;
+
+  public static class Price {
+    public String symbol;
+    public double price;
+  }
+
+  interface StockApi {
+
+    @GraphqlQuery(
+        "subscription onPrice($symbol: String!) {"
+            + " priceChanged(symbol: $symbol) { symbol price } }")
+    Stream<Price> onPrice(String symbol);
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse().withWebSocketUpgrade(new Server(openSockets.get() == 0));
+          }
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    server.shutdown();
+  }
+
+  private final class Server extends WebSocketListener {
+
+    private final boolean first;
+
+    Server(boolean first) {
+      this.first = first;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+      openSockets.incrementAndGet();
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+      try {
+        var message = mapper.readTree(text);
+        var type = message.get("type").asText();
+        if ("connection_init".equals(type)) {
+          webSocket.send("{\"type\":\"connection_ack\"}");
+          return;
+        }
+        if ("complete".equals(type)) {
+          completed.add(message.get("id").asText());
+          return;
+        }
+        if (!"subscribe".equals(type)) {
+          return;
+        }
+        var id = message.get("id").asText();
+        subscribed.add(id);
+        var symbol = message.get("payload").get("variables").get("symbol").asText();
+        var events = Math.abs(eventsEach);
+        for (var i = 0; i < events; i++) {
+          webSocket.send(next(id, symbol, i));
+          if (first && dropFirstSocketWith != 0) {
+            webSocket.close(dropFirstSocketWith, "dropped");
+            return;
+          }
+        }
+        if (eventsEach >= 0) {
+          webSocket.send("{\"id\":\"" + id + "\",\"type\":\"complete\"}");
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException("bad client message: " + text, e);
+      }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+      webSocket.close(code, reason);
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+      closedSockets.incrementAndGet();
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+      closedSockets.incrementAndGet();
+    }
+  }
+
+  private static String next(String id, String symbol, int price) {
+    return "{\"id\":\""
+        + id
+        + "\",\"type\":\"next\",\"payload\":{\"data\":{\"priceChanged\":{\"symbol\":\""
+        + symbol
+        + "\",\"price\":"
+        + price
+        + "}}}}";
+  }
+
+  private StockApi buildClient() {
+    return Feign.builder()
+        .addCapability(
+            new GraphqlCapability(new JacksonCodec(mapper), Duration.ofSeconds(10))
+                .multiplexSubscriptions(true))
+        .target(StockApi.class, server.url("/graphql").toString());
+  }
+
+  private void awaitClosedSockets(int count) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (closedSockets.get() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(closedSockets.get()).isEqualTo(count);
+  }
+
+  @Test
+  void subscriptionsShareOneConnection() throws Exception {
+    eventsEach = -3; // the feeds stay open until the client ends them
+    var api = buildClient();
+
+    var streams = new ArrayList<Stream<Price>>();
+    var iterators = new ArrayList<Iterator<Price>>();
+    for (var i = 0; i < 10; i++) {
+      var stream = api.onPrice("S" + i);
+      streams.add(stream);
+      iterators.add(stream.iterator());
+    }
+    for (var i = 0; i < 10; i++) {
+      for (var event = 0; event < 3; event++) {
+        var price = iterators.get(i).next();
+        assertThat(price.symbol).isEqualTo("S" + i);
+        assertThat(price.price).isEqualTo(event);
+      }
+    }
+    assertThat(openSockets.get()).isEqualTo(1);
+    assertThat(subscribed).hasSize(10).doesNotHaveDuplicates();
+
+    // the connection outlives every subscription but the last
+    for (var i = 0; i < 9; i++) {
+      streams.get(i).close();
+    }
+    Thread.sleep(100);
+    assertThat(closedSockets.get()).isZero();
+
+    streams.get(9).close();
+    awaitClosedSockets(1);
+    assertThat(completed).containsExactlyInAnyOrderElementsOf(subscribed);
+  }
+
+  @Test
+  void laterSubscriptionsOpenANewConnection() throws Exception {
+    var api = buildClient();
+
+    try (var stream = api.onPrice("ACME")) {
+      assertThat(stream.toList()).hasSize(3);
+    }
+    awaitClosedSockets(1);
+
+    try (var stream = api.onPrice("ACME")) {
+      assertThat(stream.toList()).hasSize(3);
+    }
+    awaitClosedSockets(2);
+    assertThat(openSockets.get()).isEqualTo(2);
+    // the server completed both, so there was nothing to complete
+    assertThat(completed).isEmpty();
+  }
+
+  @Test
+  void droppedConnectionIsReopenedAndResubscribed() throws Exception {
+    dropFirstSocketWith = 1011;
+
+    List<Price> prices;
+    try (var stream = buildClient().onPrice("ACME")) {
+      prices = stream.toList();
+    }
+
+    // the first event came from the dropped connection, the rest after resubscribing
+    assertThat(prices).extracting(price -> price.price).containsExactly(0.0, 0.0, 1.0, 2.0);
+    assertThat(openSockets.get()).isEqualTo(2);
+    assertThat(subscribed).hasSize(2);
+    assertThat(subscribed.get(1)).isEqualTo(subscribed.get(0));
+  }
+
+  @Test
+  void releasingTheLastSubscriptionCancelsAPendingReconnect() throws Exception {
+    dropFirstSocketWith = 1011;
+
+    try (var stream = buildClient().onPrice("ACME")) {
+      assertThat(stream.iterator().next().price).isZero();
+      awaitClosedSockets(1); // the client saw the drop and scheduled a reconnect
+    }
+    Thread.sleep(300); // past the first reconnect delay
+
+    assertThat(openSockets.get()).isEqualTo(1);
+  }
+
+  @Test
+  void slowConsumerGetsTheBufferedEventsBeforeTheOverflow() throws Exception {
+    eventsEach = -20; // more than the subscription buffers, and the feed stays open
+    var api =
+        Feign.builder()
+            .addCapability(
+                new GraphqlCapability(new JacksonCodec(mapper), Duration.ofSeconds(10))
+                    .multiplexSubscriptions(true)
+                    .subscriptionEventCapacity(5))
+            .target(StockApi.class, server.url("/graphql").toString());
+
+    try (var stream = api.onPrice("ACME")) {
+      var iterator = stream.iterator();
+      // overflowing ends the operation on the server before anything was consumed
+      var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (completed.isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(completed).containsExactlyElementsOf(subscribed);
+
+      for (var event = 0; event < 5; event++) {
+        assertThat(iterator.next().price).isEqualTo(event);
+      }
+      assertThatThrownBy(iterator::hasNext)
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("more than 5 events");
+    }
+  }
+
+  @Test
+  void refusedConnectionIsNotReopened() {
+    dropFirstSocketWith = 4403;
+
+    try (var stream = buildClient().onPrice("ACME")) {
+      assertThatThrownBy(stream::toList)
+          .isInstanceOf(UncheckedIOException.class)
+          .hasMessageContaining("4403");
+    }
+    assertThat(openSockets.get()).isEqualTo(1);
+  }
+}
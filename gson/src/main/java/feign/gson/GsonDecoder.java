@@ -20,17 +20,21 @@ import static feign.Util.ensureClosed;
 import com.google.gson.Gson;
 import com.google.gson.JsonIOException;
 import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import feign.Response;
 import feign.Util;
 import feign.codec.Decoder;
-import feign.codec.JsonDecoder;
 import feign.codec.PredicatedDecoder;
+import feign.codec.StreamingJsonDecoder;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collections;
 
-public class GsonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
+public class GsonDecoder implements Decoder, PredicatedDecoder, StreamingJsonDecoder {
 
   private final Gson gson;
 
@@ -63,6 +67,22 @@ public class GsonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
     }
   }
 
+  @Override
+  public StreamingJsonDecoder.Cursor cursor(Response response) throws IOException {
+    if (response.body() == null) return null;
+    Reader reader = response.body().asReader(response.charset());
+    if (!reader.markSupported()) {
+      reader = new BufferedReader(reader, 1);
+    }
+    reader.mark(1);
+    if (reader.read() == -1) {
+      reader.close();
+      return null;
+    }
+    reader.reset();
+    return new ReaderCursor(gson.newJsonReader(reader));
+  }
+
   @Override
   public Object convert(Object object, Type type) {
     return gson.fromJson(gson.toJsonTree(object), type);
@@ -72,4 +92,71 @@ public class GsonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
   public boolean canDecode(Response response, Type type) {
     return Util.isJsonContentType(response);
   }
+
+  private final class ReaderCursor implements StreamingJsonDecoder.Cursor {
+
+    private final JsonReader reader;
+
+    ReaderCursor(JsonReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean beginObject() throws IOException {
+      if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+        return false;
+      }
+      reader.beginObject();
+      return true;
+    }
+
+    @Override
+    public boolean beginArray() throws IOException {
+      if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+        return false;
+      }
+      reader.beginArray();
+      return true;
+    }
+
+    @Override
+    public String nextField() throws IOException {
+      if (reader.hasNext()) {
+        return reader.nextName();
+      }
+      reader.endObject();
+      return null;
+    }
+
+    @Override
+    public boolean hasNextElement() throws IOException {
+      if (reader.hasNext()) {
+        return true;
+      }
+      reader.endArray();
+      return false;
+    }
+
+    @Override
+    public Object read(Type type) throws IOException {
+      try {
+        return gson.fromJson(reader, TypeToken.get(type));
+      } catch (JsonIOException e) {
+        if (e.getCause() != null && e.getCause() instanceof IOException) {
+          throw IOException.class.cast(e.getCause());
+        }
+        throw e;
+      }
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+      reader.skipValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
 }
@@ -16,6 +16,7 @@
 package feign.hc5;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import feign.Feign;
@@ -38,6 +39,12 @@ public class DeflateHttp5ClientTest extends AbstractClientTest {
     return Feign.builder().client(new ApacheHttp5Client());
   }
 
+  // ApacheHttp5Client sends the body as a byte array, so a streaming body is read into memory.
+  @Override
+  public void streamingBody() throws Exception {
+    assertTrue(postStreamingBodies());
+  }
+
   @Test
   public void testWithCompressedBody() throws InterruptedException, IOException {
     final TestInterface testInterface = buildTestInterface(true);
@@ -0,0 +1,524 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hiddenclass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class file of an implementation of a Feign interface, extending {@code
+ * GeneratedClient.Implementation}. It holds the handler of each method in a final field, and each
+ * method boxes its arguments and calls its handler, the way a proxy would but without looking the
+ * handler up. Checked exceptions the method doesn't declare are wrapped in an {@link
+ * java.lang.reflect.UndeclaredThrowableException}, as a proxy does.
+ *
+ * <p>The code has no branches, so the only stack map frames needed are those of the two exception
+ * handlers, which share the locals of the method.
+ */
+final class ClientClassWriter {
+
+  private static final int VERSION = 61; // Java 17, the first to define hidden classes
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+  private static final int ACC_SYNTHETIC = 0x1000;
+
+  private static final int ACONST_NULL = 0x01;
+  private static final int ICONST_0 = 0x03;
+  private static final int BIPUSH = 0x10;
+  private static final int SIPUSH = 0x11;
+  private static final int LDC_W = 0x13;
+  private static final int ALOAD = 0x19;
+  private static final int ALOAD_0 = 0x2a;
+  private static final int ALOAD_1 = 0x2b;
+  private static final int ALOAD_2 = 0x2c;
+  private static final int AALOAD = 0x32;
+  private static final int AASTORE = 0x53;
+  private static final int POP = 0x57;
+  private static final int DUP = 0x59;
+  private static final int DUP_X1 = 0x5a;
+  private static final int SWAP = 0x5f;
+  private static final int ARETURN = 0xb0;
+  private static final int RETURN = 0xb1;
+  private static final int GETFIELD = 0xb4;
+  private static final int PUTFIELD = 0xb5;
+  private static final int INVOKEVIRTUAL = 0xb6;
+  private static final int INVOKESPECIAL = 0xb7;
+  private static final int INVOKESTATIC = 0xb8;
+  private static final int INVOKEINTERFACE = 0xb9;
+  private static final int NEW = 0xbb;
+  private static final int ANEWARRAY = 0xbd;
+  private static final int ATHROW = 0xbf;
+  private static final int CHECKCAST = 0xc0;
+
+  private static final int SAME_LOCALS_1_STACK_ITEM_EXTENDED = 247;
+  private static final int ITEM_OBJECT = 7;
+
+  static final String IMPLEMENTATION = "feign/GeneratedClient$Implementation";
+  static final String HANDLER = "feign/InvocationHandlerFactory$MethodHandler";
+  static final String CONSTRUCTOR_DESCRIPTOR =
+      "(Lfeign/Target;[Lfeign/InvocationHandlerFactory$MethodHandler;)V";
+
+  /** Methods of {@link Object} that the implementation inherits from its superclass. */
+  private static final List<String> OBJECT_METHODS =
+      List.of("equals(Ljava/lang/Object;)Z", "hashCode()I", "toString()Ljava/lang/String;");
+
+  private final ConstantPool pool = new ConstantPool();
+  private final Class<?> type;
+  private final String className;
+  private final List<Method> handled;
+
+  /**
+   * @param type the interface to implement.
+   * @param handled the method of each handler, in the order of the handlers.
+   */
+  ClientClassWriter(Class<?> type, List<Method> handled) {
+    this.type = type;
+    this.className = internalName(type) + "$$Feign";
+    this.handled = handled;
+  }
+
+  /** The internal name of the written class, which is in the package of the interface. */
+  String className() {
+    return className;
+  }
+
+  byte[] write() {
+    Map<String, Integer> handlerIndexes = new HashMap<>();
+    for (int i = handled.size() - 1; i >= 0; i--) {
+      Method method = handled.get(i);
+      handlerIndexes.put(method.getName() + descriptor(method), i);
+    }
+    Map<String, Method> abstractMethods = new LinkedHashMap<>();
+    for (Method method : type.getMethods()) {
+      String signature = method.getName() + descriptor(method);
+      if (Modifier.isAbstract(method.getModifiers()) && !OBJECT_METHODS.contains(signature)) {
+        abstractMethods.putIfAbsent(signature, method);
+      }
+    }
+
+    List<byte[]> methods = new ArrayList<>();
+    methods.add(constructor());
+    for (Map.Entry<String, Method> entry : abstractMethods.entrySet()) {
+      Integer index = handlerIndexes.get(entry.getKey());
+      methods.add(
+          index != null ? dispatch(entry.getValue(), index) : unsupported(entry.getValue()));
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      int thisClass = pool.classRef(className);
+      int superClass = pool.classRef(IMPLEMENTATION);
+      int iface = pool.classRef(internalName(type));
+      List<int[]> fields = new ArrayList<>();
+      for (int i = 0; i < handled.size(); i++) {
+        fields.add(new int[] {pool.utf8(field(i)), pool.utf8("L" + HANDLER + ";")});
+      }
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(VERSION);
+      pool.writeTo(out);
+      out.writeShort(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(1);
+      out.writeShort(iface);
+      out.writeShort(fields.size());
+      for (int[] field : fields) {
+        out.writeShort(ACC_PRIVATE | ACC_FINAL);
+        out.writeShort(field[0]);
+        out.writeShort(field[1]);
+        out.writeShort(0);
+      }
+      out.writeShort(methods.size());
+      for (byte[] method : methods) {
+        out.write(method);
+      }
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Passes the target and handlers to the superclass, and copies each handler to its field. */
+  private byte[] constructor() {
+    Code code = new Code();
+    code.op(ALOAD_0);
+    code.op(ALOAD_1);
+    code.op(ALOAD_2);
+    code.op(INVOKESPECIAL, pool.methodRef(IMPLEMENTATION, "<init>", CONSTRUCTOR_DESCRIPTOR));
+    for (int i = 0; i < handled.size(); i++) {
+      code.op(ALOAD_0);
+      code.op(ALOAD_2);
+      code.push(i);
+      code.op(AALOAD);
+      code.op(PUTFIELD, pool.fieldRef(className, field(i), "L" + HANDLER + ";"));
+    }
+    code.op(RETURN);
+    return method(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, code, 3, 3, null, null);
+  }
+
+  /** Calls the handler with the boxed arguments, or {@code null} without any, as a proxy does. */
+  private byte[] dispatch(Method method, int index) {
+    Code code = new Code();
+    code.op(ALOAD_0);
+    code.op(GETFIELD, pool.fieldRef(className, field(index), "L" + HANDLER + ";"));
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    int locals = 1;
+    if (parameterTypes.length == 0) {
+      code.op(ACONST_NULL);
+    } else {
+      code.push(parameterTypes.length);
+      code.op(ANEWARRAY, pool.classRef("java/lang/Object"));
+      for (int i = 0; i < parameterTypes.length; i++) {
+        Class<?> parameterType = parameterTypes[i];
+        code.op(DUP);
+        code.push(i);
+        if (parameterType.isPrimitive()) {
+          Primitive primitive = Primitive.of(parameterType);
+          code.op(primitive.load, locals);
+          code.op(
+              INVOKESTATIC,
+              pool.methodRef(
+                  primitive.wrapper,
+                  "valueOf",
+                  "(" + primitive.descriptor + ")L" + primitive.wrapper + ";"));
+          locals += primitive.slots;
+        } else {
+          code.op(ALOAD, locals);
+          locals++;
+        }
+        code.op(AASTORE);
+      }
+    }
+    code.op(
+        INVOKEINTERFACE,
+        pool.interfaceMethodRef(HANDLER, "invoke", "([Ljava/lang/Object;)Ljava/lang/Object;"));
+    code.u1(2);
+    code.u1(0);
+
+    Class<?> returnType = method.getReturnType();
+    if (returnType == void.class) {
+      code.op(POP);
+      code.op(RETURN);
+    } else if (returnType.isPrimitive()) {
+      Primitive primitive = Primitive.of(returnType);
+      code.op(CHECKCAST, pool.classRef(primitive.wrapper));
+      code.op(
+          INVOKEVIRTUAL,
+          pool.methodRef(
+              primitive.wrapper, returnType.getName() + "Value", "()" + primitive.descriptor));
+      code.op(primitive.ret);
+    } else {
+      if (returnType != Object.class) {
+        code.op(CHECKCAST, pool.classRef(internalName(returnType)));
+      }
+      code.op(ARETURN);
+    }
+    int end = code.size();
+
+    int rethrow = code.size();
+    code.op(ATHROW);
+    int wrap = code.size();
+    String undeclared = "java/lang/reflect/UndeclaredThrowableException";
+    code.op(NEW, pool.classRef(undeclared));
+    code.op(DUP_X1);
+    code.op(SWAP);
+    code.op(INVOKESPECIAL, pool.methodRef(undeclared, "<init>", "(Ljava/lang/Throwable;)V"));
+    code.op(ATHROW);
+
+    List<int[]> exceptionTable = new ArrayList<>();
+    exceptionTable.add(new int[] {0, end, rethrow, pool.classRef("java/lang/RuntimeException")});
+    exceptionTable.add(new int[] {0, end, rethrow, pool.classRef("java/lang/Error")});
+    for (Class<?> exceptionType : method.getExceptionTypes()) {
+      exceptionTable.add(new int[] {0, end, rethrow, pool.classRef(internalName(exceptionType))});
+    }
+    exceptionTable.add(new int[] {0, end, wrap, 0});
+
+    int throwable = pool.classRef("java/lang/Throwable");
+    Code frames = new Code();
+    frames.u1(SAME_LOCALS_1_STACK_ITEM_EXTENDED);
+    frames.u2(rethrow);
+    frames.u1(ITEM_OBJECT);
+    frames.u2(throwable);
+    frames.u1(SAME_LOCALS_1_STACK_ITEM_EXTENDED);
+    frames.u2(wrap - rethrow - 1);
+    frames.u1(ITEM_OBJECT);
+    frames.u2(throwable);
+
+    return method(
+        ACC_PUBLIC, method.getName(), descriptor(method), code, 6, locals, exceptionTable, frames);
+  }
+
+  /** Throws like a proxy does for methods that Feign doesn't handle. */
+  private byte[] unsupported(Method method) {
+    String exception = "java/lang/UnsupportedOperationException";
+    Code code = new Code();
+    code.op(NEW, pool.classRef(exception));
+    code.op(DUP);
+    code.op(LDC_W, pool.string("Method \"" + method.getName() + "\" should not be called"));
+    code.op(INVOKESPECIAL, pool.methodRef(exception, "<init>", "(Ljava/lang/String;)V"));
+    code.op(ATHROW);
+    int locals = 1;
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      locals += parameterType == long.class || parameterType == double.class ? 2 : 1;
+    }
+    return method(ACC_PUBLIC, method.getName(), descriptor(method), code, 3, locals, null, null);
+  }
+
+  private byte[] method(
+      int access,
+      String name,
+      String descriptor,
+      Code code,
+      int maxStack,
+      int maxLocals,
+      List<int[]> exceptionTable,
+      Code frames) {
+    Code method = new Code();
+    method.u2(access);
+    method.u2(pool.utf8(name));
+    method.u2(pool.utf8(descriptor));
+    method.u2(1);
+    method.u2(pool.utf8("Code"));
+    int exceptions = exceptionTable == null ? 0 : exceptionTable.size();
+    int attributes = frames == null ? 0 : 8 + frames.size();
+    method.u4(12 + code.size() + 8 * exceptions + attributes);
+    method.u2(maxStack);
+    method.u2(maxLocals);
+    method.u4(code.size());
+    method.bytes(code);
+    method.u2(exceptions);
+    for (int i = 0; i < exceptions; i++) {
+      for (int value : exceptionTable.get(i)) {
+        method.u2(value);
+      }
+    }
+    if (frames == null) {
+      method.u2(0);
+    } else {
+      method.u2(1);
+      method.u2(pool.utf8("StackMapTable"));
+      method.u4(2 + frames.size());
+      method.u2(2);
+      method.bytes(frames);
+    }
+    return method.toByteArray();
+  }
+
+  private static String field(int index) {
+    return "handler" + index;
+  }
+
+  static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  static String descriptor(Class<?> type) {
+    if (type.isPrimitive()) {
+      return type == void.class ? "V" : Primitive.of(type).descriptor;
+    }
+    return type.isArray() ? internalName(type) : "L" + internalName(type) + ";";
+  }
+
+  static String descriptor(Method method) {
+    StringBuilder descriptor = new StringBuilder("(");
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      descriptor.append(descriptor(parameterType));
+    }
+    return descriptor.append(')').append(descriptor(method.getReturnType())).toString();
+  }
+
+  /** How the code loads, boxes, unboxes and returns a primitive type. */
+  private enum Primitive {
+    BOOLEAN(boolean.class, "Z", "java/lang/Boolean", 0x15, 0xac, 1),
+    BYTE(byte.class, "B", "java/lang/Byte", 0x15, 0xac, 1),
+    CHAR(char.class, "C", "java/lang/Character", 0x15, 0xac, 1),
+    SHORT(short.class, "S", "java/lang/Short", 0x15, 0xac, 1),
+    INT(int.class, "I", "java/lang/Integer", 0x15, 0xac, 1),
+    LONG(long.class, "J", "java/lang/Long", 0x16, 0xad, 2),
+    FLOAT(float.class, "F", "java/lang/Float", 0x17, 0xae, 1),
+    DOUBLE(double.class, "D", "java/lang/Double", 0x18, 0xaf, 2);
+
+    final Class<?> type;
+    final String descriptor;
+    final String wrapper;
+    final int load;
+    final int ret;
+    final int slots;
+
+    Primitive(Class<?> type, String descriptor, String wrapper, int load, int ret, int slots) {
+      this.type = type;
+      this.descriptor = descriptor;
+      this.wrapper = wrapper;
+      this.load = load;
+      this.ret = ret;
+      this.slots = slots;
+    }
+
+    static Primitive of(Class<?> type) {
+      for (Primitive primitive : values()) {
+        if (primitive.type == type) {
+          return primitive;
+        }
+      }
+      throw new IllegalArgumentException(type.getName());
+    }
+  }
+
+  /** A growing byte array, for code and other attributes. */
+  private static final class Code extends ByteArrayOutputStream {
+
+    void u1(int value) {
+      write(value);
+    }
+
+    void u2(int value) {
+      write(value >>> 8);
+      write(value);
+    }
+
+    void u4(int value) {
+      u2(value >>> 16);
+      u2(value);
+    }
+
+    void bytes(Code code) {
+      write(code.buf, 0, code.count);
+    }
+
+    void op(int opcode) {
+      u1(opcode);
+    }
+
+    /** An instruction with a local variable index operand. */
+    void op(int opcode, int operand) {
+      u1(opcode);
+      if (opcode == ALOAD || (opcode >= 0x15 && opcode <= 0x18)) {
+        u1(operand);
+      } else {
+        u2(operand);
+      }
+    }
+
+    void push(int value) {
+      if (value <= 5) {
+        u1(ICONST_0 + value);
+      } else if (value <= Byte.MAX_VALUE) {
+        u1(BIPUSH);
+        u1(value);
+      } else {
+        u1(SIPUSH);
+        u2(value);
+      }
+    }
+  }
+
+  /** The constant pool, where each constant is added once. */
+  private static final class ConstantPool {
+
+    private static final int UTF8 = 1;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private int count = 1;
+
+    int utf8(String value) {
+      Integer index = indexes.get("U" + value);
+      if (index != null) {
+        return index;
+      }
+      try {
+        out.writeByte(UTF8);
+        out.writeUTF(value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      indexes.put("U" + value, count);
+      return count++;
+    }
+
+    int classRef(String internalName) {
+      return entry(CLASS, utf8(internalName));
+    }
+
+    int string(String value) {
+      return entry(STRING, utf8(value));
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+      return entry(FIELD_REF, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+      return entry(METHOD_REF, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+      return entry(INTERFACE_METHOD_REF, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+      return entry(NAME_AND_TYPE, utf8(name), utf8(descriptor));
+    }
+
+    private int entry(int tag, int... references) {
+      StringBuilder key = new StringBuilder().append(tag);
+      for (int reference : references) {
+        key.append(':').append(reference);
+      }
+      Integer index = indexes.get(key.toString());
+      if (index != null) {
+        return index;
+      }
+      try {
+        out.writeByte(tag);
+        for (int reference : references) {
+          out.writeShort(reference);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      indexes.put(key.toString(), count);
+      return count++;
+    }
+
+    void writeTo(DataOutputStream classFile) throws IOException {
+      classFile.writeShort(count);
+      bytes.writeTo(classFile);
+    }
+  }
+}
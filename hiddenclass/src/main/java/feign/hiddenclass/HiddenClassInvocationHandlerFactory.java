@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hiddenclass;
+
+import feign.DefaultInvocationHandlerFactory;
+import feign.Experimental;
+import feign.InvocationHandlerFactory;
+import feign.MethodMetadata;
+import feign.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements Feign interfaces with a hidden class defined for each interface, instead of a {@link
+ * java.lang.reflect.Proxy}. Each method of the hidden class calls its {@link MethodHandler} through
+ * a final field, without looking it up in a map, so that the JIT can inline the handler into the
+ * caller.
+ *
+ * <pre>
+ * GitHub github = Feign.builder()
+ *     .invocationHandlerFactory(new HiddenClassInvocationHandlerFactory())
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * <p>The hidden class is defined in the package of the interface, which needs to be open to this
+ * module, e.g. on the class path. When it can't be defined, or when a {@link feign.Capability}
+ * decorates this factory, Feign falls back to a proxy.
+ */
+@Experimental
+public final class HiddenClassInvocationHandlerFactory implements InvocationHandlerFactory.Direct {
+
+  private static final MethodType CONSTRUCTOR =
+      MethodType.methodType(void.class, Target.class, MethodHandler[].class);
+
+  /** The constructors of the hidden classes of each interface, by the methods of their handlers. */
+  private static final ClassValue<Map<List<Method>, Optional<MethodHandle>>> CONSTRUCTORS =
+      new ClassValue<>() {
+        @Override
+        protected Map<List<Method>, Optional<MethodHandle>> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final InvocationHandlerFactory fallback = new DefaultInvocationHandlerFactory();
+
+  @Override
+  public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
+    return fallback.create(target, dispatch);
+  }
+
+  @Override
+  public <T> T newInstance(
+      Target<T> target, List<MethodMetadata> metadata, MethodHandler[] handlers) {
+    Class<T> type = target.type();
+    List<Method> methods = new ArrayList<>(metadata.size());
+    for (MethodMetadata md : metadata) {
+      methods.add(md.method());
+    }
+    Optional<MethodHandle> constructor =
+        CONSTRUCTORS.get(type).computeIfAbsent(methods, m -> define(type, m));
+    if (constructor.isEmpty()) {
+      return null;
+    }
+    try {
+      return type.cast(constructor.get().invoke(target, handlers));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Optional<MethodHandle> define(Class<?> type, List<Method> methods) {
+    try {
+      Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+      byte[] bytes = new ClientClassWriter(type, methods).write();
+      Lookup hidden = lookup.defineHiddenClass(bytes, true, Lookup.ClassOption.NESTMATE);
+      return Optional.of(hidden.findConstructor(hidden.lookupClass(), CONSTRUCTOR));
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+      return Optional.empty();
+    }
+  }
+}
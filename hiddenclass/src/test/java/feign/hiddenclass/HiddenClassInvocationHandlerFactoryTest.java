@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.hiddenclass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignIgnore;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.Retryer;
+import feign.Util;
+import feign.batch.BatchingCapability;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class HiddenClassInvocationHandlerFactoryTest {
+
+  static class ServiceException extends Exception {
+    ServiceException(String message) {
+      super(message);
+    }
+  }
+
+  interface Base<T> {
+
+    @RequestLine("GET /base")
+    T base();
+  }
+
+  interface Api extends Base<String> {
+
+    @RequestLine("GET /items/{id}?page={page}&size={size}&ratio={ratio}&all={all}")
+    String item(
+        @Param("id") String id,
+        @Param("page") int page,
+        @Param("size") long size,
+        @Param("ratio") double ratio,
+        @Param("all") boolean all);
+
+    @RequestLine("GET /count")
+    int count();
+
+    @RequestLine("POST /items")
+    void create(String body);
+
+    @RequestLine("GET /error")
+    String declared() throws ServiceException;
+
+    @RequestLine("GET /error")
+    String undeclared();
+
+    @FeignIgnore
+    String ignored();
+
+    default String countTwice() {
+      return count() + "," + count();
+    }
+  }
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  private final Client client =
+      (request, options) -> {
+        String path = request.url().substring("http://localhost".length());
+        requests.add(
+            request.httpMethod()
+                + " "
+                + path
+                + (request.body() != null ? " " + new String(request.body(), Util.UTF_8) : ""));
+        return Response.builder()
+            .status(path.equals("/error") ? 500 : 200)
+            .request(request)
+            .body(path.equals("/count") ? "42" : path, Util.UTF_8)
+            .build();
+      };
+
+  private Feign.Builder builder() {
+    return Feign.builder()
+        .client(client)
+        .retryer(Retryer.NEVER_RETRY)
+        .decoder(
+            (response, type) -> {
+              String body = Util.toString(response.body().asReader(Util.UTF_8));
+              return type == int.class ? Integer.valueOf(body) : body;
+            })
+        .errorDecoder((methodKey, response) -> new ServiceException(methodKey))
+        .invocationHandlerFactory(new HiddenClassInvocationHandlerFactory());
+  }
+
+  private Api api() {
+    return builder().target(Api.class, "http://localhost");
+  }
+
+  @Test
+  void implementsTheInterfaceWithAHiddenClass() {
+    Api api = api();
+
+    assertThat(Proxy.isProxyClass(api.getClass())).isFalse();
+    assertThat(api.getClass().isHidden()).isTrue();
+    assertThat(api.getClass()).isSameAs(api().getClass());
+  }
+
+  @Test
+  void passesArgumentsAndReturnsResults() {
+    Api api = api();
+
+    assertThat(api.item("a", 1, 10_000_000_000L, 0.5, true))
+        .isEqualTo("/items/a?page=1&size=10000000000&ratio=0.5&all=true");
+    assertThat(api.count()).isEqualTo(42);
+    assertThat(api.base()).isEqualTo("/base");
+    api.create("{}");
+    assertThat(api.countTwice()).isEqualTo("42,42");
+
+    assertThat(requests)
+        .containsExactly(
+            "GET /items/a?page=1&size=10000000000&ratio=0.5&all=true",
+            "GET /count",
+            "GET /base",
+            "POST /items {}",
+            "GET /count",
+            "GET /count");
+  }
+
+  @Test
+  void throwsLikeAProxy() {
+    Api api = api();
+
+    assertThatThrownBy(api::declared)
+        .isExactlyInstanceOf(ServiceException.class)
+        .hasMessage("Api#declared()");
+    assertThatThrownBy(api::undeclared)
+        .isInstanceOf(UndeclaredThrowableException.class)
+        .hasCauseExactlyInstanceOf(ServiceException.class);
+    assertThatThrownBy(api::ignored)
+        .isInstanceOf(UnsupportedOperationException.class)
+        .hasMessage("Method \"ignored\" should not be called");
+  }
+
+  @Test
+  void equalsComparesTargets() {
+    Api api = api();
+
+    assertThat(api).isEqualTo(api()).hasSameHashCodeAs(api());
+    assertThat(api).hasToString(builder().target(Api.class, "http://localhost").toString());
+    assertThat(api).isNotEqualTo(builder().target(Api.class, "http://other"));
+  }
+
+  @Test
+  void capabilitiesDecoratingTheFactoryGetAProxy() {
+    Api api =
+        builder()
+            .addCapability(BatchingCapability.builder().build())
+            .target(Api.class, "http://localhost");
+
+    assertThat(Proxy.isProxyClass(api.getClass())).isTrue();
+    assertThat(api.count()).isEqualTo(42);
+  }
+}
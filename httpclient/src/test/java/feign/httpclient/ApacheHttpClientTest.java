@@ -47,6 +47,12 @@ public class ApacheHttpClientTest extends AbstractClientTest {
     return Feign.builder().client(new ApacheHttpClient());
   }
 
+  // ApacheHttpClient sends the body as a byte array, so a streaming body is read into memory.
+  @Override
+  public void streamingBody() throws Exception {
+    assertThat(postStreamingBodies()).isTrue();
+  }
+
   @Test
   void redirectWithoutLocationHeaderKeepsRetryableExceptionWhenPropagationPolicyIsUnwrap() {
     JaxRsTestInterface api =
@@ -15,6 +15,8 @@
  */
 package feign.jackson;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,15 +24,15 @@ import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import feign.Response;
 import feign.Util;
 import feign.codec.Decoder;
-import feign.codec.JsonDecoder;
 import feign.codec.PredicatedDecoder;
+import feign.codec.StreamingJsonDecoder;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collections;
 
-public class JacksonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
+public class JacksonDecoder implements Decoder, PredicatedDecoder, StreamingJsonDecoder {
 
   private final ObjectMapper mapper;
 
@@ -73,6 +75,22 @@ public class JacksonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
     }
   }
 
+  @Override
+  public StreamingJsonDecoder.Cursor cursor(Response response) throws IOException {
+    if (response.body() == null) return null;
+    Reader reader = response.body().asReader(response.charset());
+    if (!reader.markSupported()) {
+      reader = new BufferedReader(reader, 1);
+    }
+    reader.mark(1);
+    if (reader.read() == -1) {
+      reader.close();
+      return null;
+    }
+    reader.reset();
+    return new ParserCursor(mapper.createParser(reader));
+  }
+
   @Override
   public Object convert(Object object, Type type) {
     return mapper.convertValue(object, mapper.constructType(type));
@@ -82,4 +100,84 @@ public class JacksonDecoder implements Decoder, PredicatedDecoder, JsonDecoder {
   public boolean canDecode(Response response, Type type) {
     return Util.isJsonContentType(response);
   }
+
+  private final class ParserCursor implements StreamingJsonDecoder.Cursor {
+
+    private final JsonParser parser;
+
+    /** Whether the parser is on the first token of the next value, which is still unread. */
+    private boolean peeked;
+
+    ParserCursor(JsonParser parser) {
+      this.parser = parser;
+    }
+
+    private JsonToken peek() throws IOException {
+      if (!peeked) {
+        parser.nextToken();
+        peeked = true;
+      }
+      return parser.currentToken();
+    }
+
+    @Override
+    public boolean beginObject() throws IOException {
+      if (peek() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      peeked = false;
+      return true;
+    }
+
+    @Override
+    public boolean beginArray() throws IOException {
+      if (peek() != JsonToken.START_ARRAY) {
+        return false;
+      }
+      peeked = false;
+      return true;
+    }
+
+    @Override
+    public String nextField() throws IOException {
+      JsonToken token = peek();
+      peeked = false;
+      return token == JsonToken.FIELD_NAME ? parser.currentName() : null;
+    }
+
+    @Override
+    public boolean hasNextElement() throws IOException {
+      if (peek() != JsonToken.END_ARRAY) {
+        return true;
+      }
+      peeked = false;
+      return false;
+    }
+
+    @Override
+    public Object read(Type type) throws IOException {
+      peek();
+      peeked = false;
+      try {
+        return mapper.readValue(parser, mapper.constructType(type));
+      } catch (RuntimeJsonMappingException e) {
+        if (e.getCause() != null && e.getCause() instanceof IOException) {
+          throw IOException.class.cast(e.getCause());
+        }
+        throw e;
+      }
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+      peek();
+      peeked = false;
+      parser.skipChildren();
+    }
+
+    @Override
+    public void close() throws IOException {
+      parser.close();
+    }
+  }
 }
@@ -33,6 +33,7 @@ import feign.Request.HttpMethod;
 import feign.RequestTemplate;
 import feign.Response;
 import feign.Util;
+import feign.codec.StreamingJsonDecoder;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -111,6 +112,56 @@ class JacksonCodecTest {
                 + "}");
   }
 
+  @Test
+  void cursorBindsPartsOfTheDocument() throws Exception {
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(
+                Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .body(
+                "{\"skipped\":{\"a\":[1,{\"b\":2}]},\"zones\":"
+                    + zonesJson
+                    + ",\"count\":2,\"next\":null}",
+                UTF_8)
+            .build();
+
+    try (StreamingJsonDecoder.Cursor cursor = new JacksonDecoder().cursor(response)) {
+      assertThat(cursor.beginObject()).isTrue();
+      assertThat(cursor.nextField()).isEqualTo("skipped");
+      cursor.skipValue();
+      assertThat(cursor.nextField()).isEqualTo("zones");
+      assertThat(cursor.beginObject()).isFalse();
+      assertThat(cursor.beginArray()).isTrue();
+      assertThat(cursor.hasNextElement()).isTrue();
+      assertThat(cursor.read(Zone.class)).isEqualTo(new Zone("denominator.io."));
+      assertThat(cursor.hasNextElement()).isTrue();
+      cursor.skipValue();
+      assertThat(cursor.hasNextElement()).isFalse();
+      assertThat(cursor.nextField()).isEqualTo("count");
+      assertThat(cursor.read(Integer.class)).isEqualTo(2);
+      assertThat(cursor.nextField()).isEqualTo("next");
+      assertThat(cursor.read(Zone.class)).isNull();
+      assertThat(cursor.nextField()).isNull();
+    }
+  }
+
+  @Test
+  void cursorOfEmptyBodyIsNull() throws Exception {
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(
+                Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .body(new byte[0])
+            .build();
+    assertThat(new JacksonDecoder().cursor(response)).isNull();
+  }
+
   @Test
   void decodes() throws Exception {
     List<Zone> zones = new LinkedList<>();
@@ -379,4 +379,10 @@ public class Http2ClientTest extends AbstractClientTest {
   public Feign.Builder newBuilder() {
     return Feign.builder().client(new Http2Client());
   }
+
+  // Http2Client sends the body as a byte array, so a streaming body is read into memory first.
+  @Override
+  public void streamingBody() throws Exception {
+    assertThat(postStreamingBodies()).isTrue();
+  }
 }
@@ -21,10 +21,12 @@ import feign.codec.DecodeException;
 import feign.codec.Decoder;
 import feign.codec.PredicatedDecoder;
 import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 import org.xml.sax.InputSource;
@@ -47,21 +49,25 @@ import org.xml.sax.SAXException;
  * </pre>
  *
  * <p>The JAXBContextFactory should be reused across requests as it caches the created JAXB
- * contexts.
+ * contexts. The decoder reuses its XML parsers, keeping as many as the {@link
+ * JAXBContextFactory.Builder#withPoolSize(int) pool size} of the factory.
  */
 public class JAXBDecoder implements Decoder, PredicatedDecoder {
 
   private final JAXBContextFactory jaxbContextFactory;
   private final boolean namespaceAware;
+  private final ObjectPool<SAXParser> parsers;
 
   public JAXBDecoder(JAXBContextFactory jaxbContextFactory) {
     this.jaxbContextFactory = jaxbContextFactory;
     this.namespaceAware = true;
+    this.parsers = new ObjectPool<>(jaxbContextFactory.poolSize());
   }
 
   private JAXBDecoder(Builder builder) {
     this.jaxbContextFactory = builder.jaxbContextFactory;
     this.namespaceAware = builder.namespaceAware;
+    this.parsers = new ObjectPool<>(jaxbContextFactory.poolSize());
   }
 
   @Override
@@ -78,21 +84,20 @@ public class JAXBDecoder implements Decoder, PredicatedDecoder {
     }
 
     try {
-      SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
-      /* Explicitly control sax configuration to prevent XXE attacks */
-      saxParserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-      saxParserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-      saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
-      saxParserFactory.setFeature(
-          "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-      saxParserFactory.setNamespaceAware(namespaceAware);
-
-      return jaxbContextFactory
-          .createUnmarshaller((Class<?>) type)
-          .unmarshal(
+      Class<?> clazz = (Class<?>) type;
+      SAXParser parser = parsers.poll();
+      if (parser == null) {
+        parser = newSAXParser();
+      }
+      Unmarshaller unmarshaller = jaxbContextFactory.acquireUnmarshaller(clazz);
+      Object result =
+          unmarshaller.unmarshal(
               new SAXSource(
-                  saxParserFactory.newSAXParser().getXMLReader(),
-                  new InputSource(response.body().asInputStream())));
+                  parser.getXMLReader(), new InputSource(response.body().asInputStream())));
+      jaxbContextFactory.releaseUnmarshaller(clazz, unmarshaller);
+      parser.reset();
+      parsers.offer(parser);
+      return result;
     } catch (JAXBException | ParserConfigurationException | SAXException e) {
       throw new DecodeException(response.status(), e.toString(), response.request(), e);
     } finally {
@@ -102,6 +107,18 @@ public class JAXBDecoder implements Decoder, PredicatedDecoder {
     }
   }
 
+  private SAXParser newSAXParser() throws ParserConfigurationException, SAXException {
+    SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+    /* Explicitly control sax configuration to prevent XXE attacks */
+    saxParserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+    saxParserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+    saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
+    saxParserFactory.setFeature(
+        "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+    saxParserFactory.setNamespaceAware(namespaceAware);
+    return saxParserFactory.newSAXParser();
+  }
+
   public static class Builder {
     private boolean namespaceAware = true;
     private JAXBContextFactory jaxbContextFactory;
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.jaxb;
+
+import static feign.Util.ensureClosed;
+
+import feign.Experimental;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Decodes an XML document into a closeable {@code Iterator}, unmarshalling one element at a time
+ * with JAXB while reading the response, so that memory stays constant however long the document is.
+ * By default the iterator returns each child element of the document root; {@link
+ * Builder#withElementName(String)} selects the elements by name instead, at any depth.
+ *
+ * <p>The returned iterator closes the {@code Response} when it reaches the end of the document or
+ * fails to parse it. If it is not read till the end, it has to be cast to {@code Closeable} and
+ * {@code Closeable#close} explicitly by the consumer.
+ *
+ * <p>Example: <br>
+ *
+ * <pre>
+ * <code>
+ * Feign.builder()
+ *   .decoder(StreamDecoder.create(new JAXBIteratorDecoder(jaxbFactory)))
+ *   .doNotCloseAfterDecode() // Required to read the iterator after the response is processed
+ *   .target(Catalog.class, "https://api");
+ * interface Catalog {
+ *  {@literal @}RequestLine("GET /items")
+ *   Stream&lt;Item&gt; items();
+ * }</code>
+ * </pre>
+ */
+@Experimental
+public final class JAXBIteratorDecoder implements Decoder {
+
+  private final JAXBContextFactory jaxbContextFactory;
+  private final String elementName;
+  private final XMLInputFactory xmlInputFactory;
+
+  public JAXBIteratorDecoder(JAXBContextFactory jaxbContextFactory) {
+    this(jaxbContextFactory, null, true);
+  }
+
+  private JAXBIteratorDecoder(
+      JAXBContextFactory jaxbContextFactory, String elementName, boolean namespaceAware) {
+    this.jaxbContextFactory = jaxbContextFactory;
+    this.elementName = elementName;
+    this.xmlInputFactory = XMLInputFactory.newInstance();
+    /* Explicitly control StAX configuration to prevent XXE attacks */
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, namespaceAware);
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException {
+    if (response.status() == 404 || response.status() == 204) return Util.emptyValueOf(type);
+    if (response.body() == null) return null;
+    Class<?> elementType = elementType(type);
+    InputStream input = response.body().asInputStream();
+    if (!input.markSupported()) {
+      input = new BufferedInputStream(input);
+    }
+    // Read the first byte to see if we have any data
+    input.mark(1);
+    if (input.read() == -1) {
+      ensureClosed(response);
+      return Collections.emptyIterator();
+    }
+    input.reset();
+    try {
+      XMLStreamReader reader;
+      // The JDK's factory isn't documented as safe for concurrent use
+      synchronized (xmlInputFactory) {
+        reader = xmlInputFactory.createXMLStreamReader(input);
+      }
+      return new JAXBIterator<>(elementType, response, reader);
+    } catch (XMLStreamException e) {
+      ensureClosed(response);
+      throw new DecodeException(response.status(), e.toString(), response.request(), e);
+    }
+  }
+
+  private static Class<?> elementType(Type type) {
+    if (!(type instanceof ParameterizedType)
+        || !Iterator.class.equals(((ParameterizedType) type).getRawType())) {
+      throw new IllegalArgumentException("Not an iterator type " + type);
+    }
+    Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+    while (elementType instanceof ParameterizedType) {
+      elementType = ((ParameterizedType) elementType).getRawType();
+    }
+    if (!(elementType instanceof Class)) {
+      throw new UnsupportedOperationException(
+          "JAXB only supports decoding raw types. Found " + elementType);
+    }
+    return (Class<?>) elementType;
+  }
+
+  final class JAXBIterator<T> implements Iterator<T>, Closeable {
+    private final Class<T> type;
+    private final Response response;
+    private final XMLStreamReader reader;
+    private Unmarshaller unmarshaller;
+    private int depth;
+    private boolean done;
+
+    private T current;
+
+    JAXBIterator(Class<T> type, Response response, XMLStreamReader reader) {
+      this.type = type;
+      this.response = response;
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (current == null && !done) {
+        current = readNext();
+      }
+      return current != null;
+    }
+
+    /** Moves to the next selected element and unmarshals it, or returns null at the end. */
+    private T readNext() {
+      try {
+        int event = reader.getEventType();
+        while (true) {
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            if (elementName == null ? depth == 1 : elementName.equals(reader.getLocalName())) {
+              if (unmarshaller == null) {
+                unmarshaller = jaxbContextFactory.acquireUnmarshaller(type);
+              }
+              // leaves the reader right after the end of the element
+              return unmarshaller.unmarshal(reader, type).getValue();
+            }
+            depth++;
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            depth--;
+          } else if (event == XMLStreamConstants.END_DOCUMENT) {
+            if (unmarshaller != null) {
+              jaxbContextFactory.releaseUnmarshaller(type, unmarshaller);
+            }
+            ensureClosed(this);
+            return null;
+          }
+          event = reader.next();
+        }
+      } catch (XMLStreamException | JAXBException e) {
+        ensureClosed(this);
+        throw new DecodeException(response.status(), e.toString(), response.request(), e);
+      }
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T next = current;
+      current = null;
+      return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+      done = true;
+      try {
+        reader.close();
+      } catch (XMLStreamException ignored) {
+        // the response is closed anyway
+      } finally {
+        ensureClosed(response);
+      }
+    }
+  }
+
+  public static class Builder {
+    private JAXBContextFactory jaxbContextFactory;
+    private String elementName;
+    private boolean namespaceAware = true;
+
+    public Builder withJAXBContextFactory(JAXBContextFactory jaxbContextFactory) {
+      this.jaxbContextFactory = jaxbContextFactory;
+      return this;
+    }
+
+    /**
+     * Decodes the elements with the given local name, wherever they are in the document, instead of
+     * the children of the document root.
+     */
+    public Builder withElementName(String elementName) {
+      this.elementName = elementName;
+      return this;
+    }
+
+    /** Controls whether the underlying XML parser is namespace aware. Default is true. */
+    public Builder withNamespaceAware(boolean namespaceAware) {
+      this.namespaceAware = namespaceAware;
+      return this;
+    }
+
+    public JAXBIteratorDecoder build() {
+      if (jaxbContextFactory == null) {
+        throw new IllegalStateException("JAXBContextFactory must be non-null");
+      }
+      return new JAXBIteratorDecoder(jaxbContextFactory, elementName, namespaceAware);
+    }
+  }
+}
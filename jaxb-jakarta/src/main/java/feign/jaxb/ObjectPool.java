@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.jaxb;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of objects that aren't thread-safe but can be reused by one thread at a time, such
+ * as marshallers and parsers. It never blocks: {@link #poll()} returns {@code null} when the pool
+ * is empty, and {@link #offer(Object)} drops the object when the pool is full. Each thread starts
+ * looking from a slot of its own, so that threads rarely contend for the same slot.
+ */
+final class ObjectPool<T> {
+
+  private final AtomicReferenceArray<T> slots;
+
+  ObjectPool(int size) {
+    this.slots = new AtomicReferenceArray<>(size);
+  }
+
+  /** An object taken out of the pool, or {@code null} if the pool is empty. */
+  T poll() {
+    int size = slots.length();
+    int start = start(size);
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % size;
+      T value = slots.get(index);
+      if (value != null && slots.compareAndSet(index, value, null)) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /** Puts an object back into the pool, unless it is full. */
+  void offer(T value) {
+    int size = slots.length();
+    int start = start(size);
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % size;
+      if (slots.get(index) == null && slots.compareAndSet(index, null, value)) {
+        return;
+      }
+    }
+  }
+
+  private static int start(int size) {
+    return size == 0 ? 0 : (int) (Thread.currentThread().getId() % size);
+  }
+}
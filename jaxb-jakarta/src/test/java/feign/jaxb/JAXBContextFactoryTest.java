@@ -35,6 +35,31 @@ import org.junit.jupiter.api.Test;
 
 class JAXBContextFactoryTest {
 
+  @Test
+  void reusesReleasedMarshallersAndUnmarshallers() throws Exception {
+    JAXBContextFactory factory = new JAXBContextFactory.Builder().withPoolSize(2).build();
+
+    Marshaller marshaller = factory.acquireMarshaller(MockedJAXBObject.class);
+    Marshaller another = factory.acquireMarshaller(MockedJAXBObject.class);
+    assertThat(another).isNotSameAs(marshaller);
+    factory.releaseMarshaller(MockedJAXBObject.class, marshaller);
+    assertThat(factory.acquireMarshaller(MockedJAXBObject.class)).isSameAs(marshaller);
+    assertThat(factory.acquireMarshaller(AnotherMockedJAXBObject.class)).isNotSameAs(marshaller);
+
+    Unmarshaller unmarshaller = factory.acquireUnmarshaller(MockedJAXBObject.class);
+    factory.releaseUnmarshaller(MockedJAXBObject.class, unmarshaller);
+    assertThat(factory.acquireUnmarshaller(MockedJAXBObject.class)).isSameAs(unmarshaller);
+  }
+
+  @Test
+  void poolSizeZeroCreatesEveryMarshaller() throws Exception {
+    JAXBContextFactory factory = new JAXBContextFactory.Builder().withPoolSize(0).build();
+
+    Marshaller marshaller = factory.acquireMarshaller(MockedJAXBObject.class);
+    factory.releaseMarshaller(MockedJAXBObject.class, marshaller);
+    assertThat(factory.acquireMarshaller(MockedJAXBObject.class)).isNotSameAs(marshaller);
+  }
+
   @Test
   void buildsMarshallerWithJAXBEncodingProperty() throws Exception {
     JAXBContextFactory factory =
@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.jaxb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.stream.StreamDecoder;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.junit.jupiter.api.Test;
+
+class JAXBIteratorDecoderTest {
+
+  @XmlRootElement(name = "item")
+  @XmlAccessorType(XmlAccessType.FIELD)
+  static class Item {
+    String name;
+
+    Item() {}
+
+    Item(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Item && Objects.equals(name, ((Item) obj).name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  interface ItemIterator extends Iterator<Item> {}
+
+  private static final Type ITERATOR = ItemIterator.class.getGenericInterfaces()[0];
+
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private Response response(InputStream body) {
+    return Response.builder()
+        .status(200)
+        .request(Request.create(HttpMethod.GET, "/items", Collections.emptyMap(), null, Util.UTF_8))
+        .headers(Collections.emptyMap())
+        .body(
+            new java.io.FilterInputStream(body) {
+              @Override
+              public void close() {
+                closed.set(true);
+              }
+            },
+            null)
+        .build();
+  }
+
+  private Response response(String xml) {
+    return response(new ByteArrayInputStream(xml.getBytes(Util.UTF_8)));
+  }
+
+  private final JAXBIteratorDecoder decoder =
+      new JAXBIteratorDecoder(new JAXBContextFactory.Builder().build());
+
+  @Test
+  void iteratesOverTheChildrenOfTheRoot() throws Exception {
+    Iterator<?> items =
+        (Iterator<?>)
+            decoder.decode(
+                response(
+                    """
+                    <?xml version="1.0"?>
+                    <items>
+                      <item><name>a</name></item>
+                      <item><name>b</name></item>
+                    </items>
+                    """),
+                ITERATOR);
+
+    assertThat(items.next()).isEqualTo(new Item("a"));
+    assertThat(closed).isFalse();
+    assertThat(items.next()).isEqualTo(new Item("b"));
+    assertThat(items.hasNext()).isFalse();
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void iteratesOverElementsByName() throws Exception {
+    JAXBIteratorDecoder decoder =
+        new JAXBIteratorDecoder.Builder()
+            .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+            .withElementName("item")
+            .build();
+
+    Iterator<?> items =
+        (Iterator<?>)
+            decoder.decode(
+                response(
+                    """
+                    <feed><title>t</title>
+                      <page><item><name>a</name></item></page>
+                      <page><item><name>b</name></item><item><name>c</name></item></page>
+                    </feed>
+                    """),
+                ITERATOR);
+
+    List<Object> result = new ArrayList<>();
+    items.forEachRemaining(result::add);
+    assertThat(result).containsExactly(new Item("a"), new Item("b"), new Item("c"));
+  }
+
+  @Test
+  void streamsLongDocuments() throws Exception {
+    int count = 100_000;
+    Enumeration<InputStream> parts =
+        new Enumeration<InputStream>() {
+          int index = -1;
+
+          @Override
+          public boolean hasMoreElements() {
+            return index <= count;
+          }
+
+          @Override
+          public InputStream nextElement() {
+            String part =
+                index == -1
+                    ? "<items>"
+                    : index == count ? "</items>" : "<item><name>" + index + "</name></item>";
+            index++;
+            return new ByteArrayInputStream(part.getBytes(Util.UTF_8));
+          }
+        };
+    StreamDecoder streamDecoder = StreamDecoder.create(decoder);
+    Type streamType = ItemStream.class.getGenericInterfaces()[0];
+
+    try (Stream<?> items =
+        (Stream<?>) streamDecoder.decode(response(new SequenceInputStream(parts)), streamType)) {
+      assertThat(items.skip(count - 1).<Object>map(item -> item).collect(Collectors.toList()))
+          .containsExactly(new Item(String.valueOf(count - 1)));
+    }
+    assertThat(closed).isTrue();
+  }
+
+  interface ItemStream extends Stream<Item> {}
+
+  @Test
+  void closingEarlyClosesTheResponse() throws Exception {
+    Iterator<?> items =
+        (Iterator<?>)
+            decoder.decode(response("<items><item><name>a</name></item><item/></items>"), ITERATOR);
+
+    assertThat(items.next()).isEqualTo(new Item("a"));
+    ((Closeable) items).close();
+    assertThat(closed).isTrue();
+    assertThat(items.hasNext()).isFalse();
+  }
+
+  @Test
+  void emptyResponsesDecodeToEmptyIterators() throws Exception {
+    assertThat((Iterator<?>) decoder.decode(response(""), ITERATOR)).isExhausted();
+    assertThat(closed).isTrue();
+
+    Response notFound =
+        Response.builder()
+            .status(404)
+            .request(
+                Request.create(HttpMethod.GET, "/items", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .build();
+    assertThat((Iterator<?>) decoder.decode(notFound, ITERATOR)).isExhausted();
+  }
+
+  @Test
+  void malformedDocumentsFailWhileIterating() throws Exception {
+    Iterator<?> items =
+        (Iterator<?>)
+            decoder.decode(response("<items><item><name>a</name></item><item>"), ITERATOR);
+
+    assertThat(items.next()).isEqualTo(new Item("a"));
+    assertThatThrownBy(items::hasNext).isInstanceOf(DecodeException.class);
+    assertThat(closed).isTrue();
+  }
+}
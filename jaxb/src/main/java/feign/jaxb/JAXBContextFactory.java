@@ -15,6 +15,9 @@
  */
 package feign.jaxb;
 
+import static feign.Util.checkArgument;
+
+import feign.Experimental;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +30,9 @@ import javax.xml.validation.Schema;
  * Creates and caches JAXB contexts as well as creates Marshallers and Unmarshallers for each
  * context. Since JAXB contexts creation can be an expensive task, JAXB context can be preloaded on
  * factory creation otherwise they will be created and cached dynamically when needed.
+ *
+ * <p>{@link JAXBEncoder} and {@link JAXBDecoder} also reuse the Marshallers and Unmarshallers they
+ * created, keeping up to {@link Builder#withPoolSize(int) a bounded number} of them per class.
  */
 public final class JAXBContextFactory {
 
@@ -38,6 +44,8 @@ public final class JAXBContextFactory {
   private final ValidationEventHandler unmarshallerEventHandler;
   private final Schema marshallerSchema;
   private final Schema unmashallerSchema;
+  private final int poolSize;
+  private final ConcurrentHashMap<Class<?>, Pools> pools = new ConcurrentHashMap<>();
 
   private JAXBContextFactory(
       Map<String, Object> properties,
@@ -45,13 +53,15 @@ public final class JAXBContextFactory {
       ValidationEventHandler marshallerEventHandler,
       ValidationEventHandler unmarshallerEventHandler,
       Schema marshallerSchema,
-      Schema unmashallerSchema) {
+      Schema unmashallerSchema,
+      int poolSize) {
     this.properties = properties;
     this.jaxbContextInstantationMode = jaxbContextInstantationMode;
     this.marshallerEventHandler = marshallerEventHandler;
     this.unmarshallerEventHandler = unmarshallerEventHandler;
     this.marshallerSchema = marshallerSchema;
     this.unmashallerSchema = unmashallerSchema;
+    this.poolSize = poolSize;
   }
 
   /**
@@ -60,7 +70,8 @@ public final class JAXBContextFactory {
   @Deprecated
   private JAXBContextFactory(
       Map<String, Object> properties, JAXBContextInstantationMode jaxbContextInstantationMode) {
-    this(properties, jaxbContextInstantationMode, null, null, null, null);
+    this(
+        properties, jaxbContextInstantationMode, null, null, null, null, Builder.DEFAULT_POOL_SIZE);
   }
 
   /** Creates a new {@link javax.xml.bind.Unmarshaller} that handles the supplied class. */
@@ -85,6 +96,54 @@ public final class JAXBContextFactory {
     return marshaller;
   }
 
+  /**
+   * A Marshaller for the supplied class, reused if one was {@link #releaseMarshaller released}, or
+   * else created. Codecs outside this module use it to share the pool of the factory.
+   */
+  @Experimental
+  public Marshaller acquireMarshaller(Class<?> clazz) throws JAXBException {
+    Marshaller marshaller = pools(clazz).marshallers.poll();
+    return marshaller != null ? marshaller : createMarshaller(clazz);
+  }
+
+  /**
+   * Lets a Marshaller that was used successfully be reused. Properties changed since it was
+   * acquired must be restored first.
+   */
+  @Experimental
+  public void releaseMarshaller(Class<?> clazz, Marshaller marshaller) {
+    pools(clazz).marshallers.offer(marshaller);
+  }
+
+  /**
+   * An Unmarshaller for the supplied class, reused if one was {@link #releaseUnmarshaller
+   * released}, or else created.
+   */
+  @Experimental
+  public Unmarshaller acquireUnmarshaller(Class<?> clazz) throws JAXBException {
+    Unmarshaller unmarshaller = pools(clazz).unmarshallers.poll();
+    return unmarshaller != null ? unmarshaller : createUnmarshaller(clazz);
+  }
+
+  /** Lets an Unmarshaller that was used successfully be reused. */
+  @Experimental
+  public void releaseUnmarshaller(Class<?> clazz, Unmarshaller unmarshaller) {
+    pools(clazz).unmarshallers.offer(unmarshaller);
+  }
+
+  /** How many Marshallers, Unmarshallers or parsers are kept for reuse. */
+  int poolSize() {
+    return poolSize;
+  }
+
+  private Pools pools(Class<?> clazz) {
+    Pools result = pools.get(clazz);
+    if (result == null) {
+      result = pools.computeIfAbsent(clazz, key -> new Pools(poolSize));
+    }
+    return result;
+  }
+
   private void setMarshallerProperties(Marshaller marshaller) throws PropertyException {
     for (Entry<String, Object> en : properties.entrySet()) {
       marshaller.setProperty(en.getKey(), en.getValue());
@@ -126,9 +185,22 @@ public final class JAXBContextFactory {
     }
   }
 
+  /** The Marshallers and Unmarshallers kept for reuse for a class. */
+  private static final class Pools {
+    final ObjectPool<Marshaller> marshallers;
+    final ObjectPool<Unmarshaller> unmarshallers;
+
+    Pools(int size) {
+      this.marshallers = new ObjectPool<>(size);
+      this.unmarshallers = new ObjectPool<>(size);
+    }
+  }
+
   /** Creates instances of {@link feign.jaxb.JAXBContextFactory}. */
   public static class Builder {
 
+    static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
     private final Map<String, Object> properties = new HashMap<>(10);
 
     private JAXBContextInstantationMode jaxbContextInstantationMode =
@@ -142,6 +214,8 @@ public final class JAXBContextFactory {
 
     private Schema unmarshallerSchema;
 
+    private int poolSize = DEFAULT_POOL_SIZE;
+
     /** Sets the jaxb.encoding property of any Marshaller created by this factory. */
     public Builder withMarshallerJAXBEncoding(String value) {
       properties.put(Marshaller.JAXB_ENCODING, value);
@@ -215,6 +289,18 @@ public final class JAXBContextFactory {
       return this;
     }
 
+    /**
+     * Sets how many Marshallers and Unmarshallers are kept for reuse per class, and how many XML
+     * parsers a {@link JAXBDecoder} using this factory keeps. Defaults to the number of available
+     * processors; 0 creates new ones for every request.
+     */
+    @Experimental
+    public Builder withPoolSize(int poolSize) {
+      checkArgument(poolSize >= 0, "poolSize must not be negative: %s", poolSize);
+      this.poolSize = poolSize;
+      return this;
+    }
+
     /**
      * Provide an instantiation mode for JAXB Contexts, can be class or package, default is class if
      * this method is not called.
@@ -244,7 +330,8 @@ public final class JAXBContextFactory {
           marshallerEventHandler,
           unmarshallerEventHandler,
           marshallerSchema,
-          unmarshallerSchema);
+          unmarshallerSchema,
+          poolSize);
     }
 
     /**
@@ -212,6 +212,37 @@ xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">\
     assertThat(decoder.decode(response, MockObject.class)).isEqualTo(mock);
   }
 
+  @Test
+  void decodesXmlReusingParsersAfterFailures() throws Exception {
+    MockObject mock = new MockObject();
+    mock.value = "Test";
+    String mockXml =
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?><mockObject>\
+        <value>Test</value></mockObject>\
+        """;
+
+    JAXBDecoder decoder =
+        new JAXBDecoder(new JAXBContextFactory.Builder().withPoolSize(1).build());
+
+    assertThat(decoder.decode(xmlResponse(mockXml), MockObject.class)).isEqualTo(mock);
+    assertThrows(
+        DecodeException.class,
+        () -> decoder.decode(xmlResponse("<mockObject><value>"), MockObject.class));
+    assertThat(decoder.decode(xmlResponse(mockXml), MockObject.class)).isEqualTo(mock);
+    assertThat(decoder.decode(xmlResponse(mockXml), MockObject.class)).isEqualTo(mock);
+  }
+
+  private static Response xmlResponse(String xml) {
+    return Response.builder()
+        .status(200)
+        .reason("OK")
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+        .headers(Collections.emptyMap())
+        .body(xml, UTF_8)
+        .build();
+  }
+
   @Test
   void decodesXmlUsingFactoryProperty() throws Exception {
     MockObject mock = new MockObject();
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import feign.Experimental;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One server of a {@link LoadBalancer}, with the state its {@link LoadBalancingStrategy} chooses
+ * by: the requests outstanding, and a peak-sensitive exponentially weighted moving average of its
+ * latency. Latency rises to any slower sample at once, and decays towards faster ones over {@code
+ * decayNanos}. All state is updated through atomic operations.
+ */
+@Experimental
+public final class Endpoint {
+
+  /** Far enough in the past for any comparison, without overflowing. */
+  private static final long NEVER = Long.MAX_VALUE / 4;
+
+  private final String url;
+  private final long decayNanos;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final AtomicLong latencyNanos = new AtomicLong();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final AtomicInteger ejections = new AtomicInteger();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private volatile long lastSampleNanos;
+  private volatile long lastFailureNanos;
+  private volatile long ejectedUntilNanos;
+
+  Endpoint(String url, long decayNanos, long nowNanos) {
+    this.url = url;
+    this.decayNanos = decayNanos;
+    this.lastSampleNanos = nowNanos;
+    this.lastFailureNanos = nowNanos - NEVER;
+    this.ejectedUntilNanos = nowNanos;
+  }
+
+  /** The base url of the server, as {@code scheme://host:port}. */
+  public String url() {
+    return url;
+  }
+
+  public int outstanding() {
+    return outstanding.get();
+  }
+
+  /** The moving average of the latency, or zero before the first response. */
+  public long latencyNanos() {
+    return latencyNanos.get();
+  }
+
+  public long requests() {
+    return requests.sum();
+  }
+
+  public long failures() {
+    return failures.sum();
+  }
+
+  /** Whether outlier ejection currently takes the server out of rotation. */
+  public boolean isEjected(long nowNanos) {
+    return ejectedUntilNanos - nowNanos > 0;
+  }
+
+  /** The load estimate compared by {@link PowerOfTwoChoices}: latency times requests in flight. */
+  double score() {
+    return (latencyNanos.get() + 1) * (double) (outstanding.get() + 1);
+  }
+
+  boolean failedSince(long nanos) {
+    return lastFailureNanos - nanos > 0;
+  }
+
+  void start() {
+    outstanding.incrementAndGet();
+    requests.increment();
+  }
+
+  void succeeded(long nowNanos, long rttNanos) {
+    outstanding.decrementAndGet();
+    consecutiveFailures.set(0);
+    ejections.set(0);
+    sample(nowNanos, rttNanos);
+  }
+
+  /** Ends a request that was cancelled, which tells nothing about the server. */
+  void cancelled() {
+    outstanding.decrementAndGet();
+  }
+
+  /**
+   * @return the consecutive failures, this one included.
+   */
+  int failed(long nowNanos, long rttNanos) {
+    outstanding.decrementAndGet();
+    failures.increment();
+    lastFailureNanos = nowNanos;
+    sample(nowNanos, rttNanos);
+    return consecutiveFailures.incrementAndGet();
+  }
+
+  /**
+   * Ejects the server for {@code baseNanos} times the ejections in a row, up to {@code maxNanos}.
+   */
+  void eject(long nowNanos, long baseNanos, long maxNanos) {
+    int times = ejections.incrementAndGet();
+    ejectedUntilNanos = nowNanos + Math.min(maxNanos, baseNanos * times);
+    consecutiveFailures.set(0);
+  }
+
+  private void sample(long nowNanos, long rttNanos) {
+    long elapsed = Math.max(0, nowNanos - lastSampleNanos);
+    lastSampleNanos = nowNanos;
+    double weight = Math.exp(-(double) elapsed / decayNanos);
+    long current;
+    long next;
+    do {
+      current = latencyNanos.get();
+      next =
+          current == 0 || rttNanos > current
+              ? rttNanos
+              : (long) (current * weight + rttNanos * (1 - weight));
+    } while (!latencyNanos.compareAndSet(current, next));
+  }
+
+  @Override
+  public String toString() {
+    return "Endpoint{url="
+        + url
+        + ", outstanding="
+        + outstanding()
+        + ", latencyNanos="
+        + latencyNanos()
+        + '}';
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import feign.Experimental;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends the request to the server with the fewest requests in flight, the lowest latency average
+ * among those. The scan starts at a random server, so that idle servers share the load.
+ */
+@Experimental
+public final class LeastOutstandingRequests implements LoadBalancingStrategy {
+
+  @Override
+  public Endpoint choose(List<Endpoint> endpoints) {
+    int size = endpoints.size();
+    int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+    Endpoint best = null;
+    int bestOutstanding = Integer.MAX_VALUE;
+    long bestLatency = Long.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      Endpoint endpoint = endpoints.get((start + i) % size);
+      int outstanding = endpoint.outstanding();
+      long latency = endpoint.latencyNanos();
+      if (outstanding < bestOutstanding
+          || (outstanding == bestOutstanding && latency < bestLatency)) {
+        best = endpoint;
+        bestOutstanding = outstanding;
+        bestLatency = latency;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public String toString() {
+    return "LeastOutstandingRequests";
+  }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+import static feign.Util.checkState;
+
+import feign.Experimental;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Chooses a server for each request to a logical name, from a {@link ServerList}, through a {@link
+ * LoadBalancingStrategy}, {@link PowerOfTwoChoices} by default.
+ *
+ * <p>Servers that fail are taken out of rotation. After a failure, a server is avoided for {@code
+ * failureBackoff} while others are available, so that the {@link feign.Retryer} retries on another
+ * one. After {@code consecutiveFailures} in a row, it is ejected for {@code baseEjectionTime} times
+ * the ejections in a row, up to {@code maxEjectionTime}, as long as no more than {@code
+ * maxEjectionPercent} of the servers are ejected. Errors sending the request and {@code 5xx}
+ * responses are failures.
+ *
+ * <p>The state of the servers is updated through atomic operations, without locks, and kept across
+ * refreshes of the server list. A stale list is refreshed in the background, on the {@link
+ * Builder#refreshExecutor(Executor) refresh executor}, while requests keep using the previous one.
+ */
+@Experimental
+public final class LoadBalancer {
+
+  private final String name;
+  private final ServerList serverList;
+  private final LoadBalancingStrategy strategy;
+  private final int consecutiveFailures;
+  private final long failureBackoffNanos;
+  private final long baseEjectionNanos;
+  private final long maxEjectionNanos;
+  private final int maxEjectionPercent;
+  private final long decayNanos;
+  private final LongSupplier ticker;
+  private final Executor refreshExecutor;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Servers servers;
+
+  private LoadBalancer(String name, Builder builder) {
+    this.name = name;
+    this.serverList = builder.serverList;
+    this.strategy = builder.strategy;
+    this.consecutiveFailures = builder.consecutiveFailures;
+    this.failureBackoffNanos = builder.failureBackoffNanos;
+    this.baseEjectionNanos = builder.baseEjectionNanos;
+    this.maxEjectionNanos = builder.maxEjectionNanos;
+    this.maxEjectionPercent = builder.maxEjectionPercent;
+    this.decayNanos = builder.decayNanos;
+    this.ticker = builder.ticker;
+    this.refreshExecutor =
+        builder.refreshExecutor != null ? builder.refreshExecutor : DefaultRefreshExecutor.INSTANCE;
+    long now = ticker.getAsLong();
+    List<Endpoint> endpoints = endpoints(serverList.servers(), Collections.emptyMap(), now);
+    checkState(!endpoints.isEmpty(), "no servers for %s", name);
+    this.servers = new Servers(endpoints, now);
+  }
+
+  /**
+   * @param name the host name that stands for the servers in urls, as in {@code http://name/path}
+   */
+  public static Builder builder(String name) {
+    return new Builder(name);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /** The servers currently listed. */
+  public List<Endpoint> endpoints() {
+    return servers.endpoints;
+  }
+
+  /**
+   * Chooses the server for a request. Its outcome must be passed to {@link #completed(Endpoint,
+   * long, boolean)}, or {@link #cancelled(Endpoint)} if it was cancelled.
+   */
+  public Endpoint choose() {
+    long now = ticker.getAsLong();
+    Servers current = refreshIfStale(now);
+    Endpoint endpoint = strategy.choose(available(current.endpoints, now));
+    endpoint.start();
+    return endpoint;
+  }
+
+  /**
+   * Records the outcome of a request sent to {@code endpoint}.
+   *
+   * @param startNanos {@link System#nanoTime()} when the request was sent
+   * @param failed whether sending failed, or the server answered with a {@code 5xx} status
+   */
+  public void completed(Endpoint endpoint, long startNanos, boolean failed) {
+    long now = ticker.getAsLong();
+    long rtt = now - startNanos;
+    if (!failed) {
+      endpoint.succeeded(now, rtt);
+    } else if (endpoint.failed(now, rtt) >= consecutiveFailures && mayEject(now)) {
+      endpoint.eject(now, baseEjectionNanos, maxEjectionNanos);
+    }
+  }
+
+  /**
+   * Records that the request sent to {@code endpoint} was cancelled, which counts neither as a
+   * success nor as a failure.
+   */
+  public void cancelled(Endpoint endpoint) {
+    endpoint.cancelled();
+  }
+
+  long nanoTime() {
+    return ticker.getAsLong();
+  }
+
+  /**
+   * The servers neither ejected nor recently failed, or failing that, not ejected, or failing that,
+   * all of them. Usually that is the whole list, which is returned without copying.
+   */
+  private List<Endpoint> available(List<Endpoint> endpoints, long now) {
+    long failedSince = now - failureBackoffNanos;
+    int healthy = 0;
+    for (Endpoint endpoint : endpoints) {
+      if (!endpoint.isEjected(now) && !endpoint.failedSince(failedSince)) {
+        healthy++;
+      }
+    }
+    if (healthy == endpoints.size()) {
+      return endpoints;
+    }
+    List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+    if (healthy > 0) {
+      for (Endpoint endpoint : endpoints) {
+        if (!endpoint.isEjected(now) && !endpoint.failedSince(failedSince)) {
+          candidates.add(endpoint);
+        }
+      }
+      return candidates;
+    }
+    for (Endpoint endpoint : endpoints) {
+      if (!endpoint.isEjected(now)) {
+        candidates.add(endpoint);
+      }
+    }
+    return candidates.isEmpty() ? endpoints : candidates;
+  }
+
+  private boolean mayEject(long now) {
+    List<Endpoint> endpoints = servers.endpoints;
+    int ejected = 0;
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.isEjected(now)) {
+        ejected++;
+      }
+    }
+    return (ejected + 1) * 100 <= maxEjectionPercent * endpoints.size();
+  }
+
+  /**
+   * Starts a refresh when the list is stale, and returns the current list without waiting for it:
+   * the server list may be slow, a service registry for example.
+   */
+  private Servers refreshIfStale(long now) {
+    Servers current = servers;
+    if (now - current.listedAtNanos < serverList.refreshNanos()
+        || !refreshing.compareAndSet(false, true)) {
+      return current;
+    }
+    try {
+      refreshExecutor.execute(this::refresh);
+    } catch (RejectedExecutionException e) {
+      // try again after another period
+      servers = new Servers(current.endpoints, now);
+      refreshing.set(false);
+    }
+    return current;
+  }
+
+  private void refresh() {
+    Servers current = servers;
+    try {
+      Map<String, Endpoint> existing = new HashMap<>();
+      for (Endpoint endpoint : current.endpoints) {
+        existing.put(endpoint.url(), endpoint);
+      }
+      List<String> urls = serverList.servers();
+      long now = ticker.getAsLong();
+      List<Endpoint> endpoints = endpoints(urls, existing, now);
+      servers = new Servers(endpoints.isEmpty() ? current.endpoints : endpoints, now);
+    } catch (RuntimeException e) {
+      servers = new Servers(current.endpoints, ticker.getAsLong());
+    } finally {
+      refreshing.set(false);
+    }
+  }
+
+  private List<Endpoint> endpoints(List<String> urls, Map<String, Endpoint> existing, long now) {
+    List<Endpoint> endpoints = new ArrayList<>(urls != null ? urls.size() : 0);
+    if (urls != null) {
+      for (String url : urls) {
+        String base = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        Endpoint endpoint = existing.get(base);
+        endpoints.add(endpoint != null ? endpoint : new Endpoint(base, decayNanos, now));
+      }
+    }
+    return Collections.unmodifiableList(endpoints);
+  }
+
+  @Override
+  public String toString() {
+    return "LoadBalancer{name="
+        + name
+        + ", strategy="
+        + strategy
+        + ", endpoints="
+        + endpoints()
+        + '}';
+  }
+
+  private static final class Servers {
+
+    final List<Endpoint> endpoints;
+    final long listedAtNanos;
+
+    Servers(List<Endpoint> endpoints, long listedAtNanos) {
+      this.endpoints = endpoints;
+      this.listedAtNanos = listedAtNanos;
+    }
+  }
+
+  /** Daemon threads refreshing the server lists of all load balancers, stopped when idle. */
+  private static final class DefaultRefreshExecutor {
+
+    static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(
+            r -> {
+              final Thread result = new Thread(r, "feign-loadbalancer-refresh");
+              result.setDaemon(true);
+              return result;
+            });
+  }
+
+  public static final class Builder {
+
+    private final String name;
+    private ServerList serverList;
+    private LoadBalancingStrategy strategy = new PowerOfTwoChoices();
+    private int consecutiveFailures = 5;
+    private long failureBackoffNanos = TimeUnit.SECONDS.toNanos(1);
+    private long baseEjectionNanos = TimeUnit.SECONDS.toNanos(30);
+    private long maxEjectionNanos = TimeUnit.MINUTES.toNanos(5);
+    private int maxEjectionPercent = 50;
+    private long decayNanos = TimeUnit.SECONDS.toNanos(10);
+    private LongSupplier ticker = System::nanoTime;
+    private Executor refreshExecutor;
+
+    private Builder(String name) {
+      this.name = checkNotNull(name, "name");
+    }
+
+    /** Balances between a fixed list of base urls, such as {@code http://10.0.0.1:8080}. */
+    public Builder servers(String... servers) {
+      return serverList(ServerList.of(servers));
+    }
+
+    public Builder serverList(ServerList serverList) {
+      this.serverList = checkNotNull(serverList, "serverList");
+      return this;
+    }
+
+    /** Defaults to {@link PowerOfTwoChoices}. */
+    public Builder strategy(LoadBalancingStrategy strategy) {
+      this.strategy = checkNotNull(strategy, "strategy");
+      return this;
+    }
+
+    /** Failures in a row that eject a server. Defaults to {@code 5}. */
+    public Builder consecutiveFailures(int consecutiveFailures) {
+      checkArgument(
+          consecutiveFailures >= 1,
+          "consecutiveFailures must be at least 1: %s",
+          consecutiveFailures);
+      this.consecutiveFailures = consecutiveFailures;
+      return this;
+    }
+
+    /** How long a failed server is avoided while others are available. Defaults to 1 second. */
+    public Builder failureBackoff(long duration, TimeUnit unit) {
+      checkArgument(duration >= 0, "failureBackoff must not be negative: %s", duration);
+      this.failureBackoffNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    /**
+     * How long a server is ejected the first time, and at most. Default to 30 seconds and 5
+     * minutes.
+     */
+    public Builder ejectionTime(long base, long max, TimeUnit unit) {
+      checkArgument(base >= 0 && max >= base, "ejection times must be 0 <= base <= max");
+      this.baseEjectionNanos = unit.toNanos(base);
+      this.maxEjectionNanos = unit.toNanos(max);
+      return this;
+    }
+
+    /** Share of the servers that may be ejected at once. Defaults to {@code 50}. */
+    public Builder maxEjectionPercent(int maxEjectionPercent) {
+      checkArgument(
+          maxEjectionPercent >= 0 && maxEjectionPercent <= 100,
+          "maxEjectionPercent must be between 0 and 100: %s",
+          maxEjectionPercent);
+      this.maxEjectionPercent = maxEjectionPercent;
+      return this;
+    }
+
+    /** How quickly the latency average forgets a slow response. Defaults to 10 seconds. */
+    public Builder latencyDecay(long duration, TimeUnit unit) {
+      checkArgument(duration > 0, "latencyDecay must be positive: %s", duration);
+      this.decayNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    /**
+     * Runs the refreshes of a {@link ServerList#refreshing(java.util.function.Supplier, long,
+     * TimeUnit) refreshing} server list, so that no request waits for it. The caller owns its
+     * lifecycle. Defaults to daemon threads shared by all load balancers, which stop when idle.
+     */
+    public Builder refreshExecutor(Executor refreshExecutor) {
+      this.refreshExecutor = checkNotNull(refreshExecutor, "refreshExecutor");
+      return this;
+    }
+
+    Builder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    public LoadBalancer build() {
+      checkState(serverList != null, "servers or serverList is required");
+      return new LoadBalancer(name, this);
+    }
+  }
+}
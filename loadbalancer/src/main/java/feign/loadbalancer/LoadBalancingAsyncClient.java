@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static feign.Util.checkNotNull;
+
+import feign.AsyncClient;
+import feign.Experimental;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Like {@link LoadBalancingClient}, for {@link feign.AsyncFeign}: sends requests to {@code
+ * http://name/...} to one of the servers of the {@link LoadBalancer} named {@code name}. Cancelling
+ * the returned future cancels the request sent to the server.
+ *
+ * <p>As with {@link LoadBalancingClient}, a {@code 5xx} response is only retried on another server
+ * if the {@link feign.codec.ErrorDecoder} turns it into a {@link feign.RetryableException}, like
+ * {@link RetryableServerErrorDecoder} does.
+ */
+@Experimental
+public class LoadBalancingAsyncClient<C> implements AsyncClient<C> {
+
+  private final AsyncClient<C> delegate;
+  private final LoadBalancer loadBalancer;
+
+  public LoadBalancingAsyncClient(AsyncClient<C> delegate, LoadBalancer loadBalancer) {
+    this.delegate = checkNotNull(delegate, "delegate");
+    this.loadBalancer = checkNotNull(loadBalancer, "loadBalancer");
+  }
+
+  public LoadBalancer loadBalancer() {
+    return loadBalancer;
+  }
+
+  @Override
+  public CompletableFuture<Response> execute(
+      Request request, Options options, Optional<C> requestContext) {
+    String path = Routes.pathAfterName(request.url(), loadBalancer.name());
+    if (path == null) {
+      return delegate.execute(request, options, requestContext);
+    }
+    Endpoint endpoint = loadBalancer.choose();
+    long start = loadBalancer.nanoTime();
+    CompletableFuture<Response> result;
+    try {
+      result = delegate.execute(Routes.route(request, endpoint, path), options, requestContext);
+    } catch (RuntimeException e) {
+      loadBalancer.completed(endpoint, start, true);
+      throw e;
+    }
+    InFlight inFlight = new InFlight(result);
+    result.whenComplete(
+        (response, throwable) -> {
+          if (throwable instanceof CancellationException) {
+            loadBalancer.cancelled(endpoint);
+          } else {
+            loadBalancer.completed(
+                endpoint, start, throwable != null || Routes.isFailure(response.status()));
+          }
+          if (throwable != null) {
+            inFlight.completeExceptionally(throwable);
+          } else if (!inFlight.complete(response)) {
+            response.close();
+          }
+        });
+    return inFlight;
+  }
+
+  /** Completed along with the future of the delegate, and cancelling it cancels the request. */
+  private static final class InFlight extends CompletableFuture<Response> {
+
+    private final CompletableFuture<Response> sent;
+
+    InFlight(CompletableFuture<Response> sent) {
+      this.sent = sent;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean result = super.cancel(mayInterruptIfRunning);
+      sent.cancel(mayInterruptIfRunning);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static feign.Util.checkNotNull;
+
+import feign.Client;
+import feign.Experimental;
+import feign.Request;
+import feign.Request.Options;
+import feign.Response;
+import java.io.IOException;
+
+/**
+ * Sends requests to {@code http://name/...}, where {@code name} is the name of a {@link
+ * LoadBalancer}, to one of its servers instead. Requests to other hosts are sent as they are.
+ *
+ * <pre>
+ * LoadBalancer loadBalancer = LoadBalancer.builder("myAppProd")
+ *     .servers("http://10.0.0.1:8080", "http://10.0.0.2:8080")
+ *     .build();
+ * MyService api = Feign.builder()
+ *     .client(new LoadBalancingClient(new DefaultClient(null, null), loadBalancer))
+ *     .target(MyService.class, "http://myAppProd");
+ * </pre>
+ *
+ * <p>A {@code 5xx} response marks its server as failed, but is still returned: it is only retried
+ * on another server if the {@link feign.codec.ErrorDecoder} turns it into a {@link
+ * feign.RetryableException}, like {@link RetryableServerErrorDecoder} does.
+ */
+@Experimental
+public class LoadBalancingClient implements Client {
+
+  private final Client delegate;
+  private final LoadBalancer loadBalancer;
+
+  public LoadBalancingClient(Client delegate, LoadBalancer loadBalancer) {
+    this.delegate = checkNotNull(delegate, "delegate");
+    this.loadBalancer = checkNotNull(loadBalancer, "loadBalancer");
+  }
+
+  public LoadBalancer loadBalancer() {
+    return loadBalancer;
+  }
+
+  @Override
+  public Response execute(Request request, Options options) throws IOException {
+    String path = Routes.pathAfterName(request.url(), loadBalancer.name());
+    if (path == null) {
+      return delegate.execute(request, options);
+    }
+    Endpoint endpoint = loadBalancer.choose();
+    long start = loadBalancer.nanoTime();
+    boolean failed = true;
+    try {
+      Response response = delegate.execute(Routes.route(request, endpoint, path), options);
+      failed = Routes.isFailure(response.status());
+      return response;
+    } finally {
+      loadBalancer.completed(endpoint, start, failed);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import feign.Experimental;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two servers at random and sends the request to the less loaded one, comparing their latency
+ * average times their requests in flight. It avoids slow servers almost as well as looking at every
+ * server, without contending on a shared counter, and without the herding of always picking the
+ * single best one.
+ */
+@Experimental
+public final class PowerOfTwoChoices implements LoadBalancingStrategy {
+
+  @Override
+  public Endpoint choose(List<Endpoint> endpoints) {
+    int size = endpoints.size();
+    if (size == 1) {
+      return endpoints.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+    Endpoint a = endpoints.get(first);
+    Endpoint b = endpoints.get(second);
+    return a.score() <= b.score() ? a : b;
+  }
+
+  @Override
+  public String toString() {
+    return "PowerOfTwoChoices";
+  }
+}
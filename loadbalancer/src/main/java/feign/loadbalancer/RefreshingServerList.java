@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+final class RefreshingServerList implements ServerList {
+
+  private final Supplier<List<String>> supplier;
+  private final long periodNanos;
+
+  RefreshingServerList(Supplier<List<String>> supplier, long periodNanos) {
+    this.supplier = supplier;
+    this.periodNanos = periodNanos;
+  }
+
+  @Override
+  public List<String> servers() {
+    return supplier.get();
+  }
+
+  @Override
+  public long refreshNanos() {
+    return periodNanos;
+  }
+}
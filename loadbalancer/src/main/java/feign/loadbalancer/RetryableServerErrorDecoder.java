@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static feign.Util.checkNotNull;
+
+import feign.Experimental;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.RetryableException;
+import feign.codec.ErrorDecoder;
+
+/**
+ * Turns {@code 5xx} responses to idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS},
+ * {@code PUT}, {@code DELETE} and {@code TRACE}) into a {@link RetryableException}, so that the
+ * {@link feign.Retryer} sends them again, to another server as the failed one is skipped for a
+ * while. Other responses are decoded by the delegate as they are.
+ *
+ * <pre>
+ * MyService api = Feign.builder()
+ *     .client(new LoadBalancingClient(new DefaultClient(null, null), loadBalancer))
+ *     .errorDecoder(new RetryableServerErrorDecoder())
+ *     .target(MyService.class, "http://myAppProd");
+ * </pre>
+ */
+@Experimental
+public class RetryableServerErrorDecoder implements ErrorDecoder {
+
+  private final ErrorDecoder delegate;
+
+  public RetryableServerErrorDecoder() {
+    this(new ErrorDecoder.Default());
+  }
+
+  public RetryableServerErrorDecoder(ErrorDecoder delegate) {
+    this.delegate = checkNotNull(delegate, "delegate");
+  }
+
+  @Override
+  public Exception decode(String methodKey, Response response) {
+    Exception exception = delegate.decode(methodKey, response);
+    Request request = response.request();
+    if (exception instanceof RetryableException
+        || request == null
+        || !Routes.isFailure(response.status())
+        || !isIdempotent(request.httpMethod())) {
+      return exception;
+    }
+    return new RetryableException(
+        response.status(),
+        exception.getMessage(),
+        request.httpMethod(),
+        exception,
+        (Long) null,
+        request,
+        methodKey);
+  }
+
+  private static boolean isIdempotent(HttpMethod method) {
+    switch (method) {
+      case GET:
+      case HEAD:
+      case OPTIONS:
+      case PUT:
+      case DELETE:
+      case TRACE:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import feign.Experimental;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Sends requests to each server in turn, regardless of their load. */
+@Experimental
+public final class RoundRobin implements LoadBalancingStrategy {
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  @Override
+  public Endpoint choose(List<Endpoint> endpoints) {
+    return endpoints.get((next.getAndIncrement() & Integer.MAX_VALUE) % endpoints.size());
+  }
+
+  @Override
+  public String toString() {
+    return "RoundRobin";
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import feign.Request;
+
+/** Rewrites urls to a {@link LoadBalancer}'s logical name into urls to one of its servers. */
+final class Routes {
+
+  private Routes() {}
+
+  /**
+   * @return what follows {@code scheme://name} in {@code url}, or null if its host is not {@code
+   *     name}.
+   */
+  static String pathAfterName(String url, String name) {
+    int hostStart = url.indexOf("://");
+    if (hostStart < 0) {
+      return null;
+    }
+    hostStart += 3;
+    int hostEnd = hostStart + name.length();
+    if (!url.regionMatches(true, hostStart, name, 0, name.length())) {
+      return null;
+    }
+    if (hostEnd < url.length()) {
+      char next = url.charAt(hostEnd);
+      if (next != '/' && next != '?' && next != '#') {
+        return null;
+      }
+    }
+    return url.substring(hostEnd);
+  }
+
+  static Request route(Request request, Endpoint endpoint, String path) {
+    return Request.create(
+        request.httpMethod(),
+        endpoint.url() + path,
+        request.headers(),
+        request.requestBody(),
+        request.requestTemplate());
+  }
+
+  static boolean isFailure(int status) {
+    return status >= 500;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+
+import feign.Experimental;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Lists the base urls of the servers to balance between, as {@code scheme://host:port}. Once the
+ * list is stale, the {@link LoadBalancer} asks for it again on its {@link
+ * LoadBalancer.Builder#refreshExecutor(java.util.concurrent.Executor) refresh executor}, one
+ * refresh at a time, while requests use the previous list.
+ */
+@Experimental
+@FunctionalInterface
+public interface ServerList {
+
+  List<String> servers();
+
+  /** A list that never changes. */
+  static ServerList of(String... servers) {
+    List<String> list = Collections.unmodifiableList(Arrays.asList(servers));
+    checkArgument(!list.isEmpty(), "servers must not be empty");
+    return () -> list;
+  }
+
+  /**
+   * A list taken from {@code supplier}, for example a service registry, at most once per {@code
+   * period}. The previous list is kept while the supplier fails or returns an empty list.
+   */
+  static ServerList refreshing(Supplier<List<String>> supplier, long period, TimeUnit unit) {
+    checkNotNull(supplier, "supplier");
+    checkArgument(period >= 0, "period must not be negative: %s", period);
+    return new RefreshingServerList(supplier, unit.toNanos(period));
+  }
+
+  /**
+   * How long a list stays current, after which the {@link LoadBalancer} asks for it again. {@link
+   * Long#MAX_VALUE} means forever.
+   */
+  default long refreshNanos() {
+    return Long.MAX_VALUE;
+  }
+}
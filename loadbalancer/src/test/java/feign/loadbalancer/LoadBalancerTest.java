@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class LoadBalancerTest {
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+  private LoadBalancer.Builder builder(String... servers) {
+    return LoadBalancer.builder("service").servers(servers).ticker(now::get);
+  }
+
+  private static Endpoint endpoint(LoadBalancer loadBalancer, String url) {
+    return loadBalancer.endpoints().stream().filter(e -> e.url().equals(url)).findFirst().get();
+  }
+
+  private void respond(LoadBalancer loadBalancer, Endpoint endpoint, long millis, boolean failed) {
+    endpoint.start();
+    long start = now.get();
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    loadBalancer.completed(endpoint, start, failed);
+  }
+
+  @Test
+  void powerOfTwoChoicesPrefersTheFasterServer() {
+    LoadBalancer loadBalancer = builder("http://a", "http://b").build();
+    respond(loadBalancer, endpoint(loadBalancer, "http://a"), 500, false);
+    respond(loadBalancer, endpoint(loadBalancer, "http://b"), 5, false);
+
+    for (int i = 0; i < 20; i++) {
+      Endpoint chosen = loadBalancer.choose();
+      assertThat(chosen.url()).isEqualTo("http://b");
+      loadBalancer.completed(chosen, now.get() - TimeUnit.MILLISECONDS.toNanos(5), false);
+    }
+  }
+
+  @Test
+  void leastOutstandingRequestsPrefersTheIdleServer() {
+    LoadBalancer loadBalancer =
+        builder("http://a", "http://b", "http://c")
+            .strategy(new LeastOutstandingRequests())
+            .build();
+
+    List<String> chosen = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      chosen.add(loadBalancer.choose().url());
+    }
+
+    assertThat(chosen).containsExactlyInAnyOrder("http://a", "http://b", "http://c");
+  }
+
+  @Test
+  void failedServerIsAvoidedForTheRetry() {
+    LoadBalancer loadBalancer =
+        builder("http://a", "http://b").strategy(endpoints -> endpoints.get(0)).build();
+    Endpoint a = endpoint(loadBalancer, "http://a");
+
+    respond(loadBalancer, a, 1, true);
+    assertThat(loadBalancer.choose().url()).isEqualTo("http://b");
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThat(loadBalancer.choose().url()).isEqualTo("http://a");
+  }
+
+  @Test
+  void consecutiveFailuresEjectTheServer() {
+    LoadBalancer loadBalancer =
+        builder("http://a", "http://b", "http://c", "http://d")
+            .consecutiveFailures(2)
+            .failureBackoff(0, TimeUnit.SECONDS)
+            .ejectionTime(10, 60, TimeUnit.SECONDS)
+            .build();
+    Endpoint a = endpoint(loadBalancer, "http://a");
+    Endpoint b = endpoint(loadBalancer, "http://b");
+    Endpoint c = endpoint(loadBalancer, "http://c");
+
+    respond(loadBalancer, a, 1, true);
+    assertThat(a.isEjected(now.get())).isFalse();
+    respond(loadBalancer, a, 1, true);
+    assertThat(a.isEjected(now.get())).isTrue();
+
+    respond(loadBalancer, b, 1, true);
+    respond(loadBalancer, b, 1, true);
+    assertThat(b.isEjected(now.get())).isTrue();
+
+    // no more than half of the servers are ejected
+    respond(loadBalancer, c, 1, true);
+    respond(loadBalancer, c, 1, true);
+    assertThat(c.isEjected(now.get())).isFalse();
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(loadBalancer.choose().url()).isIn("http://c", "http://d");
+    }
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertThat(a.isEjected(now.get())).isFalse();
+  }
+
+  @Test
+  void refreshKeepsTheStateOfListedServers() {
+    AtomicReference<List<String>> servers =
+        new AtomicReference<>(Arrays.asList("http://a", "http://b"));
+    LoadBalancer loadBalancer =
+        LoadBalancer.builder("service")
+            .serverList(ServerList.refreshing(servers::get, 30, TimeUnit.SECONDS))
+            .refreshExecutor(Runnable::run)
+            .ticker(now::get)
+            .build();
+    Endpoint b = endpoint(loadBalancer, "http://b");
+    respond(loadBalancer, b, 20, false);
+
+    servers.set(Arrays.asList("http://b/", "http://c"));
+    loadBalancer.choose();
+    assertThat(loadBalancer.endpoints()).extracting(Endpoint::url).contains("http://a");
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    loadBalancer.choose();
+    assertThat(loadBalancer.endpoints())
+        .extracting(Endpoint::url)
+        .containsExactly("http://b", "http://c");
+    assertThat(endpoint(loadBalancer, "http://b")).isSameAs(b);
+    assertThat(b.latencyNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+  }
+
+  @Test
+  void staleListIsRefreshedWithoutBlockingRequests() {
+    AtomicReference<List<String>> servers =
+        new AtomicReference<>(Arrays.asList("http://a", "http://b"));
+    AtomicInteger lookups = new AtomicInteger();
+    List<Runnable> refreshes = new ArrayList<>();
+    LoadBalancer loadBalancer =
+        LoadBalancer.builder("service")
+            .serverList(
+                ServerList.refreshing(
+                    () -> {
+                      lookups.incrementAndGet();
+                      return servers.get();
+                    },
+                    30,
+                    TimeUnit.SECONDS))
+            .refreshExecutor(refreshes::add)
+            .ticker(now::get)
+            .build();
+    servers.set(Arrays.asList("http://c"));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    loadBalancer.choose();
+    loadBalancer.choose();
+
+    // one refresh is pending, and requests meanwhile use the previous list
+    assertThat(refreshes).hasSize(1);
+    assertThat(lookups).hasValue(1);
+    assertThat(loadBalancer.endpoints())
+        .extracting(Endpoint::url)
+        .containsExactly("http://a", "http://b");
+
+    refreshes.get(0).run();
+
+    assertThat(lookups).hasValue(2);
+    assertThat(loadBalancer.choose().url()).isEqualTo("http://c");
+    assertThat(refreshes).hasSize(1);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Retryer;
+import feign.Util;
+import java.net.ConnectException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class LoadBalancingClientTest {
+
+  interface Api {
+
+    @RequestLine("GET /items?page=1")
+    String items();
+  }
+
+  private final List<String> urls = new CopyOnWriteArrayList<>();
+
+  private final Client servers =
+      (request, options) -> {
+        urls.add(request.url());
+        if (request.url().startsWith("http://down")) {
+          throw new ConnectException("refused");
+        }
+        return Response.builder()
+            .status(request.url().startsWith("http://busy") ? 503 : 200)
+            .request(request)
+            .body(request.url(), Util.UTF_8)
+            .build();
+      };
+
+  @Test
+  void routesToAServer() {
+    LoadBalancer loadBalancer = LoadBalancer.builder("service").servers("http://up:8080").build();
+    Api api =
+        Feign.builder()
+            .client(new LoadBalancingClient(servers, loadBalancer))
+            .target(Api.class, "http://service");
+
+    assertThat(api.items()).isEqualTo("http://up:8080/items?page=1");
+    assertThat(loadBalancer.endpoints().get(0).requests()).isEqualTo(1);
+    assertThat(loadBalancer.endpoints().get(0).outstanding()).isZero();
+  }
+
+  @Test
+  void retriesOnAnotherServer() {
+    LoadBalancer loadBalancer =
+        LoadBalancer.builder("service")
+            .servers("http://down:8080", "http://up:8080")
+            .strategy(new RoundRobin())
+            .build();
+    Api api =
+        Feign.builder()
+            .client(new LoadBalancingClient(servers, loadBalancer))
+            .retryer(new Retryer.Default(1, 1, 2))
+            .target(Api.class, "http://service");
+
+    assertThat(api.items()).isEqualTo("http://up:8080/items?page=1");
+    assertThat(urls)
+        .containsExactly("http://down:8080/items?page=1", "http://up:8080/items?page=1");
+    assertThat(loadBalancer.endpoints().get(0).failures()).isEqualTo(1);
+  }
+
+  @Test
+  void retriesServerErrorsOnAnotherServerWithTheDecoder() {
+    LoadBalancer loadBalancer =
+        LoadBalancer.builder("service")
+            .servers("http://busy:8080", "http://up:8080")
+            .strategy(new RoundRobin())
+            .build();
+    Api api =
+        Feign.builder()
+            .client(new LoadBalancingClient(servers, loadBalancer))
+            .errorDecoder(new RetryableServerErrorDecoder())
+            .retryer(new Retryer.Default(1, 1, 2))
+            .target(Api.class, "http://service");
+
+    assertThat(api.items()).isEqualTo("http://up:8080/items?page=1");
+    assertThat(urls)
+        .containsExactly("http://busy:8080/items?page=1", "http://up:8080/items?page=1");
+    assertThat(loadBalancer.endpoints().get(0).failures()).isEqualTo(1);
+  }
+
+  @Test
+  void cancellingTheAsyncResultCancelsTheRequest() {
+    LoadBalancer loadBalancer = LoadBalancer.builder("service").servers("http://up:8080").build();
+    CompletableFuture<Response> sent = new CompletableFuture<>();
+    LoadBalancingAsyncClient<Object> client =
+        new LoadBalancingAsyncClient<>((request, options, context) -> sent, loadBalancer);
+    Request request =
+        Request.create(
+            Request.HttpMethod.GET,
+            "http://service/items",
+            Collections.emptyMap(),
+            null,
+            Util.UTF_8,
+            null);
+
+    CompletableFuture<Response> result =
+        client.execute(request, new Request.Options(), Optional.empty());
+    assertThat(loadBalancer.endpoints().get(0).outstanding()).isEqualTo(1);
+    result.cancel(true);
+
+    assertThat(sent).isCancelled();
+    assertThat(loadBalancer.endpoints().get(0).outstanding()).isZero();
+    assertThat(loadBalancer.endpoints().get(0).failures()).isZero();
+  }
+
+  @Test
+  void otherHostsAreNotRouted() {
+    LoadBalancer loadBalancer = LoadBalancer.builder("service").servers("http://up").build();
+    Api api =
+        Feign.builder()
+            .client(new LoadBalancingClient(servers, loadBalancer))
+            .target(Api.class, "http://service-two");
+
+    assertThat(api.items()).isEqualTo("http://service-two/items?page=1");
+    assertThat(loadBalancer.endpoints().get(0).requests()).isZero();
+  }
+}
@@ -17,20 +17,29 @@ package feign.micrometer;
 
 import static feign.micrometer.MetricTagResolver.EMPTY_TAGS_ARRAY;
 
+import feign.MethodMetadata;
 import feign.Request;
 import feign.Request.Options;
 import feign.RequestTemplate;
 import feign.Response;
+import feign.Target;
+import feign.utils.MeterCache;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 abstract class BaseMeteredClient {
 
   protected final MeterRegistry meterRegistry;
   protected final MetricName metricName;
   protected final MetricTagResolver metricTagResolver;
+  private final MeterCache<Timer> timers;
+  private final MeterCache<AtomicReferenceArray<Counter>> responseCodes;
+  private final boolean extraTagsOverridden;
 
   public BaseMeteredClient(
       MeterRegistry meterRegistry, MetricName metricName, MetricTagResolver metricTagResolver) {
@@ -38,10 +47,40 @@ abstract class BaseMeteredClient {
     this.meterRegistry = meterRegistry;
     this.metricName = metricName;
     this.metricTagResolver = metricTagResolver;
+    this.timers = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.responseCodes = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.extraTagsOverridden =
+        Overrides.declaredBelow(
+            getClass(),
+            BaseMeteredClient.class,
+            "extraTags",
+            Request.class,
+            Response.class,
+            Options.class,
+            Exception.class);
   }
 
   protected void countResponseCode(
       Request request, Response response, Options options, int responseStatus, Exception e) {
+    final RequestTemplate template = request.requestTemplate();
+    final int slot = MeterCache.statusSlot(responseStatus);
+    final AtomicReferenceArray<Counter> counters =
+        cacheMeters() && e == null && slot >= 0
+            ? MeterCache.statusSlots(
+                responseCodes, template.methodMetadata(), template.feignTarget())
+            : null;
+    Counter counter = counters != null ? counters.get(slot) : null;
+    if (counter == null) {
+      counter = responseCodeCounter(request, response, options, responseStatus, e);
+      if (counters != null) {
+        counters.lazySet(slot, counter);
+      }
+    }
+    counter.increment();
+  }
+
+  private Counter responseCodeCounter(
+      Request request, Response response, Options options, int responseStatus, Exception e) {
     final Tag[] extraTags = extraTags(request, response, options, e);
     final RequestTemplate template = request.requestTemplate();
     final Tags allTags =
@@ -55,10 +94,24 @@ abstract class BaseMeteredClient {
                 Tag.of("http_method", template.methodMetadata().template().method()),
                 Tag.of("uri", template.methodMetadata().template().path()))
             .and(extraTags);
-    meterRegistry.counter(metricName.name("http_response_code"), allTags).increment();
+    return meterRegistry.counter(metricName.name("http_response_code"), allTags);
   }
 
   protected Timer createTimer(Request request, Response response, Options options, Exception e) {
+    final RequestTemplate template = request.requestTemplate();
+    if (!cacheMeters() || e != null) {
+      return timer(request, response, options, e);
+    }
+    final MethodMetadata methodMetadata = template.methodMetadata();
+    final Target<?> target = template.feignTarget();
+    final Timer timer = timers.get(methodMetadata, target);
+    if (timer != null) {
+      return timer;
+    }
+    return timers.put(methodMetadata, target, timer(request, response, options, null));
+  }
+
+  private Timer timer(Request request, Response response, Options options, Exception e) {
     final RequestTemplate template = request.requestTemplate();
     final Tags allTags =
         metricTagResolver
@@ -71,7 +124,30 @@ abstract class BaseMeteredClient {
     return meterRegistry.timer(metricName.name(e), allTags);
   }
 
+  /** Starts timing without allocating a {@link Timer.Sample}. */
+  long startTime() {
+    return meterRegistry.config().clock().monotonicTime();
+  }
+
+  /** Records the time elapsed since {@link #startTime()} on {@code timer}. */
+  void stopTime(long startTime, Timer timer) {
+    timer.record(meterRegistry.config().clock().monotonicTime() - startTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Tags added to every meter. Overriding this turns off meter caching, unless {@link
+   * #cacheMeters()} is overridden too.
+   */
   protected Tag[] extraTags(Request request, Response response, Options options, Exception e) {
     return EMPTY_TAGS_ARRAY;
   }
+
+  /**
+   * Whether meters are resolved once per method, target and status and then reused. Defaults to
+   * {@code true} unless a subclass overrides {@link #extraTags}, which may depend on more than
+   * those. Return {@code true} when overridden extra tags do not.
+   */
+  protected boolean cacheMeters() {
+    return !extraTagsOverridden;
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.micrometer;
+
+import feign.Experimental;
+import feign.limit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the state of a {@link ConcurrencyLimiter} per key: the current limit and requests in
+ * flight as gauges, and the rejected requests as a counter. Keys limited after binding are
+ * registered as they appear.
+ *
+ * <pre>
+ * ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().build();
+ * new ConcurrencyLimiterMetrics(limiter).bindTo(meterRegistry);
+ * </pre>
+ */
+@Experimental
+public class ConcurrencyLimiterMetrics implements MeterBinder {
+
+  private final ConcurrencyLimiter limiter;
+  private final MetricName metricName;
+
+  public ConcurrencyLimiterMetrics(ConcurrencyLimiter limiter) {
+    this.limiter = limiter;
+    this.metricName = new FeignMetricName(ConcurrencyLimiter.class);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    limiter.addKeyListener(key -> register(registry, key));
+    for (String key : limiter.keys()) {
+      register(registry, key);
+    }
+  }
+
+  private void register(MeterRegistry registry, String key) {
+    Gauge.builder(metricName.name("limit"), limiter, l -> l.limit(key))
+        .tag("key", key)
+        .description("Requests allowed in flight")
+        .register(registry);
+    Gauge.builder(metricName.name("inflight"), limiter, l -> l.inFlight(key))
+        .tag("key", key)
+        .description("Requests in flight")
+        .register(registry);
+    FunctionCounter.builder(metricName.name("rejected"), limiter, l -> l.rejected(key))
+        .tag("key", key)
+        .description("Requests rejected as the limit was reached")
+        .register(registry);
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts meters removed from each registry, so a {@link feign.utils.MeterCache} can drop handles
+ * the registry no longer knows about. One listener is registered per registry, however many clients
+ * share it.
+ */
+final class MeterRemovals {
+
+  private static final Map<MeterRegistry, AtomicLong> REMOVALS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private MeterRemovals() {}
+
+  static LongSupplier of(MeterRegistry meterRegistry) {
+    final AtomicLong removals =
+        REMOVALS.computeIfAbsent(
+            meterRegistry,
+            registry -> {
+              final AtomicLong count = new AtomicLong();
+              registry.config().onMeterRemoved(meter -> count.incrementAndGet());
+              return count;
+            });
+    return removals::get;
+  }
+}
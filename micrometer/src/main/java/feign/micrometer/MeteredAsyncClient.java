@@ -51,7 +51,7 @@ public class MeteredAsyncClient extends BaseMeteredClient implements AsyncClient
   @Override
   public CompletableFuture<Response> execute(
       Request request, Options options, Optional<Object> requestContext) {
-    final Timer.Sample sample = Timer.start(meterRegistry);
+    final long start = startTime();
     return client
         .execute(request, options, requestContext)
         .whenComplete(
@@ -70,7 +70,7 @@ public class MeteredAsyncClient extends BaseMeteredClient implements AsyncClient
               } else {
                 timer = createTimer(request, response, options, null);
               }
-              sample.stop(timer);
+              stopTime(start, timer);
             });
   }
 }
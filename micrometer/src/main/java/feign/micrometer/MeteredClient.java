@@ -44,7 +44,7 @@ public class MeteredClient extends BaseMeteredClient implements Client {
 
   @Override
   public Response execute(Request request, Options options) throws IOException {
-    final Timer.Sample sample = Timer.start(meterRegistry);
+    final long start = startTime();
     Timer timer = null;
     try {
       final Response response = client.execute(request, options);
@@ -65,7 +65,7 @@ public class MeteredClient extends BaseMeteredClient implements Client {
       if (timer == null) {
         timer = createTimer(request, null, options, null);
       }
-      sample.stop(timer);
+      stopTime(start, timer);
     }
   }
 }
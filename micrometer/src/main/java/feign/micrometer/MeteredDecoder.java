@@ -21,10 +21,11 @@ import feign.Response;
 import feign.codec.Decoder;
 import feign.codec.PredicatedDecoder;
 import feign.utils.ExceptionUtils;
+import feign.utils.MeterCache;
 import io.micrometer.core.instrument.*;
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /** Wrap feign {@link Decoder} with metrics. */
 public class MeteredDecoder implements Decoder, PredicatedDecoder {
@@ -33,6 +34,9 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
   private final MeterRegistry meterRegistry;
   private final MetricName metricName;
   private final MetricTagResolver metricTagResolver;
+  private final MeterCache<Timer> timers;
+  private final MeterCache<DistributionSummary> summaries;
+  private final boolean extraTagsOverridden;
 
   public MeteredDecoder(Decoder decoder, MeterRegistry meterRegistry) {
     this(decoder, meterRegistry, new FeignMetricName(Decoder.class), new FeignMetricTagResolver());
@@ -47,17 +51,28 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
     this.meterRegistry = meterRegistry;
     this.metricName = metricName;
     this.metricTagResolver = metricTagResolver;
+    this.timers = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.summaries = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.extraTagsOverridden =
+        Overrides.declaredBelow(
+            getClass(),
+            MeteredDecoder.class,
+            "extraTags",
+            Response.class,
+            Type.class,
+            Exception.class);
   }
 
   @Override
   public Object decode(Response response, Type type) throws IOException, FeignException {
-    final Optional<MeteredBody> body = Optional.ofNullable(response.body()).map(MeteredBody::new);
+    final MeteredBody body = response.body() != null ? new MeteredBody(response.body()) : null;
 
-    Response meteredResponse = body.map(b -> response.toBuilder().body(b).build()).orElse(response);
+    Response meteredResponse = body != null ? response.toBuilder().body(body).build() : response;
 
     Object decoded;
 
-    final Timer.Sample sample = Timer.start(meterRegistry);
+    final Clock clock = meterRegistry.config().clock();
+    final long start = clock.monotonicTime();
     Timer timer = null;
     try {
       decoded = decoder.decode(meteredResponse, type);
@@ -74,15 +89,30 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
       if (timer == null) {
         timer = createTimer(response, type, null);
       }
-      sample.stop(timer);
+      timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
     }
 
-    body.ifPresent(b -> createSummary(response, type).record(b.count()));
+    if (body != null) {
+      createSummary(response, type).record(body.count());
+    }
 
     return decoded;
   }
 
   protected Timer createTimer(Response response, Type type, Exception e) {
+    if (!cacheMeters() || e != null) {
+      return timer(response, type, e);
+    }
+    final RequestTemplate template = response.request().requestTemplate();
+    final Timer timer = timers.get(template.methodMetadata(), template.feignTarget());
+    if (timer != null) {
+      return timer;
+    }
+    return timers.put(
+        template.methodMetadata(), template.feignTarget(), timer(response, type, null));
+  }
+
+  private Timer timer(Response response, Type type, Exception e) {
     final Tag[] extraTags = extraTags(response, type, e);
     final RequestTemplate template = response.request().requestTemplate();
     final Tags allTags =
@@ -107,6 +137,20 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
   }
 
   protected DistributionSummary createSummary(Response response, Type type) {
+    if (!cacheMeters()) {
+      return summary(response, type);
+    }
+    final RequestTemplate template = response.request().requestTemplate();
+    final DistributionSummary summary =
+        summaries.get(template.methodMetadata(), template.feignTarget());
+    if (summary != null) {
+      return summary;
+    }
+    return summaries.put(
+        template.methodMetadata(), template.feignTarget(), summary(response, type));
+  }
+
+  private DistributionSummary summary(Response response, Type type) {
     final Tag[] tags = extraTags(response, type, null);
     final RequestTemplate template = response.request().requestTemplate();
     final Tags allTags =
@@ -114,6 +158,10 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
     return meterRegistry.summary(metricName.name("response_size"), allTags);
   }
 
+  /**
+   * Tags added to every meter. Overriding this turns off meter caching, unless {@link
+   * #cacheMeters()} is overridden too.
+   */
   protected Tag[] extraTags(Response response, Type type, Exception e) {
     RequestTemplate template = response.request().requestTemplate();
     return new Tag[] {Tag.of("uri", template.methodMetadata().template().path())};
@@ -124,4 +172,13 @@ public class MeteredDecoder implements Decoder, PredicatedDecoder {
     return !(decoder instanceof PredicatedDecoder)
         || ((PredicatedDecoder) decoder).canDecode(response, type);
   }
+
+  /**
+   * Whether meters are resolved once per method and target and then reused. Defaults to {@code
+   * true} unless a subclass overrides {@link #extraTags}, which may depend on more than those.
+   * Return {@code true} when overridden extra tags do not.
+   */
+  protected boolean cacheMeters() {
+    return !extraTagsOverridden;
+  }
 }
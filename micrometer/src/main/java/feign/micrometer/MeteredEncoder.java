@@ -21,8 +21,10 @@ import feign.RequestTemplate;
 import feign.codec.EncodeException;
 import feign.codec.Encoder;
 import feign.codec.PredicatedEncoder;
+import feign.utils.MeterCache;
 import io.micrometer.core.instrument.*;
 import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
 
 /** Wrap feign {@link Encoder} with metrics. */
 public class MeteredEncoder implements Encoder, PredicatedEncoder {
@@ -31,6 +33,9 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
   private final MeterRegistry meterRegistry;
   private final MetricName metricName;
   private final MetricTagResolver metricTagResolver;
+  private final MeterCache<Timer> timers;
+  private final MeterCache<DistributionSummary> summaries;
+  private final boolean extraTagsOverridden;
 
   public MeteredEncoder(Encoder encoder, MeterRegistry meterRegistry) {
     this(encoder, meterRegistry, new FeignMetricName(Encoder.class), new FeignMetricTagResolver());
@@ -45,13 +50,29 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
     this.meterRegistry = meterRegistry;
     this.metricName = metricName;
     this.metricTagResolver = metricTagResolver;
+    this.timers = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.summaries = new MeterCache<>(MeterRemovals.of(meterRegistry));
+    this.extraTagsOverridden =
+        Overrides.declaredBelow(
+            getClass(),
+            MeteredEncoder.class,
+            "extraTags",
+            Object.class,
+            Type.class,
+            RequestTemplate.class);
   }
 
   @Override
   public void encode(Object object, Type bodyType, RequestTemplate template)
       throws EncodeException {
-    createTimer(object, bodyType, template)
-        .record(() -> encoder.encode(object, bodyType, template));
+    final Timer timer = createTimer(object, bodyType, template);
+    final Clock clock = meterRegistry.config().clock();
+    final long start = clock.monotonicTime();
+    try {
+      encoder.encode(object, bodyType, template);
+    } finally {
+      timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
 
     if (template.body() != null) {
       createSummary(object, bodyType, template).record(template.body().length);
@@ -59,6 +80,18 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
   }
 
   protected Timer createTimer(Object object, Type bodyType, RequestTemplate template) {
+    Timer timer =
+        cacheMeters() ? timers.get(template.methodMetadata(), template.feignTarget()) : null;
+    if (timer == null) {
+      timer = timer(object, bodyType, template);
+      if (cacheMeters()) {
+        timer = timers.put(template.methodMetadata(), template.feignTarget(), timer);
+      }
+    }
+    return timer;
+  }
+
+  private Timer timer(Object object, Type bodyType, RequestTemplate template) {
     final Tags allTags =
         metricTagResolver.tag(
             template.methodMetadata(),
@@ -69,6 +102,18 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
 
   protected DistributionSummary createSummary(
       Object object, Type bodyType, RequestTemplate template) {
+    DistributionSummary summary =
+        cacheMeters() ? summaries.get(template.methodMetadata(), template.feignTarget()) : null;
+    if (summary == null) {
+      summary = summary(object, bodyType, template);
+      if (cacheMeters()) {
+        summary = summaries.put(template.methodMetadata(), template.feignTarget(), summary);
+      }
+    }
+    return summary;
+  }
+
+  private DistributionSummary summary(Object object, Type bodyType, RequestTemplate template) {
     final Tags allTags =
         metricTagResolver.tag(
             template.methodMetadata(),
@@ -77,6 +122,10 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
     return meterRegistry.summary(metricName.name("response_size"), allTags);
   }
 
+  /**
+   * Tags added to every meter. Overriding this turns off meter caching, unless {@link
+   * #cacheMeters()} is overridden too.
+   */
   protected Tag[] extraTags(Object object, Type bodyType, RequestTemplate template) {
     return EMPTY_TAGS_ARRAY;
   }
@@ -86,4 +135,13 @@ public class MeteredEncoder implements Encoder, PredicatedEncoder {
     return !(encoder instanceof PredicatedEncoder)
         || ((PredicatedEncoder) encoder).canEncode(object, bodyType, template);
   }
+
+  /**
+   * Whether meters are resolved once per method and target and then reused. Defaults to {@code
+   * true} unless a subclass overrides {@link #extraTags}, which may depend on more than those.
+   * Return {@code true} when overridden extra tags do not.
+   */
+  protected boolean cacheMeters() {
+    return !extraTagsOverridden;
+  }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.micrometer;
+
+/** Finds out once whether a subclass replaced one of a metered component's hooks. */
+final class Overrides {
+
+  private Overrides() {}
+
+  /**
+   * @return whether {@code type}, or a superclass of it below {@code base}, declares the method.
+   */
+  static boolean declaredBelow(
+      Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+    for (Class<?> declaring = type;
+        declaring != null && declaring != base;
+        declaring = declaring.getSuperclass()) {
+      try {
+        declaring.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // not declared at this level
+      }
+    }
+    return false;
+  }
+}
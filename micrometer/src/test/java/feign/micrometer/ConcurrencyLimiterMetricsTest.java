@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Feign;
+import feign.RequestLine;
+import feign.limit.ConcurrencyLimiter;
+import feign.mock.HttpMethod;
+import feign.mock.MockClient;
+import feign.mock.MockTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterMetricsTest {
+
+  interface Api {
+
+    @RequestLine("GET /ok")
+    String ok();
+  }
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void registersMetersForEveryKey() {
+    ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().build();
+    new ConcurrencyLimiterMetrics(limiter).bindTo(registry);
+    Api api =
+        Feign.builder()
+            .client(new MockClient().ok(HttpMethod.GET, "/ok", "fine"))
+            .addCapability(limiter)
+            .target(new MockTarget<>(Api.class));
+
+    api.ok();
+
+    String name = ConcurrencyLimiter.class.getName();
+    assertThat(registry.get(name + ".limit").tag("key", "Api#ok()").gauge().value())
+        .isEqualTo(limiter.limit("Api#ok()"));
+    assertThat(registry.get(name + ".inflight").tag("key", "Api#ok()").gauge().value()).isZero();
+    assertThat(registry.get(name + ".rejected").tag("key", "Api#ok()").functionCounter().count())
+        .isZero();
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.Feign;
+import feign.Request;
+import feign.Request.Options;
+import feign.RequestLine;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.mock.HttpMethod;
+import feign.mock.MockClient;
+import feign.mock.MockTarget;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MeterCacheTest {
+
+  interface Api {
+
+    @RequestLine("GET /ok")
+    String ok();
+
+    @RequestLine("GET /missing")
+    String missing();
+  }
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void reusesMeterHandlesAcrossRequests() {
+    Api api =
+        Feign.builder()
+            .client(
+                new MeteredClient(
+                    new MockClient()
+                        .ok(HttpMethod.GET, "/ok", "fine")
+                        .add(HttpMethod.GET, "/missing", 404),
+                    registry))
+            .decode404()
+            .target(new MockTarget<>(Api.class));
+
+    for (int i = 0; i < 3; i++) {
+      api.ok();
+      api.missing();
+    }
+
+    assertThat(
+            registry
+                .get("feign.Client.http_response_code")
+                .tag("method", "ok")
+                .tag("http_status", "200")
+                .counter()
+                .count())
+        .isEqualTo(3);
+    assertThat(
+            registry
+                .get("feign.Client.http_response_code")
+                .tag("method", "missing")
+                .tag("status_group", "4xx")
+                .counter()
+                .count())
+        .isEqualTo(3);
+    assertThat(registry.get("feign.Client").tag("method", "ok").timer().count()).isEqualTo(3);
+  }
+
+  @Test
+  void resolvesMetersAgainAfterRegistryRemovesThem() {
+    Api api =
+        Feign.builder()
+            .client(new MeteredClient(new MockClient().ok(HttpMethod.GET, "/ok", "fine"), registry))
+            .target(new MockTarget<>(Api.class));
+
+    api.ok();
+    registry.clear();
+    api.ok();
+    api.ok();
+
+    assertThat(registry.get("feign.Client").tag("method", "ok").timer().count()).isEqualTo(2);
+    assertThat(
+            registry
+                .get("feign.Client.http_response_code")
+                .tag("method", "ok")
+                .tag("http_status", "200")
+                .counter()
+                .count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void overriddenExtraTagsAreResolvedPerRequest() {
+    AtomicInteger tenant = new AtomicInteger();
+    Api api =
+        Feign.builder()
+            .client(
+                new MeteredClient(new MockClient().ok(HttpMethod.GET, "/ok", "fine"), registry) {
+                  @Override
+                  protected Tag[] extraTags(
+                      Request request, Response response, Options options, Exception e) {
+                    return new Tag[] {Tag.of("tenant", String.valueOf(tenant.get()))};
+                  }
+                })
+            .decoder(
+                new MeteredDecoder(new Decoder.Default(), registry) {
+                  @Override
+                  protected Tag[] extraTags(Response response, Type type, Exception e) {
+                    return new Tag[] {Tag.of("tenant", String.valueOf(tenant.get()))};
+                  }
+                })
+            .target(new MockTarget<>(Api.class));
+
+    api.ok();
+    tenant.set(1);
+    api.ok();
+
+    assertThat(registry.get("feign.Client").tag("tenant", "0").timer().count()).isEqualTo(1);
+    assertThat(registry.get("feign.Client").tag("tenant", "1").timer().count()).isEqualTo(1);
+    assertThat(registry.get("feign.codec.Decoder").tag("tenant", "0").timer().count()).isEqualTo(1);
+    assertThat(registry.get("feign.codec.Decoder").tag("tenant", "1").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void overriddenExtraTagsAreCachedWhenOptedIn() {
+    AtomicInteger resolved = new AtomicInteger();
+    Api api =
+        Feign.builder()
+            .client(
+                new MeteredClient(new MockClient().ok(HttpMethod.GET, "/ok", "fine"), registry) {
+                  @Override
+                  protected Tag[] extraTags(
+                      Request request, Response response, Options options, Exception e) {
+                    resolved.incrementAndGet();
+                    return new Tag[] {Tag.of("region", "eu")};
+                  }
+
+                  @Override
+                  protected boolean cacheMeters() {
+                    return true;
+                  }
+                })
+            .target(new MockTarget<>(Api.class));
+
+    api.ok();
+    int first = resolved.get();
+    api.ok();
+
+    assertThat(resolved).hasValue(first);
+    assertThat(registry.get("feign.Client").tag("region", "eu").timer().count()).isEqualTo(2);
+  }
+}
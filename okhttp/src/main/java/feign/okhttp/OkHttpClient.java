@@ -32,6 +32,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import okhttp3.*;
+import okio.BufferedSink;
 
 /**
  * This module directs Feign's http requests to
@@ -80,6 +81,14 @@ public final class OkHttpClient implements Client, AsyncClient<Object> {
       requestBuilder.addHeader("Accept", "*/*");
     }
 
+    feign.Request.Body requestBody = input.requestBody();
+    if (requestBody != null && requestBody.isStreaming()) {
+      requestBuilder.removeHeader("Content-Type");
+      requestBuilder.method(
+          input.httpMethod().name(), new StreamingRequestBody(mediaType, requestBody));
+      return requestBuilder.build();
+    }
+
     byte[] inputBody = input.body();
     if (input.httpMethod().isWithBody()) {
       requestBuilder.removeHeader("Content-Type");
@@ -95,6 +104,33 @@ public final class OkHttpClient implements Client, AsyncClient<Object> {
     return requestBuilder.build();
   }
 
+  /** Writes a streaming Feign body straight to the connection, instead of copying it first. */
+  private static final class StreamingRequestBody extends RequestBody {
+
+    private final MediaType mediaType;
+    private final feign.Request.Body body;
+
+    StreamingRequestBody(MediaType mediaType, feign.Request.Body body) {
+      this.mediaType = mediaType;
+      this.body = body;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+      return body.contentLength();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      body.writeTo(sink.outputStream());
+    }
+  }
+
   private static feign.Response toFeignResponse(Response response, feign.Request request)
       throws IOException {
     return feign.Response.builder()
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import static feign.Util.checkArgument;
+
+import feign.Experimental;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the calls of a method in flight, so that a slow server cannot tie up every thread of the
+ * application. Calls beyond {@code maxConcurrentCalls} wait up to {@code maxWait} on the calling
+ * thread, or fail with a {@link CallNotPermittedException} right away for methods returning a
+ * {@link java.util.concurrent.CompletableFuture}.
+ */
+@Experimental
+public final class Bulkhead {
+
+  private final String name;
+  private final int maxConcurrentCalls;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final LongAdder rejected = new LongAdder();
+
+  private Bulkhead(String name, Builder builder) {
+    this.name = name;
+    this.maxConcurrentCalls = builder.maxConcurrentCalls;
+    this.maxWaitNanos = builder.maxWaitNanos;
+    this.permits = new Semaphore(builder.maxConcurrentCalls);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Takes a permit for a call, waiting up to {@code maxWait} for one if {@code wait} is set.
+   *
+   * @return whether the call may proceed; it must then {@link #release()} the permit.
+   */
+  public boolean tryAcquire(boolean wait) {
+    boolean acquired;
+    if (!wait || maxWaitNanos == 0) {
+      acquired = permits.tryAcquire();
+    } else {
+      try {
+        acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        acquired = false;
+      }
+    }
+    if (!acquired) {
+      rejected.increment();
+    }
+    return acquired;
+  }
+
+  public void release() {
+    permits.release();
+  }
+
+  public int maxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  /** The calls rejected so far, as the bulkhead was full. */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  CallNotPermittedException full() {
+    return new CallNotPermittedException(
+        name, "Bulkhead '" + name + "' is full with " + maxConcurrentCalls + " calls");
+  }
+
+  @Override
+  public String toString() {
+    return "Bulkhead{name="
+        + name
+        + ", maxConcurrentCalls="
+        + maxConcurrentCalls
+        + ", availablePermits="
+        + availablePermits()
+        + '}';
+  }
+
+  /** Builds bulkheads; may be reused for a bulkhead per method. */
+  public static final class Builder {
+
+    private int maxConcurrentCalls = 25;
+    private long maxWaitNanos = 0;
+
+    private Builder() {}
+
+    /** Calls allowed in flight. Defaults to {@code 25}. */
+    public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+      checkArgument(
+          maxConcurrentCalls >= 1, "maxConcurrentCalls must be at least 1: %s", maxConcurrentCalls);
+      this.maxConcurrentCalls = maxConcurrentCalls;
+      return this;
+    }
+
+    /** How long a synchronous call waits for a permit. Defaults to not waiting. */
+    public Builder maxWait(long duration, TimeUnit unit) {
+      checkArgument(duration >= 0, "maxWait must not be negative: %s", duration);
+      this.maxWaitNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    public Bulkhead build(String name) {
+      return new Bulkhead(name, this);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import feign.Experimental;
+
+/**
+ * Thrown instead of sending a request, when the {@link CircuitBreaker} of its method is open or its
+ * {@link Bulkhead} is full. Like any other failure, it is passed to the fallback, if there is one.
+ */
+@Experimental
+public class CallNotPermittedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String name;
+
+  public CallNotPermittedException(String name, String message) {
+    super(message, null, false, false);
+    this.name = name;
+  }
+
+  /** The name of the circuit breaker or bulkhead, the config key of the method by default. */
+  public String name() {
+    return name;
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import static feign.Util.checkArgument;
+import static feign.Util.checkNotNull;
+
+import feign.Experimental;
+import feign.FeignException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Stops calling a method for a while once too many of its recent calls failed, to give the server
+ * time to recover and fail fast in the meantime.
+ *
+ * <p>The outcomes of the last {@code slidingWindowSize} calls are kept in a ring. Once at least
+ * {@code minimumNumberOfCalls} were recorded and {@code failureRateThreshold} percent of them
+ * failed, the breaker opens: calls fail with a {@link CallNotPermittedException} without being
+ * sent. After {@code waitDurationInOpenState}, it lets {@code permittedCallsInHalfOpenState} trial
+ * calls through; it closes again once all of them succeeded, and opens again on the first failure.
+ * Only the outcome of a call is recorded in the state it was permitted in, so a call that started
+ * before the breaker opened is never taken for a trial call.
+ *
+ * <p>All state is updated through atomic operations, without locks.
+ */
+@Experimental
+public final class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final int SUCCESS = 1;
+  private static final int FAILURE = 2;
+
+  private final String name;
+  private final int failureRateThreshold;
+  private final int slidingWindowSize;
+  private final int minimumNumberOfCalls;
+  private final int permittedCallsInHalfOpenState;
+  private final long waitNanos;
+  private final Predicate<Throwable> recordFailure;
+  private final LongSupplier ticker;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicReference<Window> window;
+  private final AtomicReference<Trial> trial = new AtomicReference<>(new Trial(0));
+  private final LongAdder notPermitted = new LongAdder();
+  private final Permission rejected = new Permission(null, null);
+  private volatile long openedAt;
+
+  private CircuitBreaker(String name, Builder builder) {
+    this.name = name;
+    this.failureRateThreshold = builder.failureRateThreshold;
+    this.slidingWindowSize = builder.slidingWindowSize;
+    this.minimumNumberOfCalls = Math.min(builder.minimumNumberOfCalls, slidingWindowSize);
+    this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+    this.waitNanos = builder.waitNanos;
+    this.recordFailure = builder.recordFailure;
+    this.ticker = builder.ticker;
+    this.window = new AtomicReference<>(new Window(slidingWindowSize));
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public State state() {
+    return state.get();
+  }
+
+  /**
+   * Percentage of the calls in the window that failed, or {@literal -1} until {@code
+   * minimumNumberOfCalls} were recorded.
+   */
+  public float failureRate() {
+    return window.get().failureRate(minimumNumberOfCalls);
+  }
+
+  /** The calls rejected so far, as the breaker was open. */
+  public long notPermittedCalls() {
+    return notPermitted.sum();
+  }
+
+  /**
+   * Asks to make a call. When the wait in the open state elapsed, this moves the breaker to half
+   * open.
+   *
+   * @return the permission, which tells whether the call may proceed; its outcome must then be
+   *     passed to {@link Permission#onSuccess()} or {@link Permission#onError(Throwable)}.
+   */
+  public Permission tryAcquirePermission() {
+    State current = state.get();
+    if (current == State.OPEN) {
+      if (ticker.getAsLong() - openedAt >= waitNanos) {
+        state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        current = state.get();
+      }
+    }
+    if (current == State.CLOSED) {
+      return new Permission(window.get(), null);
+    }
+    if (current == State.HALF_OPEN) {
+      Trial calls = trial.get();
+      if (calls.tryAcquire()) {
+        return new Permission(null, calls);
+      }
+    }
+    notPermitted.increment();
+    return rejected;
+  }
+
+  /**
+   * Records the outcome of a call in the window or the trial it was permitted in, and drops it once
+   * the breaker moved on from there.
+   */
+  private void record(Permission permission, boolean failure) {
+    Trial calls = permission.trial;
+    if (calls != null) {
+      if (calls != trial.get() || state.get() != State.HALF_OPEN) {
+        return;
+      }
+      if (failure) {
+        open(State.HALF_OPEN);
+      } else if (calls.successes.incrementAndGet() >= permittedCallsInHalfOpenState) {
+        window.set(new Window(slidingWindowSize));
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+      }
+      return;
+    }
+    Window outcomes = permission.window;
+    if (outcomes == null || outcomes != window.get() || state.get() != State.CLOSED) {
+      return;
+    }
+    outcomes.record(failure ? FAILURE : SUCCESS);
+    if (failure && outcomes.failureRate(minimumNumberOfCalls) >= failureRateThreshold) {
+      open(State.CLOSED);
+    }
+  }
+
+  private void open(State from) {
+    trial.set(new Trial(permittedCallsInHalfOpenState));
+    openedAt = ticker.getAsLong();
+    state.compareAndSet(from, State.OPEN);
+  }
+
+  CallNotPermittedException open() {
+    return new CallNotPermittedException(
+        name, "CircuitBreaker '" + name + "' is " + state.get() + " and does not permit calls");
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{name="
+        + name
+        + ", state="
+        + state.get()
+        + ", failureRate="
+        + failureRate()
+        + '}';
+  }
+
+  /** Whether a failure is worth opening the breaker for: not a client error, except 429. */
+  static boolean isServerFailure(Throwable throwable) {
+    if (throwable instanceof FeignException) {
+      int status = ((FeignException) throwable).status();
+      return status < 400 || status >= 500 || status == 429;
+    }
+    return true;
+  }
+
+  /**
+   * A call permitted by {@link #tryAcquirePermission()}, which remembers the window or the trial it
+   * was permitted in.
+   */
+  public final class Permission {
+
+    private final Window window;
+    private final Trial trial;
+
+    private Permission(Window window, Trial trial) {
+      this.window = window;
+      this.trial = trial;
+    }
+
+    public boolean isPermitted() {
+      return window != null || trial != null;
+    }
+
+    public void onSuccess() {
+      record(this, false);
+    }
+
+    /**
+     * Records a failed call, unless {@code recordFailure} does not match {@code throwable}: the
+     * call then counts as a success, as the server did answer.
+     */
+    public void onError(Throwable throwable) {
+      record(this, recordFailure.test(throwable));
+    }
+  }
+
+  /** The trial calls let through in one half open period. */
+  private static final class Trial {
+
+    private final AtomicInteger permits;
+    private final AtomicInteger successes = new AtomicInteger();
+
+    Trial(int permits) {
+      this.permits = new AtomicInteger(permits);
+    }
+
+    boolean tryAcquire() {
+      int current;
+      do {
+        current = permits.get();
+        if (current <= 0) {
+          return false;
+        }
+      } while (!permits.compareAndSet(current, current - 1));
+      return true;
+    }
+  }
+
+  /** The outcomes of the last calls, in a ring of slots replaced one at a time. */
+  private static final class Window {
+
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    Window(int size) {
+      this.outcomes = new AtomicIntegerArray(size);
+    }
+
+    void record(int outcome) {
+      int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+      int previous = outcomes.getAndSet(slot, outcome);
+      if (previous == 0) {
+        calls.incrementAndGet();
+      }
+      if (outcome == FAILURE && previous != FAILURE) {
+        failures.incrementAndGet();
+      } else if (outcome != FAILURE && previous == FAILURE) {
+        failures.decrementAndGet();
+      }
+    }
+
+    float failureRate(int minimumNumberOfCalls) {
+      int recorded = calls.get();
+      if (recorded < minimumNumberOfCalls || recorded == 0) {
+        return -1;
+      }
+      return failures.get() * 100f / recorded;
+    }
+  }
+
+  /** Builds circuit breakers; may be reused for a breaker per method. */
+  public static final class Builder {
+
+    private int failureRateThreshold = 50;
+    private int slidingWindowSize = 100;
+    private int minimumNumberOfCalls = 20;
+    private int permittedCallsInHalfOpenState = 5;
+    private long waitNanos = TimeUnit.SECONDS.toNanos(10);
+    private Predicate<Throwable> recordFailure = CircuitBreaker::isServerFailure;
+    private LongSupplier ticker = System::nanoTime;
+
+    private Builder() {}
+
+    /** Percentage of failed calls that opens the breaker. Defaults to {@code 50}. */
+    public Builder failureRateThreshold(int failureRateThreshold) {
+      checkArgument(
+          failureRateThreshold > 0 && failureRateThreshold <= 100,
+          "failureRateThreshold must be between 1 and 100: %s",
+          failureRateThreshold);
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    /** How many of the last calls the failure rate is computed over. Defaults to {@code 100}. */
+    public Builder slidingWindowSize(int slidingWindowSize) {
+      checkArgument(
+          slidingWindowSize >= 1, "slidingWindowSize must be at least 1: %s", slidingWindowSize);
+      this.slidingWindowSize = slidingWindowSize;
+      return this;
+    }
+
+    /** Calls recorded before the breaker may open. Defaults to {@code 20}. */
+    public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+      checkArgument(
+          minimumNumberOfCalls >= 1,
+          "minimumNumberOfCalls must be at least 1: %s",
+          minimumNumberOfCalls);
+      this.minimumNumberOfCalls = minimumNumberOfCalls;
+      return this;
+    }
+
+    /** How long the breaker stays open before trial calls. Defaults to 10 seconds. */
+    public Builder waitDurationInOpenState(long duration, TimeUnit unit) {
+      checkArgument(duration >= 0, "waitDurationInOpenState must not be negative: %s", duration);
+      this.waitNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    /** Trial calls that must succeed to close the breaker again. Defaults to {@code 5}. */
+    public Builder permittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+      checkArgument(
+          permittedCallsInHalfOpenState >= 1,
+          "permittedCallsInHalfOpenState must be at least 1: %s",
+          permittedCallsInHalfOpenState);
+      this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+      return this;
+    }
+
+    /**
+     * Which failures count towards the failure rate. Defaults to all but {@link FeignException}s
+     * with a {@code 4xx} status other than {@code 429}.
+     */
+    public Builder recordFailure(Predicate<Throwable> recordFailure) {
+      this.recordFailure = checkNotNull(recordFailure, "recordFailure");
+      return this;
+    }
+
+    Builder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    public CircuitBreaker build(String name) {
+      return new CircuitBreaker(name, this);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import static feign.Util.checkNotNull;
+
+import feign.Capability;
+import feign.Experimental;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Util;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decorates every method of Feign and AsyncFeign clients with a {@link CircuitBreaker} and,
+ * optionally, a {@link Bulkhead} of its own, keyed by {@link feign.MethodMetadata#configKey()}, and
+ * calls a fallback when a call fails or is not permitted. Unlike {@code feign-hystrix}, the call
+ * runs on the calling thread, and nothing is added besides a few atomic operations.
+ *
+ * <pre>
+ * ResilienceCapability resilience = ResilienceCapability.builder()
+ *     .circuitBreaker(CircuitBreaker.builder().failureRateThreshold(50))
+ *     .bulkhead(Bulkhead.builder().maxConcurrentCalls(25))
+ *     .fallback(GitHub.class, fallback)
+ *     .build();
+ *
+ * GitHub github = Feign.builder()
+ *     .addCapability(resilience)
+ *     .target(GitHub.class, "https://api.github.com");
+ * </pre>
+ *
+ * <p>Methods returning a {@link java.util.concurrent.CompletableFuture} record their outcome when
+ * the future completes, and their fallback must return one as well. Default methods are not
+ * decorated.
+ */
+@Experimental
+public final class ResilienceCapability implements Capability {
+
+  private final CircuitBreaker.Builder circuitBreaker; // Nullable
+  private final Bulkhead.Builder bulkhead; // Nullable
+  private final Map<Class<?>, FallbackFactory<?>> fallbacks;
+  private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  private ResilienceCapability(Builder builder) {
+    this.circuitBreaker = builder.circuitBreaker;
+    this.bulkhead = builder.bulkhead;
+    this.fallbacks = new HashMap<>(builder.fallbacks);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+    return (target, dispatch) -> {
+      FallbackFactory<?> fallbackFactory = fallbacks.get(target.type());
+      Map<Method, MethodHandler> decorated = new LinkedHashMap<>();
+      for (Map.Entry<Method, MethodHandler> entry : dispatch.entrySet()) {
+        Method method = entry.getKey();
+        if (Util.isDefault(method)) {
+          decorated.put(method, entry.getValue());
+          continue;
+        }
+        String configKey = Feign.configKey(target.type(), method);
+        decorated.put(
+            method,
+            new ResilientMethodHandler(
+                entry.getValue(),
+                method,
+                circuitBreaker != null
+                    ? circuitBreakers.computeIfAbsent(configKey, circuitBreaker::build)
+                    : null,
+                bulkhead != null ? bulkheads.computeIfAbsent(configKey, bulkhead::build) : null,
+                fallbackFactory));
+      }
+      return invocationHandlerFactory.create(target, decorated);
+    };
+  }
+
+  /** The circuit breaker of the method with the given config key, or null if none was created. */
+  public CircuitBreaker circuitBreaker(String configKey) {
+    return circuitBreakers.get(configKey);
+  }
+
+  /** The bulkhead of the method with the given config key, or null if none was created. */
+  public Bulkhead bulkhead(String configKey) {
+    return bulkheads.get(configKey);
+  }
+
+  public static final class Builder {
+
+    private CircuitBreaker.Builder circuitBreaker = CircuitBreaker.builder();
+    private Bulkhead.Builder bulkhead;
+    private final Map<Class<?>, FallbackFactory<?>> fallbacks = new HashMap<>();
+
+    private Builder() {}
+
+    /** Builds the circuit breaker of each method. Defaults to {@link CircuitBreaker#builder()}. */
+    public Builder circuitBreaker(CircuitBreaker.Builder circuitBreaker) {
+      this.circuitBreaker = checkNotNull(circuitBreaker, "circuitBreaker");
+      return this;
+    }
+
+    /** Does not decorate methods with circuit breakers. */
+    public Builder withoutCircuitBreaker() {
+      this.circuitBreaker = null;
+      return this;
+    }
+
+    /** Builds the bulkhead of each method. There are no bulkheads by default. */
+    public Builder bulkhead(Bulkhead.Builder bulkhead) {
+      this.bulkhead = checkNotNull(bulkhead, "bulkhead");
+      return this;
+    }
+
+    /** Returns {@code fallback} from methods of {@code api} whose call failed. */
+    public <T> Builder fallback(Class<T> api, T fallback) {
+      return fallbackFactory(api, new FallbackFactory.Default<>(fallback));
+    }
+
+    /** Returns the fallback it creates from methods of {@code api} whose call failed. */
+    public <T> Builder fallbackFactory(Class<T> api, FallbackFactory<? extends T> fallbackFactory) {
+      fallbacks.put(checkNotNull(api, "api"), checkNotNull(fallbackFactory, "fallbackFactory"));
+      return this;
+    }
+
+    public ResilienceCapability build() {
+      return new ResilienceCapability(this);
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs a method through its bulkhead and circuit breaker on the calling thread, and calls the
+ * fallback if it failed or was not permitted.
+ */
+final class ResilientMethodHandler implements MethodHandler {
+
+  private final MethodHandler delegate;
+  private final Method method;
+  private final boolean async;
+  private final CircuitBreaker circuitBreaker; // Nullable
+  private final Bulkhead bulkhead; // Nullable
+  private final FallbackFactory<?> fallbackFactory; // Nullable
+
+  ResilientMethodHandler(
+      MethodHandler delegate,
+      Method method,
+      CircuitBreaker circuitBreaker,
+      Bulkhead bulkhead,
+      FallbackFactory<?> fallbackFactory) {
+    this.delegate = delegate;
+    this.method = method;
+    this.async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+    this.fallbackFactory = fallbackFactory;
+    if (fallbackFactory != null) {
+      method.setAccessible(true);
+    }
+  }
+
+  @Override
+  public Object invoke(Object[] argv) throws Throwable {
+    if (bulkhead != null && !bulkhead.tryAcquire(!async)) {
+      return notPermitted(bulkhead.full(), argv);
+    }
+    CircuitBreaker.Permission permission = null;
+    if (circuitBreaker != null) {
+      permission = circuitBreaker.tryAcquirePermission();
+      if (!permission.isPermitted()) {
+        release();
+        return notPermitted(circuitBreaker.open(), argv);
+      }
+    }
+    return async ? invokeAsync(permission, argv) : invokeSync(permission, argv);
+  }
+
+  private Object invokeSync(CircuitBreaker.Permission permission, Object[] argv) throws Throwable {
+    Object result;
+    try {
+      result = delegate.invoke(argv);
+    } catch (Throwable e) {
+      if (permission != null) {
+        permission.onError(e);
+      }
+      release();
+      return fallback(e, argv);
+    }
+    if (permission != null) {
+      permission.onSuccess();
+    }
+    release();
+    return result;
+  }
+
+  private Object invokeAsync(CircuitBreaker.Permission permission, Object[] argv) throws Throwable {
+    CompletableFuture<?> future;
+    try {
+      future = (CompletableFuture<?>) delegate.invoke(argv);
+    } catch (Throwable e) {
+      if (permission != null) {
+        permission.onError(e);
+      }
+      release();
+      return fallback(e, argv);
+    }
+    Completion result = new Completion(future);
+    future.whenComplete(
+        (value, throwable) -> {
+          if (throwable == null) {
+            if (permission != null) {
+              permission.onSuccess();
+            }
+            release();
+            result.complete(value);
+            return;
+          }
+          Throwable cause = unwrap(throwable);
+          if (permission != null) {
+            permission.onError(cause);
+          }
+          release();
+          if (fallbackFactory == null) {
+            result.completeExceptionally(cause);
+          } else {
+            result.completeWith(fallbackAsync(cause, argv));
+          }
+        });
+    return result;
+  }
+
+  private void release() {
+    if (bulkhead != null) {
+      bulkhead.release();
+    }
+  }
+
+  private Object notPermitted(CallNotPermittedException e, Object[] argv) throws Throwable {
+    if (!async) {
+      return fallback(e, argv);
+    }
+    if (fallbackFactory == null) {
+      CompletableFuture<Object> result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+      return result;
+    }
+    return fallbackAsync(e, argv);
+  }
+
+  private Object fallback(Throwable cause, Object[] argv) throws Throwable {
+    if (fallbackFactory == null) {
+      throw cause;
+    }
+    try {
+      return method.invoke(fallbackFactory.create(cause), argv);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private CompletableFuture<?> fallbackAsync(Throwable cause, Object[] argv) {
+    try {
+      return (CompletableFuture<?>) fallback(cause, argv);
+    } catch (Throwable e) {
+      CompletableFuture<Object> result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+      return result;
+    }
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    if ((throwable instanceof CompletionException || throwable instanceof ExecutionException)
+        && throwable.getCause() != null) {
+      return throwable.getCause();
+    }
+    return throwable;
+  }
+
+  /** The result of an async call, which cancels the call when cancelled. */
+  private static final class Completion extends CompletableFuture<Object> {
+
+    private final CompletableFuture<?> call;
+
+    Completion(CompletableFuture<?> call) {
+      this.call = call;
+    }
+
+    void completeWith(CompletableFuture<?> fallback) {
+      fallback.whenComplete(
+          (value, throwable) -> {
+            if (throwable != null) {
+              completeExceptionally(unwrap(throwable));
+            } else {
+              complete(value);
+            }
+          });
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean result = super.cancel(mayInterruptIfRunning);
+      call.cancel(mayInterruptIfRunning);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Util;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  private CircuitBreaker circuitBreaker() {
+    return CircuitBreaker.builder()
+        .slidingWindowSize(4)
+        .minimumNumberOfCalls(2)
+        .failureRateThreshold(50)
+        .permittedCallsInHalfOpenState(2)
+        .waitDurationInOpenState(1, TimeUnit.SECONDS)
+        .ticker(now::get)
+        .build("Api#call()");
+  }
+
+  private static FeignException status(int status) {
+    Request request =
+        Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, Util.UTF_8, null);
+    return FeignException.errorStatus(
+        "Api#call()",
+        feign.Response.builder()
+            .status(status)
+            .request(request)
+            .headers(Collections.emptyMap())
+            .build());
+  }
+
+  @Test
+  void opensOnceTheFailureRateIsReached() {
+    CircuitBreaker breaker = circuitBreaker();
+
+    breaker.tryAcquirePermission().onSuccess();
+    breaker.tryAcquirePermission().onSuccess();
+    breaker.tryAcquirePermission().onError(status(500));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.failureRate()).isEqualTo(100f / 3);
+
+    breaker.tryAcquirePermission().onError(status(503));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquirePermission().isPermitted()).isFalse();
+    assertThat(breaker.notPermittedCalls()).isEqualTo(1);
+  }
+
+  @Test
+  void slidingWindowForgetsOlderCalls() {
+    CircuitBreaker breaker = circuitBreaker();
+
+    breaker.tryAcquirePermission().onError(status(500));
+    for (int i = 0; i < 4; i++) {
+      breaker.tryAcquirePermission().onSuccess();
+    }
+
+    assertThat(breaker.failureRate()).isZero();
+  }
+
+  @Test
+  void clientErrorsAreNotFailures() {
+    CircuitBreaker breaker = circuitBreaker();
+
+    breaker.tryAcquirePermission().onError(status(404));
+    breaker.tryAcquirePermission().onError(status(400));
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.failureRate()).isZero();
+  }
+
+  @Test
+  void closesAfterSuccessfulTrialCalls() {
+    CircuitBreaker breaker = circuitBreaker();
+    breaker.tryAcquirePermission().onError(status(500));
+    breaker.tryAcquirePermission().onError(status(500));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    CircuitBreaker.Permission first = breaker.tryAcquirePermission();
+    assertThat(first.isPermitted()).isTrue();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    CircuitBreaker.Permission second = breaker.tryAcquirePermission();
+    assertThat(second.isPermitted()).isTrue();
+    assertThat(breaker.tryAcquirePermission().isPermitted()).isFalse();
+
+    first.onSuccess();
+    second.onSuccess();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.failureRate()).isEqualTo(-1);
+  }
+
+  @Test
+  void reopensOnFailedTrialCall() {
+    CircuitBreaker breaker = circuitBreaker();
+    breaker.tryAcquirePermission().onError(status(500));
+    breaker.tryAcquirePermission().onError(status(500));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    CircuitBreaker.Permission trial = breaker.tryAcquirePermission();
+    assertThat(trial.isPermitted()).isTrue();
+    trial.onError(status(500));
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquirePermission().isPermitted()).isFalse();
+  }
+
+  @Test
+  void callsStartedBeforeOpeningAreNotTrialCalls() {
+    CircuitBreaker breaker = circuitBreaker();
+    CircuitBreaker.Permission early = breaker.tryAcquirePermission();
+    breaker.tryAcquirePermission().onError(status(500));
+    breaker.tryAcquirePermission().onError(status(500));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    CircuitBreaker.Permission trial = breaker.tryAcquirePermission();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    early.onSuccess();
+    trial.onSuccess();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+    early.onError(status(500));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    breaker.tryAcquirePermission().onSuccess();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.mock.HttpMethod;
+import feign.mock.MockClient;
+import feign.mock.MockTarget;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ResilienceCapabilityTest {
+
+  interface Api {
+
+    @RequestLine("GET /items")
+    String items();
+
+    default String itemsOrNone() {
+      try {
+        return items();
+      } catch (CallNotPermittedException e) {
+        return "none";
+      }
+    }
+  }
+
+  interface AsyncApi {
+
+    @RequestLine("GET /items")
+    CompletableFuture<String> items();
+  }
+
+  private final MockClient mockClient = new MockClient();
+
+  private static CircuitBreaker.Builder circuitBreaker() {
+    return CircuitBreaker.builder()
+        .slidingWindowSize(10)
+        .minimumNumberOfCalls(2)
+        .waitDurationInOpenState(1, TimeUnit.MINUTES);
+  }
+
+  @Test
+  void openCircuitFailsFastWithoutSending() {
+    mockClient.add(HttpMethod.GET, "/items", 500);
+    ResilienceCapability resilience =
+        ResilienceCapability.builder().circuitBreaker(circuitBreaker()).build();
+    Api api =
+        Feign.builder()
+            .addCapability(resilience)
+            .client(mockClient)
+            .target(new MockTarget<>(Api.class));
+
+    assertThatExceptionOfType(FeignException.InternalServerError.class).isThrownBy(api::items);
+    assertThatExceptionOfType(FeignException.InternalServerError.class).isThrownBy(api::items);
+    assertThatExceptionOfType(CallNotPermittedException.class)
+        .isThrownBy(api::items)
+        .withMessageContaining("Api#items()");
+    assertThat(api.itemsOrNone()).isEqualTo("none");
+
+    mockClient.verifyTimes(HttpMethod.GET, "/items", 2);
+    assertThat(resilience.circuitBreaker("Api#items()").state())
+        .isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void fallbackFactoryReceivesTheCause() {
+    mockClient.add(HttpMethod.GET, "/items", 500);
+    AtomicReference<Throwable> cause = new AtomicReference<>();
+    FallbackFactory<Api> fallbackFactory =
+        throwable -> {
+          cause.set(throwable);
+          return () -> "fallback";
+        };
+    Api api =
+        Feign.builder()
+            .addCapability(
+                ResilienceCapability.builder()
+                    .circuitBreaker(circuitBreaker())
+                    .fallbackFactory(Api.class, fallbackFactory)
+                    .build())
+            .client(mockClient)
+            .target(new MockTarget<>(Api.class));
+
+    assertThat(api.items()).isEqualTo("fallback");
+    assertThat(cause.get()).isInstanceOf(FeignException.InternalServerError.class);
+    assertThat(api.items()).isEqualTo("fallback");
+    assertThat(api.items()).isEqualTo("fallback");
+    assertThat(cause.get()).isInstanceOf(CallNotPermittedException.class);
+  }
+
+  @Test
+  void successfulCallsAreReturned() {
+    mockClient.ok(HttpMethod.GET, "/items", "items");
+    Api api =
+        Feign.builder()
+            .addCapability(
+                ResilienceCapability.builder()
+                    .bulkhead(Bulkhead.builder().maxConcurrentCalls(1))
+                    .fallback(Api.class, () -> "fallback")
+                    .build())
+            .client(mockClient)
+            .target(new MockTarget<>(Api.class));
+
+    assertThat(api.items()).isEqualTo("items");
+    assertThat(api.items()).isEqualTo("items");
+  }
+
+  @Test
+  void asyncBulkheadRejectsWhenFull() throws Exception {
+    List<Request> requests = new CopyOnWriteArrayList<>();
+    List<CompletableFuture<Response>> sent = new CopyOnWriteArrayList<>();
+    AsyncClient<Object> client =
+        (request, options, requestContext) -> {
+          CompletableFuture<Response> future = new CompletableFuture<>();
+          requests.add(request);
+          sent.add(future);
+          return future;
+        };
+    ResilienceCapability resilience =
+        ResilienceCapability.builder().bulkhead(Bulkhead.builder().maxConcurrentCalls(1)).build();
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client(client)
+            .addCapability(resilience)
+            .target(AsyncApi.class, "http://localhost");
+
+    CompletableFuture<String> first = api.items();
+    assertThatExceptionOfType(CompletionException.class)
+        .isThrownBy(() -> api.items().join())
+        .withCauseInstanceOf(CallNotPermittedException.class);
+    assertThat(resilience.bulkhead("AsyncApi#items()").rejected()).isEqualTo(1);
+
+    sent.get(0)
+        .complete(
+            Response.builder()
+                .status(200)
+                .request(requests.get(0))
+                .body("items", Util.UTF_8)
+                .build());
+    assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("items");
+    assertThat(resilience.bulkhead("AsyncApi#items()").availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  void asyncFallback() throws Exception {
+    mockClient.add(HttpMethod.GET, "/items", 503);
+    ResilienceCapability resilience =
+        ResilienceCapability.builder()
+            .circuitBreaker(circuitBreaker())
+            .fallback(AsyncApi.class, () -> CompletableFuture.completedFuture("fallback"))
+            .build();
+    AsyncApi api =
+        AsyncFeign.builder()
+            .client(mockClient)
+            .addCapability(resilience)
+            .target(new MockTarget<>(AsyncApi.class));
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(api.items().get(1, TimeUnit.SECONDS)).isEqualTo("fallback");
+    }
+
+    mockClient.verifyTimes(HttpMethod.GET, "/items", 2);
+    assertThat(resilience.circuitBreaker("AsyncApi#items()").state())
+        .isEqualTo(CircuitBreaker.State.OPEN);
+  }
+}
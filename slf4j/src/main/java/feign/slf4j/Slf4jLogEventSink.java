@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.slf4j;
+
+import feign.Experimental;
+import feign.log.LogEvent;
+import feign.log.LogEventSink;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Writes {@link LogEvent}s drained by {@link feign.log.AsyncLogger} to SLF4J at the debug level.
+ * Request and response fields are attached as key-value pairs, so structured backends can index
+ * them without parsing the message.
+ */
+@Experimental
+public class Slf4jLogEventSink implements LogEventSink {
+
+  private final Logger logger;
+
+  public Slf4jLogEventSink() {
+    this(feign.Logger.class);
+  }
+
+  public Slf4jLogEventSink(Class<?> clazz) {
+    this(LoggerFactory.getLogger(clazz));
+  }
+
+  public Slf4jLogEventSink(String name) {
+    this(LoggerFactory.getLogger(name));
+  }
+
+  public Slf4jLogEventSink(Logger logger) {
+    this.logger = logger;
+  }
+
+  @Override
+  public void write(List<LogEvent> batch) {
+    if (!logger.isDebugEnabled()) {
+      return;
+    }
+    for (LogEvent event : batch) {
+      LoggingEventBuilder builder = logger.atDebug().addKeyValue("configKey", event.configKey());
+      if (event.method() != null) {
+        builder = builder.addKeyValue("method", event.method()).addKeyValue("url", event.url());
+      }
+      if (event.status() >= 0) {
+        builder = builder.addKeyValue("status", event.status());
+      }
+      if (event.elapsedMillis() >= 0) {
+        builder = builder.addKeyValue("elapsedMillis", event.elapsedMillis());
+      }
+      builder.log(event.toString());
+    }
+  }
+}
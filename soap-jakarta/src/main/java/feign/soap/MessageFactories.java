@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2012 The Feign Authors (feign@commonhaus.dev)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package feign.soap;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPConstants;
+import jakarta.xml.soap.SOAPException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one {@link MessageFactory} per SOAP protocol. Looking a factory up goes through the SAAJ
+ * service loader on every call, while the factories themselves keep no per-message state.
+ */
+final class MessageFactories {
+
+  private static final Map<String, MessageFactory> FACTORIES = new ConcurrentHashMap<>();
+
+  private MessageFactories() {}
+
+  static MessageFactory get(String soapProtocol) throws SOAPException {
+    MessageFactory factory = FACTORIES.get(soapProtocol);
+    if (factory == null) {
+      factory = MessageFactory.newInstance(soapProtocol);
+      MessageFactory existing = FACTORIES.putIfAbsent(soapProtocol, factory);
+      if (existing != null) {
+        factory = existing;
+      }
+    }
+    return factory;
+  }
+
+  /** The protocol of envelopes in the given namespace, for reading them into a message. */
+  static String protocolOf(String envelopeNamespace) {
+    return SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE.equals(envelopeNamespace)
+        ? SOAPConstants.SOAP_1_2_PROTOCOL
+        : SOAPConstants.SOAP_1_1_PROTOCOL;
+  }
+}
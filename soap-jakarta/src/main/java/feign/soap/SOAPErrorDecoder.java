@@ -15,8 +15,11 @@
  */
 package feign.soap;
 
+import static feign.Util.checkNotNull;
+
 import feign.Response;
 import feign.codec.DefaultErrorDecoder;
+import feign.codec.ErrorBodyCapture;
 import feign.codec.ErrorDecoder;
 import jakarta.xml.soap.*;
 import jakarta.xml.ws.soap.SOAPFaultException;
@@ -32,9 +35,10 @@ import java.io.IOException;
 public class SOAPErrorDecoder implements ErrorDecoder {
 
   private final String soapProtocol;
+  private final ErrorBodyCapture errorBodyCapture;
 
   public SOAPErrorDecoder() {
-    this.soapProtocol = SOAPConstants.DEFAULT_SOAP_PROTOCOL;
+    this(SOAPConstants.DEFAULT_SOAP_PROTOCOL);
   }
 
   /**
@@ -47,7 +51,20 @@ public class SOAPErrorDecoder implements ErrorDecoder {
    * @see MessageFactory#newInstance(String)
    */
   public SOAPErrorDecoder(String soapProtocol) {
+    this(soapProtocol, ErrorBodyCapture.DEFAULT);
+  }
+
+  /**
+   * SOAPErrorDecoder constructor allowing you to specify the SOAP protocol and how much of the
+   * error body is read. The fault is parsed from the captured prefix, so a limit smaller than the
+   * fault envelope falls back to the default {@link ErrorDecoder}.
+   *
+   * @param soapProtocol a string constant representing the MessageFactory protocol.
+   * @param errorBodyCapture how much of the error body to read into memory.
+   */
+  public SOAPErrorDecoder(String soapProtocol, ErrorBodyCapture errorBodyCapture) {
     this.soapProtocol = soapProtocol;
+    this.errorBodyCapture = checkNotNull(errorBodyCapture, "errorBodyCapture");
   }
 
   @Override
@@ -55,11 +72,11 @@ public class SOAPErrorDecoder implements ErrorDecoder {
     if (response.body() == null || response.status() == 503)
       return defaultErrorDecoder(methodKey, response);
 
+    response = errorBodyCapture.capture(response);
     SOAPMessage message;
     try {
       message =
-          MessageFactory.newInstance(soapProtocol)
-              .createMessage(null, response.body().asInputStream());
+          MessageFactories.get(soapProtocol).createMessage(null, response.body().asInputStream());
       if (message.getSOAPBody() != null && message.getSOAPBody().hasFault()) {
         return new SOAPFaultException(message.getSOAPBody().getFault());
       }
@@ -70,6 +87,6 @@ public class SOAPErrorDecoder implements ErrorDecoder {
   }
 
   private Exception defaultErrorDecoder(String methodKey, Response response) {
-    return new DefaultErrorDecoder().decode(methodKey, response);
+    return new DefaultErrorDecoder(null, null, errorBodyCapture).decode(methodKey, response);
   }
 }
@@ -25,17 +25,21 @@ import feign.Request.HttpMethod;
 import feign.RequestTemplate;
 import feign.Response;
 import feign.Util;
+import feign.codec.DecodeException;
 import feign.codec.Encoder;
 import feign.jaxb.JAXBContextFactory;
+import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlValue;
+import jakarta.xml.soap.SOAPConstants;
 import jakarta.xml.soap.SOAPElement;
 import jakarta.xml.soap.SOAPException;
 import jakarta.xml.soap.SOAPFactory;
 import jakarta.xml.soap.SOAPMessage;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
@@ -534,6 +538,178 @@ xmlns:xsd="http://www.w3.org/2001/XMLSchema">\
     }
   }
 
+  @Test
+  void streamingEncodesTheSameEnvelope() {
+    GetPrice mock = new GetPrice();
+    mock.item = new Item();
+    mock.item.value = "Apples";
+
+    for (String protocol :
+        new String[] {SOAPConstants.SOAP_1_1_PROTOCOL, SOAPConstants.SOAP_1_2_PROTOCOL}) {
+      RequestTemplate expected = new RequestTemplate();
+      new SOAPEncoder.Builder()
+          .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+          .withSOAPProtocol(protocol)
+          .build()
+          .encode(mock, GetPrice.class, expected);
+
+      RequestTemplate streamed = new RequestTemplate();
+      new SOAPEncoder.Builder()
+          .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+          .withSOAPProtocol(protocol)
+          .withStreaming(true)
+          .build()
+          .encode(mock, GetPrice.class, streamed);
+
+      assertThat(streamed).hasBody(expected.body());
+    }
+  }
+
+  @Test
+  void streamingEncodesWithoutXmlDeclaration() {
+    GetPrice mock = new GetPrice();
+    mock.item = new Item();
+    mock.item.value = "Apples";
+
+    RequestTemplate template = new RequestTemplate();
+    new SOAPEncoder.Builder()
+        .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+        .withWriteXmlDeclaration(false)
+        .withStreaming(true)
+        .build()
+        .encode(mock, GetPrice.class, template);
+
+    assertThat(template)
+        .hasBody(
+            """
+            <SOAP-ENV:Envelope xmlns:SOAP-ENV="http://schemas.xmlsoap.org/soap/envelope/">\
+            <SOAP-ENV:Header/>\
+            <SOAP-ENV:Body>\
+            <GetPrice>\
+            <Item>Apples</Item>\
+            </GetPrice>\
+            </SOAP-ENV:Body>\
+            </SOAP-ENV:Envelope>\
+            """);
+  }
+
+  @Test
+  void streamingWritesTheEnvelopeWhenSent() throws Exception {
+    GetPrice mock = new GetPrice();
+    mock.item = new Item();
+    mock.item.value = "Apples";
+    JAXBContextFactory jaxbFactory = new JAXBContextFactory.Builder().build();
+
+    RequestTemplate template = new RequestTemplate();
+    new SOAPEncoder.Builder()
+        .withJAXBContextFactory(jaxbFactory)
+        .withStreaming(true)
+        .build()
+        .encode(mock, GetPrice.class, template);
+
+    Request.Body body = template.requestBody();
+    assertThat(body.isStreaming()).isTrue();
+    assertThat(body.contentLength()).isEqualTo(-1);
+
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    body.writeTo(first);
+    ByteArrayOutputStream retried = new ByteArrayOutputStream();
+    body.writeTo(retried);
+    assertThat(retried.toByteArray()).isEqualTo(first.toByteArray());
+
+    // the marshaller went back to the pool without the fragment setting
+    Marshaller marshaller = jaxbFactory.acquireMarshaller(GetPrice.class);
+    assertThat(marshaller.getProperty(Marshaller.JAXB_FRAGMENT)).isEqualTo(false);
+  }
+
+  @Test
+  void streamingDecodesSoap() throws Exception {
+    GetPrice mock = new GetPrice();
+    mock.item = new Item();
+    mock.item.value = "Apples";
+
+    String mockSoapEnvelop =
+        """
+<?xml version="1.0" encoding="UTF-8" ?>\
+<SOAP-ENV:Envelope xmlns:SOAP-ENV="http://schemas.xmlsoap.org/soap/envelope/" \
+xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+  <SOAP-ENV:Header><Trace xmlns="urn:trace"><Id>1</Id></Trace></SOAP-ENV:Header>
+  <SOAP-ENV:Body>
+    <GetPrice><Item xsi:type="xsd:string">Apples</Item></GetPrice>
+  </SOAP-ENV:Body>
+</SOAP-ENV:Envelope>
+""";
+
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(
+                Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .body(mockSoapEnvelop, UTF_8)
+            .build();
+
+    SOAPDecoder decoder =
+        new SOAPDecoder.Builder()
+            .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+            .withStreaming(true)
+            .build();
+
+    assertThat(decoder.decode(response, GetPrice.class)).isEqualTo(mock);
+  }
+
+  @Test
+  void streamingDecodesEmptyBody() throws Exception {
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(
+                Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .body(
+                "<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\">"
+                    + "<env:Body/></env:Envelope>",
+                UTF_8)
+            .build();
+
+    SOAPDecoder decoder =
+        new SOAPDecoder.Builder()
+            .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+            .withSOAPProtocol(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+            .withStreaming(true)
+            .build();
+
+    assertThat(decoder.decode(response, GetPrice.class)).isNull();
+  }
+
+  @Test
+  void streamingRejectsOtherEnvelopeVersions() throws Exception {
+    Response response =
+        Response.builder()
+            .status(200)
+            .reason("OK")
+            .request(
+                Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+            .headers(Collections.emptyMap())
+            .body(
+                "<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\">"
+                    + "<env:Body/></env:Envelope>",
+                UTF_8)
+            .build();
+
+    SOAPDecoder decoder =
+        new SOAPDecoder.Builder()
+            .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+            .withStreaming(true)
+            .build();
+
+    Throwable exception =
+        assertThrows(DecodeException.class, () -> decoder.decode(response, GetPrice.class));
+    assertThat(exception.getMessage()).contains("Expected SOAP Envelope");
+  }
+
   @XmlRootElement(name = "GetPrice")
   @XmlAccessorType(XmlAccessType.FIELD)
   static class GetPrice {
@@ -67,6 +67,31 @@ class SOAPFaultDecoderTest {
     assertThat(exception.getMessage()).contains("Processing error");
   }
 
+  @Test
+  void streamingSoapDecoderThrowsSOAPFaultException() throws IOException {
+    for (String sample : new String[] {"SOAP_1_1_FAULT.xml", "SOAP_1_2_FAULT.xml"}) {
+      Response response =
+          Response.builder()
+              .status(200)
+              .reason("OK")
+              .request(
+                  Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null, Util.UTF_8))
+              .headers(Collections.emptyMap())
+              .body(getResourceBytes("/samples/" + sample))
+              .build();
+
+      SOAPDecoder decoder =
+          new SOAPDecoder.Builder()
+              .withSOAPProtocol(SOAPConstants.DYNAMIC_SOAP_PROTOCOL)
+              .withJAXBContextFactory(new JAXBContextFactory.Builder().build())
+              .withStreaming(true)
+              .build();
+      SOAPFaultException exception =
+          assertThrows(SOAPFaultException.class, () -> decoder.decode(response, Object.class));
+      assertThat(exception.getFault().getFaultString()).isNotEmpty();
+    }
+  }
+
   @Test
   void errorDecoderReturnsSOAPFaultException() throws IOException {
     Response response =
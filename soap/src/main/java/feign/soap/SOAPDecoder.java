@@ -15,6 +15,7 @@
  */
 package feign.soap;
 
+import feign.Experimental;
 import feign.Response;
 import feign.Util;
 import feign.codec.DecodeException;
@@ -30,7 +31,16 @@ import javax.xml.soap.MessageFactory;
 import javax.xml.soap.SOAPBody;
 import javax.xml.soap.SOAPConstants;
 import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPFault;
 import javax.xml.soap.SOAPMessage;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.stax.StAXSource;
 import javax.xml.ws.soap.SOAPFaultException;
 
 /**
@@ -77,6 +87,9 @@ import javax.xml.ws.soap.SOAPFaultException;
  * }
  * </pre>
  *
+ * <p>With {@link Builder#withStreaming(boolean)}, the envelope is read with StAX and the payload is
+ * unmarshalled straight from the stream instead of being loaded into a {@link SOAPMessage} first.
+ *
  * @see SOAPErrorDecoder
  * @see SOAPFaultException
  */
@@ -85,17 +98,28 @@ public class SOAPDecoder implements Decoder, PredicatedDecoder {
   private final JAXBContextFactory jaxbContextFactory;
   private final String soapProtocol;
   private final boolean useFirstChild;
+  private final XMLInputFactory xmlInputFactory;
 
   public SOAPDecoder(JAXBContextFactory jaxbContextFactory) {
     this.jaxbContextFactory = jaxbContextFactory;
     this.soapProtocol = SOAPConstants.DEFAULT_SOAP_PROTOCOL;
     this.useFirstChild = false;
+    this.xmlInputFactory = null;
   }
 
   private SOAPDecoder(Builder builder) {
     this.soapProtocol = builder.soapProtocol;
     this.jaxbContextFactory = builder.jaxbContextFactory;
     this.useFirstChild = builder.useFirstChild;
+    this.xmlInputFactory = builder.streaming ? newXMLInputFactory() : null;
+  }
+
+  private static XMLInputFactory newXMLInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
   }
 
   @Override
@@ -112,9 +136,11 @@ public class SOAPDecoder implements Decoder, PredicatedDecoder {
     }
 
     try {
+      if (xmlInputFactory != null) {
+        return decodeStreaming(response, (Class<?>) type);
+      }
       SOAPMessage message =
-          MessageFactory.newInstance(soapProtocol)
-              .createMessage(null, response.body().asInputStream());
+          MessageFactories.get(soapProtocol).createMessage(null, response.body().asInputStream());
       if (message.getSOAPBody() != null) {
         if (message.getSOAPBody().hasFault()) {
           throw new SOAPFaultException(message.getSOAPBody().getFault());
@@ -128,7 +154,7 @@ public class SOAPDecoder implements Decoder, PredicatedDecoder {
           return unmarshaller.unmarshal(message.getSOAPBody().extractContentAsDocument());
         }
       }
-    } catch (SOAPException | JAXBException e) {
+    } catch (SOAPException | JAXBException | XMLStreamException | TransformerException e) {
       throw new DecodeException(response.status(), e.toString(), response.request(), e);
     } finally {
       if (response.body() != null) {
@@ -138,10 +164,87 @@ public class SOAPDecoder implements Decoder, PredicatedDecoder {
     return Util.emptyValueOf(type);
   }
 
+  private Object decodeStreaming(Response response, Class<?> type)
+      throws IOException, XMLStreamException, JAXBException, SOAPException, TransformerException {
+    XMLStreamReader reader;
+    synchronized (xmlInputFactory) {
+      reader = xmlInputFactory.createXMLStreamReader(response.body().asInputStream());
+    }
+    try {
+      reader.nextTag();
+      String namespace;
+      if (SOAPConstants.DYNAMIC_SOAP_PROTOCOL.equals(soapProtocol)) {
+        namespace = reader.getNamespaceURI();
+      } else if (SOAPConstants.SOAP_1_2_PROTOCOL.equals(soapProtocol)) {
+        namespace = SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE;
+      } else {
+        namespace = SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE;
+      }
+      require(reader, namespace, "Envelope");
+      reader.nextTag();
+      if (isStartElement(reader, namespace, "Header")) {
+        skipElement(reader);
+        reader.nextTag();
+      }
+      require(reader, namespace, "Body");
+      if (reader.nextTag() == XMLStreamConstants.END_ELEMENT) {
+        return Util.emptyValueOf(type);
+      }
+      if (isStartElement(reader, namespace, "Fault")) {
+        throw new SOAPFaultException(readFault(reader, namespace));
+      }
+      Unmarshaller unmarshaller = jaxbContextFactory.acquireUnmarshaller(type);
+      Object result = unmarshaller.unmarshal(reader, type).getValue();
+      jaxbContextFactory.releaseUnmarshaller(type, unmarshaller);
+      return result;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static boolean isStartElement(XMLStreamReader reader, String namespace, String name) {
+    return reader.isStartElement()
+        && name.equals(reader.getLocalName())
+        && namespace.equals(reader.getNamespaceURI());
+  }
+
+  private static void require(XMLStreamReader reader, String namespace, String name)
+      throws XMLStreamException {
+    if (!isStartElement(reader, namespace, name)) {
+      throw new XMLStreamException(
+          "Expected SOAP " + name + " in " + namespace + " but found " + reader.getName(),
+          reader.getLocation());
+    }
+  }
+
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    for (int depth = 1; depth > 0; ) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  /** Faults are small and rare, so only they are read into a {@link SOAPMessage}. */
+  private static SOAPFault readFault(XMLStreamReader reader, String namespace)
+      throws SOAPException, TransformerException {
+    SOAPMessage message =
+        MessageFactories.get(MessageFactories.protocolOf(namespace)).createMessage();
+    SOAPBody body = message.getSOAPBody();
+    TransformerFactory.newInstance()
+        .newTransformer()
+        .transform(new StAXSource(reader), new DOMResult(body));
+    return body.getFault();
+  }
+
   public static class Builder {
     String soapProtocol = SOAPConstants.DEFAULT_SOAP_PROTOCOL;
     JAXBContextFactory jaxbContextFactory;
     boolean useFirstChild = false;
+    boolean streaming = false;
 
     public Builder withJAXBContextFactory(JAXBContextFactory jaxbContextFactory) {
       this.jaxbContextFactory = jaxbContextFactory;
@@ -173,6 +276,20 @@ public class SOAPDecoder implements Decoder, PredicatedDecoder {
       return this;
     }
 
+    /**
+     * Reads the envelope with StAX and unmarshals the body payload straight from the response
+     * stream, without building a {@link SOAPMessage}. Only faults are still read into one.
+     * Namespace declarations on the envelope stay in scope for the payload, so {@link
+     * #useFirstChild()} is not needed in this mode.
+     *
+     * @return the builder instance.
+     */
+    @Experimental
+    public Builder withStreaming(boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
     public SOAPDecoder build() {
       if (jaxbContextFactory == null) {
         throw new IllegalStateException("JAXBContextFactory must be non-null");
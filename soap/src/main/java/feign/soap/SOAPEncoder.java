@@ -15,6 +15,8 @@
  */
 package feign.soap;
 
+import feign.Experimental;
+import feign.Request;
 import feign.RequestTemplate;
 import feign.Util;
 import feign.codec.EncodeException;
@@ -23,6 +25,9 @@ import feign.codec.PredicatedEncoder;
 import feign.jaxb.JAXBContextFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -34,6 +39,9 @@ import javax.xml.soap.MessageFactory;
 import javax.xml.soap.SOAPConstants;
 import javax.xml.soap.SOAPException;
 import javax.xml.soap.SOAPMessage;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -83,6 +91,10 @@ import org.w3c.dom.Document;
  *
  * <p>The JAXBContextFactory should be reused across requests as it caches the created JAXB
  * contexts.
+ *
+ * <p>With {@link Builder#withStreaming(boolean)}, the envelope is written with StAX around the
+ * marshalled body instead of being built as a {@link SOAPMessage}, straight to the request stream
+ * when the request is sent.
  */
 public class SOAPEncoder implements Encoder, PredicatedEncoder {
 
@@ -93,6 +105,7 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
   private final Charset charsetEncoding;
   private final JAXBContextFactory jaxbContextFactory;
   private final String soapProtocol;
+  private final XMLOutputFactory xmlOutputFactory;
 
   public SOAPEncoder(Builder builder) {
     this.jaxbContextFactory = builder.jaxbContextFactory;
@@ -100,6 +113,7 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
     this.charsetEncoding = builder.charsetEncoding;
     this.soapProtocol = builder.soapProtocol;
     this.formattedOutput = builder.formattedOutput;
+    this.xmlOutputFactory = builder.streaming ? XMLOutputFactory.newInstance() : null;
   }
 
   public SOAPEncoder(JAXBContextFactory jaxbContextFactory) {
@@ -108,6 +122,7 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
     this.formattedOutput = false;
     this.charsetEncoding = StandardCharsets.UTF_8;
     this.soapProtocol = DEFAULT_SOAP_PROTOCOL;
+    this.xmlOutputFactory = null;
   }
 
   @Override
@@ -116,11 +131,15 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
       throw new UnsupportedOperationException(
           "SOAP only supports encoding raw types. Found " + bodyType);
     }
+    if (xmlOutputFactory != null) {
+      encodeStreaming(object, (Class<?>) bodyType, template);
+      return;
+    }
     try {
       Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
       Marshaller marshaller = jaxbContextFactory.createMarshaller((Class<?>) bodyType);
       marshaller.marshal(object, document);
-      SOAPMessage soapMessage = MessageFactory.newInstance(soapProtocol).createMessage();
+      SOAPMessage soapMessage = MessageFactories.get(soapProtocol).createMessage();
       soapMessage.setProperty(
           SOAPMessage.WRITE_XML_DECLARATION, Boolean.toString(writeXmlDeclaration));
       soapMessage.setProperty(SOAPMessage.CHARACTER_SET_ENCODING, charsetEncoding.displayName());
@@ -148,6 +167,73 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
     }
   }
 
+  private void encodeStreaming(Object object, Class<?> bodyType, RequestTemplate template) {
+    template.body(new StreamingEnvelope(object, bodyType));
+  }
+
+  /**
+   * Writes the envelope with StAX around the marshalled body, straight to the request stream, each
+   * time the request is sent. Its length is unknown, so it is sent in chunks.
+   */
+  private final class StreamingEnvelope implements Request.Body.Content {
+
+    private final Object object;
+    private final Class<?> bodyType;
+
+    StreamingEnvelope(Object object, Class<?> bodyType) {
+      this.object = object;
+      this.bodyType = bodyType;
+    }
+
+    @Override
+    public long length() {
+      return -1;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      String prefix;
+      String namespace;
+      if (SOAPConstants.SOAP_1_2_PROTOCOL.equals(soapProtocol)) {
+        prefix = "env";
+        namespace = SOAPConstants.URI_NS_SOAP_1_2_ENVELOPE;
+      } else {
+        prefix = "SOAP-ENV";
+        namespace = SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE;
+      }
+      try {
+        Marshaller marshaller = jaxbContextFactory.acquireMarshaller(bodyType);
+        Object fragment = marshaller.getProperty(Marshaller.JAXB_FRAGMENT);
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+        Writer encoded = new OutputStreamWriter(out, charsetEncoding);
+        if (writeXmlDeclaration) {
+          encoded.write(
+              "<?xml version=\"1.0\" encoding=\"" + charsetEncoding.displayName() + "\" ?>");
+        }
+        XMLStreamWriter writer;
+        synchronized (xmlOutputFactory) {
+          writer = xmlOutputFactory.createXMLStreamWriter(encoded);
+        }
+        writer.writeStartElement(prefix, "Envelope", namespace);
+        writer.writeNamespace(prefix, namespace);
+        writer.writeEmptyElement(prefix, "Header", namespace);
+        writer.writeStartElement(prefix, "Body", namespace);
+        marshaller.marshal(object, writer);
+        writer.writeEndElement();
+        writer.writeEndElement();
+        // leaves the request stream open, as the client closes it
+        writer.close();
+        encoded.flush();
+
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+        jaxbContextFactory.releaseMarshaller(bodyType, marshaller);
+      } catch (JAXBException | XMLStreamException e) {
+        throw new EncodeException(e.toString(), e);
+      }
+    }
+  }
+
   /**
    * Override this in order to modify the SOAP message object before it's finally encoded. <br>
    * This might be useful to add SOAP Headers, which are not supported by this SOAPEncoder directly.
@@ -165,7 +251,7 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
    *     soapMessage.getSOAPHeader().addChildElement(security);
    *     return soapMessage;
    *   }
-   * </code>
+   * </code> It is not called when {@link Builder#withStreaming(boolean) streaming}.
    */
   protected SOAPMessage modifySOAPMessage(SOAPMessage soapMessage) throws SOAPException {
     // Intentionally blank
@@ -180,6 +266,7 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
     private boolean writeXmlDeclaration = true;
     private Charset charsetEncoding = StandardCharsets.UTF_8;
     private String soapProtocol = DEFAULT_SOAP_PROTOCOL;
+    private boolean streaming = false;
 
     /** The {@link JAXBContextFactory} for body part. */
     public Builder withJAXBContextFactory(JAXBContextFactory jaxbContextFactory) {
@@ -219,6 +306,20 @@ public class SOAPEncoder implements Encoder, PredicatedEncoder {
       return this;
     }
 
+    /**
+     * Writes the envelope with StAX and marshals the body straight into it, without building a
+     * {@link SOAPMessage} or a DOM document. The body is written when the request is sent, with
+     * chunked transfer encoding, and errors marshalling it are raised then. The output is never
+     * formatted in this mode, and {@link SOAPEncoder#modifySOAPMessage(SOAPMessage)} is not called.
+     *
+     * @return the builder instance.
+     */
+    @Experimental
+    public Builder withStreaming(boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
     public SOAPEncoder build() {
       if (jaxbContextFactory == null) {
         throw new IllegalStateException("JAXBContextFactory must be non-null");